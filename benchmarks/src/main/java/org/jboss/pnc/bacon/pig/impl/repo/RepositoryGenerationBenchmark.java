@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import org.jboss.pnc.bacon.pig.impl.config.RepoGenerationData;
+import org.jboss.pnc.bacon.pig.impl.pnc.ArtifactWrapper;
+import org.jboss.pnc.bacon.pig.impl.utils.FileUtils;
+import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the steps of the maven repository generation, run against a {@link SyntheticRepository} of
+ * {@link RepositoryState#gavs} GAVs. Each benchmark is measured both for throughput and for the distribution of the
+ * time of a single operation, which includes the p99. Run with {@link BenchmarkRunner} to also get the allocation
+ * rate.
+ * <p>
+ * The download done by {@link RepoManager} is not measured, it depends on the network. {@link #filterArtifacts}
+ * measures the part of it deciding what to download.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class RepositoryGenerationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RepositoryState {
+        @Param({ "1000", "10000", "50000" })
+        int gavs;
+
+        @Param({ "32" })
+        int medianJarKb;
+
+        SyntheticRepository repository;
+        File root;
+        List<ArtifactWrapper> artifacts;
+        RepoGenerationData generationData;
+        List<String> excludedArtifacts;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            repository = SyntheticRepository.generate(gavs, medianJarKb);
+            root = repository.getRoot().toFile();
+            artifacts = repository.artifacts();
+
+            // exclusions of the kinds found in product configurations: exact GAVs, whole groups, artifact id patterns
+            String group = SyntheticRepository.GROUP_PREFIX;
+            excludedArtifacts = List.of(
+                    group + "0:.*:jar:.*",
+                    group + "1:artifact-1.*:jar:.*",
+                    ".*:.*-tests:jar:.*",
+                    ".*:.*:zip:.*",
+                    group + "2:" + SyntheticRepository.artifactId(2) + ":jar:" + SyntheticRepository.version(2));
+            generationData = new RepoGenerationData();
+            generationData.setExcludeArtifacts(excludedArtifacts);
+            generationData.setIncludeJavadoc(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() {
+            repository.delete();
+        }
+    }
+
+    /**
+     * Removes the checksums before every invocation, {@link RepositoryUtils#addCheckSums} skips the up-to-date ones
+     */
+    @State(Scope.Benchmark)
+    public static class WithoutChecksums {
+        @Setup(Level.Invocation)
+        public void deleteChecksums(RepositoryState state) {
+            for (String extension : RepoDescriptor.CHECKSUM_EXTENSIONS) {
+                state.repository.deleteFiles(extension);
+            }
+        }
+    }
+
+    /**
+     * Restores the artifacts removed by the previous invocation of {@link #removeExcludedArtifacts}
+     */
+    @State(Scope.Benchmark)
+    public static class WithExcludedArtifacts {
+        @Setup(Level.Invocation)
+        public void restoreExcludedJars(RepositoryState state) {
+            SyntheticRepository repository = state.repository;
+            for (int gav = 0; gav < repository.getGavs(); gav++) {
+                int group = gav % repository.getGroups();
+                if (group == 0 || group == 1 || gav == 2) {
+                    repository.restoreJars(gav);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ZipOutput {
+        File zip;
+
+        @Setup(Level.Trial)
+        public void createFile() throws IOException {
+            zip = Files.createTempFile("bacon-benchmark-repository", ".zip").toFile();
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteFile() throws IOException {
+            Files.deleteIfExists(zip.toPath());
+        }
+    }
+
+    @Benchmark
+    public Set<GAV> filterArtifacts(RepositoryState state) {
+        // filtering removes the artifacts from the list it gets
+        return RepoManager.filterArtifacts(new ArrayList<>(state.artifacts), state.generationData);
+    }
+
+    @Benchmark
+    public void generateMavenMetadata(RepositoryState state) {
+        RepositoryUtils.generateMavenMetadata(state.root);
+    }
+
+    @Benchmark
+    public void addCheckSums(RepositoryState state, WithoutChecksums checksums) {
+        RepositoryUtils.addCheckSums(state.root, state.generationData.getChecksumThreads());
+    }
+
+    @Benchmark
+    public void removeExcludedArtifacts(RepositoryState state, WithExcludedArtifacts excluded) {
+        RepositoryUtils.removeExcludedArtifacts(state.root, state.excludedArtifacts);
+    }
+
+    @Benchmark
+    public void addParentPoms(RepositoryState state) {
+        ParentPomDownloader.addParentPoms(state.root.toPath());
+    }
+
+    @Benchmark
+    public Collection<String> zip(RepositoryState state, ZipOutput output) {
+        return FileUtils.zip(output.zip, state.root.getParentFile(), state.root);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import org.jboss.pnc.bacon.pig.impl.pnc.ArtifactWrapper;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.TargetRepository;
+import org.jboss.pnc.enums.RepositoryType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * A Maven repository of generated artifacts, laid out like the ones the repository generation produces. Every GAV has
+ * a pom, a jar and a sources jar. The poms share a product parent pom, so that
+ * {@link ParentPomDownloader#addParentPoms(Path)} finds all the parents locally and never downloads anything.
+ * <p>
+ * Jar sizes follow a log-normal distribution around the given median, which is close to the sizes seen in product
+ * repositories: most jars are small, a few are several megabytes. The content of the jars is random, none of the
+ * benchmarked code opens them. The same size and seed always produce the same repository.
+ */
+final class SyntheticRepository {
+    static final String GROUP_PREFIX = "org.acme.group";
+    static final String PARENT_GROUP_ID = "org.acme";
+    static final String PARENT_ARTIFACT_ID = "acme-parent";
+    static final String PARENT_VERSION = "1.0.0.redhat-00001";
+
+    private static final int GAVS_PER_GROUP = 50;
+    private static final int MAX_JAR_SIZE = 8 * 1024 * 1024;
+    private static final long SEED = 42;
+
+    private final Path root;
+    private final int gavs;
+    private final int medianJarSize;
+    private final int groups;
+
+    private SyntheticRepository(Path root, int gavs, int medianJarSize) {
+        this.root = root;
+        this.gavs = gavs;
+        this.medianJarSize = medianJarSize;
+        this.groups = Math.max(1, gavs / GAVS_PER_GROUP);
+    }
+
+    /**
+     * @param gavs number of GAVs to generate
+     * @param medianJarKb median size of the jars in kilobytes
+     * @return the generated repository in a new temporary directory
+     */
+    static SyntheticRepository generate(int gavs, int medianJarKb) {
+        try {
+            SyntheticRepository repository = new SyntheticRepository(
+                    Files.createTempDirectory("bacon-benchmark-repository"),
+                    gavs,
+                    medianJarKb * 1024);
+            repository.writeParent();
+            Random random = new Random(SEED);
+            for (int i = 0; i < gavs; i++) {
+                repository.writeGav(i, random);
+            }
+            return repository;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate the synthetic repository", e);
+        }
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    int getGavs() {
+        return gavs;
+    }
+
+    int getGroups() {
+        return groups;
+    }
+
+    String groupId(int gav) {
+        return GROUP_PREFIX + (gav % groups);
+    }
+
+    static String artifactId(int gav) {
+        return "artifact-" + gav;
+    }
+
+    /**
+     * Every tenth GAV is a community one, the rest are productized
+     */
+    static String version(int gav) {
+        return gav % 10 == 9 ? "1." + (gav % 7) + ".0" : "1." + (gav % 7) + ".0.redhat-0000" + (gav % 3 + 1);
+    }
+
+    /**
+     * @return the artifacts of the GAVs like the builds of a product list them: a jar and a pom for every GAV, a sources
+     *         jar for every other one
+     */
+    List<ArtifactWrapper> artifacts() {
+        TargetRepository repository = TargetRepository.refBuilder()
+                .identifier("indy-maven")
+                .repositoryType(RepositoryType.MAVEN)
+                .build();
+        List<ArtifactWrapper> artifacts = new ArrayList<>(gavs * 3);
+        for (int i = 0; i < gavs; i++) {
+            String gav = groupId(i) + ":" + artifactId(i);
+            String version = version(i);
+            artifacts.add(artifact(repository, gav + ":jar:" + version, i));
+            artifacts.add(artifact(repository, gav + ":pom:" + version, i));
+            if (i % 2 == 0) {
+                artifacts.add(artifact(repository, gav + ":jar:" + version + ":sources", i));
+            }
+        }
+        return artifacts;
+    }
+
+    private static ArtifactWrapper artifact(TargetRepository repository, String identifier, int gav) {
+        return new ArtifactWrapper(
+                Artifact.builder()
+                        .id(String.valueOf(gav))
+                        .identifier(identifier)
+                        .targetRepository(repository)
+                        .md5("md5-" + gav)
+                        .sha1("sha1-" + gav)
+                        .sha256("sha256-" + gav)
+                        .build());
+    }
+
+    /**
+     * Writes the jars of the GAV again, e.g. after a benchmark removed them
+     *
+     * @param gav index of the GAV
+     */
+    void restoreJars(int gav) {
+        try {
+            Path dir = gavDir(gav);
+            Files.createDirectories(dir);
+            writeJars(dir, gav, new Random(SEED + gav));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to restore the jars of " + gav, e);
+        }
+    }
+
+    /**
+     * Deletes the files with the given extension, e.g. the checksums generated by a previous benchmark invocation
+     *
+     * @param extension file extension
+     */
+    void deleteFiles(String extension) {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(f -> f.toString().endsWith(extension)).forEach(SyntheticRepository::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + extension + " files", e);
+        }
+    }
+
+    void delete() {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(SyntheticRepository::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + root, e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + path, e);
+        }
+    }
+
+    private void writeParent() throws IOException {
+        Path dir = root.resolve(PARENT_GROUP_ID.replace('.', '/'))
+                .resolve(PARENT_ARTIFACT_ID)
+                .resolve(PARENT_VERSION);
+        Files.createDirectories(dir);
+        StringBuilder pom = new StringBuilder(512);
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project>\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n")
+                .append("  <parent>\n")
+                .append("    <groupId>org.jboss</groupId>\n")
+                .append("    <artifactId>jboss-parent</artifactId>\n")
+                .append("    <version>39</version>\n")
+                .append("  </parent>\n")
+                .append("  <groupId>" + PARENT_GROUP_ID + "</groupId>\n")
+                .append("  <artifactId>" + PARENT_ARTIFACT_ID + "</artifactId>\n")
+                .append("  <version>" + PARENT_VERSION + "</version>\n")
+                .append("  <packaging>pom</packaging>\n")
+                .append("</project>\n");
+        Files.writeString(dir.resolve(PARENT_ARTIFACT_ID + "-" + PARENT_VERSION + ".pom"), pom);
+    }
+
+    private void writeGav(int gav, Random random) throws IOException {
+        Path dir = gavDir(gav);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(fileName(gav, ".pom")), pom(gav).getBytes(StandardCharsets.UTF_8));
+
+        writeJars(dir, gav, random);
+    }
+
+    private void writeJars(Path dir, int gav, Random random) throws IOException {
+        int jarSize = jarSize(random);
+        writeRandom(dir.resolve(fileName(gav, ".jar")), jarSize, random);
+        writeRandom(dir.resolve(fileName(gav, "-sources.jar")), Math.max(1024, jarSize / 2), random);
+    }
+
+    private String pom(int gav) {
+        StringBuilder pom = new StringBuilder(1024);
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project>\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n")
+                .append("  <parent>\n")
+                .append("    <groupId>" + PARENT_GROUP_ID + "</groupId>\n")
+                .append("    <artifactId>" + PARENT_ARTIFACT_ID + "</artifactId>\n")
+                .append("    <version>" + PARENT_VERSION + "</version>\n")
+                .append("  </parent>\n")
+                .append("  <groupId>")
+                .append(groupId(gav))
+                .append("</groupId>\n")
+                .append("  <artifactId>")
+                .append(artifactId(gav))
+                .append("</artifactId>\n")
+                .append("  <version>")
+                .append(version(gav))
+                .append("</version>\n")
+                .append("  <dependencies>\n");
+        // a few dependencies on the preceding GAVs, like modules of a multi-module project
+        for (int dependency = Math.max(0, gav - 3); dependency < gav; dependency++) {
+            pom.append("    <dependency>\n")
+                    .append("      <groupId>")
+                    .append(groupId(dependency))
+                    .append("</groupId>\n")
+                    .append("      <artifactId>")
+                    .append(artifactId(dependency))
+                    .append("</artifactId>\n")
+                    .append("      <version>")
+                    .append(version(dependency))
+                    .append("</version>\n")
+                    .append("    </dependency>\n");
+        }
+        return pom.append("  </dependencies>\n").append("</project>\n").toString();
+    }
+
+    private int jarSize(Random random) {
+        double size = Math.exp(Math.log(medianJarSize) + random.nextGaussian());
+        return (int) Math.min(MAX_JAR_SIZE, Math.max(1024, size));
+    }
+
+    private static void writeRandom(Path file, int size, Random random) throws IOException {
+        byte[] buffer = new byte[Math.min(size, 64 * 1024)];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int written = 0; written < size; written += buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, Math.min(buffer.length, size - written));
+            }
+        }
+    }
+
+    private Path gavDir(int gav) {
+        return root.resolve(groupId(gav).replace('.', '/')).resolve(artifactId(gav)).resolve(version(gav));
+    }
+
+    private static String fileName(int gav, String suffix) {
+        return artifactId(gav) + "-" + version(gav) + suffix;
+    }
+}
@@ -23,14 +23,21 @@ import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.ConsoleAppender;
 import com.redhat.resilience.otel.OTelCLIHelper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporter;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import io.opentelemetry.sdk.resources.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.fusesource.jansi.AnsiConsole;
 import org.jboss.bacon.da.Da;
 import org.jboss.bacon.experimental.Experimental;
 import org.jboss.pnc.bacon.common.Constant;
 import org.jboss.pnc.bacon.common.ObjectHelper;
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.jboss.pnc.bacon.common.cli.VersionProvider;
 import org.jboss.pnc.bacon.common.exception.FatalException;
 import org.jboss.pnc.bacon.config.Config;
@@ -143,6 +150,8 @@ public class App {
             scope = INHERIT)
     private boolean nocolor;
 
+    private SdkMeterProvider meterProvider;
+
     public int run(String[] args) {
 
         CommandLine commandLine = new CommandLine(this);
@@ -212,7 +221,7 @@ public class App {
             try {
                 return commandLine.setExecutionStrategy(this::executionStrategy).execute(args);
             } finally {
-                OTelCLIHelper.stopOTel();
+                stopTelemetry();
             }
         }
     }
@@ -271,6 +280,27 @@ public class App {
                     OTelCLIHelper.defaultSpanProcessor(OTelCLIHelper.defaultSpanExporter(endpoint)));
             SpanContext current = Span.current().getSpanContext();
             MDCUtils.addMDCFromOtelHeadersWithFallback(null, current, true);
+
+            Resource resource = Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), service));
+            meterProvider = SdkMeterProvider.builder()
+                    .setResource(Resource.getDefault().merge(resource))
+                    .registerMetricReader(
+                            PeriodicMetricReader.builder(OtlpGrpcMetricExporter.builder().setEndpoint(endpoint).build())
+                                    .build())
+                    .build();
+            Telemetry.setMeterProvider(meterProvider);
+        }
+    }
+
+    private void stopTelemetry() {
+        OTelCLIHelper.stopOTel();
+        if (meterProvider != null) {
+            // flushes the metrics not exported yet
+            meterProvider.close();
+        }
+        String summaryFile = System.getenv(Constant.TELEMETRY_SUMMARY_ENV);
+        if (summaryFile != null) {
+            Telemetry.writeSummary(Paths.get(summaryFile));
         }
     }
 
@@ -13,6 +13,8 @@ public class Constant {
 
     public static final String PIG_CONTEXT_DIR = "PIG_CONTEXT_DIR";
 
+    public static final String TELEMETRY_SUMMARY_ENV = "BACON_TELEMETRY_SUMMARY";
+
     public static final String CACHE_FILE = "saved-user.json";
 
     public static final String EXAMPLE_TEXT = "%n@|bold Example:|@%n";
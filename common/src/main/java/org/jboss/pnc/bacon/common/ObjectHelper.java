@@ -3,18 +3,27 @@ package org.jboss.pnc.bacon.common;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import java.io.IOException;
+import java.util.Iterator;
+
 public class ObjectHelper {
 
     public static Level LOG_LEVEL_SILENT = Level.ERROR;
 
-    private static ObjectMapper getOutputMapper(boolean json) {
+    private static final ObjectMapper JSON_MAPPER = createOutputMapper(true);
+    private static final ObjectMapper YAML_MAPPER = createOutputMapper(false);
+
+    private static ObjectMapper createOutputMapper(boolean json) {
         ObjectMapper om = json ? new ObjectMapper(new JsonFactory())
                 : new ObjectMapper(new YAMLFactory().configure(YAMLGenerator.Feature.USE_PLATFORM_LINE_BREAKS, true));
         om.registerModule(new JavaTimeModule());
@@ -22,6 +31,10 @@ public class ObjectHelper {
         return om;
     }
 
+    private static ObjectMapper getOutputMapper(boolean json) {
+        return json ? JSON_MAPPER : YAML_MAPPER;
+    }
+
     /**
      * Print the object in YAML format by default, unless the json parameter is set to true
      *
@@ -32,11 +45,63 @@ public class ObjectHelper {
      * @throws JsonProcessingException
      */
     public static void print(boolean json, Object o) throws JsonProcessingException {
-        if (!getLogger(Logger.ROOT_LOGGER_NAME).getLevel().isGreaterOrEqual(LOG_LEVEL_SILENT)) {
+        if (!isSilent()) {
             System.out.println(getOutputMapper(json).writeValueAsString(o));
         }
     }
 
+    /**
+     * Print the items as a YAML sequence by default, or as a JSON array if the json parameter is set to true. Each item
+     * is written as soon as the iterator returns it, the output is the same as the one of {@link #print} for a list of
+     * the items.
+     *
+     * If the root logger is set to LOG_LEVEL_SILENT or more, nothing is printed and the items are not iterated
+     *
+     * @param json whether to print JSON instead of YAML
+     * @param items items to print
+     * @throws IOException
+     */
+    public static void printSequence(boolean json, Iterator<?> items) throws IOException {
+        if (isSilent()) {
+            return;
+        }
+        try (SequenceWriter writer = sequenceWriter(getOutputMapper(json).writer()).init(true)) {
+            while (items.hasNext()) {
+                writer.write(items.next());
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Print the items as JSON, one item per line, each as soon as the iterator returns it
+     *
+     * If the root logger is set to LOG_LEVEL_SILENT or more, nothing is printed and the items are not iterated
+     *
+     * @param items items to print
+     * @throws IOException
+     */
+    public static void printLines(Iterator<?> items) throws IOException {
+        if (isSilent()) {
+            return;
+        }
+        try (SequenceWriter writer = sequenceWriter(JSON_MAPPER.writer().withRootValueSeparator("\n"))) {
+            while (items.hasNext()) {
+                writer.write(items.next());
+            }
+        }
+        System.out.println();
+    }
+
+    private static SequenceWriter sequenceWriter(ObjectWriter writer) throws IOException {
+        // System.out must stay open
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(System.out);
+    }
+
+    private static boolean isSilent() {
+        return getLogger(Logger.ROOT_LOGGER_NAME).getLevel().isGreaterOrEqual(LOG_LEVEL_SILENT);
+    }
+
     public static void setRootLoggingLevel(Level level) {
         ch.qos.logback.classic.Logger root = getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
         root.setLevel(level);
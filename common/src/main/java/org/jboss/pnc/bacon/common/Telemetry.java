@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Spans and metrics of the pig stages and of the calls to the remote services (PNC, Indy, DA, MRRC, Koji, ...).
+ * <p>
+ * Every {@link Call} is a span, a child of the current one, and is recorded by the metrics {@code bacon.calls},
+ * {@code bacon.call.duration} (milliseconds), {@code bacon.bytes} and {@code bacon.retries}, with the
+ * {@code bacon.component} and {@code bacon.operation} attributes. The spans go wherever OpenTelemetry is configured to
+ * send them, the metrics to the meter provider set by {@link #setMeterProvider}. Both are no-ops by default.
+ * <p>
+ * Independently of OpenTelemetry, a summary of the calls is kept in memory and can be written as JSON at the end of the
+ * run, see {@link #writeSummary}.
+ */
+public final class Telemetry {
+    private static final Logger log = LoggerFactory.getLogger(Telemetry.class);
+
+    private static final String INSTRUMENTATION_SCOPE = "org.jboss.pnc.bacon";
+    private static final AttributeKey<String> COMPONENT = AttributeKey.stringKey("bacon.component");
+    private static final AttributeKey<String> OPERATION = AttributeKey.stringKey("bacon.operation");
+    private static final AttributeKey<Boolean> FAILED = AttributeKey.booleanKey("bacon.failed");
+    private static final AttributeKey<Long> BYTES = AttributeKey.longKey("bacon.bytes");
+    private static final AttributeKey<Long> RETRIES = AttributeKey.longKey("bacon.retries");
+
+    private static volatile Instruments instruments = new Instruments(MeterProvider.noop());
+
+    private static final Map<String, Stats> summary = new ConcurrentHashMap<>();
+
+    private Telemetry() {
+    }
+
+    /**
+     * @param meterProvider provider of the meters the metrics are recorded to from now on
+     */
+    public static void setMeterProvider(MeterProvider meterProvider) {
+        instruments = new Instruments(meterProvider);
+    }
+
+    /**
+     * Start a call, the caller has to {@link Call#close() close} it, preferably with try-with-resources. The span of
+     * the call is not made current, see {@link #run} and {@link #call} for that.
+     *
+     * @param component the service or part of bacon doing the work, e.g. {@code pnc} or {@code pig}
+     * @param operation what is done, e.g. the name of the stage or of the REST endpoint
+     * @return the started call
+     */
+    public static Call start(String component, String operation) {
+        return new Call(component, operation);
+    }
+
+    /**
+     * Run the action as a call, with its span current so that the calls made by the action are its children
+     */
+    public static void run(String component, String operation, Runnable action) {
+        call(component, operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Get the result of the action as a call, with its span current so that the calls made by the action are its
+     * children
+     */
+    public static <T> T call(String component, String operation, Supplier<T> action) {
+        try (Call call = start(component, operation); Scope ignored = call.span.makeCurrent()) {
+            try {
+                return action.get();
+            } catch (RuntimeException | Error e) {
+                call.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return summary of the calls finished so far, per component and operation, the slowest first
+     */
+    public static List<CallSummary> getSummary() {
+        return summary.entrySet()
+                .stream()
+                .map(entry -> entry.getValue().toSummary(entry.getKey()))
+                .sorted(Comparator.comparingLong(CallSummary::getTotalMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Write the summary of the calls as JSON
+     *
+     * @param file the file to write the summary to
+     */
+    public static void writeSummary(Path file) {
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), getSummary());
+            log.debug("Telemetry summary written to {}", file);
+        } catch (IOException e) {
+            log.warn("Failed to write the telemetry summary to {}: {}", file, e.getMessage());
+        }
+    }
+
+    static void resetSummary() {
+        summary.clear();
+    }
+
+    /**
+     * A timed unit of work, e.g. a pig stage or a REST call. Not thread-safe, a call is expected to be done by a single
+     * thread.
+     */
+    public static final class Call implements AutoCloseable {
+        private final String component;
+        private final String operation;
+        private final Span span;
+        private final long start = System.nanoTime();
+        private long bytes;
+        private long retries;
+        private boolean failed;
+        private boolean closed;
+
+        private Call(String component, String operation) {
+            this.component = component;
+            this.operation = operation;
+            span = GlobalOpenTelemetry.getTracer(INSTRUMENTATION_SCOPE)
+                    .spanBuilder(component + " " + operation)
+                    .setAttribute(COMPONENT, component)
+                    .setAttribute(OPERATION, operation)
+                    .startSpan();
+        }
+
+        /**
+         * @param count number of bytes sent or received by the call
+         */
+        public Call bytes(long count) {
+            bytes += count;
+            return this;
+        }
+
+        public Call retry() {
+            retries++;
+            span.addEvent("retry");
+            return this;
+        }
+
+        public Call failed(Throwable failure) {
+            failed = true;
+            span.recordException(failure);
+            span.setStatus(StatusCode.ERROR);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long nanos = System.nanoTime() - start;
+            Attributes attributes = Attributes.of(COMPONENT, component, OPERATION, operation, FAILED, failed);
+            Instruments current = instruments;
+            current.calls.add(1, attributes);
+            current.duration.record(nanos / 1_000_000.0, attributes);
+            if (bytes > 0) {
+                current.bytes.add(bytes, attributes);
+                span.setAttribute(BYTES, bytes);
+            }
+            if (retries > 0) {
+                current.retries.add(retries, attributes);
+                span.setAttribute(RETRIES, retries);
+            }
+            span.end();
+
+            summary.computeIfAbsent(component + " " + operation, key -> new Stats()).add(nanos, bytes, retries, failed);
+        }
+    }
+
+    @Getter
+    public static final class CallSummary {
+        private final String call;
+        private final long count;
+        private final long failures;
+        private final long retries;
+        private final long bytes;
+        private final long totalMillis;
+        private final long maxMillis;
+
+        private CallSummary(Stats stats, String call) {
+            this.call = call;
+            count = stats.count.sum();
+            failures = stats.failures.sum();
+            retries = stats.retries.sum();
+            bytes = stats.bytes.sum();
+            totalMillis = stats.totalNanos.sum() / 1_000_000;
+            maxMillis = stats.maxNanos.get() / 1_000_000;
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void add(long nanos, long bytes, long retries, boolean failed) {
+            count.increment();
+            if (failed) {
+                failures.increment();
+            }
+            this.retries.add(retries);
+            this.bytes.add(bytes);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private CallSummary toSummary(String call) {
+            return new CallSummary(this, call);
+        }
+    }
+
+    private static final class Instruments {
+        private final LongCounter calls;
+        private final DoubleHistogram duration;
+        private final LongCounter bytes;
+        private final LongCounter retries;
+
+        private Instruments(MeterProvider meterProvider) {
+            Meter meter = meterProvider.get(INSTRUMENTATION_SCOPE);
+            calls = meter.counterBuilder("bacon.calls").setDescription("Number of calls").build();
+            duration = meter.histogramBuilder("bacon.call.duration")
+                    .setDescription("Duration of the calls")
+                    .setUnit("ms")
+                    .build();
+            bytes = meter.counterBuilder("bacon.bytes")
+                    .setDescription("Bytes transferred by the calls")
+                    .setUnit("By")
+                    .build();
+            retries = meter.counterBuilder("bacon.retries").setDescription("Retries of the calls").build();
+        }
+    }
+}
@@ -17,7 +17,6 @@
  */
 package org.jboss.pnc.bacon.common.cli;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.jboss.pnc.bacon.common.ObjectHelper;
 import org.jboss.pnc.bacon.common.exception.FatalException;
@@ -25,39 +24,95 @@ import org.jboss.pnc.client.ClientException;
 import org.jboss.pnc.client.RemoteResourceException;
 import picocli.CommandLine.Option;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
  * Class used to provide a default implementation for List* type commands.
  *
- * The subclass only needs to implement the 'getAll' method to teach it how to retrieve all the contents
+ * The subclass only needs to implement the 'getAll' method to teach it how to retrieve all the contents. The contents
+ * are printed as they are fetched, page by page, so the client creating them has to stay open until they are printed,
+ * see {@link #closeAfterListing}.
  *
  * @param <T>
  */
 @Slf4j
 public abstract class AbstractListCommand<T> extends JSONCommandHandler implements Callable<Integer> {
 
+    /**
+     * Items fetched ahead of the printed ones, a page of the PNC client
+     */
+    private static final int PREFETCHED_ITEMS = 50;
+
     @Option(names = "--sort", description = "Sort order (using RSQL)")
     private String sort;
 
     @Option(names = "--query", description = "Query parameter (using RSQL)")
     private String query;
 
+    @Option(names = "--limit", description = "Print at most this many entities, no more pages are fetched after that")
+    private Long limit;
+
+    @Option(names = "--ndjson", description = "Print one JSON object per line instead of a JSON array or YAML")
+    private boolean ndjson;
+
     protected boolean print = true;
 
+    private final List<AutoCloseable> clients = new ArrayList<>();
+
     @Override
     public Integer call() {
-        if (query == null && sort == null && print == true) {
+        if (query == null && sort == null && limit == null && print == true) {
             log.warn("Listing entities without filters may take some time, please be patient.");
         }
-        try {
-            ObjectHelper.print(getJsonOutput(), getAll(sort, query));
-        } catch (JsonProcessingException | ClientException e) {
+        try (PrefetchingIterator<T> items = new PrefetchingIterator<>(
+                getAll(sort, query).iterator(),
+                limit == null ? Long.MAX_VALUE : limit,
+                PREFETCHED_ITEMS)) {
+            if (ndjson) {
+                ObjectHelper.printLines(items);
+            } else {
+                ObjectHelper.printSequence(getJsonOutput(), items);
+            }
+        } catch (IOException | ClientException e) {
+            throw new FatalException("Caught exception", e);
+        } catch (FatalException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // e.g. the failure of a page fetched while printing
             throw new FatalException("Caught exception", e);
+        } finally {
+            closeClients();
         }
         return 0;
     }
 
-    public abstract Collection<T> getAll(String sort, String query) throws RemoteResourceException;
+    /**
+     * @return the entities, fetched lazily while being iterated
+     */
+    public abstract Iterable<T> getAll(String sort, String query) throws RemoteResourceException;
+
+    /**
+     * Keep the client open until the entities returned by {@link #getAll} are printed
+     *
+     * @param client client fetching the entities
+     * @return the client
+     */
+    protected <C extends AutoCloseable> C closeAfterListing(C client) {
+        clients.add(client);
+        return client;
+    }
+
+    private void closeClients() {
+        for (AutoCloseable client : clients) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                log.debug("Failed to close the client", e);
+            }
+        }
+        clients.clear();
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.common.cli;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterates the items of another iterator, at most limit of them, which are taken from it on a separate thread ahead of
+ * the consumer. With the paged collections of the PNC client, the next page is fetched while the current one is
+ * processed.
+ *
+ * @param <T> type of the items
+ */
+class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> prefetched;
+    private final Thread fetcher;
+    private Object next;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param source iterator to take the items from
+     * @param limit maximum number of items to take
+     * @param capacity maximum number of items taken ahead of the consumer
+     */
+    PrefetchingIterator(Iterator<? extends T> source, long limit, int capacity) {
+        prefetched = new ArrayBlockingQueue<>(capacity);
+        fetcher = new Thread(() -> {
+            try {
+                for (long taken = 0; taken < limit && source.hasNext(); taken++) {
+                    prefetched.put(source.next());
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            try {
+                prefetched.put(END);
+            } catch (InterruptedException e) {
+                // the consumer is gone
+            }
+        }, "prefetch");
+        fetcher.setDaemon(true);
+        fetcher.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = prefetched.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next item", e);
+            }
+        }
+        if (next == END && failure != null) {
+            throw failure;
+        }
+        return next != END;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = (T) next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        fetcher.interrupt();
+    }
+}
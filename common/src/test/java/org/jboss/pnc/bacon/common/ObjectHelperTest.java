@@ -4,6 +4,7 @@ import ch.qos.logback.classic.Level;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.github.stefanbirkner.systemlambda.SystemLambda.tapSystemOut;
@@ -41,6 +42,29 @@ class ObjectHelperTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void printSequenceAsPrint() throws Exception {
+        List<Map<String, String>> items = List.of(Map.of("test", "subject"), Map.of("other", "subject"));
+
+        for (boolean json : new boolean[] { true, false }) {
+            String printed = tapSystemOut(() -> ObjectHelper.print(json, items));
+            String streamed = tapSystemOut(() -> ObjectHelper.printSequence(json, items.iterator()));
+
+            assertEquals(printed, streamed);
+        }
+    }
+
+    @Test
+    void printLines() throws Exception {
+        List<Map<String, String>> items = List.of(Map.of("test", "subject"), Map.of("other", "subject"));
+
+        String actual = tapSystemOut(() -> ObjectHelper.printLines(items.iterator()));
+
+        String expected = String.format("{\"test\":\"subject\"}\n{\"other\":\"subject\"}%n");
+
+        assertEquals(expected, actual);
+    }
+
     @Test
     void setRootLoggingLevel() {
         ch.qos.logback.classic.Logger root = (ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory
@@ -0,0 +1,71 @@
+package org.jboss.pnc.bacon.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TelemetryTest {
+
+    @BeforeEach
+    void reset() {
+        Telemetry.resetSummary();
+    }
+
+    @Test
+    void summarizesCallsPerComponentAndOperation() {
+        try (Telemetry.Call call = Telemetry.start("download", "indy")) {
+            call.retry().bytes(10);
+        }
+        try (Telemetry.Call call = Telemetry.start("download", "indy")) {
+            call.bytes(5);
+        }
+        assertThrows(IllegalStateException.class, () -> Telemetry.run("pig", "repository", () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        Map<String, Telemetry.CallSummary> summary = Telemetry.getSummary()
+                .stream()
+                .collect(Collectors.toMap(Telemetry.CallSummary::getCall, Function.identity()));
+
+        assertEquals(2, summary.size());
+        Telemetry.CallSummary downloads = summary.get("download indy");
+        assertEquals(2, downloads.getCount());
+        assertEquals(15, downloads.getBytes());
+        assertEquals(1, downloads.getRetries());
+        assertEquals(0, downloads.getFailures());
+        Telemetry.CallSummary stage = summary.get("pig repository");
+        assertEquals(1, stage.getCount());
+        assertEquals(1, stage.getFailures());
+    }
+
+    @Test
+    void returnsResultOfCall() {
+        assertEquals("done", Telemetry.call("pig", "build", () -> "done"));
+        assertEquals(1, Telemetry.getSummary().get(0).getCount());
+    }
+
+    @Test
+    void writesSummaryAsJson(@TempDir Path dir) throws IOException {
+        Telemetry.run("koji", "findBuilds", () -> {
+        });
+        Path file = dir.resolve("summary.json");
+
+        Telemetry.writeSummary(file);
+
+        JsonNode summary = new ObjectMapper().readTree(file.toFile());
+        assertEquals(1, summary.size());
+        assertEquals("koji findBuilds", summary.get(0).get("call").asText());
+        assertEquals(1, summary.get(0).get("count").asLong());
+    }
+}
@@ -0,0 +1,42 @@
+package org.jboss.pnc.bacon.common.cli;
+
+import org.jboss.pnc.bacon.common.exception.FatalException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AbstractListCommandTest {
+
+    @Test
+    void wrapsFailureOfLaterPageInFatalException() {
+        IllegalStateException pageFailure = new IllegalStateException("second page failed");
+        AbstractListCommand<String> command = new AbstractListCommand<>() {
+            @Override
+            public Iterable<String> getAll(String sort, String query) {
+                return () -> new Iterator<>() {
+                    private boolean first = true;
+
+                    @Override
+                    public boolean hasNext() {
+                        return true;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (first) {
+                            first = false;
+                            return "first";
+                        }
+                        throw pageFailure;
+                    }
+                };
+            }
+        };
+
+        FatalException thrown = assertThrows(FatalException.class, command::call);
+        assertSame(pageFailure, thrown.getCause());
+    }
+}
@@ -0,0 +1,78 @@
+package org.jboss.pnc.bacon.common.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrefetchingIteratorTest {
+
+    @Test
+    void iteratesAllItemsInOrder() {
+        List<Integer> source = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(source.iterator(), Long.MAX_VALUE, 7)) {
+            List<Integer> actual = new ArrayList<>();
+            iterator.forEachRemaining(actual::add);
+            assertEquals(source, actual);
+        }
+    }
+
+    @Test
+    void stopsTakingItemsAtTheLimit() {
+        AtomicInteger taken = new AtomicInteger();
+        Iterator<Integer> source = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return taken.incrementAndGet();
+            }
+        };
+
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(source, 3, 50)) {
+            List<Integer> actual = new ArrayList<>();
+            iterator.forEachRemaining(actual::add);
+            assertEquals(List.of(1, 2, 3), actual);
+            assertFalse(iterator.hasNext());
+        }
+        assertEquals(3, taken.get());
+    }
+
+    @Test
+    void rethrowsFailuresOfTheSource() {
+        Iterator<Integer> source = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (next == 2) {
+                    throw new IllegalStateException("page not available");
+                }
+                return next++;
+            }
+        };
+
+        try (PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(source, Long.MAX_VALUE, 50)) {
+            assertEquals(0, iterator.next());
+            assertEquals(1, iterator.next());
+            assertThrows(IllegalStateException.class, iterator::hasNext);
+        }
+    }
+}
@@ -27,6 +27,16 @@ import lombok.Data;
 public class DaConfig implements Validate {
     private String url;
 
+    /**
+     * Maximum number of artifacts sent to DA in a single lookup request
+     */
+    private int lookupChunkSize = 200;
+
+    /**
+     * Maximum number of lookup requests sent to DA concurrently
+     */
+    private int lookupMaxInFlight = 4;
+
     @Override
     public void validate() {
         Validate.validateUrl(url, "Dependency Analysis URL");
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.bacon.da;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jboss.pnc.bacon.config.Config;
+import org.jboss.pnc.bacon.config.DaConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Sends DA lookups in chunks of limited size, so that neither a request per artifact nor a single huge request is
+ * sent. Identical keys are looked up only once, the chunks are sent concurrently with a limited number of requests in
+ * flight and the results are merged back in the order of the input.
+ */
+@Slf4j
+public class ChunkedLookup {
+    private final int chunkSize;
+    private final int maxInFlight;
+
+    public ChunkedLookup(int chunkSize, int maxInFlight) {
+        if (chunkSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException(
+                    "Chunk size and the number of requests in flight have to be positive, got " + chunkSize + " and "
+                            + maxInFlight);
+        }
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @return lookup configured by the DA section of the active profile
+     */
+    public static ChunkedLookup fromConfig() {
+        DaConfig daConfig = Config.instance().getActiveProfile().getDa();
+        return new ChunkedLookup(daConfig.getLookupChunkSize(), daConfig.getLookupMaxInFlight());
+    }
+
+    /**
+     * Look up the keys in chunks
+     *
+     * @param keys keys to look up, may contain duplicates
+     * @param lookup the request for a chunk of unique keys
+     * @param keyOf the key a result belongs to
+     * @param <K> key type
+     * @param <R> result type
+     * @return results in the order of the keys, null for the keys DA returned no result for
+     */
+    public <K, R> List<R> lookup(
+            Collection<K> keys,
+            Function<List<K>, ? extends Collection<R>> lookup,
+            Function<R, K> keyOf) {
+        List<K> uniqueKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<List<K>> chunks = new ArrayList<>();
+        for (int i = 0; i < uniqueKeys.size(); i += chunkSize) {
+            chunks.add(uniqueKeys.subList(i, Math.min(i + chunkSize, uniqueKeys.size())));
+        }
+        log.debug("Looking up {} unique keys in {} chunks", uniqueKeys.size(), chunks.size());
+
+        Map<K, R> resultsByKey = new HashMap<>();
+        if (chunks.size() <= 1) {
+            chunks.forEach(chunk -> collect(lookup.apply(chunk), keyOf, resultsByKey));
+        } else {
+            lookupConcurrently(chunks, lookup, keyOf, resultsByKey);
+        }
+
+        List<R> results = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            results.add(resultsByKey.get(key));
+        }
+        return results;
+    }
+
+    private <K, R> void lookupConcurrently(
+            List<List<K>> chunks,
+            Function<List<K>, ? extends Collection<R>> lookup,
+            Function<R, K> keyOf,
+            Map<K, R> resultsByKey) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxInFlight, chunks.size()));
+        try {
+            List<Future<? extends Collection<R>>> futures = new ArrayList<>(chunks.size());
+            for (List<K> chunk : chunks) {
+                futures.add(executor.submit(() -> lookup.apply(chunk)));
+            }
+            for (Future<? extends Collection<R>> future : futures) {
+                collect(future.get(), keyOf, resultsByKey);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for DA lookup results", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("DA lookup failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <K, R> void collect(Collection<R> results, Function<R, K> keyOf, Map<K, R> resultsByKey) {
+        for (R result : results) {
+            resultsByKey.put(keyOf.apply(result), result);
+        }
+    }
+}
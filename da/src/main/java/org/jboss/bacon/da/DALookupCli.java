@@ -38,7 +38,6 @@ import java.io.IOException;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Scanner;
-import java.util.Set;
 import java.util.concurrent.Callable;
 
 @CommandLine.Command(
@@ -92,16 +91,19 @@ public class DALookupCli {
                 gavSet.add(DaHelper.toGAV(gav));
             }
 
-            MavenLookupRequest request = MavenLookupRequest.builder()
-                    .mode(DaHelper.getMode(temporary, managedService, lookupMode))
-                    .brewPullActive(brewPullActive)
-                    .artifacts(gavSet)
-                    .build();
-
+            String mode = DaHelper.getMode(temporary, managedService, lookupMode);
             LookupApi lookupApi = DaHelper.createLookupApi();
             try {
-                Set<MavenLookupResult> result = lookupApi.lookupMaven(request);
-                List<MavenLookupResult> orderedResult = DaHelper.orderedMavenLookupResult(gavSet, result);
+                List<MavenLookupResult> orderedResult = ChunkedLookup.fromConfig()
+                        .lookup(
+                                gavSet,
+                                chunk -> lookupApi.lookupMaven(
+                                        MavenLookupRequest.builder()
+                                                .mode(mode)
+                                                .brewPullActive(brewPullActive)
+                                                .artifacts(new LinkedHashSet<>(chunk))
+                                                .build()),
+                                MavenLookupResult::getGav);
                 ObjectHelper.print(getJsonOutput(), orderedResult);
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -166,15 +168,18 @@ public class DALookupCli {
                 }
             }
 
-            MavenLatestRequest request = MavenLatestRequest.builder()
-                    .mode(DaHelper.getMode(temporary, managedService, lookupMode))
-                    .artifacts(gavSet)
-                    .build();
-
+            String mode = DaHelper.getMode(temporary, managedService, lookupMode);
             LookupApi lookupApi = DaHelper.createLookupApi();
             try {
-                Set<MavenLatestResult> result = lookupApi.lookupMaven(request);
-                List<MavenLatestResult> orderedResult = DaHelper.orderedMavenLatestResult(gavSet, result);
+                List<MavenLatestResult> orderedResult = ChunkedLookup.fromConfig()
+                        .lookup(
+                                gavSet,
+                                chunk -> lookupApi.lookupMaven(
+                                        MavenLatestRequest.builder()
+                                                .mode(mode)
+                                                .artifacts(new LinkedHashSet<>(chunk))
+                                                .build()),
+                                MavenLatestResult::getGav);
                 ObjectHelper.print(getJsonOutput(), orderedResult);
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -226,15 +231,18 @@ public class DALookupCli {
                 pkgs.add(DaHelper.toNPMPackage(npmVersion));
             }
 
-            NPMLookupRequest request = NPMLookupRequest.builder()
-                    .mode(DaHelper.getMode(temporary, managedService, lookupMode))
-                    .packages(pkgs)
-                    .build();
-
+            String mode = DaHelper.getMode(temporary, managedService, lookupMode);
             LookupApi lookupApi = DaHelper.createLookupApi();
             try {
-                Set<NPMLookupResult> result = lookupApi.lookupNPM(request);
-                List<NPMLookupResult> orderedResult = DaHelper.orderedNPMLookupResult(pkgs, result);
+                List<NPMLookupResult> orderedResult = ChunkedLookup.fromConfig()
+                        .lookup(
+                                pkgs,
+                                chunk -> lookupApi.lookupNPM(
+                                        NPMLookupRequest.builder()
+                                                .mode(mode)
+                                                .packages(new LinkedHashSet<>(chunk))
+                                                .build()),
+                                NPMLookupResult::getNpmPackage);
                 ObjectHelper.print(getJsonOutput(), orderedResult);
             } catch (IOException e) {
                 throw new RuntimeException(e);
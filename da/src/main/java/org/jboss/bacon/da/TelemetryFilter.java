@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.bacon.da;
+
+import org.jboss.pnc.bacon.common.Telemetry;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Records every request to DA as a {@link Telemetry.Call}. The call is ended when the response arrives, or by a client
+ * proxy wrapped with {@link #endCallsOnFailure} when the request fails before that.
+ */
+public class TelemetryFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    /**
+     * Call of the request in flight on the thread, requests of the client proxies are synchronous
+     */
+    private static final ThreadLocal<Telemetry.Call> CURRENT_CALL = new ThreadLocal<>();
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+        String operation = requestContext.getMethod() + " " + requestContext.getUri().getPath();
+        CURRENT_CALL.set(Telemetry.start("da", operation));
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        Telemetry.Call call = CURRENT_CALL.get();
+        if (call == null) {
+            return;
+        }
+        CURRENT_CALL.remove();
+        if (responseContext.getLength() > 0) {
+            call.bytes(responseContext.getLength());
+        }
+        if (responseContext.getStatus() >= 400) {
+            call.failed(new IllegalStateException("DA responded with status " + responseContext.getStatus()));
+        }
+        call.close();
+    }
+
+    /**
+     * Wrap a client proxy so that the call of a request that failed without a response, e.g. on a connection error, is
+     * ended as failed
+     *
+     * @param api interface of the proxy
+     * @param proxy client proxy of a client with this filter registered
+     * @return the wrapped proxy
+     */
+    static <T> T endCallsOnFailure(Class<T> api, T proxy) {
+        Object wrapper = Proxy.newProxyInstance(api.getClassLoader(), new Class<?>[] { api }, (self, method, args) -> {
+            try {
+                return method.invoke(proxy, args);
+            } catch (InvocationTargetException e) {
+                Telemetry.Call call = CURRENT_CALL.get();
+                if (call != null) {
+                    CURRENT_CALL.remove();
+                    call.failed(e.getCause()).close();
+                }
+                throw e.getCause();
+            }
+        });
+        return api.cast(wrapper);
+    }
+}
@@ -0,0 +1,58 @@
+package org.jboss.bacon.da;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedLookupTest {
+
+    @Test
+    void shouldLookUpUniqueKeysInChunksAndKeepInputOrder() {
+        List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+        List<String> keys = Arrays.asList("e", "a", "d", "a", "c", "b", "e", "f");
+
+        List<String> results = new ChunkedLookup(2, 3).lookup(keys, chunk -> {
+            requests.add(new ArrayList<>(chunk));
+            // DA doesn't keep the order of the request
+            List<String> reversed = chunk.stream().map(String::toUpperCase).collect(Collectors.toList());
+            Collections.reverse(reversed);
+            return reversed;
+        }, String::toLowerCase);
+
+        assertEquals(Arrays.asList("E", "A", "D", "A", "C", "B", "E", "F"), results);
+        assertEquals(3, requests.size());
+        assertTrue(requests.stream().allMatch(chunk -> chunk.size() == 2));
+        assertEquals(6, requests.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void shouldReturnNullForMissingResults() {
+        List<String> results = new ChunkedLookup(10, 1).lookup(
+                Arrays.asList("a", "b"),
+                chunk -> Collections.singletonList("A"),
+                String::toLowerCase);
+
+        assertEquals(Arrays.asList("A", null), results);
+    }
+
+    @Test
+    void shouldPropagateFailures() {
+        ChunkedLookup lookup = new ChunkedLookup(1, 2);
+        List<String> keys = Arrays.asList("a", "b", "c");
+
+        assertThrows(IllegalStateException.class, () -> lookup.lookup(keys, chunk -> {
+            if (chunk.contains("b")) {
+                throw new IllegalStateException("DA is down");
+            }
+            return chunk;
+        }, key -> key));
+    }
+}
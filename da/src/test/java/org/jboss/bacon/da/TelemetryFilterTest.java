@@ -0,0 +1,82 @@
+package org.jboss.bacon.da;
+
+import org.jboss.pnc.bacon.common.Telemetry;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryFilterTest {
+
+    private final TelemetryFilter filter = new TelemetryFilter();
+
+    @Test
+    void shouldEndCallOfRequestFailingWithoutResponse() {
+        ClientRequestContext request = request("/lookup/unreachable");
+        Api api = TelemetryFilter.endCallsOnFailure(Api.class, () -> {
+            filter.filter(request);
+            throw new ProcessingException("Connection refused");
+        });
+
+        assertThrows(ProcessingException.class, api::call);
+
+        Telemetry.CallSummary summary = summary("da GET /lookup/unreachable");
+        assertEquals(1, summary.getCount());
+        assertEquals(1, summary.getFailures());
+    }
+
+    @Test
+    void shouldEndCallOnResponse() {
+        ClientRequestContext request = request("/lookup/reachable");
+        ClientResponseContext response = response(200, 42);
+        Api api = TelemetryFilter.endCallsOnFailure(Api.class, () -> {
+            filter.filter(request);
+            filter.filter(request, response);
+            return "ok";
+        });
+
+        assertEquals("ok", api.call());
+
+        Telemetry.CallSummary summary = summary("da GET /lookup/reachable");
+        assertEquals(1, summary.getCount());
+        assertEquals(0, summary.getFailures());
+        assertEquals(42, summary.getBytes());
+    }
+
+    private static Telemetry.CallSummary summary(String call) {
+        return Telemetry.getSummary()
+                .stream()
+                .filter(summary -> summary.getCall().equals(call))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No telemetry recorded for " + call));
+    }
+
+    private static ClientRequestContext request(String path) {
+        return stub(ClientRequestContext.class, Map.of("getMethod", "GET", "getUri", URI.create("http://da" + path)));
+    }
+
+    private static ClientResponseContext response(int status, int length) {
+        return stub(ClientResponseContext.class, Map.of("getStatus", status, "getLength", length));
+    }
+
+    private static <T> T stub(Class<T> type, Map<String, Object> values) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            assertTrue(values.containsKey(method.getName()), "Unexpected call of " + method.getName());
+            return values.get(method.getName());
+        });
+        return type.cast(stub);
+    }
+
+    interface Api {
+        String call();
+    }
+}
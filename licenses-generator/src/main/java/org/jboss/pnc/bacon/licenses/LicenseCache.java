@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016-2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.pnc.bacon.licenses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of the sanitised licenses of artifacts, keyed by their GAVs.
+ * <p>
+ * The licenses of an artifact depend on the sanitisers too, e.g. on the aliases and exceptions files. The cache is
+ * therefore valid only for the inputs it was written with, given as a hash; a cache written with other inputs is
+ * dropped. Only valid, non-empty results are cached, the others are resolved again in the next run.
+ */
+public class LicenseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LicenseCache.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path file;
+
+    private final String inputsHash;
+
+    private final Map<String, Set<LicenseElement>> licenses = new ConcurrentHashMap<>();
+
+    private volatile boolean dirty;
+
+    /**
+     * @param file file the cache is stored in, nothing is stored if null
+     * @param inputsHash hash of the inputs of the license resolution other than the GAV
+     */
+    public LicenseCache(Path file, String inputsHash) {
+        this.file = file;
+        this.inputsHash = inputsHash;
+        load();
+    }
+
+    /**
+     * A cache kept in memory only
+     */
+    public static LicenseCache inMemory() {
+        return new LicenseCache(null, "");
+    }
+
+    public Optional<Set<LicenseElement>> get(String gav) {
+        return Optional.ofNullable(licenses.get(gav));
+    }
+
+    public void put(String gav, Set<LicenseElement> gavLicenses) {
+        if (gavLicenses.isEmpty() || !gavLicenses.stream().allMatch(LicenseElement::isValid)) {
+            return;
+        }
+        licenses.put(gav, gavLicenses);
+        dirty = true;
+    }
+
+    public int size() {
+        return licenses.size();
+    }
+
+    /**
+     * Write the cache to the disk if it was modified. The file is replaced atomically so that an interrupted run does
+     * not leave a corrupted cache behind.
+     */
+    public synchronized void flush() {
+        if (file == null || !dirty) {
+            return;
+        }
+        CacheFile content = new CacheFile();
+        content.setInputsHash(inputsHash);
+        licenses.forEach(
+                (gav, gavLicenses) -> content.getLicenses()
+                        .put(gav, gavLicenses.stream().map(CachedLicense::new).collect(Collectors.toList())));
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                objectMapper.writeValue(output, content);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+            logger.debug("Stored licenses of {} artifacts in {}", licenses.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to store the license cache in {}", file, e);
+        }
+    }
+
+    private void load() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            CacheFile content = objectMapper.readValue(input, CacheFile.class);
+            if (!inputsHash.equals(content.getInputsHash())) {
+                logger.info("The license resolution inputs changed, dropping the license cache {}", file);
+                return;
+            }
+            content.getLicenses()
+                    .forEach(
+                            (gav, gavLicenses) -> licenses.put(
+                                    gav,
+                                    gavLicenses.stream()
+                                            .map(CachedLicense::toLicenseElement)
+                                            .collect(Collectors.toSet())));
+            logger.info("Loaded licenses of {} artifacts from {}", licenses.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to read the license cache {}, resolving all the licenses", file, e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CacheFile {
+        private String inputsHash;
+        private Map<String, List<CachedLicense>> licenses = new HashMap<>();
+
+        public String getInputsHash() {
+            return inputsHash;
+        }
+
+        public void setInputsHash(String inputsHash) {
+            this.inputsHash = inputsHash;
+        }
+
+        public Map<String, List<CachedLicense>> getLicenses() {
+            return licenses;
+        }
+
+        public void setLicenses(Map<String, List<CachedLicense>> licenses) {
+            this.licenses = licenses;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CachedLicense {
+        private String name;
+        private String url;
+        private String textUrl;
+
+        public CachedLicense() {
+        }
+
+        CachedLicense(LicenseElement license) {
+            this.name = license.getName();
+            this.url = license.getUrl();
+            this.textUrl = license.getTextUrl();
+        }
+
+        LicenseElement toLicenseElement() {
+            return new LicenseElement(name, url, textUrl);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getTextUrl() {
+            return textUrl;
+        }
+
+        public void setTextUrl(String textUrl) {
+            this.textUrl = textUrl;
+        }
+    }
+}
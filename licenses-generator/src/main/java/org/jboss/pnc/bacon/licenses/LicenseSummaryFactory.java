@@ -19,35 +19,66 @@ package org.jboss.pnc.bacon.licenses;
 import org.apache.maven.artifact.Artifact;
 import org.jboss.pnc.bacon.licenses.sanitiser.LicenseSanitiser;
 import org.jboss.pnc.bacon.licenses.xml.DependencyElement;
+import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
 import org.jboss.pnc.bacon.licenses.xml.LicenseSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
  * Class responsible for retrieving licenses information based on a provided GAV.
+ * <p>
+ * The licenses of every GAV are resolved once, on a dedicated executor bounded to the given number of threads since
+ * the sanitisers block on remote calls. Licenses found in the {@link LicenseCache} are not resolved again.
  *
  * @author <a href="mailto:gytis@redhat.com">Gytis Trikleris</a>
  */
 public class LicenseSummaryFactory {
 
+    private static final int DEFAULT_THREADS = 8;
+
     private final Logger logger = LoggerFactory.getLogger(LicenseSummaryFactory.class);
 
     private final LicenseSanitiser licenseSanitiser;
 
+    private final LicenseCache licenseCache;
+
+    private final int threads;
+
     public LicenseSummaryFactory(LicenseSanitiser licenseSanitiser) {
+        this(licenseSanitiser, LicenseCache.inMemory(), DEFAULT_THREADS);
+    }
+
+    public LicenseSummaryFactory(LicenseSanitiser licenseSanitiser, LicenseCache licenseCache, int threads) {
         this.licenseSanitiser = licenseSanitiser;
+        this.licenseCache = licenseCache;
+        this.threads = threads;
     }
 
     public LicenseSummary getLicenseSummary(Collection<Artifact> artifacts) {
         logger.debug("Getting license summary for a collection of " + artifacts.size() + " artifacts");
-        List<DependencyElement> dependencyElements = artifacts.parallelStream()
+        Map<String, Artifact> artifactsByGav = new LinkedHashMap<>();
+        for (Artifact artifact : artifacts) {
+            artifactsByGav.putIfAbsent(new DependencyElement(artifact).toGavString(), artifact);
+        }
+        Map<String, Set<LicenseElement>> licensesByGav = resolveLicenses(artifactsByGav);
+
+        List<DependencyElement> dependencyElements = artifacts.stream()
                 .map(DependencyElement::new)
-                .map(licenseSanitiser::fix)
+                .map(element -> new DependencyElement(element, licensesByGav.get(element.toGavString())))
                 .sorted(
                         Comparator.comparing(DependencyElement::getGroupId)
                                 .thenComparing(DependencyElement::getArtifactId)
@@ -57,4 +88,43 @@ public class LicenseSummaryFactory {
         return new LicenseSummary(dependencyElements);
     }
 
+    private Map<String, Set<LicenseElement>> resolveLicenses(Map<String, Artifact> artifactsByGav) {
+        Map<String, Set<LicenseElement>> licensesByGav = new HashMap<>();
+        Map<String, Future<Set<LicenseElement>>> resolutions = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            artifactsByGav.forEach((gav, artifact) -> {
+                Optional<Set<LicenseElement>> cached = licenseCache.get(gav);
+                if (cached.isPresent()) {
+                    licensesByGav.put(gav, cached.get());
+                } else {
+                    resolutions.put(gav, executor.submit(() -> resolveLicenses(gav, artifact)));
+                }
+            });
+            logger.info(
+                    "Resolving licenses of {} artifacts, {} found in the license cache",
+                    resolutions.size(),
+                    licensesByGav.size());
+            for (Map.Entry<String, Future<Set<LicenseElement>>> resolution : resolutions.entrySet()) {
+                licensesByGav.put(resolution.getKey(), resolution.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while resolving licenses", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+            licenseCache.flush();
+        }
+        return licensesByGav;
+    }
+
+    private Set<LicenseElement> resolveLicenses(String gav, Artifact artifact) {
+        Set<LicenseElement> licenses = licenseSanitiser.fix(new DependencyElement(artifact)).getLicenses();
+        licenseCache.put(gav, licenses);
+        return licenses;
+    }
+
 }
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2016-2017 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.pnc.bacon.licenses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed local store of license texts.
+ * <p>
+ * Every text is stored once, in a file named after the SHA-256 of its content, however many URLs and licenses point
+ * to it. An index maps the text URLs to the stored texts, so a text URL seen before is resolved without a network
+ * round-trip. Texts older than the revalidation period are checked again with a conditional request.
+ * <p>
+ * The index maps the license names (the identifiers the aliases file normalises the licenses to) to the last text
+ * stored for them too. Licenses sharing a name can still have different texts, so the name is used only when the text
+ * URL of a license cannot be downloaded.
+ * <p>
+ * The store can be shared by several products: texts are immutable and the index is merged with the one on the disk
+ * before it is replaced.
+ */
+public class LicenseTextStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LicenseTextStore.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int DOWNLOAD_TIMEOUT = 60_000;
+
+    private static final Duration DEFAULT_REVALIDATE_AFTER = Duration.ofDays(30);
+
+    private static final String OBJECTS_DIR = "objects";
+
+    private static final String INDEX_FILE = "index.json";
+
+    private final Path directory;
+
+    private final Duration revalidateAfter;
+
+    private final Map<String, UrlEntry> urls = new ConcurrentHashMap<>();
+
+    private final Map<String, String> identifiers = new ConcurrentHashMap<>();
+
+    private final Set<String> failedUrls = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean dirty;
+
+    public LicenseTextStore(Path directory) {
+        this(directory, DEFAULT_REVALIDATE_AFTER);
+    }
+
+    /**
+     * @param directory directory the texts and the index are stored in
+     * @param revalidateAfter age after which a stored text is checked again with a conditional request
+     */
+    public LicenseTextStore(Path directory, Duration revalidateAfter) {
+        this.directory = directory;
+        this.revalidateAfter = revalidateAfter;
+        loadIndex().ifPresent(index -> {
+            urls.putAll(index.getUrls());
+            identifiers.putAll(index.getIdentifiers());
+        });
+    }
+
+    /**
+     * Find the stored text of a license, by its text URL or by its name if the text URL failed to download
+     *
+     * @param license license to look up
+     * @return path of the stored text
+     */
+    public Optional<Path> find(LicenseElement license) {
+        String textUrl = license.getTextUrl();
+        Optional<String> digest = Optional.ofNullable(textUrl).map(urls::get).map(UrlEntry::getDigest);
+        if (!digest.isPresent() && failedUrls.contains(textUrl)) {
+            digest = identifier(license).map(identifiers::get);
+        }
+        return digest.map(this::objectPath).filter(Files::isRegularFile);
+    }
+
+    /**
+     * Download the texts of the licenses that are not in the store yet and revalidate the outdated ones. The
+     * downloads run concurrently over pooled connections, so that the connections to a host are reused. A failed
+     * download is logged and leaves the license without a text.
+     *
+     * @param licenses licenses which texts should be available
+     * @param threads maximum number of concurrent downloads
+     */
+    public void fetch(Collection<LicenseElement> licenses, int threads) {
+        Map<String, List<LicenseElement>> licensesByUrl = licenses.stream()
+                .filter(license -> StringUtils.isNotBlank(license.getTextUrl()))
+                .collect(Collectors.groupingBy(LicenseElement::getTextUrl));
+        licensesByUrl.values().removeIf(this::isUpToDate);
+        if (licensesByUrl.isEmpty()) {
+            return;
+        }
+        logger.debug("Downloading {} license texts", licensesByUrl.size());
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(threads);
+        connectionManager.setDefaultMaxPerRoute(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, licensesByUrl.size()));
+        try (CloseableHttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(
+                        RequestConfig.custom()
+                                .setConnectTimeout(DOWNLOAD_TIMEOUT)
+                                .setSocketTimeout(DOWNLOAD_TIMEOUT)
+                                .build())
+                .build()) {
+            List<Future<?>> downloads = new ArrayList<>();
+            licensesByUrl.forEach(
+                    (url, urlLicenses) -> downloads
+                            .add(executor.submit(() -> fetchLicenseText(httpClient, url, urlLicenses))));
+            for (Future<?> download : downloads) {
+                download.get();
+            }
+        } catch (IOException | ExecutionException e) {
+            throw new RuntimeException("Failed to download the license texts", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while downloading the license texts", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Write the index to the disk if it was modified. Entries added by other processes in the meantime are kept.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        StoreIndex index = loadIndex().orElseGet(StoreIndex::new);
+        index.getUrls().putAll(urls);
+        index.getIdentifiers().putAll(identifiers);
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                objectMapper.writeValue(output, index);
+            }
+            Files.move(
+                    tempFile,
+                    directory.resolve(INDEX_FILE),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Failed to store the license text index in {}", directory, e);
+        }
+    }
+
+    private boolean isUpToDate(List<LicenseElement> urlLicenses) {
+        UrlEntry entry = urls.get(urlLicenses.get(0).getTextUrl());
+        return entry != null && Files.isRegularFile(objectPath(entry.getDigest()))
+                && System.currentTimeMillis() - entry.getFetched() < revalidateAfter.toMillis();
+    }
+
+    private void fetchLicenseText(CloseableHttpClient httpClient, String url, List<LicenseElement> urlLicenses) {
+        try {
+            UrlEntry entry;
+            try {
+                entry = download(httpClient, url);
+            } catch (IOException e) {
+                if (!url.startsWith("https")) {
+                    entry = download(httpClient, url.replace("http", "https"));
+                } else {
+                    throw e;
+                }
+            }
+            urls.put(url, entry);
+            String digest = entry.getDigest();
+            urlLicenses.stream()
+                    .map(LicenseTextStore::identifier)
+                    .flatMap(Optional::stream)
+                    .forEach(name -> identifiers.put(name, digest));
+            dirty = true;
+        } catch (IOException e) {
+            failedUrls.add(url);
+            logger.warn(
+                    "Failed to download license '{}' from '{}'",
+                    urlLicenses.stream().map(LicenseElement::getName).distinct().collect(Collectors.joining("', '")),
+                    url,
+                    e);
+        }
+    }
+
+    private UrlEntry download(CloseableHttpClient httpClient, String url) throws IOException {
+        UrlEntry previous = urls.get(url);
+        boolean revalidate = previous != null && Files.isRegularFile(objectPath(previous.getDigest()));
+        HttpGet request = new HttpGet(url);
+        if (revalidate) {
+            if (previous.getEtag() != null) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, previous.getEtag());
+            }
+            if (previous.getLastModified() != null) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, previous.getLastModified());
+            }
+        }
+        logger.debug("Downloading license text from {}", url);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            if (revalidate && status == HttpStatus.SC_NOT_MODIFIED) {
+                return new UrlEntry(previous.getDigest(), previous.getEtag(), previous.getLastModified());
+            }
+            HttpEntity entity = response.getEntity();
+            if (status != HttpStatus.SC_OK || entity == null) {
+                throw new IOException("Unexpected response " + response.getStatusLine() + " from " + url);
+            }
+            String digest;
+            try (InputStream content = entity.getContent()) {
+                digest = store(content);
+            }
+            return new UrlEntry(
+                    digest,
+                    headerValue(response, HttpHeaders.ETAG),
+                    headerValue(response, HttpHeaders.LAST_MODIFIED));
+        }
+    }
+
+    /**
+     * Store a text under the hash of its content. A text that is already stored is left untouched.
+     */
+    private String store(InputStream content) throws IOException {
+        Path objectsDir = directory.resolve(OBJECTS_DIR);
+        Files.createDirectories(objectsDir);
+        Path tempFile = Files.createTempFile(objectsDir, "download", ".tmp");
+        try {
+            MessageDigest messageDigest = DigestUtils.getSha256Digest();
+            try (OutputStream output = new DigestOutputStream(Files.newOutputStream(tempFile), messageDigest)) {
+                content.transferTo(output);
+            }
+            String digest = Hex.encodeHexString(messageDigest.digest());
+            Path object = objectPath(digest);
+            if (!Files.isRegularFile(object)) {
+                try {
+                    Files.move(tempFile, object, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // stored concurrently, the content is the same
+                }
+            }
+            return digest;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private Optional<StoreIndex> loadIndex() {
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+        try (InputStream input = Files.newInputStream(indexFile)) {
+            return Optional.of(objectMapper.readValue(input, StoreIndex.class));
+        } catch (IOException e) {
+            logger.warn("Failed to read the license text index {}, the texts will be downloaded again", indexFile, e);
+            return Optional.empty();
+        }
+    }
+
+    private Path objectPath(String digest) {
+        return directory.resolve(OBJECTS_DIR).resolve(digest);
+    }
+
+    private static Optional<String> identifier(LicenseElement license) {
+        return Optional.ofNullable(StringUtils.trimToNull(license.getName()))
+                .map(name -> name.toLowerCase(Locale.ROOT));
+    }
+
+    private static String headerValue(CloseableHttpResponse response, String name) {
+        return response.containsHeader(name) ? response.getFirstHeader(name).getValue() : null;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class StoreIndex {
+        private Map<String, UrlEntry> urls = new HashMap<>();
+        private Map<String, String> identifiers = new HashMap<>();
+
+        public Map<String, UrlEntry> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(Map<String, UrlEntry> urls) {
+            this.urls = urls;
+        }
+
+        public Map<String, String> getIdentifiers() {
+            return identifiers;
+        }
+
+        public void setIdentifiers(Map<String, String> identifiers) {
+            this.identifiers = identifiers;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class UrlEntry {
+        private String digest;
+        private String etag;
+        private String lastModified;
+        private long fetched;
+
+        public UrlEntry() {
+        }
+
+        UrlEntry(String digest, String etag, String lastModified) {
+            this.digest = digest;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetched = System.currentTimeMillis();
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public void setDigest(String digest) {
+            this.digest = digest;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(String lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        public long getFetched() {
+            return fetched;
+        }
+
+        public void setFetched(long fetched) {
+            this.fetched = fetched;
+        }
+    }
+}
@@ -19,12 +19,6 @@ package org.jboss.pnc.bacon.licenses;
 import io.quarkus.qute.Qute;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.jboss.pnc.bacon.licenses.xml.DependencyElement;
 import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
 import org.jboss.pnc.bacon.licenses.xml.LicenseSummary;
@@ -35,15 +29,16 @@ import javax.xml.bind.JAXBException;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.AbstractMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -56,20 +51,33 @@ import java.util.stream.Collectors;
  */
 public class LicensesFileManager {
 
-    private static final int DOWNLOAD_TIMEOUT = 60_000;
+    private static final int DEFAULT_DOWNLOAD_THREADS = 8;
 
     private static final String CONTENTS_DIR = "contents";
     private static final String LICENSES_QUTE = "licenses.qute";
 
     private final Logger logger = LoggerFactory.getLogger(LicensesFileManager.class);
 
-    private final CloseableHttpClient httpClient = HttpClientBuilder.create()
-            .setDefaultRequestConfig(
-                    RequestConfig.custom()
-                            .setConnectTimeout(DOWNLOAD_TIMEOUT)
-                            .setSocketTimeout(DOWNLOAD_TIMEOUT)
-                            .build())
-            .build();
+    private final Optional<Path> licenseTextStoreDir;
+
+    private final int downloadThreads;
+
+    /**
+     * Create a file manager which downloads the license texts to a temporary store
+     */
+    public LicensesFileManager() {
+        this(Optional.empty(), DEFAULT_DOWNLOAD_THREADS);
+    }
+
+    /**
+     * @param licenseTextStoreDir directory of the {@link LicenseTextStore} to resolve the license texts from, a
+     *        temporary store is used if empty
+     * @param downloadThreads maximum number of concurrent license text downloads
+     */
+    public LicensesFileManager(Optional<Path> licenseTextStoreDir, int downloadThreads) {
+        this.licenseTextStoreDir = licenseTextStoreDir;
+        this.downloadThreads = downloadThreads;
+    }
 
     /**
      * Create a licenses.xml file.
@@ -90,7 +98,8 @@ public class LicensesFileManager {
     }
 
     /**
-     * Create a licenses.html file and download copy of each license for offline use.
+     * Create a licenses.html file and copy of each license for offline use. License texts missing in the license
+     * text store are downloaded.
      *
      * @param licenseSummary license summary XML element, which should be written to a licenses.xml file.
      * @param directoryPath directory where new file should be stored.
@@ -132,74 +141,61 @@ public class LicensesFileManager {
         }
     }
 
-    private Map<String, String> downloadLicenseFiles(List<DependencyElement> dependencies, String directoryPath) {
+    private Map<String, String> downloadLicenseFiles(List<DependencyElement> dependencies, String directoryPath)
+            throws LicensesGeneratorException {
         final File licenseContentsDirectory = new File(directoryPath, CONTENTS_DIR);
         licenseContentsDirectory.mkdirs();
-        return dependencies.stream()
-                .flatMap(
-                        dependency -> dependency.getLicenses()
-                                .stream()
-                                .map(license -> downloadLicenseFile(dependency, license, licenseContentsDirectory)))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+        List<LicenseElement> licenses = dependencies.stream()
+                .flatMap(dependency -> dependency.getLicenses().stream())
+                .filter(license -> StringUtils.isNotBlank(license.getTextUrl()))
                 .distinct()
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    }
+                .collect(Collectors.toList());
 
-    private Optional<Map.Entry<String, String>> downloadLicenseFile(
-            DependencyElement dependency,
-            LicenseElement license,
-            File licenseContentsDirectory) {
-        String textUrl = license.getTextUrl();
-        if (StringUtils.isBlank(textUrl)) {
-            return Optional.empty();
+        boolean temporaryStore = !licenseTextStoreDir.isPresent();
+        Path storeDir;
+        try {
+            storeDir = temporaryStore ? Files.createTempDirectory("license-texts") : licenseTextStoreDir.get();
+        } catch (IOException e) {
+            throw new LicensesGeneratorException("Failed to create a license text store", e);
         }
-        logger.debug("Downloading license file for {} from {}", dependency.toGavString(), textUrl);
         try {
-            String fileName = getLocalLicenseFileName(license);
-            File file = new File(licenseContentsDirectory, fileName);
-            boolean download = false;
-            if (!file.exists()) {
-                synchronized (this) {
-                    if (!file.exists()) {
-                        file.createNewFile();
-                        download = true;
-                    }
+            LicenseTextStore store = new LicenseTextStore(storeDir);
+            store.fetch(licenses, downloadThreads);
+            store.flush();
+
+            Map<String, String> licenseFiles = new HashMap<>();
+            for (LicenseElement license : licenses) {
+                if (!licenseFiles.containsKey(license.getName())) {
+                    copyLicenseFile(store, license, licenseContentsDirectory)
+                            .ifPresent(fileName -> licenseFiles.put(license.getName(), fileName));
                 }
             }
-            if (download) {
-                try {
-                    downloadTo(textUrl, file);
-                } catch (IOException e) {
-                    if (!textUrl.startsWith("https")) {
-                        downloadTo(textUrl.replace("http", "https"), file);
-                    } else {
-                        throw e;
-                    }
-                }
+            return licenseFiles;
+        } finally {
+            if (temporaryStore) {
+                FileUtils.deleteQuietly(storeDir.toFile());
             }
-            return Optional.of(
-                    new AbstractMap.SimpleEntry<>(license.getName(), String.format("%s/%s", CONTENTS_DIR, fileName)));
-        } catch (Exception e) {
-            logger.warn(
-                    "Failed to download license '{}' for '{}' from '{}'",
-                    license.getName(),
-                    dependency.toGavString(),
-                    textUrl,
-                    e);
-            return Optional.empty();
         }
     }
 
-    // TODO: optimize!
-    private void downloadTo(String url, File file) throws IOException {
-        HttpGet request = new HttpGet(url);
-        HttpResponse response = httpClient.execute(request);
-        HttpEntity entity = response.getEntity();
-        if (entity != null) {
-            try (OutputStream stream = new FileOutputStream(file)) {
-                entity.writeTo(stream);
-            }
+    private Optional<String> copyLicenseFile(
+            LicenseTextStore store,
+            LicenseElement license,
+            File licenseContentsDirectory) {
+        Optional<Path> text = store.find(license);
+        if (!text.isPresent()) {
+            return Optional.empty();
+        }
+        String fileName = getLocalLicenseFileName(license);
+        try {
+            Files.copy(
+                    text.get(),
+                    new File(licenseContentsDirectory, fileName).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            return Optional.of(String.format("%s/%s", CONTENTS_DIR, fileName));
+        } catch (IOException e) {
+            logger.warn("Failed to copy the text of license '{}' from {}", license.getName(), text.get(), e);
+            return Optional.empty();
         }
     }
 
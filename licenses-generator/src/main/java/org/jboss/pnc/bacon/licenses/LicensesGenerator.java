@@ -16,6 +16,7 @@
 
 package org.jboss.pnc.bacon.licenses;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.project.ProjectBuilder;
@@ -33,14 +34,21 @@ import org.jboss.pnc.bacon.licenses.sanitiser.LicenseServiceSanitiser;
 import org.jboss.pnc.bacon.licenses.sanitiser.MavenSanitiser;
 import org.jboss.pnc.bacon.licenses.sanitiser.NoopLicenseSanitiser;
 import org.jboss.pnc.bacon.licenses.utils.Gav;
+import org.jboss.pnc.bacon.licenses.utils.JsonUtils;
 import org.jboss.pnc.bacon.licenses.xml.LicenseSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +56,8 @@ import java.util.stream.Collectors;
  */
 public class LicensesGenerator {
 
+    private static final int FIELD_SEPARATOR = 0;
+
     private final Logger logger = LoggerFactory.getLogger(LicensesGenerator.class);
 
     private final ArtifactFactory artifactFactory;
@@ -66,6 +76,12 @@ public class LicensesGenerator {
 
     private final GavFinder gavFinder;
 
+    private final Map<String, String> repositories;
+
+    private final Optional<String> licenseCacheFilePath;
+
+    private final int licenseResolutionThreads;
+
     public LicensesGenerator() throws LicensesGeneratorException {
         this(new GeneratorProperties());
     }
@@ -88,8 +104,13 @@ public class LicensesGenerator {
         this.licenseServiceUrl = generatorProperties.getLicenseServiceUrl();
         this.aliasesFilePath = generatorProperties.getAliasesFilePath();
         this.exceptionsFilePath = generatorProperties.getExceptionsFilePath();
+        this.repositories = generatorProperties.getRepositories();
+        this.licenseCacheFilePath = generatorProperties.getLicenseCacheFilePath();
+        this.licenseResolutionThreads = Math.max(1, generatorProperties.getLicenseResolutionThreads());
         this.licenseSummaryFactory = createLicenseSummaryFactory();
-        this.licensesFileManager = new LicensesFileManager();
+        this.licensesFileManager = new LicensesFileManager(
+                generatorProperties.getLicenseTextStoreDirPath().map(Paths::get),
+                licenseResolutionThreads);
         this.gavFinder = new GavFinder(mavenProjectFactory);
     }
 
@@ -106,7 +127,7 @@ public class LicensesGenerator {
 
     public void generateLicensesForGavs(Collection<Gav> gavs, String resultPath) throws LicensesGeneratorException {
         logger.debug("Generating licenses for a collection of {} gavs", gavs.size());
-        Set<Artifact> artifacts = gavs.parallelStream().map(this::gavToArtifact).collect(Collectors.toSet());
+        Set<Artifact> artifacts = gavs.stream().map(this::gavToArtifact).collect(Collectors.toSet());
         generateLicensesForArtifacts(artifacts, resultPath);
     }
 
@@ -131,13 +152,46 @@ public class LicensesGenerator {
         LicenseSanitiser mavenSanitiser = new MavenSanitiser(mavenProjectFactory, aliasLicenseSanitiser);
 
         Optional<LicenseSanitiser> maybeExternalLicenseSanitiser = licenseServiceUrl
-                .map(url -> new LicenseServiceSanitiser(url, mavenSanitiser));
+                .map(url -> new LicenseServiceSanitiser(url, licenseResolutionThreads, mavenSanitiser));
 
         LicenseSanitiser secondSanitiser = maybeExternalLicenseSanitiser.orElse(mavenSanitiser);
 
         LicenseSanitiser exceptionLicenseSanitiser = new ExceptionLicenseSanitiser(exceptionsFilePath, secondSanitiser);
 
         logger.debug("Initialising license summary factory");
-        return new LicenseSummaryFactory(exceptionLicenseSanitiser);
+        LicenseCache licenseCache = licenseCacheFilePath
+                .map(path -> new LicenseCache(Paths.get(path), hashLicenseResolutionInputs()))
+                .orElseGet(LicenseCache::inMemory);
+        return new LicenseSummaryFactory(exceptionLicenseSanitiser, licenseCache, licenseResolutionThreads);
+    }
+
+    /**
+     * Hash everything the sanitised licenses depend on, apart from the GAVs: the license service, the repositories
+     * and the content of the aliases and exceptions files. The fields are separated, so that moving a character from
+     * one to the next changes the hash.
+     */
+    private String hashLicenseResolutionInputs() {
+        ByteArrayOutputStream inputs = new ByteArrayOutputStream();
+        writeField(inputs, licenseServiceUrl.orElse(""));
+        new TreeMap<>(repositories).forEach((name, url) -> {
+            writeField(inputs, name);
+            writeField(inputs, url);
+        });
+        for (String resource : new String[] { aliasesFilePath, exceptionsFilePath }) {
+            try (InputStream input = JsonUtils.getInputStream(resource)) {
+                if (input != null) {
+                    input.transferTo(inputs);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read the resource: " + resource, e);
+            }
+            inputs.write(FIELD_SEPARATOR);
+        }
+        return DigestUtils.sha256Hex(inputs.toByteArray());
+    }
+
+    private static void writeField(ByteArrayOutputStream inputs, String field) {
+        inputs.writeBytes(field.getBytes(StandardCharsets.UTF_8));
+        inputs.write(FIELD_SEPARATOR);
     }
 }
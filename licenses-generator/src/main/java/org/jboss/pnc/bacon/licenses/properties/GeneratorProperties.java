@@ -41,6 +41,8 @@ public class GeneratorProperties {
 
     private static final String DEFAULT_EXCEPTIONS_FILE_PATH = "rh-license-exceptions.json";
 
+    private static final int DEFAULT_LICENSE_RESOLUTION_THREADS = 8;
+
     private final Configuration configuration;
 
     public GeneratorProperties() {
@@ -91,4 +93,24 @@ public class GeneratorProperties {
         configuration.setProperty(PropertyKeys.EXCEPTIONS_FILE, exceptionsFilePath);
     }
 
+    public Optional<String> getLicenseCacheFilePath() {
+        return Optional.ofNullable(configuration.getString(PropertyKeys.LICENSE_CACHE_FILE, null));
+    }
+
+    public void setLicenseCacheFilePath(String licenseCacheFilePath) {
+        configuration.setProperty(PropertyKeys.LICENSE_CACHE_FILE, licenseCacheFilePath);
+    }
+
+    public int getLicenseResolutionThreads() {
+        return configuration.getInt(PropertyKeys.LICENSE_RESOLUTION_THREADS, DEFAULT_LICENSE_RESOLUTION_THREADS);
+    }
+
+    public Optional<String> getLicenseTextStoreDirPath() {
+        return Optional.ofNullable(configuration.getString(PropertyKeys.LICENSE_TEXT_STORE_DIR, null));
+    }
+
+    public void setLicenseTextStoreDirPath(String licenseTextStoreDirPath) {
+        configuration.setProperty(PropertyKeys.LICENSE_TEXT_STORE_DIR, licenseTextStoreDirPath);
+    }
+
 }
@@ -31,4 +31,10 @@ public interface PropertyKeys {
 
     String EXCEPTIONS_FILE = "exceptionsFile";
 
+    String LICENSE_CACHE_FILE = "licenseCacheFile";
+
+    String LICENSE_RESOLUTION_THREADS = "licenseResolutionThreads";
+
+    String LICENSE_TEXT_STORE_DIR = "licenseTextStoreDir";
+
 }
@@ -35,6 +35,11 @@ public class LicenseServiceSanitiser implements LicenseSanitiser {
         this.provider = new ExternalLicenseProvider(licenseServiceUrl);
     }
 
+    public LicenseServiceSanitiser(String licenseServiceUrl, int maxConnections, LicenseSanitiser next) {
+        this.next = next;
+        this.provider = new ExternalLicenseProvider(licenseServiceUrl, maxConnections);
+    }
+
     @Override
     public DependencyElement fix(DependencyElement dependencyElement) {
         Set<LicenseElement> licenses = provider.getLicenses(dependencyElement.toGavString());
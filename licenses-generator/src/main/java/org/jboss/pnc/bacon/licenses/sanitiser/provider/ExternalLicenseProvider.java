@@ -17,13 +17,11 @@ package org.jboss.pnc.bacon.licenses.sanitiser.provider;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.CollectionType;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.jboss.pnc.bacon.licenses.LicensesGeneratorException;
 import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.core.Response;
 
 import java.io.IOException;
@@ -41,15 +39,29 @@ import java.util.stream.Collectors;
 public class ExternalLicenseProvider {
 
     private static final Logger logger = Logger.getLogger(ExternalLicenseProvider.class.getSimpleName());
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final CollectionType licenseList = mapper.getTypeFactory()
+            .constructCollectionType(List.class, ExternalLicensesDto.class);
+    private static final int DEFAULT_MAX_CONNECTIONS = 8;
+
     private final Client client;
     private final String licenseServiceUrl;
 
     public ExternalLicenseProvider(String licenseServiceUrl) {
+        this(licenseServiceUrl, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param licenseServiceUrl url of the license service
+     * @param maxConnections max number of concurrent requests, the client is shared by the threads resolving licenses
+     */
+    public ExternalLicenseProvider(String licenseServiceUrl, int maxConnections) {
         this.licenseServiceUrl = licenseServiceUrl;
         logger.info("Using license service " + licenseServiceUrl);
 
-        ClientBuilder clientBuilder = ResteasyClientBuilder.newBuilder();
-        client = clientBuilder.build();
+        client = new ResteasyClientBuilder().connectionPoolSize(maxConnections)
+                .maxPooledPerRoute(maxConnections)
+                .build();
     }
 
     public Set<LicenseElement> getLicenses(String gav) {
@@ -59,7 +71,7 @@ public class ExternalLicenseProvider {
                         "Unable to get license information for " + gav + " from license service: error "
                                 + response.getStatus());
             } else {
-                logger.info("Got license information for " + gav + " from license service");
+                logger.fine("Got license information for " + gav + " from license service");
                 String content = response.readEntity(String.class);
 
                 Set<LicenseElement> licenses = parseLicenses(content).stream()
@@ -82,9 +94,6 @@ public class ExternalLicenseProvider {
     }
 
     private List<ExternalLicensesDto> parseLicenses(String content) throws LicensesGeneratorException {
-        ObjectMapper mapper = new ObjectMapper();
-        TypeFactory typeFactory = mapper.getTypeFactory();
-        CollectionType licenseList = typeFactory.constructCollectionType(List.class, ExternalLicensesDto.class);
         try {
             return mapper.readValue(content, licenseList);
         } catch (IOException e) {
@@ -0,0 +1,54 @@
+package org.jboss.pnc.bacon.licenses;
+
+import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LicenseCacheTest {
+
+    private static final LicenseElement APACHE = new LicenseElement(
+            "Apache License 2.0",
+            "https://www.apache.org/licenses/LICENSE-2.0",
+            "https://www.apache.org/licenses/LICENSE-2.0.txt");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldKeepLicensesBetweenRuns() {
+        Path file = tempDir.resolve("license-cache.json");
+        LicenseCache cache = new LicenseCache(file, "inputs");
+        cache.put("org.acme:acme:1.0", Set.of(APACHE));
+        cache.flush();
+
+        LicenseCache reloaded = new LicenseCache(file, "inputs");
+
+        assertThat(reloaded.get("org.acme:acme:1.0")).contains(Set.of(APACHE));
+        assertThat(reloaded.get("org.acme:other:1.0")).isEmpty();
+    }
+
+    @Test
+    public void shouldDropCacheOfOtherInputs() {
+        Path file = tempDir.resolve("license-cache.json");
+        LicenseCache cache = new LicenseCache(file, "inputs");
+        cache.put("org.acme:acme:1.0", Set.of(APACHE));
+        cache.flush();
+
+        assertThat(new LicenseCache(file, "changed exceptions").size()).isZero();
+    }
+
+    @Test
+    public void shouldNotCacheMissingOrInvalidLicenses() {
+        LicenseCache cache = LicenseCache.inMemory();
+        cache.put("org.acme:none:1.0", Collections.emptySet());
+        cache.put("org.acme:invalid:1.0", Set.of(new LicenseElement("Apache License 2.0", "")));
+
+        assertThat(cache.size()).isZero();
+    }
+}
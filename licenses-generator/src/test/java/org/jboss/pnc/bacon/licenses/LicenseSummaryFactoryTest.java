@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
@@ -21,6 +22,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -88,4 +91,32 @@ public class LicenseSummaryFactoryTest {
         verify(mockLicenseSanitiser).fix(dependencyElement);
     }
 
+    @Test
+    public void shouldResolveEveryGavOnceAndUseCache() {
+        Artifact jar = artifact("testGroupId", "testArtifactId", "jar");
+        Artifact pom = artifact("testGroupId", "testArtifactId", "pom");
+        Artifact cached = artifact("testGroupId", "cachedArtifactId", "jar");
+        LicenseElement license = new LicenseElement("testLicenseName", "testLicenseUrl");
+        LicenseCache cache = LicenseCache.inMemory();
+        cache.put("testGroupId:cachedArtifactId:testVersion", Collections.singleton(license));
+        when(mockLicenseSanitiser.fix(any()))
+                .then(a -> new DependencyElement(a.getArgument(0), Collections.singleton(license)));
+
+        LicenseSummary licenseSummary = new LicenseSummaryFactory(mockLicenseSanitiser, cache, 2)
+                .getLicenseSummary(Arrays.asList(jar, pom, cached));
+
+        assertThat(licenseSummary.getDependencies()).hasSize(3);
+        assertThat(licenseSummary.getDependencies()).allMatch(element -> element.getLicenses().contains(license));
+        verify(mockLicenseSanitiser, times(1)).fix(any());
+        assertThat(cache.get("testGroupId:testArtifactId:testVersion")).isPresent();
+    }
+
+    private static Artifact artifact(String groupId, String artifactId, String type) {
+        Artifact artifact = mock(Artifact.class);
+        when(artifact.getGroupId()).thenReturn(groupId);
+        when(artifact.getArtifactId()).thenReturn(artifactId);
+        when(artifact.getVersion()).thenReturn("testVersion");
+        when(artifact.getType()).thenReturn(type);
+        return artifact;
+    }
 }
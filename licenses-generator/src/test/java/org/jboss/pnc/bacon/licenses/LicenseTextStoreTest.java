@@ -0,0 +1,145 @@
+package org.jboss.pnc.bacon.licenses;
+
+import io.undertow.Undertow;
+import io.undertow.util.Headers;
+import org.jboss.pnc.bacon.licenses.xml.LicenseElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LicenseTextStoreTest {
+
+    private static final String APACHE_TEXT = "Apache License Version 2.0, January 2004";
+
+    private static final String ETAG = "\"apache\"";
+
+    private static final Map<String, String> TEXTS = Map
+            .of("/apache.txt", APACHE_TEXT, "/apache-mirror.txt", APACHE_TEXT, "/mit.txt", "MIT License");
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private Undertow server;
+
+    private String baseUrl;
+
+    @BeforeEach
+    public void startServer() {
+        server = Undertow.builder().addHttpListener(0, "localhost").setHandler(exchange -> {
+            String text = TEXTS.get(exchange.getRelativePath());
+            if (text == null) {
+                exchange.setStatusCode(404);
+            } else if (ETAG.equals(exchange.getRequestHeaders().getFirst(Headers.IF_NONE_MATCH))) {
+                notModified.incrementAndGet();
+                exchange.setStatusCode(304);
+            } else {
+                downloads.incrementAndGet();
+                exchange.getResponseHeaders().put(Headers.ETAG, ETAG);
+                exchange.getResponseSender().send(text);
+            }
+        }).build();
+        server.start();
+        Undertow.ListenerInfo listener = server.getListenerInfo().get(0);
+        baseUrl = listener.getProtcol() + ":/" + listener.getAddress().toString();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void shouldDownloadEachTextOnce() throws IOException {
+        LicenseElement apache = license("Apache License 2.0", "/apache.txt");
+        LicenseTextStore store = new LicenseTextStore(tempDir);
+
+        store.fetch(List.of(apache, license("Apache-2.0", "/apache.txt")), 4);
+        store.fetch(List.of(apache), 4);
+
+        assertThat(downloads).hasValue(1);
+        assertThat(store.find(apache)).hasValueSatisfying(text -> assertThat(text).hasContent(APACHE_TEXT));
+    }
+
+    @Test
+    public void shouldDownloadNewTextUrlOfKnownLicenseName() throws IOException {
+        LicenseTextStore store = new LicenseTextStore(tempDir);
+        store.fetch(List.of(license("Custom License", "/apache.txt")), 4);
+
+        LicenseElement otherText = license("custom license", "/mit.txt");
+        store.fetch(List.of(otherText), 4);
+
+        assertThat(downloads).hasValue(2);
+        assertThat(store.find(otherText)).hasValueSatisfying(text -> assertThat(text).hasContent("MIT License"));
+    }
+
+    @Test
+    public void shouldFallBackToLicenseNameWhenTextUrlFails() throws IOException {
+        LicenseTextStore store = new LicenseTextStore(tempDir);
+        store.fetch(List.of(license("Apache License 2.0", "/apache.txt")), 4);
+        store.flush();
+
+        LicenseTextStore reloaded = new LicenseTextStore(tempDir);
+        LicenseElement unavailable = license("apache license 2.0", "/missing.txt");
+        reloaded.fetch(List.of(unavailable), 4);
+
+        assertThat(reloaded.find(unavailable)).hasValueSatisfying(text -> assertThat(text).hasContent(APACHE_TEXT));
+    }
+
+    @Test
+    public void shouldStoreSameTextOnce() throws IOException {
+        LicenseTextStore store = new LicenseTextStore(tempDir);
+        LicenseElement apache = license("Apache License 2.0", "/apache.txt");
+        LicenseElement mirror = license("Apache Software License", "/apache-mirror.txt");
+        LicenseElement mit = license("MIT License", "/mit.txt");
+
+        store.fetch(List.of(apache, mirror, mit), 4);
+
+        assertThat(store.find(apache)).isEqualTo(store.find(mirror));
+        try (Stream<Path> objects = Files.list(tempDir.resolve("objects"))) {
+            assertThat(objects).hasSize(2);
+        }
+    }
+
+    @Test
+    public void shouldRevalidateOutdatedTextWithConditionalRequest() {
+        LicenseTextStore store = new LicenseTextStore(tempDir, Duration.ZERO);
+        LicenseElement apache = license("Apache License 2.0", "/apache.txt");
+
+        store.fetch(List.of(apache), 4);
+        store.fetch(List.of(apache), 4);
+
+        assertThat(downloads).hasValue(1);
+        assertThat(notModified).hasValue(1);
+        assertThat(store.find(apache)).isPresent();
+    }
+
+    @Test
+    public void shouldNotFindTextThatFailedToDownload() {
+        LicenseTextStore store = new LicenseTextStore(tempDir);
+        LicenseElement missing = license("Missing License", "/missing.txt");
+
+        store.fetch(List.of(missing), 4);
+
+        assertThat(store.find(missing)).isEmpty();
+    }
+
+    private LicenseElement license(String name, String path) {
+        return new LicenseElement(name, baseUrl + path);
+    }
+}
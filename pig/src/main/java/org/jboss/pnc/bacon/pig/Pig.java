@@ -34,6 +34,7 @@ import org.jboss.pnc.bacon.pig.impl.pnc.ImportResult;
 import org.jboss.pnc.bacon.pig.impl.repo.RepositoryData;
 import org.jboss.pnc.bacon.pig.impl.utils.AlignmentType;
 import org.jboss.pnc.bacon.pig.impl.utils.FileDownloadUtils;
+import org.jboss.pnc.bacon.pig.impl.utils.LookupCache;
 import org.jboss.pnc.bacon.pnc.common.ParameterChecker;
 import org.jboss.pnc.enums.RebuildMode;
 import picocli.CommandLine.Command;
@@ -126,6 +127,12 @@ public class Pig {
                 description = "How many times should attempts to download files (e.g. from Indy to repo zip) be made")
         private int downloadAttempts;
 
+        @Option(
+                names = "--downloadConcurrency",
+                defaultValue = "10",
+                description = "How many files should be downloaded in parallel (e.g. from Indy to repo zip)")
+        private int downloadConcurrency;
+
         @Option(
                 names = "--targetPath",
                 defaultValue = "target",
@@ -156,10 +163,16 @@ public class Pig {
             pig.validate();
 
             FileDownloadUtils.setAttempts(downloadAttempts);
+            FileDownloadUtils.setMaxConcurrentDownloads(downloadConcurrency);
 
             PigContext.init(clean || isStartingPoint(), Paths.get(configDir), targetPath, releaseStorageUrl, overrides);
             PigContext.get().setTempBuild(tempBuild);
-            ObjectHelper.print(getJsonOutput(), doExecute());
+            try {
+                ObjectHelper.print(getJsonOutput(), doExecute());
+            } finally {
+                // keep the lookups of a failed run too, the next run doesn't have to repeat them
+                LookupCache.flushAll();
+            }
             return 0;
         }
 
@@ -253,6 +266,12 @@ public class Pig {
                 description = "Path to file with license names for license generation. Usually rh-license-names.json.")
         private String licenseNamesPath;
 
+        @Option(
+                names = "--resume",
+                defaultValue = "false",
+                description = "Reuse the context of the previous run and skip the stages whose inputs and outputs haven't changed since then.")
+        private boolean resume;
+
         /**
          * addOns to skip. Specified in CLI by using the flag multiple times: --skipAddon=a --skipAddon=b
          *
@@ -302,7 +321,7 @@ public class Pig {
 
         @Override
         boolean isStartingPoint() {
-            return true;
+            return !resume;
         }
     }
 
@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.bacon.pig;
 
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.jboss.pnc.bacon.common.exception.FatalException;
 import org.jboss.pnc.bacon.pig.impl.PigContext;
 import org.jboss.pnc.bacon.pig.impl.addons.AddOn;
@@ -71,9 +72,11 @@ import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -86,6 +89,14 @@ public final class PigFacade {
 
     private static final Logger log = LoggerFactory.getLogger(PigFacade.class);
 
+    private static final String PIG = "pig";
+
+    private static final String REPOSITORY_STAGE = "repository";
+    private static final String SOURCES_STAGE = "sources";
+    private static final String JAVADOC_STAGE = "javadoc";
+    private static final String LICENSES_STAGE = "licenses";
+    private static final String SHARED_CONTENT_STAGE = "sharedContent";
+
     private PigFacade() {
     }
 
@@ -187,9 +198,9 @@ public final class PigFacade {
 
         ImportResult importResult;
         if (skipPncUpdate) {
-            importResult = readPncEntities();
+            importResult = Telemetry.call(PIG, "readPncEntities", PigFacade::readPncEntities);
         } else {
-            importResult = configure(skipBranchCheck, tempBuild);
+            importResult = Telemetry.call(PIG, "configure", () -> configure(skipBranchCheck, tempBuild));
         }
         context.setPncImportResult(importResult);
         context.storeContext();
@@ -199,7 +210,8 @@ public final class PigFacade {
             log.info("Skipping builds");
             groupBuildInfo = getBuilds(importResult, tempBuild);
         } else {
-            groupBuildInfo = build(tempBuild, tempBuildTS, rebuildMode, true, tempAlign);
+            groupBuildInfo = Telemetry
+                    .call(PIG, "build", () -> build(tempBuild, tempBuildTS, rebuildMode, true, tempAlign));
         }
 
         context.setBuilds(groupBuildInfo.getBuilds());
@@ -210,6 +222,8 @@ public final class PigFacade {
         // TODO: It is possible that someone adds a build config to the product version but not to the build group
         // TODO: should we bother with this case?
 
+        // once a stage is executed again, all the following ones have to be executed as well
+        boolean resumable = true;
         RepositoryData repo = null;
 
         if (repoZipPath != null || context.getPigConfiguration()
@@ -217,16 +231,28 @@ public final class PigFacade {
                 .getRepositoryGeneration()
                 .getStrategy() != RepoGenerationStrategy.IGNORE) {
             if (repoZipPath != null) {
+                context.removeCheckpoint(REPOSITORY_STAGE);
                 repo = parseRepository(new File(repoZipPath));
+                context.setRepositoryData(repo);
+                context.storeContext();
+                resumable = false;
             } else {
-                repo = generateRepo(
-                        removeGeneratedM2Dups,
-                        configurationDirectory,
-                        strictLicenseCheck,
-                        strictDownloadSource);
+                resumable &= !runStage(
+                        REPOSITORY_STAGE,
+                        resumable,
+                        context.hashStageInputs(removeGeneratedM2Dups, strictLicenseCheck, strictDownloadSource),
+                        () -> {
+                            context.setRepositoryData(
+                                    generateRepo(
+                                            removeGeneratedM2Dups,
+                                            configurationDirectory,
+                                            strictLicenseCheck,
+                                            strictDownloadSource));
+                            context.storeContext();
+                        },
+                        () -> List.of(context.getRepositoryData().getRepositoryPath().toString()));
+                repo = context.getRepositoryData();
             }
-            context.setRepositoryData(repo);
-            context.storeContext();
         } else {
             log.info("Skipping Repo Generation");
         }
@@ -235,10 +261,15 @@ public final class PigFacade {
                 .getFlow()
                 .getSourcesGeneration()
                 .getStrategy() == SourcesGenerationStrategy.IGNORE)) {
-            generateSources();
-
+            resumable &= !runStage(
+                    SOURCES_STAGE,
+                    resumable,
+                    context.hashStageInputs(strictDownloadSource),
+                    PigFacade::generateSources,
+                    () -> Collections.singletonList(releasePathOf(context.getDeliverables().getSourceZipName())));
         } else {
             log.info("Skipping Source Generation");
+            context.removeCheckpoint(SOURCES_STAGE);
             context.getDeliverables().setSourceZipName(null);
         }
 
@@ -246,9 +277,15 @@ public final class PigFacade {
                 .getFlow()
                 .getJavadocGeneration()
                 .getStrategy() == JavadocGenerationStrategy.IGNORE)) {
-            generateJavadoc();
+            resumable &= !runStage(
+                    JAVADOC_STAGE,
+                    resumable,
+                    context.hashStageInputs(),
+                    PigFacade::generateJavadoc,
+                    () -> Collections.singletonList(releasePathOf(context.getDeliverables().getJavadocZipName())));
         } else {
             log.info("Skipping Javadoc Generation");
+            context.removeCheckpoint(JAVADOC_STAGE);
             context.getDeliverables().setJavadocZipName(null);
         }
 
@@ -261,22 +298,36 @@ public final class PigFacade {
                     .getLicensesGeneration()
                     .setLicenseExceptionsPath(licenseExceptionsPath);
             context.getPigConfiguration().getFlow().getLicensesGeneration().setLicenseNamesPath(licenseNamesPath);
-            generateLicenses(strictLicenseCheck, licenseExceptionsPath, licenseNamesPath);
+            resumable &= !runStage(
+                    LICENSES_STAGE,
+                    resumable,
+                    context.hashStageInputs(strictLicenseCheck),
+                    () -> generateLicenses(strictLicenseCheck, licenseExceptionsPath, licenseNamesPath),
+                    () -> Collections.singletonList(releasePathOf(context.getDeliverables().getLicenseZipName())));
         } else {
             log.info("Skipping License Generation");
+            context.removeCheckpoint(LICENSES_STAGE);
             context.getDeliverables().setLicenseZipName(null);
         }
         if (!skipSharedContent && repo != null) {
-            prepareSharedContentAnalysis();
+            resumable &= !runStage(
+                    SHARED_CONTENT_STAGE,
+                    resumable,
+                    context.hashStageInputs(),
+                    PigFacade::prepareSharedContentAnalysis,
+                    () -> List.of(context.getExtrasPath() + context.getDeliverables().getSharedContentReport()));
+        } else {
+            context.removeCheckpoint(SHARED_CONTENT_STAGE);
         }
 
+        // documents and add-ons are cheap and have no single output to verify, they always run
         if (repo != null) {
-            generateDocuments();
+            Telemetry.run(PIG, "documents", PigFacade::generateDocuments);
         } else {
             log.info("Skipping Document Generation");
         }
 
-        triggerAddOns(skippedAddons);
+        Telemetry.run(PIG, "addOns", () -> triggerAddOns(skippedAddons));
 
         log.info("PiG run completed, the results are in: {}", Paths.get(context().getTargetPath()).toAbsolutePath());
         return groupBuildInfo;
@@ -393,7 +444,7 @@ public final class PigFacade {
         SourcesGenerator sourcesGenerator = new SourcesGenerator(
                 pigConfiguration.getFlow().getSourcesGeneration(),
                 pigConfiguration.getTopLevelDirectoryPrefix() + "src",
-                context.getReleasePath() + context.getDeliverables().getSourceZipName());
+                releasePathOf(context.getDeliverables().getSourceZipName()));
         sourcesGenerator.generateSources(builds, repo);
     }
 
@@ -401,6 +452,38 @@ public final class PigFacade {
         return PigContext.get();
     }
 
+    /**
+     * Run the stage unless it can be resumed, i.e. it completed in a previous run with the same inputs and its outputs
+     * haven't changed since then
+     *
+     * @param stage name of the stage
+     * @param resumable false if a previous stage has been executed and thus this one has to be executed too
+     * @param inputHash hash of the inputs of the stage
+     * @param action the stage
+     * @param outputs the files produced by the stage, evaluated after the stage completes
+     * @return true if the stage has been executed
+     */
+    private static boolean runStage(
+            String stage,
+            boolean resumable,
+            String inputHash,
+            Runnable action,
+            Supplier<Collection<String>> outputs) {
+        PigContext context = context();
+        if (resumable && context.isStageUpToDate(stage, inputHash)) {
+            log.info("Skipping the {} stage, it is up to date with the previous run", stage);
+            return false;
+        }
+        context.removeCheckpoint(stage);
+        Telemetry.run(PIG, stage, action);
+        context.completeStage(stage, inputHash, outputs.get());
+        return true;
+    }
+
+    private static String releasePathOf(String deliverable) {
+        return deliverable == null ? null : context().getReleasePath() + deliverable;
+    }
+
     private static String getBrewTag(ProductVersionRef versionRef) {
         try (ProductVersionClient productVersionClient = new ProductVersionClient(
                 PncClientHelper.getPncConfiguration())) {
@@ -455,7 +538,7 @@ public final class PigFacade {
 
         beforeCommand(false);
         abortIfBuildDataAbsentFromContext();
-        AddOnFactory
+        List<AddOn> addOns = AddOnFactory
                 .listAddOns(
                         context().getPigConfiguration(),
                         context().getBuilds(),
@@ -465,7 +548,9 @@ public final class PigFacade {
                 .stream()
                 .filter(addOn -> !skippedAddonsList.contains(addOn.getName()))
                 .filter(AddOn::shouldRun)
-                .forEach(AddOn::trigger);
+                .collect(Collectors.toList());
+        AddOn.visitBuildLogs(addOns, context().getBuilds().values());
+        addOns.forEach(AddOn::trigger);
     }
 
     /**
@@ -18,38 +18,55 @@
 package org.jboss.pnc.bacon.pig.impl;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
 import org.jboss.pnc.bacon.pig.impl.documents.Deliverables;
 import org.jboss.pnc.bacon.pig.impl.pnc.ImportResult;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncEntitiesImporter;
 import org.jboss.pnc.bacon.pig.impl.repo.RepositoryData;
+import org.jboss.pnc.bacon.pig.impl.utils.FingerprintIndex;
+import org.jboss.pnc.bacon.pig.impl.utils.FingerprintIndex.Fingerprint;
 import org.jboss.pnc.bacon.pig.impl.utils.MilestoneNumberFinder;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.jboss.pnc.bacon.common.Constant.PIG_CONTEXT_DIR;
-import static org.jboss.pnc.bacon.pig.impl.utils.HashUtils.hashDirectory;
 
 /**
- * TODO: consider saving the latest reached state to not repeat the steps already performed
+ * State of a pig execution. Stages of {@code pig run} record {@link StageCheckpoint}s here so that a resumed run can
+ * skip the ones that are still up to date.
+ * <p>
+ * The context is stored in a {@link PigContextSnapshot}. The builds, the repository data and the checksums are kept in
+ * separate sections of the snapshot, read on the first access and written only if they were accessed.
  *
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
  *         Date: 4/1/19
@@ -58,6 +75,23 @@ import static org.jboss.pnc.bacon.pig.impl.utils.HashUtils.hashDirectory;
 @Slf4j
 public class PigContext {
     private static final ObjectMapper jsonMapper;
+    private static final ObjectWriter sectionWriter;
+
+    private static final String CONTEXT_FILE = "pig-context.bin";
+    private static final String LEGACY_CONTEXT_FILE = "pig-context.json";
+    private static final String FINGERPRINT_INDEX_FILE = "config-fingerprints.json";
+
+    private static final String CORE = "core";
+    private static final String BUILDS = "builds";
+    private static final String REPOSITORY_DATA = "repositoryData";
+    private static final String CHECKSUMS = "checksums";
+
+    private static final TypeReference<Map<String, PncBuild>> BUILDS_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<RepositoryData> REPOSITORY_DATA_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<Map<String, Collection<String>>> CHECKSUMS_TYPE = new TypeReference<>() {
+    };
 
     static {
         jsonMapper = new ObjectMapper();
@@ -66,11 +100,14 @@ public class PigContext {
         jsonMapper.setVisibility(PropertyAccessor.GETTER, JsonAutoDetect.Visibility.NONE);
         jsonMapper.setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE);
         jsonMapper.registerModule(new JavaTimeModule());
+        sectionWriter = jsonMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
     }
 
     private PigConfiguration pigConfiguration; // TODO merge config instead of setting it?
     private ImportResult pncImportResult;
+    @JsonIgnore
     private Map<String, PncBuild> builds;
+    @JsonIgnore
     private RepositoryData repositoryData;
     private Deliverables deliverables;
 
@@ -87,8 +124,72 @@ public class PigContext {
     private String prefix;
     private String fullVersion; // version like 1.3.2.DR7
 
+    @JsonIgnore
     private Map<String, Collection<String>> checksums;
 
+    private Map<String, StageCheckpoint> checkpoints = new HashMap<>();
+
+    @JsonIgnore
+    private transient PigContextSnapshot snapshot;
+    /**
+     * sections held in memory, only these are written when storing the context
+     */
+    @JsonIgnore
+    private final transient Set<String> loadedSections = new HashSet<>();
+
+    public synchronized Map<String, PncBuild> getBuilds() {
+        if (loadSection(BUILDS)) {
+            builds = readSection(BUILDS, BUILDS_TYPE);
+        }
+        return builds;
+    }
+
+    public synchronized void setBuilds(Map<String, PncBuild> builds) {
+        loadedSections.add(BUILDS);
+        this.builds = builds;
+    }
+
+    public synchronized RepositoryData getRepositoryData() {
+        if (loadSection(REPOSITORY_DATA)) {
+            repositoryData = readSection(REPOSITORY_DATA, REPOSITORY_DATA_TYPE);
+        }
+        return repositoryData;
+    }
+
+    public synchronized void setRepositoryData(RepositoryData repositoryData) {
+        loadedSections.add(REPOSITORY_DATA);
+        this.repositoryData = repositoryData;
+    }
+
+    public synchronized Map<String, Collection<String>> getChecksums() {
+        if (loadSection(CHECKSUMS)) {
+            checksums = readSection(CHECKSUMS, CHECKSUMS_TYPE);
+        }
+        return checksums;
+    }
+
+    public synchronized void setChecksums(Map<String, Collection<String>> checksums) {
+        loadedSections.add(CHECKSUMS);
+        this.checksums = checksums;
+    }
+
+    /**
+     * @return true if the section has to be read from the snapshot
+     */
+    private boolean loadSection(String section) {
+        boolean stored = snapshot != null && !loadedSections.contains(section) && snapshot.has(section);
+        loadedSections.add(section);
+        return stored;
+    }
+
+    private <T> T readSection(String section, TypeReference<T> type) {
+        try {
+            return jsonMapper.readValue(snapshot.read(section), type);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + section + " of the pig context", e);
+        }
+    }
+
     public void initConfig(Path configDir, String targetPath, String releaseStorageUrl, Map<String, String> overrides) {
         File configFile = configDir.resolve("build-config.yaml").toFile();
         if (configFile.exists()) {
@@ -183,10 +284,118 @@ public class PigContext {
         extrasPath = extrasPath.endsWith(File.separator) ? extrasPath : extrasPath + File.separator;
     }
 
-    public void storeContext() {
-        try (OutputStream output = new FileOutputStream(contextLocation)) {
-            jsonMapper.writerFor(PigContext.class).writeValue(output, this);
+    /**
+     * Hash the inputs of a stage: the effective configuration (including overrides), the builds and the stage specific
+     * parameters
+     *
+     * @param parameters stage specific parameters, e.g. command line switches
+     * @return hash of the inputs
+     */
+    public String hashStageInputs(Object... parameters) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        try {
+            digest.update(jsonMapper.writeValueAsBytes(pigConfiguration));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize the pig configuration", e);
+        }
+        Map<String, PncBuild> builds = getBuilds();
+        if (builds != null) {
+            builds.values()
+                    .stream()
+                    .map(PncBuild::getId)
+                    .sorted()
+                    .forEach(buildId -> DigestUtils.updateDigest(digest, buildId));
+        }
+        for (Object parameter : parameters) {
+            DigestUtils.updateDigest(digest, String.valueOf(parameter));
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * @param stage name of the stage
+     * @param inputHash hash of the current inputs of the stage, see {@link #hashStageInputs(Object...)}
+     * @return true if the stage completed before with the same inputs and its outputs haven't changed since
+     */
+    public boolean isStageUpToDate(String stage, String inputHash) {
+        StageCheckpoint checkpoint = checkpoints.get(stage);
+        if (checkpoint == null || !checkpoint.getInputHash().equals(inputHash)) {
+            return false;
+        }
+        for (Map.Entry<String, String> output : checkpoint.getOutputChecksums().entrySet()) {
+            Path path = Paths.get(output.getKey());
+            if (!Files.isRegularFile(path) || !output.getValue().equals(sha256(path))) {
+                log.info("Output {} of {} has changed since the previous run", path, stage);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record that the stage completed and store the context. A stage that did not produce all its outputs, e.g.
+     * because it failed and only logged the error, gets no checkpoint and runs again next time.
+     *
+     * @param stage name of the stage
+     * @param inputHash hash of the inputs of the stage
+     * @param outputs files produced by the stage, null values are ignored
+     */
+    public void completeStage(String stage, String inputHash, Collection<String> outputs) {
+        StageCheckpoint checkpoint = new StageCheckpoint();
+        checkpoint.setInputHash(inputHash);
+        for (String output : outputs) {
+            if (output != null) {
+                Path path = Paths.get(output).toAbsolutePath();
+                if (!Files.isRegularFile(path)) {
+                    log.warn("Output {} of {} is missing, the stage will run again next time", path, stage);
+                    checkpoints.remove(stage);
+                    storeContext();
+                    return;
+                }
+                checkpoint.getOutputChecksums().put(path.toString(), sha256(path));
+            }
+        }
+        checkpoint.setCompletedAt(Instant.now());
+        checkpoints.put(stage, checkpoint);
+        storeContext();
+    }
+
+    public void removeCheckpoint(String stage) {
+        checkpoints.remove(stage);
+    }
+
+    private static String sha256(Path path) {
+        try (InputStream input = Files.newInputStream(path)) {
+            return DigestUtils.sha256Hex(input);
         } catch (IOException e) {
+            throw new RuntimeException("Failed to compute the checksum of " + path, e);
+        }
+    }
+
+    /**
+     * Store the context, skipping the sections that were not accessed or did not change
+     */
+    public synchronized void storeContext() {
+        Path location = Paths.get(contextLocation);
+        if (snapshot == null || !snapshot.getFile().equals(location)) {
+            snapshot = PigContextSnapshot.empty(location);
+        }
+        Map<String, byte[]> sections = new LinkedHashMap<>();
+        try {
+            sections.put(CORE, sectionWriter.forType(PigContext.class).writeValueAsBytes(this));
+            if (loadedSections.contains(BUILDS)) {
+                sections.put(BUILDS, sectionWriter.forType(BUILDS_TYPE).writeValueAsBytes(builds));
+            }
+            if (loadedSections.contains(REPOSITORY_DATA)) {
+                sections.put(
+                        REPOSITORY_DATA,
+                        sectionWriter.forType(REPOSITORY_DATA_TYPE).writeValueAsBytes(repositoryData));
+            }
+            if (loadedSections.contains(CHECKSUMS)) {
+                sections.put(CHECKSUMS, sectionWriter.forType(CHECKSUMS_TYPE).writeValueAsBytes(checksums));
+            }
+            snapshot.write(sections);
+        } catch (IOException | UncheckedIOException e) {
             throw new RuntimeException("failed to store PigContext", e);
         }
     }
@@ -211,37 +420,55 @@ public class PigContext {
         return instance;
     }
 
+    /**
+     * @return the directory of the pig context and its caches, {@code PIG_CONTEXT_DIR} if set, {@code .bacon}
+     *         otherwise
+     */
+    public static Path contextDir() {
+        String ctxLocationEnv = System.getenv(PIG_CONTEXT_DIR);
+        return ctxLocationEnv == null ? Paths.get(".bacon") : Paths.get(ctxLocationEnv);
+    }
+
     private static PigContext readContext(boolean clean, Path configDir) {
-        String sha = hashDirectory(configDir, path -> {
-            // normalize to remove any redundancies (unnecessary './' or '../' in the path)
-            Path tempPath = path.normalize();
-            // we ignore the top-level .bacon/pig-context.json and the content from the top-level target folder
-            // if
-            // present
-            // They shouldn't be part of the hash generation since their content will change constantly but
-            // shouldn't
-            // contribute to the hash of the directory since their content doesn't affect the integrity of the
-            // context
-            return tempPath.startsWith(Paths.get(".bacon", "pig-context.json"))
-                    || tempPath.startsWith(Paths.get("target"));
-        });
+        Path contextDir = contextDir();
+        Path contextFile = contextDir.resolve(CONTEXT_FILE);
+        Path legacyContextJson = contextDir.resolve(LEGACY_CONTEXT_FILE);
+
+        Fingerprint fingerprint = new FingerprintIndex(contextDir.resolve(FINGERPRINT_INDEX_FILE))
+                .fingerprint(configDir, path -> {
+                    // normalize to remove any redundancies (unnecessary './' or '../' in the path)
+                    Path tempPath = path.normalize();
+                    // we ignore the top-level .bacon folder, with the pig context and the caches, and the content
+                    // from the top-level target folder if present
+                    // They shouldn't be part of the hash generation since their content will change constantly but
+                    // shouldn't contribute to the hash of the directory since their content doesn't affect the
+                    // integrity of the context
+                    return tempPath.startsWith(Paths.get(".bacon")) || tempPath.startsWith(Paths.get("target"));
+                });
+        String sha = fingerprint.getHash();
 
         PigContext result;
-        String ctxLocationEnv = System.getenv(PIG_CONTEXT_DIR);
-        Path contextDir = ctxLocationEnv == null ? Paths.get(".bacon") : Paths.get(ctxLocationEnv);
-        Path contextJson = contextDir.resolve("pig-context.json");
-        if (!clean && Files.exists(contextJson)) {
-            try (InputStream input = Files.newInputStream(contextJson)) {
-                result = jsonMapper.readerFor(PigContext.class).readValue(input);
-                if (!sha.equals(result.getConfigSha())) {
-                    log.info("the configuration has been changed since the last run, using clean pig context");
-                    result = new PigContext();
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("failed to read PigContext from " + contextDir.toAbsolutePath(), e);
-            }
+        if (!clean && Files.exists(contextFile)) {
+            result = readSnapshot(contextFile);
+        } else if (!clean && Files.exists(legacyContextJson)) {
+            result = readLegacyContext(legacyContextJson);
         } else {
+            result = null;
+        }
+        if (result != null && !sha.equals(result.getConfigSha())) {
+            String changes = fingerprint.describeChanges();
+            if (!changes.isEmpty()) {
+                log.info(
+                        "the configuration has been changed since the last run ({}), using clean pig context",
+                        changes);
+            } else {
+                log.info("the configuration has been changed since the last run, using clean pig context");
+            }
+            result = null;
+        }
+        if (result == null) {
             result = new PigContext();
+            result.snapshot = PigContextSnapshot.empty(contextFile.toAbsolutePath());
         }
 
         if (!Files.exists(contextDir)) {
@@ -252,12 +479,47 @@ public class PigContext {
                         "Failed to create a directory to store the pig context: " + contextDir.toAbsolutePath());
             }
         }
-        result.setContextLocation(contextJson.toAbsolutePath().toString());
+        result.setContextLocation(contextFile.toAbsolutePath().toString());
         result.setConfigSha(sha);
 
         return result;
     }
 
+    /**
+     * @return the context with the core section of the snapshot read, null if the snapshot is empty
+     */
+    static PigContext readSnapshot(Path contextFile) {
+        PigContextSnapshot snapshot = PigContextSnapshot.open(contextFile.toAbsolutePath());
+        byte[] core = snapshot.read(CORE);
+        if (core == null) {
+            return null;
+        }
+        try {
+            PigContext result = jsonMapper.readerFor(PigContext.class).readValue(core);
+            result.snapshot = snapshot;
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("failed to read PigContext from " + contextFile.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Read the context stored as a single json document by the previous versions. The context is stored as a snapshot
+     * afterwards.
+     */
+    private static PigContext readLegacyContext(Path contextJson) {
+        try (InputStream input = Files.newInputStream(contextJson)) {
+            JsonNode tree = jsonMapper.readTree(input);
+            PigContext result = jsonMapper.treeToValue(tree, PigContext.class);
+            result.setBuilds(jsonMapper.convertValue(tree.get(BUILDS), BUILDS_TYPE));
+            result.setRepositoryData(jsonMapper.convertValue(tree.get(REPOSITORY_DATA), REPOSITORY_DATA_TYPE));
+            result.setChecksums(jsonMapper.convertValue(tree.get(CHECKSUMS), CHECKSUMS_TYPE));
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("failed to read PigContext from " + contextJson.toAbsolutePath(), e);
+        }
+    }
+
     @Deprecated
     // for tests only!
     public static void setInstance(PigContext instance) {
@@ -0,0 +1,335 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Snapshot of a {@link PigContext} on the disk, split into named sections that are read and written independently.
+ * <p>
+ * The file starts with a magic number and the format version, followed by records of the sections. A record holds the
+ * name of the section, the sha256 of its content and the content itself, deflated if big. Storing a section appends a
+ * new record unless the content did not change, the last record of a section wins. Opening a snapshot only reads the
+ * record headers, the content of a section is read when asked for. A truncated last record, e.g. after a crash, is
+ * ignored. Once the outdated records take more space than the live ones, the file is rewritten with the live records
+ * only.
+ */
+@Slf4j
+class PigContextSnapshot {
+    private static final byte[] MAGIC = { 'B', 'A', 'C', 'O', 'N', 'P', 'I', 'G' };
+    static final int FORMAT_VERSION = 1;
+
+    private static final int DEFLATE_THRESHOLD = 64 * 1024;
+    private static final int COMPACTION_THRESHOLD = 1024 * 1024;
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    private final Path file;
+    private final Map<String, Record> records = new LinkedHashMap<>();
+    private long size;
+    private boolean rewrite;
+
+    private PigContextSnapshot(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the snapshot stored in the file. A missing file, or a file of an unknown format, gives an empty snapshot
+     * that replaces the file on the first write.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     */
+    static PigContextSnapshot open(Path file) {
+        PigContextSnapshot snapshot = new PigContextSnapshot(file);
+        if (!Files.isRegularFile(file)) {
+            snapshot.rewrite = true;
+            return snapshot;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long fileSize = Files.size(file);
+            byte[] magic = new byte[MAGIC.length];
+            int version;
+            try {
+                input.readFully(magic);
+                version = input.readInt();
+            } catch (EOFException e) {
+                version = -1;
+            }
+            if (!Arrays.equals(MAGIC, magic) || version != FORMAT_VERSION) {
+                log.info("Unsupported pig context format in {}, using clean pig context", file);
+                snapshot.rewrite = true;
+                return snapshot;
+            }
+            snapshot.size = MAGIC.length + Integer.BYTES;
+            try {
+                Record record;
+                while ((record = readHeader(input, snapshot.size)) != null) {
+                    if (record.end() > fileSize) {
+                        throw new EOFException();
+                    }
+                    input.skipNBytes(record.length);
+                    snapshot.records.put(record.name, record);
+                    snapshot.size = record.end();
+                }
+            } catch (EOFException e) {
+                // the rest is dropped on the next write
+                log.warn("Ignoring the truncated end of the pig context in {}", file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the pig context from " + file, e);
+        }
+        return snapshot;
+    }
+
+    /**
+     * An empty snapshot, replacing the file on the first write
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     */
+    static PigContextSnapshot empty(Path file) {
+        PigContextSnapshot snapshot = new PigContextSnapshot(file);
+        snapshot.rewrite = true;
+        return snapshot;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    boolean has(String section) {
+        return records.containsKey(section);
+    }
+
+    /**
+     * @param section name of the section
+     * @return content of the section, null if the snapshot does not have it
+     */
+    synchronized byte[] read(String section) {
+        Record record = records.get(section);
+        if (record == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return record.content(readStored(channel, record));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read section " + section + " of the pig context " + file, e);
+        }
+    }
+
+    /**
+     * Store the sections, skipping the ones with the same content as stored already
+     *
+     * @param sections contents of the sections by their names
+     */
+    synchronized void write(Map<String, byte[]> sections) {
+        Map<String, byte[]> changed = new LinkedHashMap<>();
+        Map<String, String> digests = new HashMap<>();
+        sections.forEach((name, content) -> {
+            String digest = DigestUtils.sha256Hex(content);
+            Record stored = records.get(name);
+            if (rewrite || stored == null || !stored.digest.equals(digest)) {
+                changed.put(name, content);
+                digests.put(name, digest);
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            if (rewrite || Files.size(file) != size || needsCompaction(changed)) {
+                compact(changed, digests);
+            } else {
+                try (OutputStream output = new BufferedOutputStream(
+                        Files.newOutputStream(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND))) {
+                    for (Map.Entry<String, byte[]> section : changed.entrySet()) {
+                        appendRecord(output, section.getKey(), digests.get(section.getKey()), section.getValue());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store the pig context in " + file, e);
+        }
+    }
+
+    private boolean needsCompaction(Map<String, byte[]> changed) {
+        long live = records.entrySet()
+                .stream()
+                .filter(entry -> !changed.containsKey(entry.getKey()))
+                .mapToLong(entry -> entry.getValue().end() - entry.getValue().offset)
+                .sum();
+        long dead = size - MAGIC.length - Integer.BYTES - live;
+        return dead > COMPACTION_THRESHOLD && dead > live;
+    }
+
+    /**
+     * Write a new file with the changed sections and the latest records of the other ones
+     */
+    private void compact(Map<String, byte[]> changed, Map<String, String> digests) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        Map<String, Record> kept = new LinkedHashMap<>(records);
+        long keptSize = size;
+        records.clear();
+        size = 0;
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp));
+                    FileChannel channel = rewrite ? null : FileChannel.open(file, StandardOpenOption.READ)) {
+                DataOutputStream data = new DataOutputStream(output);
+                data.write(MAGIC);
+                data.writeInt(FORMAT_VERSION);
+                size = MAGIC.length + Integer.BYTES;
+                if (channel != null) {
+                    for (Record record : kept.values()) {
+                        if (!changed.containsKey(record.name)) {
+                            writeRecord(output, record.name, record.digest, record.flags, readStored(channel, record));
+                        }
+                    }
+                }
+                for (Map.Entry<String, byte[]> section : changed.entrySet()) {
+                    appendRecord(output, section.getKey(), digests.get(section.getKey()), section.getValue());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            rewrite = false;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            records.clear();
+            records.putAll(kept);
+            size = keptSize;
+            throw e;
+        }
+    }
+
+    private void appendRecord(OutputStream output, String name, String digest, byte[] content) throws IOException {
+        if (content.length < DEFLATE_THRESHOLD) {
+            writeRecord(output, name, digest, RAW, content);
+        } else {
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(content.length / 4);
+            try (DeflaterOutputStream deflater = new DeflaterOutputStream(deflated)) {
+                deflater.write(content);
+            }
+            writeRecord(output, name, digest, DEFLATED, deflated.toByteArray());
+        }
+    }
+
+    private void writeRecord(OutputStream output, String name, String digest, byte flags, byte[] stored)
+            throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeUTF(name);
+        data.writeUTF(digest);
+        data.writeByte(flags);
+        data.writeInt(stored.length);
+        long contentOffset = size + data.size();
+        data.write(stored);
+        data.flush();
+        Record record = new Record(name, digest, flags, size, contentOffset, stored.length);
+        records.put(name, record);
+        size = record.end();
+    }
+
+    /**
+     * @return the header of the next record, null at the end of the file
+     */
+    private static Record readHeader(DataInputStream input, long start) throws IOException {
+        input.mark(1);
+        if (input.read() < 0) {
+            return null;
+        }
+        input.reset();
+        String name = input.readUTF();
+        String digest = input.readUTF();
+        byte flags = input.readByte();
+        int length = input.readInt();
+        // the strings are ascii, written with their length in two bytes
+        long headerLength = Short.BYTES + name.length() + Short.BYTES + digest.length() + Byte.BYTES + Integer.BYTES;
+        return new Record(name, digest, flags, start, start + headerLength, length);
+    }
+
+    private static byte[] readStored(FileChannel channel, Record record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(record.length);
+        long position = record.contentOffset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Section " + record.name + " is truncated");
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    private static class Record {
+        private final String name;
+        private final String digest;
+        private final byte flags;
+        private final long offset;
+        private final long contentOffset;
+        private final int length;
+
+        private Record(String name, String digest, byte flags, long offset, long contentOffset, int length) {
+            this.name = name;
+            this.digest = digest;
+            this.flags = flags;
+            this.offset = offset;
+            this.contentOffset = contentOffset;
+            this.length = length;
+        }
+
+        private long end() {
+            return contentOffset + length;
+        }
+
+        private byte[] content(byte[] stored) throws IOException {
+            if (flags != DEFLATED) {
+                return stored;
+            }
+            try (InputStream input = new InflaterInputStream(new ByteArrayInputStream(stored))) {
+                return input.readAllBytes();
+            }
+        }
+    }
+}
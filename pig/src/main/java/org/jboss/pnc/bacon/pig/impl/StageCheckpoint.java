@@ -0,0 +1,38 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Record of a completed pig stage: the hash of everything the stage depended on and the checksums of the files it
+ * produced. A stage can be skipped in a later run if both still match.
+ */
+@Data
+public class StageCheckpoint {
+    private String inputHash;
+    /**
+     * sha256 checksums of the stage outputs, keyed by their absolute paths
+     */
+    private Map<String, String> outputChecksums = new HashMap<>();
+    private Instant completedAt;
+}
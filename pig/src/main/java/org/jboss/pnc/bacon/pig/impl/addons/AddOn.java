@@ -18,9 +18,15 @@
 package org.jboss.pnc.bacon.pig.impl.addons;
 
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogStore;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogVisitor;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
@@ -32,6 +38,8 @@ public abstract class AddOn {
     protected final String releasePath;
     protected final String extrasPath;
 
+    private boolean buildLogsVisited;
+
     protected AddOn(
             PigConfiguration pigConfiguration,
             Map<String, PncBuild> builds,
@@ -54,4 +62,36 @@ public abstract class AddOn {
     public abstract String getName();
 
     public abstract void trigger();
+
+    /**
+     * @return visitors collecting what the add-on needs from the build logs
+     */
+    public List<BuildLogVisitor> getBuildLogVisitors() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Run the build log visitors of the add-ons in a single pass over the logs, so that every log is read once
+     * regardless of the number of add-ons using it
+     *
+     * @param addOns add-ons that are going to be triggered
+     * @param builds builds to visit the logs of
+     */
+    public static void visitBuildLogs(Collection<? extends AddOn> addOns, Collection<PncBuild> builds) {
+        List<BuildLogVisitor> visitors = addOns.stream()
+                .filter(addOn -> !addOn.buildLogsVisited)
+                .flatMap(addOn -> addOn.getBuildLogVisitors().stream())
+                .collect(Collectors.toList());
+        if (!visitors.isEmpty()) {
+            BuildLogStore.get().visitLogs(builds, visitors);
+        }
+        addOns.forEach(addOn -> addOn.buildLogsVisited = true);
+    }
+
+    /**
+     * Run the build log visitors of this add-on unless they have run already together with the ones of other add-ons
+     */
+    protected void visitBuildLogs() {
+        visitBuildLogs(Collections.singletonList(this), builds.values());
+    }
 }
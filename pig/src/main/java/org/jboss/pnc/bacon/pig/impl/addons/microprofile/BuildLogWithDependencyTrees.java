@@ -23,39 +23,44 @@ public class BuildLogWithDependencyTrees {
     private static final Pattern dependencyTreeEnd = Pattern.compile("^\\[INFO][\\s-]*$");
     private static final Set<String> relevantScopes = Sets.newHashSet("compile", "runtime");
 
-    public final Map<String, Set<GAV>> communityGavsForModules;
+    public final Map<String, Set<GAV>> communityGavsForModules = new HashMap<>();
 
-    public BuildLogWithDependencyTrees(List<String> buildLogLines) {
-        communityGavsForModules = parseDependencyTreeInvocations(buildLogLines);
-    }
+    private String currentModuleName;
+    private List<String> currentModuleDependencyTree;
 
-    private static Map<String, Set<GAV>> parseDependencyTreeInvocations(List<String> buildLogLines) {
-        Map<String, Set<GAV>> result = new HashMap<>();
-
-        String currentModuleName = null;
-        List<String> currentModuleDependencyTree = null;
+    /**
+     * Create an empty instance to pass the lines of a build log to, one by one, with {@link #accept(String)}
+     */
+    public BuildLogWithDependencyTrees() {
+    }
 
-        for (String line : buildLogLines) {
-            Matcher matcher = dependencyTreeStart.matcher(line);
-            if (matcher.matches()) {
-                currentModuleName = matcher.group(1);
-                currentModuleDependencyTree = new ArrayList<>();
-                continue;
-            }
+    public BuildLogWithDependencyTrees(List<String> buildLogLines) {
+        buildLogLines.forEach(this::accept);
+    }
 
-            if (dependencyTreeEnd.matcher(line).matches() && currentModuleDependencyTree != null) {
-                result.put(currentModuleName, communityGavsInDepTree(currentModuleDependencyTree));
-                currentModuleName = null;
-                currentModuleDependencyTree = null;
-                continue;
-            }
+    /**
+     * Parse the next line of the build log
+     *
+     * @param line the line
+     */
+    public void accept(String line) {
+        Matcher matcher = dependencyTreeStart.matcher(line);
+        if (matcher.matches()) {
+            currentModuleName = matcher.group(1);
+            currentModuleDependencyTree = new ArrayList<>();
+            return;
+        }
 
-            if (currentModuleDependencyTree != null) {
-                currentModuleDependencyTree.add(line);
-            }
+        if (dependencyTreeEnd.matcher(line).matches() && currentModuleDependencyTree != null) {
+            communityGavsForModules.put(currentModuleName, communityGavsInDepTree(currentModuleDependencyTree));
+            currentModuleName = null;
+            currentModuleDependencyTree = null;
+            return;
         }
 
-        return result;
+        if (currentModuleDependencyTree != null) {
+            currentModuleDependencyTree.add(line);
+        }
     }
 
     private static Set<GAV> communityGavsInDepTree(List<String> depTreeOutput) {
@@ -3,6 +3,7 @@ package org.jboss.pnc.bacon.pig.impl.addons.microprofile;
 import org.jboss.pnc.bacon.pig.impl.addons.AddOn;
 import org.jboss.pnc.bacon.pig.impl.addons.runtime.CommunityDepAnalyzer;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogVisitor;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
 import org.slf4j.Logger;
@@ -10,7 +11,10 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -26,6 +30,11 @@ public class MicroProfileSmallRyeCommunityDepAnalyzer extends AddOn {
 
     public static final String NAME = "microProfileSmallRyeCommunityDepAnalyzer";
 
+    private final Map<String, BuildLogWithDependencyTrees> dependencyTrees = new HashMap<>();
+    private final BuildLogVisitor dependencyTreeParser = (build, line) -> dependencyTrees
+            .computeIfAbsent(build.getId(), id -> new BuildLogWithDependencyTrees())
+            .accept(line);
+
     public MicroProfileSmallRyeCommunityDepAnalyzer(
             PigConfiguration pigConfiguration,
             Map<String, PncBuild> builds,
@@ -39,13 +48,21 @@ public class MicroProfileSmallRyeCommunityDepAnalyzer extends AddOn {
         return NAME;
     }
 
+    @Override
+    public List<BuildLogVisitor> getBuildLogVisitors() {
+        return Collections.singletonList(dependencyTreeParser);
+    }
+
     @Override
     public void trigger() {
         log.info("Running MicroProfileSmallRyeCommunityDepAnalyzer");
+        visitBuildLogs();
 
         Set<GAV> allGavs = new HashSet<>();
         for (PncBuild build : builds.values()) {
-            Set<GAV> gavs = new BuildLogWithDependencyTrees(build.getBuildLog()).communityGavsForModules.entrySet()
+            Set<GAV> gavs = dependencyTrees.getOrDefault(build.getId(), new BuildLogWithDependencyTrees())
+                    .communityGavsForModules
+                    .entrySet()
                     .stream()
                     .filter(e -> !e.getKey().contains("test") && !e.getKey().contains("tck"))
                     .flatMap(e -> e.getValue().stream())
@@ -9,6 +9,7 @@ import org.jboss.pnc.bacon.pig.impl.pnc.ArtifactWrapper;
 import org.jboss.pnc.bacon.pig.impl.pnc.BuildInfoCollector;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.jboss.pnc.bacon.pig.impl.utils.RegexSet;
 import org.jboss.pnc.enums.RepositoryType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,7 +23,6 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static org.jboss.pnc.bacon.pig.impl.config.RepoGenerationStrategy.BUILD_GROUP;
@@ -115,8 +115,10 @@ public class OfflineManifestGenerator extends AddOn {
     }
 
     private Collection<String> filterExcludedArtifactsAndFormat(Collection<ArtifactWrapper> builtArtifacts) {
+        RegexSet exclusions = RegexSet
+                .of(pigConfiguration.getFlow().getRepositoryGeneration().getExcludeArtifacts());
         return builtArtifacts.stream()
-                .filter(artifact -> !this.isArtifactExcluded(artifact))
+                .filter(artifact -> !exclusions.matches(artifact.getGapv()))
                 .map(
                         artifact -> String.format(
                                 "%s,%s/%s",
@@ -147,12 +149,4 @@ public class OfflineManifestGenerator extends AddOn {
                 .filter(build -> !excludeSourceBuilds.contains(build.getName()))
                 .collect(Collectors.toList());
     }
-
-    private boolean isArtifactExcluded(ArtifactWrapper artifact) {
-        return pigConfiguration.getFlow()
-                .getRepositoryGeneration()
-                .getExcludeArtifacts()
-                .stream()
-                .anyMatch(exclusion -> Pattern.matches(exclusion, artifact.getGapv()));
-    }
 }
@@ -21,6 +21,7 @@ import org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.da.CommunityDependen
 import org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.da.CsvExportable;
 import org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.da.DADao;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.jboss.pnc.bacon.pig.impl.utils.LookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,7 +96,8 @@ public class CommunityDepAnalyzer {
     }
 
     protected List<CommunityDependency> analyzeDAResults() {
-        dependencies.parallelStream().forEach(daDao::fillDaData);
+        daDao.fillDaData(dependencies);
+        LookupCache.flushAll();
         return dependencies;
     }
 
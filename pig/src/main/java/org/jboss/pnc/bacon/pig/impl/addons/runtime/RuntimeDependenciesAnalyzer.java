@@ -20,6 +20,7 @@ package org.jboss.pnc.bacon.pig.impl.addons.runtime;
 import org.apache.commons.io.IOUtils;
 import org.jboss.pnc.bacon.pig.impl.addons.AddOn;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogVisitor;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.jboss.pnc.bacon.pig.impl.utils.FileUtils;
 import org.slf4j.Logger;
@@ -30,6 +31,8 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -41,6 +44,8 @@ import java.util.stream.Collectors;
 public class RuntimeDependenciesAnalyzer extends AddOn {
     private static final Logger log = LoggerFactory.getLogger(RuntimeDependenciesAnalyzer.class);
 
+    private final List<String> downloadedJars = new ArrayList<>();
+
     public RuntimeDependenciesAnalyzer(
             PigConfiguration pigConfiguration,
             Map<String, PncBuild> builds,
@@ -54,6 +59,25 @@ public class RuntimeDependenciesAnalyzer extends AddOn {
         return "runtimeDependenciesAnalyzer";
     }
 
+    @Override
+    public List<BuildLogVisitor> getBuildLogVisitors() {
+        String referenceBuildName = (String) getAddOnConfiguration().get("referenceBuild");
+        return Collections.singletonList(new BuildLogVisitor() {
+            @Override
+            public boolean accepts(PncBuild build) {
+                return build.getName().equals(referenceBuildName);
+            }
+
+            @Override
+            public void visit(PncBuild build, String line) {
+                // the only lines ThorntailDepAnalyzer looks at
+                if (line.startsWith("Downloaded") && line.contains(".jar")) {
+                    downloadedJars.add(line);
+                }
+            }
+        });
+    }
+
     @Override
     public void trigger() {
         log.info("Running RuntimeDependenciesAnalyzer");
@@ -61,7 +85,6 @@ public class RuntimeDependenciesAnalyzer extends AddOn {
 
         String buildName = (String) getAddOnConfiguration().get("downloadFrom");
         String regex = (String) getAddOnConfiguration().get("matching");
-        String referenceBuildName = (String) getAddOnConfiguration().get("referenceBuild");
         File dependencyListPath = new File(workDir, "runtime-dependency-list.txt");
 
         builds.get(buildName).downloadArtifact(regex, dependencyListPath);
@@ -78,13 +101,13 @@ public class RuntimeDependenciesAnalyzer extends AddOn {
                 .filter(d -> !d.contains("redhat"))
                 .collect(Collectors.toList());
 
-        List<String> buildLog = builds.get(referenceBuildName).getBuildLog();
+        visitBuildLogs();
 
         Path targetPath = Paths.get(extrasPath, "community-dependencies.csv");
 
         CommunityDepAnalyzer analyzer = new CommunityDepAnalyzer(
                 communityDependencies,
-                new ThorntailDepAnalyzer(buildLog));
+                new ThorntailDepAnalyzer(downloadedJars));
         analyzer.skipDa(false);
         analyzer.generateAnalysis(targetPath.toAbsolutePath().toString());
         log.info("Done");
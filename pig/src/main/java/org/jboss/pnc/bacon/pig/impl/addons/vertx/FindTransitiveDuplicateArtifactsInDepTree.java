@@ -18,6 +18,7 @@ package org.jboss.pnc.bacon.pig.impl.addons.vertx;
 import org.jboss.pnc.bacon.pig.impl.addons.AddOn;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
 import org.jboss.pnc.bacon.pig.impl.documents.Deliverables;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogVisitor;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
 import org.slf4j.Logger;
@@ -30,6 +31,8 @@ import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -62,6 +65,9 @@ public class FindTransitiveDuplicateArtifactsInDepTree extends AddOn {
     private static boolean dupFound = false;
     private static PrintWriter outputFile = null;
 
+    private final Map<String, List<String>> dependencyTrees = new HashMap<>();
+    private final BuildLogVisitor dependencyTreeCollector = new DependencyTreeCollector();
+
     public FindTransitiveDuplicateArtifactsInDepTree(
             PigConfiguration pigConfiguration,
             Map<String, PncBuild> builds,
@@ -141,6 +147,11 @@ public class FindTransitiveDuplicateArtifactsInDepTree extends AddOn {
         findDuplicates(itr);
     }
 
+    @Override
+    public List<BuildLogVisitor> getBuildLogVisitors() {
+        return Collections.singletonList(dependencyTreeCollector);
+    }
+
     @Override
     public void trigger() {
         String filename = extrasPath + "DuplicateArtifactLocations.txt";
@@ -158,11 +169,14 @@ public class FindTransitiveDuplicateArtifactsInDepTree extends AddOn {
             return;
         }
 
+        visitBuildLogs();
+
         // Iterate the file until we find the start sectiom
         try {
             outputFile = new PrintWriter(filename, StandardCharsets.UTF_8.name());
             for (PncBuild build : builds.values()) {
-                List<String> bcLog = build.getBuildLog();
+                // only the dependency:tree sections of the log
+                List<String> bcLog = dependencyTrees.getOrDefault(build.getId(), Collections.emptyList());
                 outputFile.println("-------- [ " + build.getId() + " ] " + build.getName() + " --------");
                 ListIterator<String> itr = bcLog.listIterator();
                 while (itr.hasNext()) {
@@ -185,4 +199,30 @@ public class FindTransitiveDuplicateArtifactsInDepTree extends AddOn {
             log.error("Creating FindTransitiveDuplicateArtifactsInDepTree report {}", e);
         }
     }
+
+    /**
+     * Keeps the dependency:tree sections of the logs: the start line, the line of the module and the tree up to and
+     * including the line ending it
+     */
+    private class DependencyTreeCollector implements BuildLogVisitor {
+        private int linesInTree = -1;
+
+        @Override
+        public void visit(PncBuild build, String line) {
+            if (isStartTree(line)) {
+                linesInTree = 0;
+            } else if (linesInTree < 0) {
+                return;
+            }
+            dependencyTrees.computeIfAbsent(build.getId(), id -> new ArrayList<>()).add(line);
+            if (linesInTree++ > 1 && isEndTree(line.replace(" (optional)", ""))) {
+                linesInTree = -1;
+            }
+        }
+
+        @Override
+        public void end(PncBuild build) {
+            linesInTree = -1;
+        }
+    }
 }
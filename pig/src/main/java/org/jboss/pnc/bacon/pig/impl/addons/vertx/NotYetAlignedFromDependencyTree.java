@@ -17,6 +17,7 @@ package org.jboss.pnc.bacon.pig.impl.addons.vertx;
 
 import org.jboss.pnc.bacon.pig.impl.addons.AddOn;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogVisitor;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,9 +26,12 @@ import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * @author Paul Gallagher, pgallagh@redhat.com <br>
@@ -40,6 +44,14 @@ public class NotYetAlignedFromDependencyTree extends AddOn {
 
     private static final Logger log = LoggerFactory.getLogger(NotYetAlignedFromDependencyTree.class);
 
+    // Unique lines so we don't get multiples from sub-module's dependency tree list
+    private final Map<String, Set<String>> notAlignedLines = new HashMap<>();
+    private final BuildLogVisitor notAlignedCollector = (build, line) -> {
+        if (isNotAligned(line)) {
+            notAlignedLines.computeIfAbsent(build.getId(), id -> new LinkedHashSet<>()).add(line);
+        }
+    };
+
     public NotYetAlignedFromDependencyTree(
             PigConfiguration pigConfiguration,
             Map<String, PncBuild> builds,
@@ -53,21 +65,21 @@ public class NotYetAlignedFromDependencyTree extends AddOn {
         return "notYetAlignedFromDependencyTree";
     }
 
+    @Override
+    public List<BuildLogVisitor> getBuildLogVisitors() {
+        return Collections.singletonList(notAlignedCollector);
+    }
+
     @Override
     public void trigger() {
         String filename = extrasPath + "DependencyTreeMissingAlignment.txt";
         log.info("Running NotYetAlignedFromDependencyTree - report is {}", filename);
+        visitBuildLogs();
         try (PrintWriter file = new PrintWriter(filename, StandardCharsets.UTF_8.name())) {
             for (PncBuild build : builds.values()) {
-                // Make a unique list so we don't get multiples from
-                // sub-module's dependency tree list
-                List<String> bcLog = build.getBuildLog().stream().distinct().collect(Collectors.toList());
                 file.print("-------- [" + build.getId() + "] " + build.getName() + " --------\n");
-                for (String bcLine : bcLog) {
-                    if (bcLine.startsWith("[INFO] +") && (bcLine.endsWith(":runtime") || bcLine.endsWith(":compile"))
-                            && !bcLine.contains("redhat-")) {
-                        file.print(bcLine + "\n");
-                    }
+                for (String bcLine : notAlignedLines.getOrDefault(build.getId(), Collections.emptySet())) {
+                    file.print(bcLine + "\n");
                 }
                 file.print("\n");
             }
@@ -75,4 +87,9 @@ public class NotYetAlignedFromDependencyTree extends AddOn {
             log.error("Error while creating NotYetAlignedFromDependencyTree report", e);
         }
     }
+
+    private static boolean isNotAligned(String bcLine) {
+        return bcLine.startsWith("[INFO] +") && (bcLine.endsWith(":runtime") || bcLine.endsWith(":compile"))
+                && !bcLine.contains("redhat-");
+    }
 }
@@ -17,12 +17,17 @@ package org.jboss.pnc.bacon.pig.impl.addons.vertx;
 
 import org.jboss.pnc.bacon.pig.impl.addons.AddOn;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
+import org.jboss.pnc.bacon.pig.impl.pnc.BuildLogVisitor;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +42,8 @@ public class SaveBuildLogsLocally extends AddOn {
 
     private static final Logger log = LoggerFactory.getLogger(SaveBuildLogsLocally.class);
 
+    private final BuildLogVisitor logWriter = new LogWriter();
+
     public SaveBuildLogsLocally(
             PigConfiguration pigConfiguration,
             Map<String, PncBuild> builds,
@@ -50,28 +57,70 @@ public class SaveBuildLogsLocally extends AddOn {
         return "saveBuildLogsLocally";
     }
 
+    @Override
+    public List<BuildLogVisitor> getBuildLogVisitors() {
+        return Collections.singletonList(logWriter);
+    }
+
     @Override
     public void trigger() {
-        File logDir = new File(extrasPath + "build-logs");
-        String fileName = "";
-        log.info("Running SaveBuildLogsLocally - logs are in {}", logDir);
-        if (!logDir.exists()) {
-            logDir.mkdirs();
+        log.info("Running SaveBuildLogsLocally - logs are in {}", getLogDir());
+        visitBuildLogs();
+    }
+
+    private File getLogDir() {
+        return new File(extrasPath + "build-logs");
+    }
+
+    /**
+     * Writes the logs to the files as they are read
+     */
+    private class LogWriter implements BuildLogVisitor {
+        private String fileName;
+        private Writer writer;
+        private boolean failed;
+
+        @Override
+        public void visit(PncBuild build, String line) {
+            if (failed) {
+                return;
+            }
+            try {
+                if (writer == null) {
+                    open(build);
+                }
+                writer.write(line + System.lineSeparator());
+            } catch (IOException e) {
+                log.error("Writing build log {}", fileName, e);
+                failed = true;
+            }
         }
 
-        try {
-            for (PncBuild build : builds.values()) {
-                List<String> bcLog = build.getBuildLog();
-                fileName = logDir + File.separator + build.getName() + ".txt";
-                FileWriter writer = new FileWriter(fileName);
-                for (String str : bcLog) {
-                    writer.write(str + System.lineSeparator());
+        @Override
+        public void end(PncBuild build) {
+            try {
+                if (writer == null && !failed) {
+                    // an empty log
+                    open(build);
                 }
-                writer.close();
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch (IOException e) {
+                log.error("Writing build log {}", fileName, e);
+            } finally {
+                writer = null;
+                failed = false;
+            }
+        }
+
+        private void open(PncBuild build) throws IOException {
+            File logDir = getLogDir();
+            if (!logDir.exists()) {
+                logDir.mkdirs();
             }
-        } catch (java.io.IOException e) {
-            log.error("Writing build log {}", fileName, e);
-            return;
+            fileName = logDir + File.separator + build.getName() + ".txt";
+            writer = new BufferedWriter(new FileWriter(fileName));
         }
     }
 }
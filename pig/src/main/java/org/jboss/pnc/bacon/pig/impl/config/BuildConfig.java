@@ -217,6 +217,17 @@ public class BuildConfig {
 
     @JsonIgnore
     public boolean isTheSameAs(BuildConfiguration old, boolean skipBranchCheck, boolean temporaryBuild) {
+        return hasTheSameSettingsAs(old) && !isBranchModified(old, skipBranchCheck, temporaryBuild);
+    }
+
+    /**
+     * Compare everything but the content of the branch, which needs a remote check
+     *
+     * @param old the build configuration in PNC
+     * @return true if the settings of this config match the ones of the build configuration
+     */
+    @JsonIgnore
+    public boolean hasTheSameSettingsAs(BuildConfiguration old) {
         return old != null && StringUtils.equals(name, old.getName())
                 && StringUtils.equals(project, old.getProject().getName())
                 && StringUtils.equals(buildScript, old.getBuildScript())
@@ -224,8 +235,7 @@ public class BuildConfig {
                 && StringUtils.equals(scmRevision, old.getScmRevision())
                 && getEnvironmentId().equals(old.getEnvironment().getId())
                 && alignmentParameters.equals(getAlignmentParameters(old)) && urlsEqual(old.getScmRepository())
-                && parameters.equals(old.getParameters()) && !isBranchModified(old, skipBranchCheck, temporaryBuild)
-                && getBrewPullActive() == old.getBrewPullActive();
+                && parameters.equals(old.getParameters()) && getBrewPullActive() == old.getBrewPullActive();
     }
 
     private Set<String> getAlignmentParameters(BuildConfiguration old) {
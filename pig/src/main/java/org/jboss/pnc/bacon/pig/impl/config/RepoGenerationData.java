@@ -75,8 +75,10 @@ public class RepoGenerationData extends GenerationData<RepoGenerationStrategy> {
         result.includeLicenses = override(defaults.includeLicenses, overrides.includeLicenses);
         result.includeMavenMetadata = override(defaults.includeMavenMetadata, overrides.includeMavenMetadata);
         result.buildScript = override(defaults.buildScript, overrides.buildScript);
+        result.generateBackend = override(defaults.generateBackend, overrides.generateBackend);
         result.ignored = override(defaults.ignored, overrides.ignored);
         result.additionalRepo = override(defaults.additionalRepo, overrides.additionalRepo);
+        result.checksumThreads = override(defaults.checksumThreads, overrides.checksumThreads);
         result.stages = merge(defaults.stages, overrides.stages);
         result.parameters = merge(defaults.parameters, overrides.parameters);
 
@@ -159,8 +161,22 @@ public class RepoGenerationData extends GenerationData<RepoGenerationStrategy> {
     @Getter(AccessLevel.NONE)
     private Boolean includeMavenMetadata;
     private String buildScript;
+
+    /**
+     * How the GENERATE strategy gets the artifacts, defaults to {@link RepoGenerationBackend#MAVEN}, see
+     * {@link #getGenerateBackend}
+     */
+    @Getter(AccessLevel.NONE)
+    private RepoGenerationBackend generateBackend;
     private Set<String> ignored = new HashSet<>();
     private String additionalRepo;
+
+    /**
+     * Number of files to generate checksums for in parallel. Defaults to the number of available processors, see
+     * {@link #getChecksumThreads}
+     */
+    @Getter(AccessLevel.NONE)
+    private Integer checksumThreads;
     private List<Map<String, String>> stages = List.of();
     private Map<String, String> parameters = Map.of();
     private List<RepoGenerationData> steps = new ArrayList<>();
@@ -177,6 +193,15 @@ public class RepoGenerationData extends GenerationData<RepoGenerationStrategy> {
         return includeMavenMetadata == null ? false : includeMavenMetadata;
     }
 
+    public RepoGenerationBackend getGenerateBackend() {
+        return generateBackend == null ? RepoGenerationBackend.MAVEN : generateBackend;
+    }
+
+    public int getChecksumThreads() {
+        return checksumThreads == null || checksumThreads <= 0 ? Runtime.getRuntime().availableProcessors()
+                : checksumThreads;
+    }
+
     /**
      * We are handwriting this setter object because SnakeYaml doesn't know how to call a setter method for
      * {@link Boolean} but knows how to do it for boolean when parsing a yaml file.
@@ -18,15 +18,26 @@
 
 package org.jboss.pnc.bacon.pig.impl.documents.sharedcontent;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.redhat.red.build.koji.model.xmlrpc.KojiTagInfo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.jboss.pnc.bacon.pig.impl.utils.BuildFinderUtils;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.jboss.pnc.bacon.pig.impl.utils.LookupCache;
 import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.build.finder.koji.KojiLocalArchive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -41,7 +52,58 @@ import java.util.stream.Collectors;
 public class BrewSearcher {
     private static final Logger log = LoggerFactory.getLogger(BrewSearcher.class);
 
+    /**
+     * Keyed by the md5 checksum of the artifact. Builds don't change, but their tags do
+     */
+    private static final LookupCache<CachedBuildData> cache = LookupCache.forSource(
+            "koji",
+            CachedBuildData.class,
+            Duration.ofDays(7),
+            Duration.ofDays(1),
+            CachedBuildData::isEmpty);
+
     public static void fillBrewData(List<SharedContentReportRow> rows) {
+        List<SharedContentReportRow> rowsToLookUp = new ArrayList<>();
+        List<String> checksumsToLookUp = new ArrayList<>();
+        for (SharedContentReportRow row : rows) {
+            String checksum = md5(row.getFilePath());
+            CachedBuildData cached = checksum == null ? null : cache.getIfPresent(checksum).orElse(null);
+            if (cached != null) {
+                cached.applyTo(row);
+            } else {
+                rowsToLookUp.add(row);
+                checksumsToLookUp.add(checksum);
+            }
+        }
+        log.debug(
+                "Found Brew data for {} out of {} artifacts in the cache",
+                rows.size() - rowsToLookUp.size(),
+                rows.size());
+        if (rowsToLookUp.isEmpty()) {
+            return;
+        }
+
+        boolean anyFound = lookUpBrewData(rowsToLookUp);
+        for (int i = 0; i < rowsToLookUp.size(); i++) {
+            CachedBuildData data = CachedBuildData.of(rowsToLookUp.get(i));
+            // build finder returns no builds on failures, don't remember that as the artifacts not being built
+            if (checksumsToLookUp.get(i) != null && (anyFound || !data.isEmpty())) {
+                cache.put(checksumsToLookUp.get(i), data);
+            }
+        }
+        cache.flush();
+    }
+
+    private static String md5(Path filePath) {
+        try (InputStream input = Files.newInputStream(filePath)) {
+            return DigestUtils.md5Hex(input);
+        } catch (IOException e) {
+            log.debug("Failed to compute the checksum of {}, not using the cache for it", filePath, e);
+            return null;
+        }
+    }
+
+    private static boolean lookUpBrewData(List<SharedContentReportRow> rows) {
         List<String> pathsForRows = rows.stream()
                 .map(row -> row.getFilePath().toAbsolutePath().toString())
                 .collect(Collectors.toList());
@@ -93,7 +155,7 @@ public class BrewSearcher {
                 fillTags(row, build);
             }
         }
-
+        return !builds.isEmpty();
     }
 
     public static List<KojiBuild> getBuilds(final Path filePath) {
@@ -130,4 +192,31 @@ public class BrewSearcher {
 
     private BrewSearcher() {
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedBuildData {
+        private String buildId;
+        private String buildAuthor;
+        private List<String> buildTags;
+
+        static CachedBuildData of(SharedContentReportRow row) {
+            return new CachedBuildData(
+                    row.getBuildId(),
+                    row.getBuildAuthor(),
+                    row.getBuildTags() == null ? null : new ArrayList<>(row.getBuildTags()));
+        }
+
+        @JsonIgnore
+        public boolean isEmpty() {
+            return buildId == null;
+        }
+
+        void applyTo(SharedContentReportRow row) {
+            row.setBuildId(buildId);
+            row.setBuildAuthor(buildAuthor);
+            row.setBuildTags(buildTags == null ? null : new ArrayList<>(buildTags));
+        }
+    }
 }
@@ -18,16 +18,20 @@
 
 package org.jboss.pnc.bacon.pig.impl.documents.sharedcontent;
 
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.jboss.pnc.bacon.pig.impl.utils.LookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
@@ -40,6 +44,12 @@ public class MRRCSearcher {
 
     private static final MRRCSearcher instance = new MRRCSearcher();
 
+    /**
+     * Released artifacts are never removed from MRRC, the ones not released yet may show up with the next release
+     */
+    private final LookupCache<Boolean> cache = LookupCache
+            .forSource("mrrc", Boolean.class, Duration.ofDays(365), Duration.ofDays(1), released -> !released);
+
     public static MRRCSearcher getInstance() {
         return instance;
     }
@@ -50,17 +60,32 @@ public class MRRCSearcher {
     }
 
     public Boolean isReleased(GAV gav) {
+        return cache.get(gav.toGapvc(), key -> queryMrrc(gav));
+    }
+
+    private Boolean queryMrrc(GAV gav) {
         HttpHead request = new HttpHead(uriForRow(gav));
         RequestConfig.Builder requestBuilder = RequestConfig.custom();
         requestBuilder = requestBuilder.setConnectTimeout(30_000);
         requestBuilder = requestBuilder.setConnectionRequestTimeout(30_000);
-        try (CloseableHttpClient client = HttpClientBuilder.create().build();
-                CloseableHttpResponse response = client.execute(request)) {
-            int statusCode = response.getStatusLine().getStatusCode();
-            return statusCode == 200;
-        } catch (IOException e) {
-            log.error("Failed to get data for {} from MRRC", gav, e);
-            return null;
+        try (Telemetry.Call call = Telemetry.start("mrrc", "HEAD")) {
+            try (CloseableHttpClient client = HttpClientBuilder.create().build();
+                    CloseableHttpResponse response = client.execute(request)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode == HttpStatus.SC_OK) {
+                    return true;
+                }
+                if (statusCode == HttpStatus.SC_NOT_FOUND) {
+                    return false;
+                }
+                // e.g. an unavailable or rate-limited MRRC, not an answer to keep in the cache
+                log.warn("Unexpected response {} from MRRC for {}", response.getStatusLine(), gav);
+                return null;
+            } catch (IOException e) {
+                call.failed(e);
+                log.error("Failed to get data for {} from MRRC", gav, e);
+                return null;
+            }
         }
     }
 
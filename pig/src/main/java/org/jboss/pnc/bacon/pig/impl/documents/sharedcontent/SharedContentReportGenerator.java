@@ -20,6 +20,7 @@ package org.jboss.pnc.bacon.pig.impl.documents.sharedcontent;
 
 import org.jboss.pnc.bacon.pig.impl.repo.RepoDescriptor;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.jboss.pnc.bacon.pig.impl.utils.LookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,6 +88,7 @@ public class SharedContentReportGenerator {
         rows = rows.subList(0, limit);
         log.info("Gathering data for shared content report");
         rows.parallelStream().forEach(this::fillDaData);
+        LookupCache.flushAll();
         List<SharedContentReportRow> toFillBrewData = rows.stream()
                 .filter(row -> row.getProductName() == null || row.getProductVersion() == null)
                 .collect(Collectors.toList());
@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.da;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.jboss.da.reports.model.response.LookupReport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The part of a DA {@link LookupReport} that is stored in the lookup cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedLookupReport {
+    private String bestMatchVersion;
+    private List<String> availableVersions = new ArrayList<>();
+
+    public static CachedLookupReport of(LookupReport report) {
+        return new CachedLookupReport(report.getBestMatchVersion(), new ArrayList<>(report.getAvailableVersions()));
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return StringUtils.isBlank(bestMatchVersion) && availableVersions.isEmpty();
+    }
+}
@@ -18,20 +18,28 @@
 package org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.da;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jboss.bacon.da.ChunkedLookup;
 import org.jboss.bacon.da.DaHelper;
 import org.jboss.bacon.da.rest.endpoint.ListingsApi;
 import org.jboss.bacon.da.rest.endpoint.ReportsApi;
 import org.jboss.da.listings.model.rest.RestProductGAV;
+import org.jboss.da.model.rest.GAV;
 import org.jboss.da.reports.model.request.LookupGAVsRequest;
 import org.jboss.da.reports.model.response.LookupReport;
 import org.jboss.pnc.bacon.config.Config;
 import org.jboss.pnc.bacon.config.DaConfig;
+import org.jboss.pnc.bacon.pig.impl.utils.LookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -46,16 +54,70 @@ public class DADao {
     private final ReportsApi reportsClient;
     private final ListingsApi listingsClient;
 
+    /**
+     * New builds change the best match, so the results are only reused for a limited time
+     */
+    private final LookupCache<CachedLookupReport> cache = LookupCache.forSource(
+            "da",
+            CachedLookupReport.class,
+            Duration.ofDays(1),
+            Duration.ofHours(6),
+            CachedLookupReport::isEmpty);
+
+    private final ChunkedLookup chunkedLookup;
+
     public DADao(DaConfig daConfig) {
         reportsClient = DaHelper.createReportsApi();
         listingsClient = DaHelper.createListingsApi();
+        chunkedLookup = new ChunkedLookup(daConfig.getLookupChunkSize(), daConfig.getLookupMaxInFlight());
     }
 
     public void fillDaData(CommunityDependency dependency) {
-        log.debug("Analyzing: {}", dependency);
-        LookupGAVsRequest lookupRequest = new LookupGAVsRequest(Collections.singletonList(dependency.toDaGav()));
-        List<LookupReport> lookupReports = reportsClient.lookupGav(lookupRequest);
-        LookupReport lookupReport = getSingle(lookupReports);
+        fillDaData(Collections.singletonList(dependency));
+    }
+
+    /**
+     * Fill the DA data of the dependencies. The dependencies that are not in the lookup cache are looked up in chunks
+     *
+     * @param dependencies dependencies to analyze
+     */
+    public void fillDaData(Collection<CommunityDependency> dependencies) {
+        Map<String, CachedLookupReport> reports = new HashMap<>();
+        List<GAV> toLookUp = new ArrayList<>();
+        for (CommunityDependency dependency : dependencies) {
+            Optional<CachedLookupReport> cached = cache.getIfPresent(dependency.toGav());
+            if (cached.isPresent()) {
+                reports.put(dependency.toGav(), cached.get());
+            } else {
+                toLookUp.add(dependency.toDaGav());
+            }
+        }
+        log.debug("Looking up {} out of {} dependencies in DA", toLookUp.size(), dependencies.size());
+
+        if (!toLookUp.isEmpty()) {
+            List<LookupReport> lookupReports = chunkedLookup.lookup(
+                    toLookUp,
+                    chunk -> reportsClient.lookupGav(new LookupGAVsRequest(chunk)),
+                    LookupReport::getGav);
+            for (int i = 0; i < toLookUp.size(); i++) {
+                GAV gav = toLookUp.get(i);
+                if (lookupReports.get(i) == null) {
+                    throw new RuntimeException("DA returned no report for " + gav);
+                }
+                String key = String.format("%s:%s:%s", gav.getGroupId(), gav.getArtifactId(), gav.getVersion());
+                CachedLookupReport report = CachedLookupReport.of(lookupReports.get(i));
+                cache.put(key, report);
+                reports.put(key, report);
+            }
+        }
+
+        for (CommunityDependency dependency : dependencies) {
+            log.debug("Analyzing: {}", dependency);
+            fillDaData(dependency, reports.get(dependency.toGav()));
+        }
+    }
+
+    private static void fillDaData(CommunityDependency dependency, CachedLookupReport lookupReport) {
         String bestMatchVersion = lookupReport.getBestMatchVersion();
         String availableVersions = String.join(",", lookupReport.getAvailableVersions());
 
@@ -72,13 +134,6 @@ public class DADao {
         }
     }
 
-    private LookupReport getSingle(List<LookupReport> lookupReports) {
-        if (lookupReports.size() != 1) {
-            throw new RuntimeException("Expected exactly one report, got: " + lookupReports.size());
-        }
-        return lookupReports.get(0);
-    }
-
     public List<DAListArtifact> getWhitelist() {
         Collection<RestProductGAV> allWhiteArtifacts = listingsClient.getAllWhiteArtifacts();
 
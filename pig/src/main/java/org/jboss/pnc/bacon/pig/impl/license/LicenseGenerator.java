@@ -38,6 +38,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
@@ -51,6 +52,11 @@ import java.util.stream.Stream;
 public class LicenseGenerator {
     private static final Logger log = LoggerFactory.getLogger(LicenseGenerator.class);
 
+    private static final String LICENSE_CACHE_FILE = "license-cache.json";
+
+    private static final Path LICENSE_TEXT_STORE_DIR = Paths
+            .get(System.getProperty("user.home"), ".cache", "pnc-bacon", "license-texts");
+
     private LicenseGenerator() {
     }
 
@@ -164,6 +170,16 @@ public class LicenseGenerator {
             genProp.setExceptionsFilePath(exceptionsPath);
         if (namesPath != null)
             genProp.setAliasesFilePath(namesPath);
+        genProp.setLicenseCacheFilePath(getLicenseCacheFile().toAbsolutePath().toString());
+        // license texts barely differ between products, so they are shared by all of them
+        genProp.setLicenseTextStoreDirPath(LICENSE_TEXT_STORE_DIR.toString());
         return genProp;
     }
+
+    /**
+     * The sanitised licenses are kept next to the pig context, so that a respin only resolves the new artifacts
+     */
+    private static Path getLicenseCacheFile() {
+        return PigContext.contextDir().resolve(LICENSE_CACHE_FILE);
+    }
 }
@@ -18,10 +18,12 @@
 
 package org.jboss.pnc.bacon.pig.impl.pnc;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jboss.pnc.bacon.pig.impl.utils.ArtifactChecksums;
 import org.jboss.pnc.bacon.pig.impl.utils.FileDownloadUtils;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
 import org.jboss.pnc.dto.Artifact;
@@ -66,13 +68,18 @@ public class ArtifactWrapper {
         return GAV.fromColonSeparatedGAPV(gapv);
     }
 
+    @JsonIgnore
+    public ArtifactChecksums getChecksums() {
+        return new ArtifactChecksums(md5, sha1, sha256);
+    }
+
     @Override
     public String toString() {
         return gapv;
     }
 
     public void downloadTo(File downloadedZip) {
-        FileDownloadUtils.downloadTo(URI.create(downloadUrl), downloadedZip);
+        FileDownloadUtils.downloadTo(URI.create(downloadUrl), downloadedZip, getChecksums());
     }
 
     public void downloadToDirectory(Path parentDirPath) {
@@ -19,14 +19,15 @@
 package org.jboss.pnc.bacon.pig.impl.pnc;
 
 import lombok.extern.slf4j.Slf4j;
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.jboss.pnc.bacon.pig.impl.config.GroupBuildInfo;
 import org.jboss.pnc.bacon.pnc.client.PncClientHelper;
+import org.jboss.pnc.client.ArtifactClient;
 import org.jboss.pnc.client.BuildClient;
 import org.jboss.pnc.client.BuildConfigurationClient;
 import org.jboss.pnc.client.ClientException;
 import org.jboss.pnc.client.GroupBuildClient;
 import org.jboss.pnc.client.GroupConfigurationClient;
-import org.jboss.pnc.client.RemoteCollection;
 import org.jboss.pnc.client.RemoteResourceException;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
@@ -37,12 +38,21 @@ import org.jboss.pnc.enums.BuildStatus;
 import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.Optional.of;
 import static org.jboss.pnc.bacon.pig.impl.utils.PncClientUtils.query;
@@ -54,15 +64,34 @@ import static org.jboss.pnc.bacon.pig.impl.utils.PncClientUtils.toList;
  */
 @Slf4j
 public class BuildInfoCollector implements Closeable {
+    /**
+     * Maximum number of concurrent requests to PNC when collecting the builds of a group
+     */
+    private static final int COLLECTOR_THREADS = 8;
+    /**
+     * Maximum number of ids in a single bulk query, to keep the query URLs short
+     */
+    private static final int BULK_QUERY_SIZE = 50;
+    private static final String PNC = "pnc";
+
     private final BuildClient anonymousBuildClient;
     private final BuildConfigurationClient anonymousBuildConfigClient;
     private final GroupBuildClient anonymousGroupBuildClient;
     private final GroupConfigurationClient anonymousGroupConfigurationClient;
+    private final ArtifactClient anonymousArtifactClient;
+
+    /**
+     * Builds fetched by id. The builds are finished and don't change, so each is fetched at most once per collector.
+     */
+    private final Map<String, Build> buildsById = new ConcurrentHashMap<>();
 
     public void addDependencies(PncBuild bd, String filter) {
         try {
-            List<Artifact> artifacts = toList(
-                    anonymousBuildClient.getDependencyArtifacts(bd.getId(), Optional.empty(), Optional.of(filter)));
+            List<Artifact> artifacts = pncCall(
+                    "getDependencyArtifacts",
+                    () -> toList(
+                            anonymousBuildClient
+                                    .getDependencyArtifacts(bd.getId(), Optional.empty(), Optional.of(filter))));
             bd.addDependencyArtifacts(artifacts);
         } catch (RemoteResourceException e) {
             throw new RuntimeException("Failed to get dependency artifacts for " + bd.getId(), e);
@@ -70,6 +99,12 @@ public class BuildInfoCollector implements Closeable {
     }
 
     public PncBuild getLatestBuild(String configId, BuildSearchType searchType) {
+        PncBuild result = new PncBuild(findLatestBuild(configId, searchType));
+        addBuiltArtifacts(List.of(result));
+        return result;
+    }
+
+    private Build findLatestBuild(String configId, BuildSearchType searchType) {
         try {
             BuildsFilterParameters filter = new BuildsFilterParameters();
 
@@ -99,21 +134,32 @@ public class BuildInfoCollector implements Closeable {
                 throw new NoSuccessfulBuildException(configId);
             }
 
-            Build build = buildIterator.next();
-
-            PncBuild result = new PncBuild(build);
-            result.addBuiltArtifacts(toList(anonymousBuildClient.getBuiltArtifacts(build.getId())));
-            return result;
+            return buildIterator.next();
         } catch (ClientException e) {
             throw new RuntimeException("Failed to get latest successful build for " + configId, e);
         }
     }
 
     public BuildInfoCollector() {
-        anonymousBuildClient = new BuildClient(PncClientHelper.getPncConfiguration(false));
-        anonymousBuildConfigClient = new BuildConfigurationClient(PncClientHelper.getPncConfiguration(false));
-        anonymousGroupBuildClient = new GroupBuildClient(PncClientHelper.getPncConfiguration(false));
-        anonymousGroupConfigurationClient = new GroupConfigurationClient(PncClientHelper.getPncConfiguration(false));
+        this(
+                new BuildClient(PncClientHelper.getPncConfiguration(false)),
+                new BuildConfigurationClient(PncClientHelper.getPncConfiguration(false)),
+                new GroupBuildClient(PncClientHelper.getPncConfiguration(false)),
+                new GroupConfigurationClient(PncClientHelper.getPncConfiguration(false)),
+                new ArtifactClient(PncClientHelper.getPncConfiguration(false)));
+    }
+
+    BuildInfoCollector(
+            BuildClient buildClient,
+            BuildConfigurationClient buildConfigClient,
+            GroupBuildClient groupBuildClient,
+            GroupConfigurationClient groupConfigurationClient,
+            ArtifactClient artifactClient) {
+        anonymousBuildClient = buildClient;
+        anonymousBuildConfigClient = buildConfigClient;
+        anonymousGroupBuildClient = groupBuildClient;
+        anonymousGroupConfigurationClient = groupConfigurationClient;
+        anonymousArtifactClient = artifactClient;
     }
 
     /**
@@ -126,16 +172,18 @@ public class BuildInfoCollector implements Closeable {
      */
     public GroupBuildInfo getBuildsFromLatestGroupConfiguration(String groupConfigurationId, boolean temporaryBuild) {
         try {
-            RemoteCollection<BuildConfiguration> configs = anonymousGroupConfigurationClient
-                    .getBuildConfigs(groupConfigurationId);
+            List<BuildConfiguration> configs = toList(
+                    anonymousGroupConfigurationClient.getBuildConfigs(groupConfigurationId));
 
-            Map<String, PncBuild> builds = new HashMap<>();
-            for (BuildConfiguration config : configs) {
-                PncBuild build = getLatestBuild(
-                        config.getId(),
-                        temporaryBuild ? BuildSearchType.ANY : BuildSearchType.PERMANENT);
+            BuildSearchType searchType = temporaryBuild ? BuildSearchType.ANY : BuildSearchType.PERMANENT;
+            List<PncBuild> latestBuilds = inParallel(
+                    configs,
+                    config -> new PncBuild(findLatestBuild(config.getId(), searchType)));
+            addBuiltArtifacts(latestBuilds);
 
-                builds.put(config.getName(), build);
+            Map<String, PncBuild> builds = new HashMap<>();
+            for (int i = 0; i < configs.size(); i++) {
+                builds.put(configs.get(i).getName(), latestBuilds.get(i));
             }
 
             // TODO: builds should be enough, getting latest build group to satisfy the current API
@@ -183,20 +231,28 @@ public class BuildInfoCollector implements Closeable {
         filter.setRunning(false);
 
         try {
-            Collection<Build> builds = anonymousGroupBuildClient.getBuilds(groupBuild.getId(), filter).getAll();
+            Collection<Build> builds = pncCall(
+                    "getGroupBuildBuilds",
+                    () -> anonymousGroupBuildClient.getBuilds(groupBuild.getId(), filter).getAll());
 
-            for (Build build : builds) {
-                PncBuild pncBuild;
+            fetchBuilds(
+                    builds.stream()
+                            .filter(build -> build.getStatus() == BuildStatus.NO_REBUILD_REQUIRED)
+                            .map(build -> build.getNoRebuildCause().getId())
+                            .collect(Collectors.toList()));
 
+            List<PncBuild> pncBuilds = new ArrayList<>(builds.size());
+            for (Build build : builds) {
                 if (build.getStatus() == BuildStatus.NO_REBUILD_REQUIRED) {
                     BuildRef buildRef = build.getNoRebuildCause();
-                    Build realBuild = anonymousBuildClient.getSpecific(buildRef.getId());
-                    pncBuild = new PncBuild(realBuild);
+                    pncBuilds.add(new PncBuild(getSpecificBuild(buildRef.getId())));
                 } else {
-                    pncBuild = new PncBuild(build);
+                    pncBuilds.add(new PncBuild(build));
                 }
+            }
+            addBuiltArtifacts(pncBuilds);
 
-                pncBuild.addBuiltArtifacts(toList(anonymousBuildClient.getBuiltArtifacts(pncBuild.getId())));
+            for (PncBuild pncBuild : pncBuilds) {
                 result.put(pncBuild.getName(), pncBuild);
             }
             return new GroupBuildInfo(groupBuild, result);
@@ -205,6 +261,156 @@ public class BuildInfoCollector implements Closeable {
         }
     }
 
+    /**
+     * @param id id of the build
+     * @return the build, fetched only if it wasn't fetched before
+     */
+    Build getSpecificBuild(String id) {
+        return buildsById.computeIfAbsent(id, buildId -> {
+            try {
+                return pncCall("getBuild", () -> anonymousBuildClient.getSpecific(buildId));
+            } catch (RemoteResourceException e) {
+                throw new RuntimeException("Failed to get build " + buildId, e);
+            }
+        });
+    }
+
+    /**
+     * Fetch the builds that weren't fetched before with as few queries as possible. Falls back to a query per build,
+     * concurrently, if the bulk query is rejected.
+     *
+     * @param ids ids of the builds
+     */
+    private void fetchBuilds(Collection<String> ids) {
+        List<String> missing = ids.stream()
+                .filter(id -> !buildsById.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+        try {
+            for (List<String> chunk : chunks(missing)) {
+                List<Build> found = pncCall(
+                        "queryBuilds",
+                        () -> toList(
+                                anonymousBuildClient.getAll(
+                                        new BuildsFilterParameters(),
+                                        Collections.emptyList(),
+                                        Optional.empty(),
+                                        query("id=in=(%s)", String.join(",", chunk)))));
+                for (Build build : found) {
+                    buildsById.put(build.getId(), build);
+                }
+            }
+        } catch (RemoteResourceException | RuntimeException e) {
+            log.debug("Failed to query {} builds at once, querying each", missing.size(), e);
+            inParallel(missing, this::getSpecificBuild);
+        }
+    }
+
+    /**
+     * Add the artifacts built by the builds, querying the artifacts of many builds at once. Falls back to a query per
+     * build, concurrently, if the bulk query is rejected.
+     *
+     * @param builds builds to add the artifacts to
+     */
+    private void addBuiltArtifacts(List<PncBuild> builds) {
+        Map<String, List<Artifact>> artifactsByBuild = new HashMap<>();
+        try {
+            for (List<String> chunk : chunks(builds.stream().map(PncBuild::getId).collect(Collectors.toList()))) {
+                List<Artifact> found = pncCall(
+                        "queryArtifacts",
+                        () -> toList(
+                                anonymousArtifactClient.getAll(
+                                        null,
+                                        null,
+                                        null,
+                                        Optional.empty(),
+                                        query("build.id=in=(%s)", String.join(",", chunk)))));
+                for (Artifact artifact : found) {
+                    if (artifact.getBuild() != null) {
+                        artifactsByBuild.computeIfAbsent(artifact.getBuild().getId(), id -> new ArrayList<>())
+                                .add(artifact);
+                    }
+                }
+            }
+        } catch (RemoteResourceException | RuntimeException e) {
+            log.debug("Failed to query the built artifacts of {} builds at once, querying each", builds.size(), e);
+            inParallel(builds, build -> {
+                try {
+                    build.addBuiltArtifacts(
+                            pncCall(
+                                    "getBuiltArtifacts",
+                                    () -> toList(anonymousBuildClient.getBuiltArtifacts(build.getId()))));
+                    return build;
+                } catch (RemoteResourceException re) {
+                    throw new RuntimeException("Failed to get built artifacts of " + build.getId(), re);
+                }
+            });
+            return;
+        }
+        for (PncBuild build : builds) {
+            build.addBuiltArtifacts(artifactsByBuild.getOrDefault(build.getId(), Collections.emptyList()));
+        }
+    }
+
+    /**
+     * Run the request to PNC as a {@link Telemetry.Call}, marking the call as failed if the request fails. Paged
+     * results have to be read within the action to be part of the call.
+     */
+    private static <T> T pncCall(String operation, PncRequest<T> request) throws RemoteResourceException {
+        try (Telemetry.Call call = Telemetry.start(PNC, operation)) {
+            try {
+                return request.send();
+            } catch (RemoteResourceException | RuntimeException e) {
+                call.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PncRequest<T> {
+        T send() throws RemoteResourceException;
+    }
+
+    private static List<List<String>> chunks(List<String> ids) {
+        List<List<String>> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BULK_QUERY_SIZE) {
+            result.add(ids.subList(i, Math.min(i + BULK_QUERY_SIZE, ids.size())));
+        }
+        return result;
+    }
+
+    /**
+     * Apply the function to all the items on a bounded pool
+     *
+     * @return the results in the order of the items
+     */
+    private static <I, O> List<O> inParallel(List<I> items, Function<I, O> function) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(COLLECTOR_THREADS, items.size()));
+        try {
+            List<Future<O>> futures = new ArrayList<>(items.size());
+            for (I item : items) {
+                futures.add(executor.submit(() -> function.apply(item)));
+            }
+            List<O> results = new ArrayList<>(items.size());
+            for (Future<O> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while collecting the builds", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     public String ConfigNametoId(String buildConfigName) {
         try {
             return anonymousBuildConfigClient.getAll(Optional.empty(), Optional.of("name==" + buildConfigName))
@@ -222,6 +428,7 @@ public class BuildInfoCollector implements Closeable {
         anonymousBuildConfigClient.close();
         anonymousGroupBuildClient.close();
         anonymousGroupConfigurationClient.close();
+        anonymousArtifactClient.close();
     }
 
     /**
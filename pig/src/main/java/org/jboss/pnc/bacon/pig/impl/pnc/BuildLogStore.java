@@ -0,0 +1,260 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+import org.jboss.pnc.bacon.common.Telemetry;
+import org.jboss.pnc.bacon.config.Config;
+import org.jboss.pnc.bacon.pig.impl.PigContext;
+import org.jboss.pnc.bacon.pnc.client.BifrostClient;
+import org.jboss.pnc.bacon.pnc.client.LogSink;
+import org.jboss.pnc.bacon.pnc.common.UrlGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build logs fetched from Bifrost at most once and kept gzipped on the disk, in {@code .bacon/build-logs} next to the
+ * pig context. The logs of finished builds never change, so they are not fetched again in later runs either.
+ * <p>
+ * The logs are read line by line, never as a whole. {@link #visitLogs} passes every log to all the interested
+ * {@link BuildLogVisitor}s in a single read, while the next logs are being fetched.
+ */
+public class BuildLogStore {
+    private static final Logger log = LoggerFactory.getLogger(BuildLogStore.class);
+
+    private static final String LOGS_DIR = "build-logs";
+    private static final String EXTENSION = ".log.gz";
+    private static final int FETCH_THREADS = 4;
+
+    private static BuildLogStore instance;
+
+    private final Path dir;
+    private final LogFetcher fetcher;
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface LogFetcher {
+        void fetch(String buildId, LogSink sink) throws IOException;
+    }
+
+    BuildLogStore(Path dir, LogFetcher fetcher) {
+        this.dir = dir;
+        this.fetcher = fetcher;
+    }
+
+    public static synchronized BuildLogStore get() {
+        if (instance == null) {
+            instance = new BuildLogStore(getLogsDir(), BuildLogStore::fetchFromBifrost);
+        }
+        return instance;
+    }
+
+    /**
+     * Read the logs of the builds once, passing each line to all the visitors accepting the build. The builds are
+     * visited in the iteration order of the collection.
+     *
+     * @param builds builds to visit the logs of
+     * @param visitors visitors of the logs
+     */
+    public void visitLogs(Collection<PncBuild> builds, List<? extends BuildLogVisitor> visitors) {
+        List<PncBuild> toVisit = builds.stream()
+                .filter(build -> visitors.stream().anyMatch(visitor -> visitor.accepts(build)))
+                .collect(Collectors.toList());
+        if (toVisit.isEmpty()) {
+            return;
+        }
+        log.info("Reading the build logs of {} builds for {} visitors", toVisit.size(), visitors.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(FETCH_THREADS, toVisit.size()));
+        try {
+            List<Future<?>> fetches = new ArrayList<>(toVisit.size());
+            for (PncBuild build : toVisit) {
+                fetches.add(executor.submit(() -> {
+                    if (build.getLoadedBuildLog() == null) {
+                        fetch(build.getId());
+                    }
+                }));
+            }
+            for (int i = 0; i < toVisit.size(); i++) {
+                fetches.get(i).get();
+                visitLog(toVisit.get(i), visitors);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading the build logs", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void visitLog(PncBuild build, List<? extends BuildLogVisitor> visitors) {
+        List<BuildLogVisitor> accepting = visitors.stream()
+                .filter(visitor -> visitor.accepts(build))
+                .collect(Collectors.toList());
+        Consumer<String> onLine = line -> {
+            for (BuildLogVisitor visitor : accepting) {
+                visitor.visit(build, line);
+            }
+        };
+        List<String> loaded = build.getLoadedBuildLog();
+        if (loaded != null) {
+            loaded.forEach(onLine);
+        } else {
+            forEachLine(build.getId(), onLine);
+        }
+        accepting.forEach(visitor -> visitor.end(build));
+    }
+
+    /**
+     * @param buildId id of the build
+     * @param onLine consumer of the lines of the log
+     */
+    public void forEachLine(String buildId, Consumer<String> onLine) {
+        Path file = fetch(buildId);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                onLine.accept(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the stored build log " + file, e);
+        }
+    }
+
+    /**
+     * @param buildId id of the build
+     * @return all the lines of the log, prefer {@link #forEachLine} or {@link #visitLogs} for big logs
+     */
+    public List<String> readLines(String buildId) {
+        List<String> lines = new ArrayList<>();
+        forEachLine(buildId, lines::add);
+        return lines;
+    }
+
+    /**
+     * Fetch the log of the build unless it is stored already
+     *
+     * @param buildId id of the build
+     * @return the gzipped log
+     */
+    Path fetch(String buildId) {
+        Path file = dir.resolve(buildId + EXTENSION);
+        synchronized (locks.computeIfAbsent(buildId, id -> new Object())) {
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+            log.debug("Fetching build log of {}", buildId);
+            Path partial = dir.resolve(buildId + EXTENSION + ".part");
+            try {
+                Files.createDirectories(dir);
+                try (Telemetry.Call call = Telemetry.start("bifrost", "getBuildLog")) {
+                    try (LogSink sink = gzipSink(partial)) {
+                        fetcher.fetch(buildId, sink);
+                    } catch (IOException | RuntimeException e) {
+                        call.failed(e);
+                        throw e;
+                    }
+                }
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return file;
+            } catch (IOException | UncheckedIOException e) {
+                throw new RuntimeException(
+                        "Failed to get build log for " + buildId + " (" + UrlGenerator.generateBuildUrl(buildId) + ")",
+                        e);
+            } finally {
+                deletePartial(partial);
+            }
+        }
+    }
+
+    /**
+     * Remove what was stored of a log whose fetch failed, the file is already moved if it succeeded
+     */
+    private static void deletePartial(Path partial) {
+        try {
+            Files.deleteIfExists(partial);
+        } catch (IOException e) {
+            log.warn("Failed to delete the partial build log {}: {}", partial, e.toString());
+        }
+    }
+
+    private static LogSink gzipSink(Path file) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8));
+        return new LogSink() {
+            @Override
+            public void accept(String line) {
+                try {
+                    writer.write(line);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to store a build log line", e);
+                }
+            }
+
+            @Override
+            public void close() {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to store the build log", e);
+                }
+            }
+        };
+    }
+
+    private static void fetchFromBifrost(String buildId, LogSink sink) throws IOException {
+        String bifrostBase = Config.instance().getActiveProfile().getPnc().getBifrostBaseurl();
+        try (BifrostClient client = new BifrostClient(URI.create(bifrostBase))) {
+            client.streamLog(buildId, BifrostClient.LogType.BUILD, false, 0, sink);
+        }
+    }
+
+    private static Path getLogsDir() {
+        return PigContext.contextDir().resolve(LOGS_DIR);
+    }
+}
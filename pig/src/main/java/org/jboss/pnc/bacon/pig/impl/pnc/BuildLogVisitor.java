@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+/**
+ * Receives the lines of build logs, one build after another, during a pass of {@link BuildLogStore#visitLogs}. A
+ * visitor should keep only what it needs from the lines, not the lines themselves.
+ */
+public interface BuildLogVisitor {
+
+    /**
+     * @param build the build
+     * @return true if the visitor wants the lines of the log of the build
+     */
+    default boolean accepts(PncBuild build) {
+        return true;
+    }
+
+    /**
+     * @param build the build the log belongs to
+     * @param line next line of the log
+     */
+    void visit(PncBuild build, String line);
+
+    /**
+     * Called after the last line of the log of an accepted build
+     *
+     * @param build the build
+     */
+    default void end(PncBuild build) {
+    }
+}
@@ -17,16 +17,19 @@
  */
 package org.jboss.pnc.bacon.pig.impl.pnc;
 
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.transport.TagOpt;
 import org.eclipse.jgit.transport.URIish;
-import org.jboss.pnc.bacon.pig.impl.utils.FileUtils;
+import org.jboss.pnc.bacon.pig.impl.PigContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,14 +37,20 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TODO: drop it once https://projects.engineering.redhat.com/browse/NCL-1322 is implemented
+ * <p>
+ * The repositories are mirrored in {@code .bacon/git-mirrors}, next to the pig context, and only fetched when the refs
+ * advertised by the server are not enough to answer. A fetch into an existing mirror downloads only the new objects.
  *
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
  *         Date: 3/4/19
@@ -50,6 +59,17 @@ public class GitRepoInspector {
 
     private static final Logger log = LoggerFactory.getLogger(GitRepoInspector.class);
     private static final String GIT_REMOTE_NAME = "prod";
+    private static final String MIRRORS_DIR = "git-mirrors";
+
+    /**
+     * Maximum number of repositories to check at the same time
+     */
+    public static final int MAX_CONCURRENT_CHECKS = 8;
+
+    /**
+     * Checks of the same repository share its mirror, they must not fetch into it at the same time
+     */
+    private static final Map<String, Object> mirrorLocks = new ConcurrentHashMap<>();
 
     /**
      * Check if branch 'refSpec' is different from the branch used in the last successful build (either temporary or
@@ -72,97 +92,137 @@ public class GitRepoInspector {
                 refSpec,
                 internalUrl,
                 configId);
-        File tempDir = FileUtils.mkTempDir("git");
-        try (Git git = cloneRepo(internalUrl, tempDir)) {
-            Optional<String> latestCommit = headRevision(git, refSpec);
-
-            if (!latestCommit.isPresent()) {
-                log.info(
-                        "Couldn't find the head of revision for {}. We assume that it is a commit id instead",
-                        refSpec);
-                latestCommit = Optional.of(refSpec);
-            }
-
+        try {
             String tagName = getLatestBuiltTag(configId, temporaryBuild);
-            Set<String> baseCommitPosibilities = getBaseCommitPossibilities(git, tagName);
-
-            return !baseCommitPosibilities.contains(latestCommit.get());
+            return isModifiedSince(getMirrorsDir(), internalUrl, refSpec, tagName);
         } catch (NoSuccessfulBuildException e) {
             log.info(e.getMessage());
         } catch (Exception e) {
             log.warn("Failed trying to check if branch is modified", e);
-        } finally {
-            try {
-                org.apache.commons.io.FileUtils.deleteDirectory(tempDir);
-            } catch (IOException e) {
-                // not important enough to log
-            }
         }
         return false;
     }
 
-    private static Git cloneRepo(String internalUrl, File targetDir) throws GitAPIException, IOException {
-        log.debug("Cloning repository {} into {}", internalUrl, targetDir);
+    /**
+     * @param mirrorsDir directory with the mirrors of the repositories
+     * @param internalUrl url of the repository
+     * @param refSpec branch, tag or commit id to check
+     * @param tagName tag of the latest build
+     * @return true if 'refSpec' points neither to the tagged commit nor to its parent
+     */
+    static boolean isModifiedSince(Path mirrorsDir, String internalUrl, String refSpec, String tagName)
+            throws GitAPIException, IOException {
+        synchronized (mirrorLocks.computeIfAbsent(internalUrl, url -> new Object())) {
+            try (Git git = openMirror(mirrorsDir, internalUrl)) {
+                Map<String, Ref> remoteRefs = git.lsRemote()
+                        .setRemote(GIT_REMOTE_NAME)
+                        .setHeads(true)
+                        .setTags(true)
+                        .callAsMap();
+
+                Optional<ObjectId> head = findCommit(remoteRefs, refSpec);
+                if (!head.isPresent()) {
+                    log.info(
+                            "Couldn't find the head of revision for {}. We assume that it is a commit id instead",
+                            refSpec);
+                }
+                String latestCommit = head.map(ObjectId::getName).orElse(refSpec);
+
+                Optional<ObjectId> tagged = findCommit(remoteRefs, tagName);
+                if (!tagged.isPresent()) {
+                    log.warn("Couldn't find the tag '{}' in the repository", tagName);
+                    return true;
+                }
+                if (tagged.get().getName().equals(latestCommit)) {
+                    // ref-only fast path, nothing to fetch
+                    return false;
+                }
 
-        Git git = Git.init().setDirectory(targetDir).call();
+                Set<String> baseCommitPossibilities = getBaseCommitPossibilities(git, tagged.get());
+                return !baseCommitPossibilities.contains(latestCommit);
+            }
+        }
+    }
 
-        try (Repository repository = git.getRepository()) {
-            StoredConfig config = repository.getConfig();
-            config.setBoolean("http", null, "sslVerify", false);
-            config.save();
+    private static Git openMirror(Path mirrorsDir, String internalUrl) throws GitAPIException, IOException {
+        File mirrorDir = mirrorsDir.resolve(mirrorName(internalUrl)).toFile();
+        if (new File(mirrorDir, "config").isFile()) {
+            try {
+                return Git.open(mirrorDir);
+            } catch (IOException e) {
+                log.warn("Unable to open the mirror of {}, recreating it", internalUrl, e);
+                org.apache.commons.io.FileUtils.deleteDirectory(mirrorDir);
+            }
         }
+        log.debug("Creating a mirror of repository {} in {}", internalUrl, mirrorDir);
 
-        git.remoteAdd().setName(GIT_REMOTE_NAME).setUri(toAnonymous(internalUrl)).call();
+        Git git = Git.init().setBare(true).setDirectory(mirrorDir).call();
+
+        StoredConfig config = git.getRepository().getConfig();
+        config.setBoolean("http", null, "sslVerify", false);
+        config.save();
 
-        git.fetch().setRemote(GIT_REMOTE_NAME).setTagOpt(TagOpt.FETCH_TAGS).call();
+        git.remoteAdd().setName(GIT_REMOTE_NAME).setUri(toAnonymous(internalUrl)).call();
         return git;
     }
 
-    private static Optional<String> headRevision(Git git, String branch) throws GitAPIException, IOException {
-
-        try (Repository repository = git.getRepository()) {
+    /**
+     * @return name of the mirror directory, unique for the url and readable
+     */
+    private static String mirrorName(String internalUrl) {
+        String path = StringUtils.removeEnd(internalUrl, "/");
+        String name = path.substring(path.lastIndexOf('/') + 1)
+                .replaceAll("\\.git$", "")
+                .replaceAll("[^\\w.-]", "_");
+        return name + "-" + UUID.nameUUIDFromBytes(internalUrl.getBytes(StandardCharsets.UTF_8)) + ".git";
+    }
 
-            Optional<Ref> ref = getRef(branch, repository);
-            if (ref.isPresent()) {
-                ObjectId id = ref.get().getPeeledObjectId();
-                if (id == null) {
-                    id = ref.get().getObjectId();
-                }
-                Iterable<RevCommit> commits = git.log().add(id).call();
-                return Optional.of(commits.iterator().next().getName());
-            } else {
-                return Optional.empty();
-            }
+    /**
+     * Find the commit a branch or a tag points to among the refs advertised by the server. Branches take precedence
+     * over tags with the same name.
+     */
+    private static Optional<ObjectId> findCommit(Map<String, Ref> remoteRefs, String reference) {
+        Ref ref = remoteRefs.get(Constants.R_HEADS + reference);
+        if (ref == null) {
+            ref = remoteRefs.get(Constants.R_TAGS + reference);
         }
+        if (ref == null) {
+            ref = remoteRefs.get(reference);
+        }
+        if (ref == null) {
+            return Optional.empty();
+        }
+        // annotated tags point to the tag object, the server advertises the commit as the peeled id
+        return Optional.ofNullable(ref.getPeeledObjectId() != null ? ref.getPeeledObjectId() : ref.getObjectId());
     }
 
     /**
      * TODO: smarter check is required, here if a repour tag is on an "upstream" commit TODO: we may miss modifications
      * (because we return here the tag commit and its parent)
      */
-    private static Set<String> getBaseCommitPossibilities(Git git, String tagName) throws GitAPIException, IOException {
-        log.debug("Getting base commit possibilities for tag: {}", tagName);
-        Set<String> result = new HashSet<>();
-
-        try (Repository repository = git.getRepository()) {
-            Optional<Ref> ref = getRef(tagName, repository);
-
-            if (ref.isPresent()) {
-                ObjectId id = ref.get().getPeeledObjectId() != null ? ref.get().getPeeledObjectId()
-                        : ref.get().getObjectId();
-
-                Iterator<RevCommit> log = git.log().add(id).call().iterator();
+    private static Set<String> getBaseCommitPossibilities(Git git, ObjectId taggedCommit)
+            throws GitAPIException, IOException {
+        log.debug("Getting base commit possibilities for commit: {}", taggedCommit.getName());
+        Repository repository = git.getRepository();
+        if (!repository.getObjectDatabase().has(taggedCommit)) {
+            // tagged commits never change, once they are in the mirror there is no need to fetch them again
+            log.debug("Updating the mirror in {}", repository.getDirectory());
+            git.fetch().setRemote(GIT_REMOTE_NAME).setTagOpt(TagOpt.FETCH_TAGS).setRemoveDeletedRefs(true).call();
+        }
 
-                result.add(log.next().getName());
-                if (log.hasNext()) {
-                    result.add(log.next().getName());
-                }
-                return result;
-            } else {
-                log.warn("Couldn't find the tag '{}' in the repository", tagName);
-                return Collections.emptySet();
+        Set<String> result = new HashSet<>();
+        try (RevWalk walk = new RevWalk(repository)) {
+            RevCommit commit = walk.parseCommit(taggedCommit);
+            result.add(commit.getName());
+            if (commit.getParentCount() > 0) {
+                result.add(commit.getParent(0).getName());
             }
         }
+        return result;
+    }
+
+    private static Path getMirrorsDir() {
+        return PigContext.contextDir().resolve(MIRRORS_DIR);
     }
 
     private static String getLatestBuiltTag(String configId, boolean temporaryBuild) {
@@ -185,24 +245,6 @@ public class GitRepoInspector {
         return new URIish(URI.create(uriAsString).toURL());
     }
 
-    /**
-     * Use this helper method to find the ref since we need to specify the GIT remote name to find it
-     *
-     * @param reference reference to find
-     * @param repository Repository
-     * @return Optional<Ref>: if not found it is empty
-     * @throws IOException
-     */
-    private static Optional<Ref> getRef(String reference, Repository repository) throws IOException {
-
-        Ref ref = repository.findRef(GIT_REMOTE_NAME + "/" + reference);
-
-        if (ref == null) {
-            ref = repository.findRef(reference);
-        }
-        return Optional.ofNullable(ref);
-    }
-
     private GitRepoInspector() {
     }
 }
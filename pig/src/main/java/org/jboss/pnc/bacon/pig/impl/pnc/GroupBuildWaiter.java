@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+import org.jboss.pnc.bacon.pnc.common.UrlGenerator;
+import org.jboss.pnc.client.ClientException;
+import org.jboss.pnc.client.Configuration;
+import org.jboss.pnc.client.GroupBuildClient;
+import org.jboss.pnc.dto.GroupBuild;
+import org.jboss.pnc.restclient.websocket.VertxWebSocketClient;
+import org.jboss.pnc.restclient.websocket.WebSocketClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Waits for a group build to reach a final status.
+ * <p>
+ * If possible, the waiter subscribes to the group build notifications sent by PNC over the websocket and wakes up as
+ * soon as the group build finishes. Since a notification may get lost, e.g. if the connection drops, the status of the
+ * group build is polled as well, with an interval growing exponentially from {@code initialInterval}. The interval is
+ * capped at {@code maxInterval} without notifications and at {@code maxIntervalWithNotifications} with them. Only the
+ * group build itself is fetched when polling, not its builds.
+ */
+public class GroupBuildWaiter {
+    private static final Logger log = LoggerFactory.getLogger(GroupBuildWaiter.class);
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+
+    private final GroupBuildClient groupBuildClient;
+    private final Function<String, CompletableFuture<?>> notificationSubscriber;
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final Duration maxIntervalWithNotifications;
+
+    /**
+     * @param groupBuildClient client used to poll the group build status
+     * @param notificationSubscriber returns a future completed when a notification that the group build with the
+     *        given id finished arrives, or null if notifications are not available
+     * @param initialInterval first polling interval
+     * @param maxInterval max polling interval when notifications are not available
+     * @param maxIntervalWithNotifications max polling interval when notifications are available
+     */
+    GroupBuildWaiter(
+            GroupBuildClient groupBuildClient,
+            Function<String, CompletableFuture<?>> notificationSubscriber,
+            Duration initialInterval,
+            Duration maxInterval,
+            Duration maxIntervalWithNotifications) {
+        this.groupBuildClient = groupBuildClient;
+        this.notificationSubscriber = notificationSubscriber;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.maxIntervalWithNotifications = maxIntervalWithNotifications;
+    }
+
+    /**
+     * Create a waiter subscribing to the notifications of the PNC instance given by the configuration
+     *
+     * @param groupBuildClient client used to poll the group build status
+     * @param configuration configuration of the PNC client
+     * @return the waiter
+     */
+    public static GroupBuildWaiter create(GroupBuildClient groupBuildClient, Configuration configuration) {
+        return new GroupBuildWaiter(
+                groupBuildClient,
+                groupBuildId -> subscribe(configuration, groupBuildId),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(5));
+    }
+
+    /**
+     * Wait until the group build reaches a final status. Failures to get the status are logged and the group build is
+     * assumed not to be finished.
+     *
+     * @param groupBuildId id of the group build
+     * @return the group build in a final status
+     */
+    public GroupBuild waitForFinalStatus(String groupBuildId) {
+        CompletableFuture<?> notification = subscribeSafely(groupBuildId);
+        Duration cap = notification == null ? maxInterval : maxIntervalWithNotifications;
+        Duration interval = initialInterval;
+        try {
+            while (true) {
+                // log set to info for CPaaS to detect infinite loop
+                log.info("Checking if group build {} is finished", groupBuildId);
+                GroupBuild groupBuild = getGroupBuild(groupBuildId);
+                if (groupBuild != null && groupBuild.getStatus().isFinal()) {
+                    return groupBuild;
+                }
+                if (awaitNotification(notification, interval)) {
+                    log.debug("Notified that group build {} finished", groupBuildId);
+                    // the notification is consumed, keep polling in case the status is not updated yet
+                    notification = null;
+                    interval = initialInterval;
+                    cap = maxInterval;
+                } else {
+                    interval = min(interval.multipliedBy(2), cap);
+                }
+            }
+        } finally {
+            if (notification != null) {
+                notification.cancel(true);
+            }
+        }
+    }
+
+    private GroupBuild getGroupBuild(String groupBuildId) {
+        try {
+            return groupBuildClient.getSpecific(groupBuildId);
+        } catch (ClientException e) {
+            log.warn("Failed to get the status of group build {}. Assuming it is not finished", groupBuildId, e);
+            return null;
+        }
+    }
+
+    private CompletableFuture<?> subscribeSafely(String groupBuildId) {
+        try {
+            return notificationSubscriber.apply(groupBuildId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to subscribe to PNC notifications, falling back to polling", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the notification arrived within the interval, false otherwise
+     */
+    private static boolean awaitNotification(CompletableFuture<?> notification, Duration interval) {
+        try {
+            if (notification == null) {
+                Thread.sleep(interval.toMillis());
+                return false;
+            }
+            notification.get(interval.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the group build to finish", e);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("Receiving PNC notifications failed, falling back to polling", e.getCause());
+            // returning true polls right away and drops the failed subscription
+            return true;
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static CompletableFuture<?> subscribe(Configuration configuration, String groupBuildId) {
+        WebSocketClient webSocketClient = new VertxWebSocketClient();
+        try {
+            webSocketClient.connect(notificationsUrl(configuration)).get(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeQuietly(webSocketClient);
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Failed to connect to PNC notifications, falling back to polling: {}", e.toString());
+            closeQuietly(webSocketClient);
+            return null;
+        }
+        CompletableFuture<?> notification = webSocketClient.catchGroupBuildChangedNotification(
+                n -> groupBuildId.equals(n.getGroupBuild().getId()) && n.getGroupBuild().getStatus().isFinal());
+        notification.whenComplete((result, error) -> closeQuietly(webSocketClient));
+        return notification;
+    }
+
+    static String notificationsUrl(Configuration configuration) {
+        return UrlGenerator.generateNotificationsUrl(configuration);
+    }
+
+    private static void closeQuietly(WebSocketClient webSocketClient) {
+        try {
+            webSocketClient.close();
+        } catch (Exception e) {
+            log.debug("Failed to close the websocket client", e);
+        }
+    }
+}
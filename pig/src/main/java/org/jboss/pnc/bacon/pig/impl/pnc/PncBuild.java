@@ -24,9 +24,6 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
-import org.jboss.pnc.bacon.config.Config;
-import org.jboss.pnc.bacon.pnc.client.BifrostClient;
-import org.jboss.pnc.bacon.pnc.common.UrlGenerator;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.enums.BuildStatus;
@@ -34,16 +31,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
-import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static java.util.Arrays.asList;
-
 /**
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
  *         Date: 6/3/17
@@ -92,7 +86,7 @@ public class PncBuild {
     }
 
     public void addBuildLog(String log) {
-        buildLog = log == null ? Collections.emptyList() : asList(log.split("\\r?\\n"));
+        buildLog = log == null ? Collections.emptyList() : log.lines().collect(Collectors.toList());
     }
 
     public void addBuildLog(List<String> log) {
@@ -104,7 +98,8 @@ public class PncBuild {
     }
 
     public ArtifactWrapper findArtifact(String regex) {
-        List<ArtifactWrapper> matches = findArtifactsMatching(a -> a.getGapv().matches(regex));
+        Pattern pattern = Pattern.compile(regex);
+        List<ArtifactWrapper> matches = findArtifactsMatching(a -> pattern.matcher(a.getGapv()).matches());
         if (matches.size() != 1) {
             throw new RuntimeException(
                     "Expecting exactly one artifact matching " + regex + ", found " + matches.size());
@@ -113,7 +108,8 @@ public class PncBuild {
     }
 
     public ArtifactWrapper findArtifactByFileName(String regex) {
-        List<ArtifactWrapper> matches = findArtifactsMatching(a -> a.getFileName().matches(regex));
+        Pattern pattern = Pattern.compile(regex);
+        List<ArtifactWrapper> matches = findArtifactsMatching(a -> pattern.matcher(a.getFileName()).matches());
         if (matches.size() != 1) {
             throw new RuntimeException(
                     "Expecting exactly one artifact matching " + regex + ", found " + matches.size());
@@ -122,7 +118,8 @@ public class PncBuild {
     }
 
     public void downloadArtifact(String pattern, File downloadedZip) {
-        Predicate<ArtifactWrapper> query = a -> a.getFileName().matches(pattern);
+        Pattern fileNamePattern = Pattern.compile(pattern);
+        Predicate<ArtifactWrapper> query = a -> fileNamePattern.matcher(a.getFileName()).matches();
         List<ArtifactWrapper> artifacts = findArtifactsMatching(query);
 
         if (artifacts.size() != 1) {
@@ -136,35 +133,24 @@ public class PncBuild {
     }
 
     /**
-     * Get the build log of the build on demand and result if cached. If the method is called again, the cached content
-     * will be served if not null
+     * Get the build log of the build. The log is fetched once into the {@link BuildLogStore} and read from there on
+     * every call, unless it was set with {@link #addBuildLog}. Add-ons should prefer a {@link BuildLogVisitor}, which
+     * does not need the whole log in memory.
      *
      * @return the logs of the build
      */
     public List<String> getBuildLog() {
-
-        // use cached buildLog if present
         if (buildLog != null) {
             return buildLog;
         }
+        return BuildLogStore.get().readLines(id);
+    }
 
-        String bifrostBase = Config.instance().getActiveProfile().getPnc().getBifrostBaseurl();
-        URI bifrostUri = URI.create(bifrostBase);
-        BifrostClient logProcessor = new BifrostClient(bifrostUri);
-        try {
-            buildLog = logProcessor.getLog(id, BifrostClient.LogType.BUILD);
-
-            if (buildLog == null) {
-                log.debug("Couldn't find logs for build id: {} ( {} )", id, UrlGenerator.generateBuildUrl(id));
-                buildLog = Collections.emptyList();
-            }
-
-            return buildLog;
-        } catch (IOException e) {
-            throw new RuntimeException(
-                    "Failed to get build log for " + id + " (" + UrlGenerator.generateBuildUrl(id) + ")",
-                    e);
-        }
+    /**
+     * @return the build log set with {@link #addBuildLog}, null if it was not set
+     */
+    List<String> getLoadedBuildLog() {
+        return buildLog;
     }
 
     private List<ArtifactWrapper> findArtifactsMatching(Predicate<ArtifactWrapper> query) {
@@ -22,6 +22,7 @@ import org.jboss.pnc.bacon.common.exception.FatalException;
 import org.jboss.pnc.bacon.pig.impl.utils.SleepUtils;
 import org.jboss.pnc.bacon.pnc.common.UrlGenerator;
 import org.jboss.pnc.client.ClientException;
+import org.jboss.pnc.client.Configuration;
 import org.jboss.pnc.client.GroupBuildClient;
 import org.jboss.pnc.client.GroupConfigurationClient;
 import org.jboss.pnc.client.RemoteResourceException;
@@ -37,6 +38,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
+import java.time.Duration;
 import java.util.Collection;
 
 import static java.util.Optional.of;
@@ -49,16 +51,21 @@ import static org.jboss.pnc.bacon.pnc.client.PncClientHelper.getPncConfiguration
  */
 public class PncBuilder implements Closeable {
     private static final Logger log = LoggerFactory.getLogger(PncBuilder.class);
+    private static final int MAX_BUILDS_CHECK_INTERVAL = 30;
+
     private final GroupBuildClient groupBuildClient;
     private final GroupBuildClient anonymousGroupBuildClient;
     private final GroupConfigurationClient groupConfigClient;
     private final GroupConfigurationClient anonymousGroupConfigClient;
+    private final GroupBuildWaiter groupBuildWaiter;
 
     public PncBuilder() {
+        Configuration anonymousConfiguration = getPncConfiguration(false);
         groupBuildClient = new GroupBuildClient(getPncConfiguration());
-        anonymousGroupBuildClient = new GroupBuildClient(getPncConfiguration(false));
+        anonymousGroupBuildClient = new GroupBuildClient(anonymousConfiguration);
         groupConfigClient = new GroupConfigurationClient(getPncConfiguration());
-        anonymousGroupConfigClient = new GroupConfigurationClient(getPncConfiguration(false));
+        anonymousGroupConfigClient = new GroupConfigurationClient(anonymousConfiguration);
+        groupBuildWaiter = GroupBuildWaiter.create(anonymousGroupBuildClient, anonymousConfiguration);
     }
 
     /**
@@ -76,6 +83,12 @@ public class PncBuilder implements Closeable {
         this.anonymousGroupBuildClient = anonymousGroupBuildClient;
         groupConfigClient = gc;
         this.anonymousGroupConfigClient = anonymousGroupConfigClient;
+        groupBuildWaiter = new GroupBuildWaiter(
+                anonymousGroupBuildClient,
+                groupBuildId -> null,
+                Duration.ofMillis(10),
+                Duration.ofMillis(100),
+                Duration.ofMillis(100));
     }
 
     public GroupBuild build(
@@ -164,36 +177,36 @@ public class PncBuilder implements Closeable {
                 "Waiting for finish of group build {} ( {} )",
                 groupBuildId,
                 UrlGenerator.generateGroupBuildUrl(groupBuildId));
-        SleepUtils.waitFor(() -> isSuccessfullyFinished(groupBuildId), 30, true);
+        GroupBuild groupBuild = groupBuildWaiter.waitForFinalStatus(groupBuildId);
+        switch (groupBuild.getStatus()) {
+            case REJECTED: // PNC has already built the project
+            case NO_REBUILD_REQUIRED:
+            case SUCCESS:
+                waitForAllBuildsInFinalState(groupBuild);
+                break;
+            default:
+                throw new FatalException(
+                        "Build group failed {} with status {}",
+                        UrlGenerator.generateGroupBuildUrl(groupBuildId),
+                        groupBuild.getStatus());
+        }
         log.info("Group build finished successfully");
     }
 
-    boolean isSuccessfullyFinished(String groupBuildId) {
-
-        // log set to info for CPaaS to detect infinite loop
-        log.info("Checking if group build {} is successfully finished", groupBuildId);
-        try {
-            GroupBuild groupBuild = anonymousGroupBuildClient.getSpecific(groupBuildId);
-            switch (groupBuild.getStatus()) {
-                case BUILDING:
-                    return false;
-                case REJECTED: // PNC has already built the project
-                case NO_REBUILD_REQUIRED:
-                case SUCCESS:
-                    return verifyAllBuildsInGroupBuildInFinalStateWithProperCount(groupBuildId);
-                default:
-                    throw new FatalException(
-                            "Build group failed {} with status {}",
-                            UrlGenerator.generateGroupBuildUrl(groupBuildId),
-                            groupBuild.getStatus());
+    /**
+     * Wait until all the builds of the finished group build are in a final state, see
+     * {@link #verifyAllBuildsInGroupBuildInFinalStateWithProperCount(String, int)}. Usually they are right away, so the
+     * builds are fetched just once.
+     */
+    private void waitForAllBuildsInFinalState(GroupBuild groupBuild) {
+        int expectedCount = getCountOfBuildConfigs(groupBuild);
+        int interval = 1;
+        while (!verifyAllBuildsInGroupBuildInFinalStateWithProperCount(groupBuild.getId(), expectedCount)) {
+            SleepUtils.sleep(interval);
+            interval = Math.min(interval * 2, MAX_BUILDS_CHECK_INTERVAL);
+            if (expectedCount < 0) {
+                expectedCount = getCountOfBuildConfigs(groupBuild);
             }
-        } catch (ClientException e) {
-            log.warn(
-                    "Failed to check if build is finished for {} ( {} ). Assuming it is not finished",
-                    groupBuildId,
-                    UrlGenerator.generateGroupBuildUrl(groupBuildId),
-                    e);
-            return false;
         }
     }
 
@@ -211,9 +224,10 @@ public class PncBuilder implements Closeable {
      * the no rebuild cause.
      *
      * @param groupBuildId the group build id
+     * @param expectedCount count of build configs in the group build's group config
      * @return whether all the builds have a final status or not
      */
-    boolean verifyAllBuildsInGroupBuildInFinalStateWithProperCount(String groupBuildId) {
+    boolean verifyAllBuildsInGroupBuildInFinalStateWithProperCount(String groupBuildId, int expectedCount) {
 
         // log set to info for CPaaS to detect infinite loop
         log.info(
@@ -227,7 +241,7 @@ public class PncBuilder implements Closeable {
         try {
             Collection<Build> builds = anonymousGroupBuildClient.getBuilds(groupBuildId, filter).getAll();
             boolean allFinal = builds.stream().allMatch(b -> b.getStatus().isFinal());
-            return allFinal && getCountOfBuildConfigsForGroupBuild(groupBuildId) == builds.size();
+            return allFinal && expectedCount == builds.size();
         } catch (ClientException e) {
             log.warn(
                     "Failed to check if all builds in group build {} have a final status. Assuming it is not finished",
@@ -246,15 +260,23 @@ public class PncBuilder implements Closeable {
     int getCountOfBuildConfigsForGroupBuild(String groupBuildId) {
 
         try {
-            GroupBuild gb = anonymousGroupBuildClient.getSpecific(groupBuildId);
-            GroupConfigurationRef gc = gb.getGroupConfig();
-            return anonymousGroupConfigClient.getBuildConfigs(gc.getId()).size();
+            return getCountOfBuildConfigs(anonymousGroupBuildClient.getSpecific(groupBuildId));
         } catch (ClientException e) {
             log.warn("Failed to get count of build configs in the group build {}", groupBuildId, e);
             return -1;
         }
     }
 
+    private int getCountOfBuildConfigs(GroupBuild groupBuild) {
+        try {
+            GroupConfigurationRef gc = groupBuild.getGroupConfig();
+            return anonymousGroupConfigClient.getBuildConfigs(gc.getId()).size();
+        } catch (ClientException e) {
+            log.warn("Failed to get count of build configs in the group build {}", groupBuild.getId(), e);
+            return -1;
+        }
+    }
+
     @Override
     public void close() {
         groupBuildClient.close();
@@ -61,7 +61,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.empty;
@@ -324,6 +327,7 @@ public class PncEntitiesImporter implements Closeable {
             List<BuildConfig> builds,
             boolean skipBranchCheck,
             boolean temporaryBuild) {
+        checkBranches(currentConfigs, builds, skipBranchCheck, temporaryBuild);
         List<BuildConfigData> buildList = new ArrayList<>();
         for (BuildConfig bc : builds) {
             BuildConfigData data = new BuildConfigData(bc);
@@ -360,6 +364,44 @@ public class PncEntitiesImporter implements Closeable {
         return buildList;
     }
 
+    /**
+     * Check concurrently if the branches of the configs with otherwise unchanged settings moved since their latest
+     * builds. The configs keep the results for {@link BuildConfigData#shouldBeUpdated}.
+     */
+    private static void checkBranches(
+            List<BuildConfiguration> currentConfigs,
+            List<BuildConfig> builds,
+            boolean skipBranchCheck,
+            boolean temporaryBuild) {
+        if (skipBranchCheck) {
+            return;
+        }
+        Map<String, BuildConfiguration> currentByName = currentConfigs.stream()
+                .collect(Collectors.toMap(BuildConfiguration::getName, config -> config, (first, second) -> first));
+        List<Callable<Boolean>> checks = new ArrayList<>();
+        for (BuildConfig bc : builds) {
+            BuildConfiguration current = currentByName.get(bc.getName());
+            if (bc.hasTheSameSettingsAs(current)) {
+                checks.add(() -> bc.isBranchModified(current, false, temporaryBuild));
+            }
+        }
+        if (checks.isEmpty()) {
+            return;
+        }
+
+        log.info("Checking {} branches for modifications", checks.size());
+        ExecutorService executor = Executors
+                .newFixedThreadPool(Math.min(checks.size(), GitRepoInspector.MAX_CONCURRENT_CHECKS));
+        try {
+            executor.invokeAll(checks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking the branches", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private BuildConfiguration createBuildConfig(BuildConfig buildConfig) {
         BuildConfiguration config = generatePncBuildConfig(buildConfig);
         try {
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Packagings and classifiers of a set of artifacts, indexed by their groupId, artifactId and version.
+ */
+class ArtifactIndex {
+    private static final String POM = "pom";
+    private static final String SOURCES = "sources";
+    private static final String JAVADOC = "javadoc";
+
+    /** {@link GAV#equals} only compares the groupId, artifactId and version */
+    private final Map<GAV, Variants> variantsByGav = new HashMap<>();
+
+    ArtifactIndex(Collection<GAV> gavs) {
+        gavs.forEach(this::add);
+    }
+
+    private void add(GAV gav) {
+        Variants variants = variantsByGav.computeIfAbsent(gav, g -> new Variants());
+        variants.packagings.add(gav.getPackaging());
+        variants.hasNormalJar |= gav.isNormalJar();
+        if (gav.getClassifier() != null) {
+            variants.classifiers.add(gav.getClassifier());
+        }
+    }
+
+    /**
+     * Finds the sources, poms and, if requested, javadocs missing for the plain jars of the index
+     *
+     * @param includeJavadoc whether the missing javadocs should be reported
+     * @return the missing artifacts, in no particular order
+     */
+    List<GAV> findMissing(boolean includeJavadoc) {
+        List<GAV> missing = new ArrayList<>();
+        for (Map.Entry<GAV, Variants> entry : variantsByGav.entrySet()) {
+            Variants variants = entry.getValue();
+            if (!variants.hasNormalJar) {
+                continue;
+            }
+            GAV gav = entry.getKey();
+            if (!variants.classifiers.contains(SOURCES)) {
+                missing.add(gav.toSourcesJar());
+            }
+            if (!variants.packagings.contains(POM)) {
+                missing.add(gav.toPom());
+            }
+            if (includeJavadoc && !variants.classifiers.contains(JAVADOC)) {
+                missing.add(gav.toJavadocJar());
+            }
+        }
+        return missing;
+    }
+
+    private static class Variants {
+        private final Set<String> packagings = new HashSet<>(2);
+        private final Set<String> classifiers = new HashSet<>(2);
+        private boolean hasNormalJar;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.bacon.pig.impl.repo;
 
+import org.jboss.pnc.bacon.pig.impl.utils.ArtifactChecksums;
 import org.jboss.pnc.bacon.pig.impl.utils.FileDownloadUtils;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
 import org.jboss.pnc.bacon.pig.impl.utils.indy.Indy;
@@ -26,6 +27,14 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
@@ -45,13 +54,78 @@ public class ExternalArtifactDownloader {
     }
 
     public static File downloadExternalArtifact(GAV gav, File targetPath, boolean sourcesOptional) {
+        return downloadExternalArtifact(gav, targetPath, sourcesOptional, ArtifactChecksums.NONE);
+    }
+
+    /**
+     * Download the artifacts concurrently, using at most {@link FileDownloadUtils#getMaxConcurrentDownloads()}
+     * parallel downloads. The downloads share the pooled connections of {@link FileDownloadUtils}.
+     *
+     * @param gavs artifacts to download
+     * @param checksums expected checksums, keyed by {@link GAV#toGapvc()}. Artifacts without an entry are not verified
+     * @param targetRepoContents root of the repository to download the artifacts to
+     * @param sourcesOptional if true, failing to download sources won't fail the whole download
+     */
+    public static void downloadExternalArtifacts(
+            Collection<GAV> gavs,
+            Map<String, ArtifactChecksums> checksums,
+            Path targetRepoContents,
+            boolean sourcesOptional) {
+        if (gavs.isEmpty()) {
+            return;
+        }
+        int poolSize = Math.min(FileDownloadUtils.getMaxConcurrentDownloads(), gavs.size());
+        log.info("Downloading {} artifacts using {} parallel downloads", gavs.size(), poolSize);
+        ArtifactProgressTracker progressTracker = new ArtifactProgressTracker("Downloaded ", gavs.size());
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        // completed on the first failed download so that the remaining ones are not waited for
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        try {
+            List<CompletableFuture<Void>> downloads = new ArrayList<>(gavs.size());
+            for (GAV gav : gavs) {
+                ArtifactChecksums expected = checksums.getOrDefault(gav.toGapvc(), ArtifactChecksums.NONE);
+                downloads.add(CompletableFuture.runAsync(() -> {
+                    downloadExternalArtifact(gav, targetPath(gav, targetRepoContents), sourcesOptional, expected);
+                    progressTracker.finalized(
+                            gav.getGroupId(),
+                            gav.getArtifactId(),
+                            gav.getClassifier(),
+                            gav.getPackaging(),
+                            gav.getVersion());
+                }, executor).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        firstFailure.completeExceptionally(error);
+                    }
+                }));
+            }
+            CompletableFuture<Void> all = CompletableFuture.allOf(downloads.toArray(new CompletableFuture<?>[0]));
+            CompletableFuture.anyOf(all, firstFailure).join();
+        } catch (CompletionException e) {
+            Throwable cause = e;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static File downloadExternalArtifact(
+            GAV gav,
+            File targetPath,
+            boolean sourcesOptional,
+            ArtifactChecksums checksums) {
         targetPath.toPath().getParent().toFile().mkdirs();
 
         String indyUrl = gav.isTemporary() ? Indy.getIndyTempUrl() : Indy.getIndyUrl();
 
         URI downloadUrl = URI.create(String.format("%s/%s", indyUrl, gav.toUri()));
         try {
-            FileDownloadUtils.downloadTo(downloadUrl, targetPath);
+            FileDownloadUtils.downloadTo(downloadUrl, targetPath, checksums);
         } catch (RuntimeException any) {
             if (sourcesOptional && "sources".equals(gav.getClassifier()) || "javadoc".equals(gav.getClassifier())) {
                 log.warn("Unable to download sources for {}: {}", gav, any.getMessage());
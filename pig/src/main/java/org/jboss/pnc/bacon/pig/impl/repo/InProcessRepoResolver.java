@@ -0,0 +1,215 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import io.quarkus.bootstrap.resolver.maven.BootstrapMavenException;
+import io.quarkus.bootstrap.resolver.maven.MavenArtifactResolver;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.artifact.DefaultArtifactType;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.jboss.pnc.bacon.common.ObjectHelper;
+import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Downloads the dependencies of a BOM to a local repository the way {@link RepoBuilder} does by building a generated
+ * project, but in-process with the Maven resolver, without forking Maven.
+ * <p>
+ * The dependency graph of the selected BOM entries is collected first. Then all the artifacts of the graph, together
+ * with their sources and, optionally, javadocs, are downloaded in a single resolution, concurrently. As with the
+ * {@code dependency:sources} goal, missing sources and javadocs are not an error. Failures of the other artifacts are
+ * reported per artifact.
+ */
+class InProcessRepoResolver {
+    private static final Logger log = LoggerFactory.getLogger(InProcessRepoResolver.class);
+
+    private static final String DOWNLOAD_THREADS_PROPERTY = "aether.connector.basic.threads";
+    private static final int DOWNLOAD_THREADS = 8;
+
+    private static final String SOURCES = "sources";
+    private static final String JAVADOC = "javadoc";
+
+    private final MavenArtifactResolver resolver;
+    private final RepositorySystemSession session;
+
+    InProcessRepoResolver(File settingsXml, File repoDir) {
+        try {
+            resolver = MavenArtifactResolver.builder()
+                    .setUserSettings(settingsXml)
+                    .setLocalRepository(repoDir.getAbsolutePath())
+                    .setWorkspaceDiscovery(false)
+                    .setArtifactTransferLogging(ObjectHelper.isLogDebug())
+                    .build();
+        } catch (BootstrapMavenException e) {
+            throw new RuntimeException("Failed to initialize Maven artifact resolver", e);
+        }
+        DefaultRepositorySystemSession downloadSession = new DefaultRepositorySystemSession(resolver.getSession());
+        downloadSession.setConfigProperty(DOWNLOAD_THREADS_PROPERTY, DOWNLOAD_THREADS);
+        session = downloadSession;
+    }
+
+    /**
+     * @param bom the BOM managing the versions of the dependencies
+     * @param dependencies the BOM entries to download, with their dependencies
+     * @param includeJavadoc whether to download javadocs too
+     */
+    void resolve(GAV bom, List<GAV> dependencies, boolean includeJavadoc) {
+        List<Dependency> managedDependencies;
+        try {
+            managedDependencies = resolver
+                    .resolveDescriptor(
+                            new DefaultArtifact(bom.getGroupId(), bom.getArtifactId(), null, "pom", bom.getVersion()))
+                    .getManagedDependencies();
+        } catch (BootstrapMavenException e) {
+            throw new RuntimeException("Failed to resolve the BOM " + bom.toGav(), e);
+        }
+
+        Set<Artifact> artifacts = collect(
+                dependencies.stream().map(this::toDependency).collect(Collectors.toList()),
+                managedDependencies);
+        log.debug("Downloading {} artifacts of {} BOM entries", artifacts.size(), dependencies.size());
+
+        List<ArtifactRequest> requests = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            requests.add(request(artifact));
+            if ("jar".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty()) {
+                requests.add(request(withClassifier(artifact, SOURCES)));
+                if (includeJavadoc) {
+                    requests.add(request(withClassifier(artifact, JAVADOC)));
+                }
+            }
+        }
+        download(requests, artifacts);
+    }
+
+    private Set<Artifact> collect(List<Dependency> dependencies, List<Dependency> managedDependencies) {
+        CollectRequest request = new CollectRequest().setDependencies(dependencies)
+                .setManagedDependencies(managedDependencies)
+                .setRepositories(resolver.getRepositories());
+        DependencyNode root;
+        try {
+            root = resolver.getSystem().collectDependencies(session, request).getRoot();
+        } catch (DependencyCollectionException e) {
+            List<String> failures = e.getResult()
+                    .getExceptions()
+                    .stream()
+                    .map(Exception::getMessage)
+                    .collect(Collectors.toList());
+            throw failure("Failed to collect the dependencies of the BOM entries", failures, e);
+        }
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        collectArtifacts(root, artifacts);
+        return artifacts;
+    }
+
+    private static void collectArtifacts(DependencyNode node, Set<Artifact> artifacts) {
+        if (node.getDependency() != null && !artifacts.add(node.getArtifact())) {
+            return;
+        }
+        node.getChildren().forEach(child -> collectArtifacts(child, artifacts));
+    }
+
+    private void download(List<ArtifactRequest> requests, Set<Artifact> required) {
+        List<ArtifactResult> results;
+        try {
+            results = resolver.getSystem().resolveArtifacts(session, requests);
+        } catch (ArtifactResolutionException e) {
+            results = e.getResults();
+        }
+
+        List<String> failures = new ArrayList<>();
+        int missingOptional = 0;
+        for (ArtifactResult result : results) {
+            if (result.isResolved()) {
+                continue;
+            }
+            Artifact artifact = result.getRequest().getArtifact();
+            if (!required.contains(artifact)) {
+                log.debug("No {} available for {}", artifact.getClassifier(), artifact);
+                missingOptional++;
+                continue;
+            }
+            failures.add(
+                    artifact + ": " + result.getExceptions()
+                            .stream()
+                            .map(Exception::getMessage)
+                            .collect(Collectors.joining(", ")));
+        }
+        if (missingOptional > 0) {
+            log.info("{} sources or javadoc artifacts are not available", missingOptional);
+        }
+        if (!failures.isEmpty()) {
+            throw failure("Failed to download " + failures.size() + " artifacts", failures, null);
+        }
+    }
+
+    private static RuntimeException failure(String message, List<String> failures, Exception cause) {
+        StringBuilder report = new StringBuilder(message).append(':');
+        failures.forEach(failure -> report.append("\n  ").append(failure));
+        return new RuntimeException(report.toString(), cause);
+    }
+
+    private Dependency toDependency(GAV gav) {
+        String packaging = gav.getPackaging() == null ? "jar" : gav.getPackaging();
+        ArtifactType type = session.getArtifactTypeRegistry().get(packaging);
+        if (type == null) {
+            type = new DefaultArtifactType(packaging);
+        }
+        String classifier = gav.getClassifier() == null ? type.getClassifier() : gav.getClassifier();
+        Artifact artifact = new DefaultArtifact(
+                gav.getGroupId(),
+                gav.getArtifactId(),
+                classifier,
+                type.getExtension(),
+                gav.getVersion(),
+                type);
+        return new Dependency(artifact, gav.getScope() == null ? JavaScopes.COMPILE : gav.getScope());
+    }
+
+    private ArtifactRequest request(Artifact artifact) {
+        return new ArtifactRequest(artifact, resolver.getRepositories(), null);
+    }
+
+    private static Artifact withClassifier(Artifact artifact, String classifier) {
+        return new DefaultArtifact(
+                artifact.getGroupId(),
+                artifact.getArtifactId(),
+                classifier,
+                artifact.getExtension(),
+                artifact.getVersion());
+    }
+}
@@ -3,95 +3,121 @@ package org.jboss.pnc.bacon.pig.impl.repo;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
+ * Downloads the missing Red Hat parent POMs of the POMs in a repository, and their parents, and so on.
+ * <p>
+ * The repository is walked once. Every POM is read once, with a streaming parser, and its parent coordinates are kept
+ * in an index. Only the downloaded parent POMs are inspected afterwards, to find the next level of parents.
+ *
  * @author Ken Finnigan
  */
 public class ParentPomDownloader {
 
     private static final Logger log = LoggerFactory.getLogger(ParentPomDownloader.class);
 
-    private ParentPomDownloader(Path repoPath) {
+    private ParentPomDownloader(Path repoPath, Function<GAV, Path> downloader) {
         this.repoPath = repoPath;
+        this.downloader = downloader;
+        xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
     }
 
     public static void addParentPoms(Path repoPath) {
+        addParentPoms(
+                repoPath,
+                gav -> ExternalArtifactDownloader.downloadExternalArtifact(gav, repoPath, false).toPath());
+    }
+
+    /**
+     * @param repoPath repository to complete
+     * @param downloader downloads a parent POM to the repository and returns its path
+     */
+    static void addParentPoms(Path repoPath, Function<GAV, Path> downloader) {
         if (!Files.isDirectory(repoPath)) {
             throw new IllegalStateException("Directory expected to be present: " + repoPath);
         }
 
         try {
-            new ParentPomDownloader(repoPath).process();
+            new ParentPomDownloader(repoPath, downloader).process();
         } catch (IOException e) {
             throw new RuntimeException("Unable to download parent poms", e);
         }
     }
 
     private void process() throws IOException {
-        // iterate until the working set is empty
-        // this is to download parent POM of a parent POM of a parent POM of a parent POM of a ...
-        do {
-            toDownload.clear();
-            doProcess();
-        } while (!toDownload.isEmpty());
-    }
-
-    private void doProcess() throws IOException {
+        Deque<Path> worklist;
         try (Stream<Path> stream = Files.walk(repoPath)) {
-            stream.filter(Files::isRegularFile)
+            worklist = stream.filter(Files::isRegularFile)
                     .filter(ParentPomDownloader::isPom)
-                    .map(Pom::new)
-                    .filter(Pom::hasParent)
-                    .forEach(p -> processPom(repoPath, p));
-        }
+                    .collect(Collectors.toCollection(ArrayDeque::new));
+        }
+
+        int withParent = 0;
+        // the downloaded parents are inspected in the next round, for the parent POM of a parent POM of a ...
+        while (!worklist.isEmpty()) {
+            Set<PomGAV> toDownload = new HashSet<>();
+            while (!worklist.isEmpty()) {
+                Path pom = worklist.poll();
+                PomGAV parent = parentCoordinates(pom);
+                if (parent != null) {
+                    withParent++;
+                    processParent(pom, parent, toDownload);
+                }
+            }
 
-        toDownload.parallelStream().map(PomGAV::toGav).forEach(this::download);
+            List<Path> downloaded = toDownload.parallelStream()
+                    .map(this::download)
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+            worklist.addAll(downloaded);
+        }
+        log.debug("Inspected {} POMs with a parent", withParent);
     }
 
-    private void download(GAV gav) {
+    private Path download(PomGAV coords) {
+        GAV gav = coords.toGav();
         log.info("Downloading missing parent POM {}", gav);
-        ExternalArtifactDownloader.downloadExternalArtifact(gav, repoPath, false);
+        return downloader.apply(gav);
     }
 
-    private void processPom(Path repoPath, Pom pom) {
-        PomGAV coords = parentCoordinates(pom);
+    private void processParent(Path pom, PomGAV coords, Set<PomGAV> toDownload) {
         if (!coords.version.contains("redhat")) {
             // community parent POM not required
             return;
         }
 
-        Path parentDir = artifactDir(repoPath, coords);
-        Path parentPomPath = parentDir.resolve(coords.artifactId + "-" + coords.version + ".pom");
-
-        if (!alreadyChecked.contains(coords)) {
+        if (alreadyChecked.add(coords)) {
+            Path parentPomPath = artifactDir(repoPath, coords)
+                    .resolve(coords.artifactId + "-" + coords.version + ".pom");
             if (!Files.isRegularFile(parentPomPath)) {
                 // File missing
-                log.debug("Will download {} because it's a parent of {}", coords, pom.path);
+                log.debug("Will download {} because it's a parent of {}", coords, pom);
                 toDownload.add(coords);
             }
-
-            alreadyChecked.add(coords);
         }
     }
 
@@ -105,95 +131,62 @@ public class ParentPomDownloader {
         return artifactDir.resolve(coords.version);
     }
 
-    private PomGAV parentCoordinates(Pom pom) {
-        try {
-            Document pomDoc = pom.parse();
-
-            return new PomGAV(
-                    parentGroupIdExpression().evaluate(pomDoc),
-                    parentArtifactIdExpression().evaluate(pomDoc),
-                    parentVersionExpression().evaluate(pomDoc));
-        } catch (IOException | SAXException | ParserConfigurationException | XPathExpressionException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private XPath xPath() {
-        if (xpath == null) {
-            XPathFactory xPathFactory = XPathFactory.newInstance();
-            xpath = xPathFactory.newXPath();
-        }
-        return xpath;
-    }
-
-    private XPathExpression parentGroupIdExpression() throws XPathExpressionException {
-        if (parentGroupIdExpression == null) {
-            parentGroupIdExpression = xPath().compile("/project/parent/groupId");
-        }
-        return parentGroupIdExpression;
-    }
-
-    private XPathExpression parentArtifactIdExpression() throws XPathExpressionException {
-        if (parentArtifactIdExpression == null) {
-            parentArtifactIdExpression = xPath().compile("/project/parent/artifactId");
+    /**
+     * Read the POM up to the end of its parent element
+     *
+     * @param pom path to the POM
+     * @return coordinates of the parent, or null if the POM has no parent or is not a valid XML document
+     */
+    private PomGAV parentCoordinates(Path pom) throws IOException {
+        try (InputStream input = Files.newInputStream(pom)) {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(input);
+            try {
+                return parentCoordinates(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            log.warn("Skipping {}, it is not a valid POM: {}", pom, e.getMessage());
+            return null;
         }
-        return parentArtifactIdExpression;
     }
 
-    private XPathExpression parentVersionExpression() throws XPathExpressionException {
-        if (parentVersionExpression == null) {
-            parentVersionExpression = xPath().compile("/project/parent/version");
+    private static PomGAV parentCoordinates(XMLStreamReader reader) throws XMLStreamException {
+        // project is on depth 1, parent on depth 2, its coordinates on depth 3
+        int depth = 0;
+        boolean inParent = false;
+        Map<String, String> coordinates = new HashMap<>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String name = reader.getLocalName();
+                if (depth == 2 && name.equals("parent")) {
+                    inParent = true;
+                } else if (depth == 3 && inParent) {
+                    coordinates.put(name, reader.getElementText().trim());
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                if (inParent && depth == 1) {
+                    return new PomGAV(
+                            coordinates.getOrDefault("groupId", ""),
+                            coordinates.getOrDefault("artifactId", ""),
+                            coordinates.getOrDefault("version", ""));
+                }
+            }
         }
-        return parentVersionExpression;
+        return null;
     }
 
     private final Set<PomGAV> alreadyChecked = new HashSet<>();
 
-    private final Set<PomGAV> toDownload = new HashSet<>();
-
     private final Path repoPath;
 
-    private XPath xpath;
-
-    private XPathExpression parentGroupIdExpression;
-
-    private XPathExpression parentArtifactIdExpression;
-
-    private XPathExpression parentVersionExpression;
-
-    private static class Pom {
-        private final Path path;
-
-        private DocumentBuilder documentBuilder;
-
-        Pom(Path path) {
-            this.path = path;
-        }
-
-        public Path path() {
-            return path;
-        }
-
-        boolean hasParent() {
-            try {
-                return new String(Files.readAllBytes(path), StandardCharsets.UTF_8).contains("<parent>");
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        }
+    private final Function<GAV, Path> downloader;
 
-        Document parse() throws IOException, SAXException, ParserConfigurationException {
-            final DocumentBuilder documentBuilder = documentBuilder();
-            return documentBuilder.parse(path.toFile());
-        }
-
-        private DocumentBuilder documentBuilder() throws ParserConfigurationException {
-            if (documentBuilder == null) {
-                documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            }
-            return documentBuilder;
-        }
-    }
+    private final XMLInputFactory xmlInputFactory;
 
     private static class PomGAV {
         private final String groupId;
@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jboss.pnc.bacon.common.ObjectHelper;
 import org.jboss.pnc.bacon.pig.impl.PigContext;
 import org.jboss.pnc.bacon.pig.impl.config.PigConfiguration;
+import org.jboss.pnc.bacon.pig.impl.config.RepoGenerationBackend;
 import org.jboss.pnc.bacon.pig.impl.config.RepoGenerationData;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
@@ -98,7 +99,6 @@ public class RepoBuilder {
 
     private void createAndBuildProject(File bomFile, File repoParentDir, Predicate<GAV> artifactSelector)
             throws IOException {
-        File projectLocation = createProject(bomFile, artifactSelector);
         String indySettings;
         if (tempBuild) {
             indySettings = "/indy-temp-settings.xml";
@@ -115,7 +115,28 @@ public class RepoBuilder {
 
         File repoDir = new File(repoParentDir, RepoDescriptor.MAVEN_REPOSITORY);
 
-        buildProjectWithOverriddenM2(projectLocation, repoDir, settingsXml);
+        if (repoGeneration.getGenerateBackend() == RepoGenerationBackend.RESOLVER) {
+            resolveInProcess(bomFile, repoDir, settingsXml, artifactSelector);
+        } else {
+            File projectLocation = createProject(bomFile, artifactSelector);
+            buildProjectWithOverriddenM2(projectLocation, repoDir, settingsXml);
+        }
+    }
+
+    private void resolveInProcess(File bomFile, File repoDir, String settingsXml, Predicate<GAV> artifactSelector) {
+        if (!isEmpty(repoGeneration.getBuildScript())) {
+            log.warn("The build script is not used when resolving the repository with the Maven resolver");
+        }
+        log.debug("Resolving the libraries from BOM into {}", repoDir.getAbsolutePath());
+        GAV bom = new GAV(
+                repoGeneration.getBomGroupId(),
+                repoGeneration.getBomArtifactId(),
+                getBomVersion(bomFile),
+                "pom");
+        repoDir.mkdirs();
+        new InProcessRepoResolver(new File(settingsXml), repoDir)
+                .resolve(bom, selectRedhatDependencies(bomFile, artifactSelector), repoGeneration.isIncludeJavadoc());
+        log.debug("Resolution finished successfully");
     }
 
     private Properties settingsProps(boolean tempBuild, String additionalRepo) {
@@ -182,15 +203,7 @@ public class RepoBuilder {
     protected File createProject(File bomFile, Predicate<GAV> artifactSelector) throws IOException {
         log.debug("Generating a project with all libraries from BOM as dependencies");
         String dependencies = extractRedhatDependencies(bomFile, artifactSelector);
-        String bomVersion = XmlUtils.extract(bomFile, "/project/version").getContent();
-
-        if (bomVersion == null) {
-            bomVersion = XmlUtils.extract(bomFile, "/project/parent/version").getContent();
-        }
-
-        if (bomVersion == null) {
-            throw new RuntimeException("Failed to find BOM version in " + bomFile.getAbsolutePath());
-        }
+        String bomVersion = getBomVersion(bomFile);
 
         String bomGroupId = repoGeneration.getBomGroupId();
         String artifactId = repoGeneration.getBomArtifactId();
@@ -221,6 +234,19 @@ public class RepoBuilder {
         return projectDirectory;
     }
 
+    private static String getBomVersion(File bomFile) {
+        String bomVersion = XmlUtils.extract(bomFile, "/project/version").getContent();
+
+        if (bomVersion == null) {
+            bomVersion = XmlUtils.extract(bomFile, "/project/parent/version").getContent();
+        }
+
+        if (bomVersion == null) {
+            throw new RuntimeException("Failed to find BOM version in " + bomFile.getAbsolutePath());
+        }
+        return bomVersion;
+    }
+
     private String evaluate(String value) {
         if (isEmpty(value)) {
             return value;
@@ -234,6 +260,12 @@ public class RepoBuilder {
     }
 
     private String extractRedhatDependencies(File bomFile, Predicate<GAV> artifactSelector) {
+        return selectRedhatDependencies(bomFile, artifactSelector).stream()
+                .map(GAV::asBomXmlDependency)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private List<GAV> selectRedhatDependencies(File bomFile, Predicate<GAV> artifactSelector) {
         Map<String, String> properties = XmlUtils.getProperties(bomFile);
 
         List<Node> dependencyNodes = XmlUtils
@@ -245,7 +277,8 @@ public class RepoBuilder {
                 .filter(gav -> gav.getVersion().contains("redhat"))
                 .filter(artifactSelector)
                 .filter(gav -> !repoGeneration.getIgnored().contains(gav.getArtifactId()))
-                .map(GAV::asBomXmlDependency)
-                .collect(Collectors.joining("\n"));
+                // imported BOMs are not dependencies
+                .filter(gav -> !"import".equals(gav.getScope()))
+                .collect(Collectors.toList());
     }
 }
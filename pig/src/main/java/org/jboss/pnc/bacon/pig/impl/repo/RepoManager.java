@@ -30,7 +30,9 @@ import io.quarkus.maven.dependency.ArtifactCoords;
 import io.quarkus.maven.dependency.ArtifactKey;
 import lombok.Getter;
 import org.apache.maven.model.Model;
+import org.eclipse.aether.DefaultRepositoryCache;
 import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.graph.Dependency;
@@ -53,9 +55,11 @@ import org.jboss.pnc.bacon.pig.impl.license.LicenseGenerator;
 import org.jboss.pnc.bacon.pig.impl.pnc.ArtifactWrapper;
 import org.jboss.pnc.bacon.pig.impl.pnc.BuildInfoCollector;
 import org.jboss.pnc.bacon.pig.impl.pnc.PncBuild;
+import org.jboss.pnc.bacon.pig.impl.utils.ArtifactChecksums;
 import org.jboss.pnc.bacon.pig.impl.utils.FileUtils;
 import org.jboss.pnc.bacon.pig.impl.utils.GAV;
 import org.jboss.pnc.bacon.pig.impl.utils.GavSet;
+import org.jboss.pnc.bacon.pig.impl.utils.RegexSet;
 import org.jboss.pnc.bacon.pig.impl.utils.ResourceUtils;
 import org.jboss.pnc.bacon.pig.impl.utils.indy.Indy;
 import org.slf4j.Logger;
@@ -82,6 +86,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -91,6 +96,10 @@ import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -202,13 +211,31 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
     }
 
     private void filterAndDownload(List<ArtifactWrapper> artifactsToPack, File sourceDir) {
+        Set<GAV> gavsToPack = filterArtifacts(artifactsToPack, pigConfiguration.getFlow().getRepositoryGeneration());
+        Map<String, ArtifactChecksums> checksums = new HashMap<>();
+        artifactsToPack.forEach(artifact -> checksums.put(artifact.toGAV().toGapvc(), artifact.getChecksums()));
+        ExternalArtifactDownloader
+                .downloadExternalArtifacts(gavsToPack, checksums, sourceDir.toPath(), !strictDownloadSource);
+    }
+
+    /**
+     * Removes the artifacts that should not be packed from the list and adds the sources, poms and, if requested,
+     * javadocs of the remaining jars.
+     *
+     * @param artifactsToPack artifacts of the builds, modified in place
+     * @param repositoryGeneration repository generation configuration
+     * @return the artifacts to download
+     */
+    static Set<GAV> filterArtifacts(List<ArtifactWrapper> artifactsToPack, RepoGenerationData repositoryGeneration) {
         artifactsToPack.removeIf(
                 artifact -> !artifact.getGapv().contains("redhat-")
                         && !artifact.getGapv().contains("eap-runtime-artifacts"));
-        artifactsToPack.removeIf(artifact -> isArtifactExcluded(artifact.getGapv()));
+        RegexSet exclusions = RegexSet.of(repositoryGeneration.getExcludeArtifacts());
+        artifactsToPack.removeIf(artifact -> isArtifactExcluded(artifact.getGapv(), exclusions));
 
-        if (isFilterActive()) {
-            artifactsToPack.removeIf(artifact -> !isArtifactInFilter(artifact.getGapv()));
+        RegexSet filter = RegexSet.of(repositoryGeneration.getFilterArtifacts());
+        if (!filter.isEmpty()) {
+            artifactsToPack.removeIf(artifact -> !filter.matches(artifact.getGapv()));
         }
 
         List<GAV> originalListToPack = artifactsToPack.stream()
@@ -217,27 +244,8 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
 
         Set<GAV> gavsToPack = new TreeSet<>(GAV.gapvcComparator);
         gavsToPack.addAll(originalListToPack);
-        originalListToPack.stream()
-                .filter(GAV::isNormalJar)
-                .filter(g -> areSourcesMissing(gavsToPack, g))
-                .map(GAV::toSourcesJar)
-                .forEach(gavsToPack::add);
-
-        originalListToPack.stream()
-                .filter(GAV::isNormalJar)
-                .filter(g -> isPomMissing(gavsToPack, g))
-                .map(GAV::toPom)
-                .forEach(gavsToPack::add);
-
-        if (pigConfiguration.getFlow().getRepositoryGeneration().isIncludeJavadoc()) {
-            originalListToPack.stream()
-                    .filter(GAV::isNormalJar)
-                    .filter(g -> areJavadocsMissing(gavsToPack, g))
-                    .map(GAV::toJavadocJar)
-                    .forEach(gavsToPack::add);
-        }
-        gavsToPack.forEach(
-                a -> ExternalArtifactDownloader.downloadExternalArtifact(a, sourceDir.toPath(), !strictDownloadSource));
+        gavsToPack.addAll(new ArtifactIndex(originalListToPack).findMissing(repositoryGeneration.isIncludeJavadoc()));
+        return gavsToPack;
     }
 
     @Deprecated
@@ -289,42 +297,18 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
         throw new FatalException("Not yet implemented");
     }
 
-    private static boolean areSourcesMissing(Set<GAV> list, GAV gav) {
-        return list.stream().noneMatch(a -> a.equals(gav) && "sources".equals(a.getClassifier()));
-    }
-
-    private static boolean isPomMissing(Set<GAV> list, GAV gav) {
-        return list.stream().noneMatch(a -> a.equals(gav) && POM.equals(a.getPackaging()));
-    }
-
-    private static boolean areJavadocsMissing(Set<GAV> list, GAV gav) {
-        return list.stream().noneMatch(a -> a.equals(gav) && "javadoc".equals(a.getClassifier()));
-    }
-
-    private boolean isArtifactExcluded(String artifact) {
-        List<String> excludeArtifacts = pigConfiguration.getFlow().getRepositoryGeneration().getExcludeArtifacts();
-        for (String exclusion : excludeArtifacts) {
-            if (Pattern.matches(exclusion, artifact)) {
-                log.debug(
-                        "Artifact {} will not be downloaded to the maven repository since it matches exclusion regex: {}",
-                        artifact,
-                        exclusion);
-                return true;
-            }
+    private static boolean isArtifactExcluded(String artifact, RegexSet exclusions) {
+        String exclusion = exclusions.findMatch(artifact);
+        if (exclusion != null) {
+            log.debug(
+                    "Artifact {} will not be downloaded to the maven repository since it matches exclusion regex: {}",
+                    artifact,
+                    exclusion);
+            return true;
         }
         return false;
     }
 
-    private boolean isFilterActive() {
-        List<String> filterArtifacts = pigConfiguration.getFlow().getRepositoryGeneration().getFilterArtifacts();
-        return !filterArtifacts.isEmpty();
-    }
-
-    private boolean isArtifactInFilter(String artifact) {
-        List<String> filterArtifacts = pigConfiguration.getFlow().getRepositoryGeneration().getFilterArtifacts();
-        return filterArtifacts.stream().anyMatch(filter -> Pattern.matches(filter, artifact));
-    }
-
     @Override
     protected RepositoryData downloadAndRepackage() {
         log.info("Downloading and repackaging maven repository");
@@ -356,7 +340,7 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
         }
         addMissingSources();
 
-        RepositoryUtils.addCheckSums(targetRepoContentsDir);
+        RepositoryUtils.addCheckSums(targetRepoContentsDir, generationData.getChecksumThreads());
         if (generationData.isIncludeMavenMetadata()) {
             RepositoryUtils.generateMavenMetadata(targetRepoContentsDir);
         }
@@ -367,6 +351,7 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
 
     private void addMissingSources() {
         Collection<GAV> gavs = RepoDescriptor.listGavs(targetRepoContentsDir);
+        Set<GAV> missingSources = new TreeSet<>(GAV.gapvcComparator);
 
         for (GAV gav : gavs) {
             GAV sourceGav = gav.toSourcesJar();
@@ -376,9 +361,11 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
             File sourceFile = ExternalArtifactDownloader.targetPath(sourceGav, targetRepoContentsDir.toPath());
 
             if (jarFile.exists() && !sourceFile.exists()) {
-                ExternalArtifactDownloader.downloadExternalArtifact(sourceGav, sourceFile, true);
+                missingSources.add(sourceGav);
             }
         }
+        ExternalArtifactDownloader
+                .downloadExternalArtifacts(missingSources, Map.of(), targetRepoContentsDir.toPath(), true);
     }
 
     private File download() {
@@ -474,13 +461,20 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
                     .thenComparing(Artifact::getClassifier)
                     .thenComparing(Artifact::getVersion);
 
+            // artifact descriptors read by one resolution are reused by the concurrent ones and by the later steps
+            final DefaultRepositorySystemSession session = new DefaultRepositorySystemSession(
+                    mvnResolver.getSession());
+            if (session.getCache() == null) {
+                session.setCache(new DefaultRepositoryCache());
+            }
+
             log.info("Downloading artifacts");
             if (generationData.getSteps().isEmpty()) {
-                resolveAndRepackage(generationData, sourceDir, mvnResolver, artifactComparator);
+                resolveAndRepackage(generationData, sourceDir, mvnResolver, session, artifactComparator);
             } else {
                 for (RepoGenerationData step : generationData.getSteps()) {
                     final RepoGenerationData mergedData = RepoGenerationData.merge(generationData, step);
-                    resolveAndRepackage(mergedData, sourceDir, mvnResolver, artifactComparator);
+                    resolveAndRepackage(mergedData, sourceDir, mvnResolver, session, artifactComparator);
                 }
             }
             return repackage(sourceDir);
@@ -495,6 +489,7 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
             RepoGenerationData generationData,
             File sourceDir,
             MavenArtifactResolver mvnResolver,
+            RepositorySystemSession session,
             Comparator<Artifact> artifactComparator) throws BootstrapMavenException, DependencyResolutionException {
         final Map<String, Path> bannedDirs = parseBannedArtifactsParameter(generationData, sourceDir);
 
@@ -554,76 +549,179 @@ public class RepoManager extends DeliverableManager<RepoGenerationData, Reposito
         }
 
         final List<Dependency> managedDeps = new ArrayList<>(bomConstraints);
+        final Artifact root = bom;
+        final int threads = getResolveThreads(params);
+        log.info("Resolving {} artifacts with {} threads", artifactList.size(), threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // artifacts listed more than once are resolved once
+        final Map<String, Future<Set<ArtifactCoords>>> resolutions = new LinkedHashMap<>();
+        final Map<String, Set<ArtifactCoords>> resolvedByArtifact = new LinkedHashMap<>();
+        try {
+            for (Artifact artifact : artifactList) {
+                resolutions.computeIfAbsent(
+                        artifact.toString(),
+                        key -> executor.submit(
+                                () -> resolveArtifact(
+                                        artifact,
+                                        root,
+                                        managedDeps,
+                                        transitiveExclusions,
+                                        mvnResolver,
+                                        session)));
+            }
+            for (Map.Entry<String, Future<Set<ArtifactCoords>>> resolution : resolutions.entrySet()) {
+                resolvedByArtifact.put(resolution.getKey(), resolution.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while resolving the artifacts", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BootstrapMavenException) {
+                throw (BootstrapMavenException) cause;
+            } else if (cause instanceof DependencyResolutionException) {
+                throw (DependencyResolutionException) cause;
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        checkBannedArtifacts(bannedDirs, resolvedByArtifact);
+
+        addMissingJarsForPoms(mvnResolver);
+    }
+
+    /**
+     * Resolves the artifact and, unless it is a plugin or a POM, its runtime dependencies
+     *
+     * @return the coordinates of the artifact and of its resolved dependencies
+     */
+    private static Set<ArtifactCoords> resolveArtifact(
+            Artifact artifact,
+            Artifact bom,
+            List<Dependency> managedDeps,
+            List<Exclusion> transitiveExclusions,
+            MavenArtifactResolver mvnResolver,
+            RepositorySystemSession session) throws BootstrapMavenException, DependencyResolutionException {
+        final Set<ArtifactCoords> resolved = new HashSet<>();
+        // this will resolve all the artifacts and their dependencies and as a consequence populate the local
+        // Maven repo
+        // specified in the user settings.xml
+        if (artifact.getArtifactId().contains("maven-plugin")) {
+            log.debug("Resolving dependencies of plugin {}", artifact);
+            mvnResolver.resolvePluginDependencies(artifact);
+            resolved.add(toCoords(artifact));
+        } else if (artifact.getArtifactId().contains("bom") && !artifact.getExtension().equals("properties")
+                && !artifact.getExtension().equals("json") || artifact.getExtension().equals(POM)) {
+            DefaultArtifact bomPomArtifact = new DefaultArtifact(
+                    artifact.getGroupId(),
+                    artifact.getArtifactId(),
+                    POM,
+                    artifact.getVersion());
+            log.debug("Resolving POM {}", bomPomArtifact);
+            mvnResolver.resolve(bomPomArtifact);
+            resolved.add(toCoords(bomPomArtifact));
+        } else {
+            log.debug("Resolving dependencies of {}", artifact);
+            mvnResolver.resolve(artifact);
+            resolved.add(toCoords(artifact));
+
+            /*
+             * We resolve the BOM (assuming it has no own dependencies) and add the artifact we actually want to resolve
+             * as its sole dependency. In this way, optional dependencies do not get resolved, which we want. If we
+             * resolved the artifact directly, it would also resolve the direct optional dependencies.
+             */
+
+            final DependencyNode root = mvnResolver.getSystem()
+                    .resolveDependencies(
+                            session,
+                            new DependencyRequest().setCollectRequest(
+                                    mvnResolver.newCollectManagedRequest(
+                                            bom,
+                                            List.of(
+                                                    new Dependency(
+                                                            artifact,
+                                                            JavaScopes.RUNTIME,
+                                                            false,
+                                                            transitiveExclusions)),
+                                            managedDeps, // version constraints from the BOM
+                                            List.of(), // extra maven repos, ignore this
+                                            List.of(), // exclusions
+                                            Set.of(JavaScopes.TEST, JavaScopes.PROVIDED) // dependency scopes
+                                                                                         // that should be
+                                                                                         // ignored
+                                    )))
+                    .getRoot();
+            root.getChildren().forEach(n -> collectArtifacts(n, resolved));
+        }
+        return resolved;
+    }
+
+    /**
+     * Reports the banned artifacts with a productized version among the resolved ones, together with the artifacts
+     * that pulled them, and removes them from the repository
+     *
+     * @param bannedDirs directories of the banned artifacts by their groupId:artifactId
+     * @param resolvedByArtifact resolved coordinates by the requested artifact
+     */
+    private static void checkBannedArtifacts(
+            Map<String, Path> bannedDirs,
+            Map<String, Set<ArtifactCoords>> resolvedByArtifact) {
         final StringBuilder bannedReport = new StringBuilder();
-        final Set<ArtifactCoords> collectedArtifacts = new HashSet<>();
-        for (Artifact artifact : artifactList) {
-            // this will resolve all the artifacts and their dependencies and as a consequence populate the local
-            // Maven repo
-            // specified in the user settings.xml
-            if (artifact.getArtifactId().contains("maven-plugin")) {
-                log.debug("Resolving dependencies of plugin {}", artifact);
-                mvnResolver.resolvePluginDependencies(artifact);
-            } else {
-                if (artifact.getArtifactId().contains("bom") && !artifact.getExtension().equals("properties")
-                        && !artifact.getExtension().equals("json") || artifact.getExtension().equals(POM)) {
-                    DefaultArtifact bomPomArtifact = new DefaultArtifact(
-                            artifact.getGroupId(),
-                            artifact.getArtifactId(),
-                            POM,
-                            artifact.getVersion());
-                    log.debug("Resolving POM {}", bomPomArtifact);
-                    mvnResolver.resolve(bomPomArtifact);
-                } else {
-                    log.debug("Resolving dependencies of {}", artifact);
-                    mvnResolver.resolve(artifact);
-
-                    /*
-                     * We resolve the BOM (assuming it has no own dependencies) and add the artifact we actually want to
-                     * resolve as its sole dependency. In this way, optional dependencies do not get resolved, which we
-                     * want. If we resolved the artifact directly, it would also resolve the direct optional
-                     * dependencies.
-                     */
-
-                    final DependencyNode root = mvnResolver.getSystem()
-                            .resolveDependencies(
-                                    mvnResolver.getSession(),
-                                    new DependencyRequest().setCollectRequest(
-                                            mvnResolver.newCollectManagedRequest(
-                                                    bom,
-                                                    List.of(
-                                                            new Dependency(
-                                                                    artifact,
-                                                                    JavaScopes.RUNTIME,
-                                                                    false,
-                                                                    transitiveExclusions)),
-                                                    managedDeps, // version constraints from the BOM
-                                                    List.of(), // extra maven repos, ignore this
-                                                    List.of(), // exclusions
-                                                    Set.of(JavaScopes.TEST, JavaScopes.PROVIDED) // dependency scopes
-                                                                                                 // that should be
-                                                                                                 // ignored
-                                            )))
-                            .getRoot();
-                    root.getChildren().forEach(n -> collectArtifacts(n, collectedArtifacts));
+        for (Map.Entry<String, Path> banned : bannedDirs.entrySet()) {
+            String[] coords = banned.getKey().split(":");
+            boolean pulled = false;
+            for (Map.Entry<String, Set<ArtifactCoords>> resolved : resolvedByArtifact.entrySet()) {
+                boolean found = resolved.getValue()
+                        .stream()
+                        .anyMatch(
+                                c -> c.getGroupId().equals(coords[0]) && c.getArtifactId().equals(coords[1])
+                                        && c.getVersion().contains("redhat-"));
+                if (found) {
+                    bannedReport.append("\n " + banned.getKey() + " pulled by " + resolved.getKey());
+                    pulled = true;
+                }
+            }
+            Path dir = banned.getValue();
+            if (Files.exists(dir) && hasProdVersionSubdir(dir)) {
+                if (!pulled) {
+                    // e.g. a dependency of a plugin, these are not tracked
+                    bannedReport.append("\n " + banned.getKey() + " found in " + dir);
+                }
+                try {
+                    org.apache.commons.io.FileUtils.deleteDirectory(dir.toFile());
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not delete " + dir, e);
                 }
             }
-            bannedDirs.entrySet()
-                    .stream()
-                    .filter(en -> Files.exists(en.getValue()) && hasProdVersionSubdir(en.getValue()))
-                    .peek(en -> bannedReport.append("\n " + en.getKey() + " pulled by " + artifact))
-                    .forEach(en -> {
-                        try {
-                            org.apache.commons.io.FileUtils.deleteDirectory(en.getValue().toFile());
-                        } catch (IOException e) {
-                            throw new RuntimeException("Could not delete " + en.getValue(), e);
-                        }
-                    });
         }
         if (bannedReport.length() > 0) {
             throw new IllegalStateException("Banned artifacts found: " + bannedReport);
         }
+    }
 
-        addMissingJarsForPoms(mvnResolver);
+    private static int getResolveThreads(Map<String, String> params) {
+        final String resolveThreads = params.get("resolveThreads");
+        if (resolveThreads == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int threads;
+        try {
+            threads = Integer.parseInt(resolveThreads.trim());
+        } catch (NumberFormatException e) {
+            threads = 0;
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The resolveThreads parameter must be a positive number, found: " + resolveThreads);
+        }
+        return threads;
+    }
+
+    private static ArtifactCoords toCoords(Artifact a) {
+        return ArtifactCoords
+                .of(a.getGroupId(), a.getArtifactId(), a.getClassifier(), a.getExtension(), a.getVersion());
     }
 
     private RepositoryData generateForBom() {
@@ -17,6 +17,7 @@
  */
 package org.jboss.pnc.bacon.pig.impl.repo;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.artifact.repository.metadata.Metadata;
@@ -32,25 +33,30 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -66,6 +72,12 @@ import static java.util.Comparator.comparingInt;
 public class RepositoryUtils {
     private static final Logger log = LoggerFactory.getLogger(RepositoryUtils.class);
 
+    private static final String MD5 = "md5";
+    private static final String SHA1 = "sha1";
+    private static final String SHA256 = "sha256";
+
+    private static final int CHECKSUM_BUFFER_SIZE = 256 * 1024;
+
     public static void generateMavenMetadata(File mavenRepositoryDirectory) {
         log.debug("Generating maven-metadata.xml files");
         Set<String> pomPaths = new HashSet<>();
@@ -137,90 +149,117 @@ public class RepositoryUtils {
     }
 
     public static void addCheckSums(File mavenRepositoryDirectory) {
-        log.debug("Generating missing checksums");
+        addCheckSums(mavenRepositoryDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Generates md5 and sha1 checksums for all the files in the repository that don't have up-to-date checksum files
+     * yet. Each file is read only once, the files are processed in parallel.
+     *
+     * @param mavenRepositoryDirectory repository directory
+     * @param threads number of files to process in parallel
+     */
+    public static void addCheckSums(File mavenRepositoryDirectory, int threads) {
+        List<Path> files;
         try (Stream<Path> stream = Files.walk(mavenRepositoryDirectory.toPath())) {
-            stream.filter(p -> p.toFile().isFile())
+            files = stream.filter(Files::isRegularFile)
                     .filter(RepositoryUtils::isNotCheckSumFile)
-                    .forEach(RepositoryUtils::addCheckSums);
+                    .collect(Collectors.toList());
         } catch (IOException e) {
             throw new RuntimeException(
                     "Unable to generate checksums for " + mavenRepositoryDirectory.getAbsolutePath(),
                     e);
         }
-    }
-
-    private static boolean isNotCheckSumFile(Path path) {
-        return Stream.of(RepoDescriptor.CHECKSUM_EXTENSIONS).noneMatch(ext -> path.toString().endsWith(ext));
-    }
-
-    protected static void addCheckSums(Path filePath) {
-        generateCheckSum(filePath, "md5sum", ".md5");
-        generateCheckSum(filePath, "sha1sum", ".sha1");
-    }
-
-    private static void generateCheckSum(Path filePath, String checksumType, String extension) {
-        String file = filePath.toAbsolutePath().toString();
-        File checkSumFile = new File(file + extension);
-
-        if (checkSumFile.exists()) {
+        if (files.isEmpty()) {
             return;
         }
 
+        int poolSize = Math.max(1, Math.min(threads, files.size()));
+        log.debug("Generating missing checksums for {} files using {} threads", files.size(), poolSize);
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
         try {
-            String checksum;
-
-            try (FileInputStream data = new FileInputStream(file)) {
-                switch (checksumType) {
-                    case "md5sum":
-                        checksum = DigestUtils.md5Hex(data);
-                        break;
-                    case "sha1sum":
-                        checksum = DigestUtils.sha1Hex(data);
-                        break;
-                    default:
-                        throw new IOException("Unknown checksum type: " + checksumType);
-                }
+            List<Future<?>> results = new ArrayList<>(files.size());
+            for (Path file : files) {
+                results.add(executor.submit(() -> addCheckSums(file, MD5, SHA1)));
             }
-
-            FileUtils.write(checkSumFile, checksum, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to create checksum file: " + checkSumFile.getAbsolutePath());
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating checksums", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(
+                    "Unable to generate checksums for " + mavenRepositoryDirectory.getAbsolutePath(),
+                    e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    private static boolean isNotCheckSumFile(Path path) {
+        return Stream.of(RepoDescriptor.CHECKSUM_EXTENSIONS).noneMatch(ext -> path.toString().endsWith(ext));
+    }
+
     /**
-     * Calculates and persists checksums for a file in a local Maven repository. The implementation reads the file once
-     * for all the checksums. The algorithms passed in are currently limited to {@code md5} and {@code sha1}.
+     * Calculates and persists checksums for a file in a local Maven repository. The implementation reads the file once,
+     * in chunks, for all the checksums. Checksum files that are at least as recent as the file are kept as they are.
      *
      * @param file file to generate checksums for
-     * @param algs checksum algorithms to use, for example md5, sha1.
+     * @param algs checksum algorithms to use: md5, sha1 or sha256
      */
     public static void addCheckSums(Path file, String... algs) {
-        byte[] content = null;
+        Map<Path, MessageDigest> digests = new LinkedHashMap<>();
         for (var alg : algs) {
             var checksumFile = file.getParent().resolve(file.getFileName() + "." + alg);
-            if (!Files.exists(checksumFile)) {
-                if (content == null) {
-                    try {
-                        content = Files.readAllBytes(file);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                }
-                final String checksum;
-                if ("md5".equals(alg)) {
-                    checksum = DigestUtils.md5Hex(content);
-                } else if ("sha1".equals(alg)) {
-                    checksum = DigestUtils.sha1Hex(content);
-                } else {
-                    throw new IllegalArgumentException("Unexpected checksum type " + alg);
-                }
-                try (BufferedWriter writer = Files.newBufferedWriter(checksumFile)) {
-                    writer.append(checksum);
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
+            if (!isUpToDate(checksumFile, file)) {
+                digests.put(checksumFile, newDigest(alg));
+            }
+        }
+        if (digests.isEmpty()) {
+            return;
+        }
+
+        try (InputStream input = Files.newInputStream(file)) {
+            byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                for (MessageDigest digest : digests.values()) {
+                    digest.update(buffer, 0, read);
                 }
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + file + " to generate checksums", e);
+        }
+
+        for (Map.Entry<Path, MessageDigest> entry : digests.entrySet()) {
+            try (BufferedWriter writer = Files.newBufferedWriter(entry.getKey())) {
+                writer.append(Hex.encodeHexString(entry.getValue().digest()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create checksum file: " + entry.getKey(), e);
+            }
+        }
+    }
+
+    private static boolean isUpToDate(Path checksumFile, Path file) {
+        try {
+            return Files.exists(checksumFile)
+                    && Files.getLastModifiedTime(checksumFile).compareTo(Files.getLastModifiedTime(file)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest newDigest(String alg) {
+        switch (alg) {
+            case MD5:
+                return DigestUtils.getMd5Digest();
+            case SHA1:
+                return DigestUtils.getSha1Digest();
+            case SHA256:
+                return DigestUtils.getSha256Digest();
+            default:
+                throw new IllegalArgumentException("Unexpected checksum type " + alg);
         }
     }
 
@@ -243,15 +282,20 @@ public class RepositoryUtils {
      * @param excludedArtifacts
      */
     public static void removeExcludedArtifacts(File element, List<String> excludedArtifacts) {
-        List<String> excludedPaths = excludedArtifacts.stream()
-                .map(a -> convertMavenIdentifierToPathRegex(a))
+        List<Pattern> excludedPaths = excludedArtifacts.stream()
+                .map(a -> Pattern.compile(convertMavenIdentifierToPathRegex(a)))
                 .collect(Collectors.toList());
+        if (!excludedPaths.isEmpty()) {
+            removeExcludedPaths(element, excludedPaths);
+        }
+    }
+
+    private static void removeExcludedPaths(File element, List<Pattern> excludedPaths) {
         if (element.isDirectory()) {
-            Stream.of(element.listFiles()).forEach(file -> removeExcludedArtifacts(file, excludedArtifacts));
+            Stream.of(element.listFiles()).forEach(file -> removeExcludedPaths(file, excludedPaths));
         } else {
-            for (String excludedPath : excludedPaths) {
-                Pattern matchesRegex = Pattern.compile(excludedPath);
-                if (matchesRegex.matcher(element.getAbsolutePath()).find()) {
+            for (Pattern excludedPath : excludedPaths) {
+                if (excludedPath.matcher(element.getAbsolutePath()).find()) {
                     log.debug(
                             "Removing path {} from the repository since it matches regex: {}",
                             element.getAbsolutePath(),
@@ -259,6 +303,7 @@ public class RepositoryUtils {
                     File parent = element.getParentFile();
                     element.delete();
                     recursivelyDeleteEmptyFolder(parent);
+                    return;
                 }
             }
         }
@@ -4,6 +4,8 @@ import com.google.common.collect.Maps;
 import com.redhat.red.build.koji.model.xmlrpc.KojiArchiveInfo;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.jboss.pnc.bacon.pig.impl.PigContext;
 import org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.BrewSearcher;
 import org.jboss.pnc.bacon.pig.impl.documents.sharedcontent.MRRCSearcher;
@@ -18,6 +20,7 @@ import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.client.BuildClient;
 import org.jboss.pnc.client.RemoteResourceException;
 import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,16 +33,20 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.jboss.pnc.bacon.pig.impl.utils.GerritUtils.gerritSnapshotDownloadUrl;
-
 public class SourcesGenerator {
     private static final Logger log = LoggerFactory.getLogger(SourcesGenerator.class);
 
@@ -47,6 +54,13 @@ public class SourcesGenerator {
 
     private static final ClientCreator<BuildClient> CREATOR = new ClientCreator<>(BuildClient::new);
 
+    /**
+     * Maximum number of concurrent requests to PNC for the dependencies of the builds
+     */
+    private static final int CONCURRENT_PNC_REQUESTS = 8;
+
+    private static final String STAGING_DIR = ".staging";
+
     private final BuildInfoCollector buildInfoCollector;
 
     public static final MRRCSearcher mrrcSearcher = MRRCSearcher.getInstance();
@@ -125,62 +139,143 @@ public class SourcesGenerator {
 
     private Map<String, PncBuild> addRedhatDependencyBuilds(Map<String, PncBuild> parentBuilds) {
         Map<String, PncBuild> completeBuilds = parentBuilds;
-        List<PncBuild> mapBuilds = parentBuilds.values().stream().collect(Collectors.toCollection(ArrayList::new));
+        List<PncBuild> mapBuilds = new ArrayList<>(parentBuilds.values());
         try (BuildClient client = CREATOR.newClient()) {
-            for (PncBuild parentBuild : mapBuilds) {
-                List<Artifact> redhatArtifacts = client.getDependencyArtifacts(parentBuild.getId())
-                        .getAll()
-                        .stream()
-                        .filter(artifact -> artifact.getIdentifier().matches(".*redhat-\\d{1,5}"))
-                        .collect(Collectors.toList());
+            List<List<Artifact>> dependencies = inParallel(
+                    CONCURRENT_PNC_REQUESTS,
+                    mapBuilds,
+                    parentBuild -> client.getDependencyArtifacts(parentBuild.getId())
+                            .getAll()
+                            .stream()
+                            .filter(artifact -> artifact.getIdentifier().matches(".*redhat-\\d{1,5}"))
+                            .collect(Collectors.toList()));
+
+            // many artifacts of the product depend on the same builds, each build is added once
+            Map<String, Build> dependencyBuilds = new LinkedHashMap<>();
+            for (List<Artifact> redhatArtifacts : dependencies) {
                 for (Artifact a : redhatArtifacts) {
-                    try {
-                        String buildName = a.getBuild().getBuildConfigRevision().getName();
-                        PncBuild pncBuild = new PncBuild(a.getBuild());
-                        pncBuild.setName(pncBuild.getName().replaceAll("-AUTOBUILD", ""));
-                        completeBuilds.put(buildName, pncBuild);
-                    } catch (NullPointerException e) {
+                    if (a.getBuild() == null) {
                         log.warn("Artifact " + a.getIdentifier() + " does not have build assigned! No sources added.");
+                        continue;
                     }
+                    // the build of the last artifact wins, as before the builds were deduplicated
+                    dependencyBuilds.remove(a.getBuild().getId());
+                    dependencyBuilds.put(a.getBuild().getId(), a.getBuild());
+                }
+            }
+            for (Build build : dependencyBuilds.values()) {
+                try {
+                    String buildName = build.getBuildConfigRevision().getName();
+                    PncBuild pncBuild = new PncBuild(build);
+                    pncBuild.setName(pncBuild.getName().replaceAll("-AUTOBUILD", ""));
+                    completeBuilds.put(buildName, pncBuild);
+                } catch (NullPointerException e) {
+                    log.warn("Build " + build.getId() + " does not have build config revision! No sources added.");
                 }
             }
-        } catch (RemoteResourceException e) {
-            throw new RuntimeException(e);
         }
         return completeBuilds;
     }
 
     private void downloadSourcesFromBuilds(Map<String, PncBuild> builds, File workDir, File contentsDir) {
-        builds.values().forEach(build -> {
-            URI url = gerritSnapshotDownloadUrl(build.getInternalScmUrl(), build.getScmRevision());
-
-            File targetPath = new File(workDir, build.getName() + "-" + build.getId() + ".tar.gz");
-            try (BuildClient client = CREATOR.newClient();
-                    Response response = client.getInternalScmArchiveLink(build.getId())) {
-                InputStream in = (InputStream) response.getEntity();
-                Files.copy(in, targetPath.toPath());
-            } catch (IOException | RemoteResourceException e) {
-                throw new RuntimeException(e);
+        // a build may be listed under more than one name
+        Collection<PncBuild> uniqueBuilds = builds.values()
+                .stream()
+                .collect(
+                        Collectors.toMap(PncBuild::getId, build -> build, (first, second) -> first, LinkedHashMap::new))
+                .values();
+        File stagingDir = new File(workDir, STAGING_DIR);
+        int downloads = FileDownloadUtils.getMaxConcurrentDownloads();
+        log.info("Downloading sources of {} builds using {} parallel downloads", uniqueBuilds.size(), downloads);
+        try (BuildClient client = CREATOR.newClient()) {
+            inParallel(downloads, new ArrayList<>(uniqueBuilds), build -> {
+                downloadSources(client, build, stagingDir, contentsDir);
+                return build;
+            });
+        } finally {
+            org.apache.commons.io.FileUtils.deleteQuietly(stagingDir);
+        }
+    }
+
+    /**
+     * Extract the sources of the build while they are being downloaded. The archive is extracted to a directory of its
+     * own, so that the archives extracted concurrently don't clash, and the top-level directory is then moved to the
+     * contents directory.
+     */
+    private void downloadSources(BuildClient client, PncBuild build, File stagingDir, File contentsDir)
+            throws RemoteResourceException, IOException {
+        File buildStagingDir = new File(stagingDir, build.getName() + "-" + build.getId());
+        Collection<String> untaredFiles;
+        try (Telemetry.Call call = Telemetry.start("pnc", "getInternalScmArchive")) {
+            try (Response response = client.getInternalScmArchiveLink(build.getId());
+                    CountingInputStream in = new CountingInputStream((InputStream) response.getEntity())) {
+                untaredFiles = FileUtils.untar(in, buildStagingDir);
+                call.bytes(in.getByteCount());
+            } catch (RemoteResourceException | IOException | RuntimeException e) {
+                call.failed(e);
+                throw e;
             }
+        }
 
-            Collection<String> untaredFiles = FileUtils.untar(targetPath, contentsDir);
-            List<String> topLevelDirectories = untaredFiles.stream()
-                    .filter(this::isNotANestedFile)
-                    .collect(Collectors.toList());
+        List<String> topLevelDirectories = untaredFiles.stream()
+                .filter(this::isNotANestedFile)
+                .collect(Collectors.toList());
 
-            if (topLevelDirectories.size() != 1) {
-                throw new RuntimeException(
-                        "Found more than one top-level directory (" + topLevelDirectories.size()
-                                + ") untared for build " + build + ", the untared archive: "
-                                + targetPath.getAbsolutePath() + ", the top level directories:" + topLevelDirectories);
-            }
+        if (topLevelDirectories.size() != 1) {
+            throw new RuntimeException(
+                    "Found more than one top-level directory (" + topLevelDirectories.size() + ") untared for build "
+                            + build + ", the untared archive: " + buildStagingDir.getAbsolutePath()
+                            + ", the top level directories:" + topLevelDirectories);
+        }
+
+        String topLevelDirectoryName = untaredFiles.iterator().next();
+
+        File topLevelDirectory = new File(buildStagingDir, topLevelDirectoryName);
+        File properTopLevelDirectory = new File(contentsDir, build.getName());
+        if (!topLevelDirectory.renameTo(properTopLevelDirectory)) {
+            log.warn(
+                    "Unable to move the sources of build {} to {}, keeping them as {}",
+                    build.getId(),
+                    properTopLevelDirectory,
+                    topLevelDirectory.getName());
+            Files.move(topLevelDirectory.toPath(), contentsDir.toPath().resolve(topLevelDirectory.getName()));
+        }
+    }
 
-            String topLevelDirectoryName = untaredFiles.iterator().next();
+    /**
+     * Apply the function to the items concurrently
+     *
+     * @return the results, in the order of the items
+     */
+    private static <T, R> List<R> inParallel(int threads, List<T> items, RemoteFunction<T, R> function) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, items.size()));
+        try {
+            List<Future<R>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(executor.submit(() -> function.apply(item)));
+            }
+            List<R> results = new ArrayList<>(items.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating sources", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            File topLevelDirectory = new File(contentsDir, topLevelDirectoryName);
-            File properTopLevelDirectory = new File(contentsDir, build.getName());
-            topLevelDirectory.renameTo(properTopLevelDirectory);
-        });
+    @FunctionalInterface
+    private interface RemoteFunction<T, R> {
+        R apply(T item) throws RemoteResourceException, IOException;
     }
 
     private boolean isNotANestedFile(String name) {
@@ -204,14 +299,18 @@ public class SourcesGenerator {
         Predicate<File> isWhitelisted = sourcesGenerationData.getWhitelistedArtifacts().isEmpty() ? f -> true
                 : f -> sourcesGenerationData.getWhitelistedArtifacts().stream().anyMatch(a -> f.getName().contains(a));
 
-        repo.getFiles()
+        List<KojiBuild> kojiBuilds = repo.getFiles()
                 .stream()
                 .filter(f -> f.getName().endsWith(".jar"))
                 .filter(SourcesGenerator::isUnreleased)
                 .filter(isWhitelisted)
                 .map(SourcesGenerator::getSingleBuild)
                 .distinct()
-                .forEach(build -> downloadSourcesTo(build, contentsDir));
+                .collect(Collectors.toList());
+        inParallel(
+                FileDownloadUtils.getMaxConcurrentDownloads(),
+                kojiBuilds,
+                build -> downloadSourcesTo(build, contentsDir));
     }
 
     private static boolean isUnreleased(File file) {
@@ -221,7 +320,7 @@ public class SourcesGenerator {
                 .substring(0, fileAbsolutePath.indexOf(lastPartOfPath) + lastPartOfPath.length() + 1);
         GAV gav = GAV.fromFileName(fileAbsolutePath, repoDirName);
 
-        return !mrrcSearcher.isReleased(gav);
+        return !Boolean.TRUE.equals(mrrcSearcher.isReleased(gav));
     }
 
     protected static File downloadSourcesTo(KojiBuild build, File directory) {
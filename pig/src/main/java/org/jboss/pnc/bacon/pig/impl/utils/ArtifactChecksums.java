@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import lombok.Value;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jboss.resteasy.util.Hex;
+
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Checksums a downloaded file is expected to have. Any of the values may be null, in which case the corresponding
+ * digest is not verified.
+ */
+@Value
+public class ArtifactChecksums {
+    public static final ArtifactChecksums NONE = new ArtifactChecksums(null, null, null);
+
+    String md5;
+    String sha1;
+    String sha256;
+
+    public boolean isEmpty() {
+        return isBlank(md5) && isBlank(sha1) && isBlank(sha256);
+    }
+
+    /**
+     * Create fresh digests for all the checksums that are set, keyed by the expected hex value
+     *
+     * @return map of expected checksum to the digest that should produce it
+     */
+    public Map<String, MessageDigest> newDigests() {
+        Map<String, MessageDigest> result = new LinkedHashMap<>();
+        if (!isBlank(md5)) {
+            result.put(md5.toLowerCase(), DigestUtils.getMd5Digest());
+        }
+        if (!isBlank(sha1)) {
+            result.put(sha1.toLowerCase(), DigestUtils.getSha1Digest());
+        }
+        if (!isBlank(sha256)) {
+            result.put(sha256.toLowerCase(), DigestUtils.getSha256Digest());
+        }
+        return result;
+    }
+
+    /**
+     * Verify the digests created by {@link #newDigests()} after all the content has been fed to them
+     *
+     * @param digests digests keyed by the expected checksum
+     * @param description description of the verified content used in the error message
+     * @throws ChecksumMismatchException if any of the digests does not match
+     */
+    public static void verify(Map<String, MessageDigest> digests, String description) {
+        for (Map.Entry<String, MessageDigest> entry : digests.entrySet()) {
+            String actual = Hex.encodeHex(entry.getValue().digest());
+            if (!entry.getKey().equals(actual)) {
+                throw new ChecksumMismatchException(
+                        String.format(
+                                "%s checksum mismatch for %s: expected %s, got %s",
+                                entry.getValue().getAlgorithm(),
+                                description,
+                                entry.getKey(),
+                                actual));
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public static class ChecksumMismatchException extends RuntimeException {
+        public ChecksumMismatchException(String message) {
+            super(message);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.jboss.pnc.bacon.pig.impl.utils;
 import com.redhat.red.build.koji.KojiClientException;
 import org.apache.commons.collections4.MultiValuedMap;
 import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.jboss.pnc.bacon.config.Config;
 import org.jboss.pnc.build.finder.core.BuildConfig;
 import org.jboss.pnc.build.finder.core.BuildFinder;
@@ -159,17 +160,20 @@ public final class BuildFinderUtils {
     public static List<KojiBuild> findBuilds(Map<String, Collection<String>> checksums, boolean includeNotFound) {
         BuildConfig config = getKojiBuildFinderConfig();
 
-        try (KojiClientSession session = new KojiClientSession(config.getKojiHubURL())) {
-            BuildFinder finder = new BuildFinder(session, config);
+        try (Telemetry.Call call = Telemetry.start("koji", "findBuilds")) {
+            try (KojiClientSession session = new KojiClientSession(config.getKojiHubURL())) {
+                BuildFinder finder = new BuildFinder(session, config);
 
-            Map<Checksum, Collection<String>> multiMap = mapToMultiMap(checksums);
+                Map<Checksum, Collection<String>> multiMap = mapToMultiMap(checksums);
 
-            finder.findBuilds(multiMap);
-            return includeNotFound ? finder.getBuilds() : finder.getBuildsFound();
-        } catch (KojiClientException e) {
-            log.error("Failed to get builds: {}", e.getMessage(), e);
-            Thread.currentThread().interrupt();
-            return Collections.emptyList();
+                finder.findBuilds(multiMap);
+                return includeNotFound ? finder.getBuilds() : finder.getBuildsFound();
+            } catch (KojiClientException e) {
+                call.failed(e);
+                log.error("Failed to get builds: {}", e.getMessage(), e);
+                Thread.currentThread().interrupt();
+                return Collections.emptyList();
+            }
         }
     }
 
@@ -191,36 +195,43 @@ public final class BuildFinderUtils {
         DistributionAnalyzer analyzer = new DistributionAnalyzer(new ArrayList<>(inputs), config);
         Future<Map<ChecksumType, MultiValuedMap<String, LocalFile>>> futureChecksums = pool.submit(analyzer);
 
-        try (KojiClientSession session = new KojiClientSession(config.getKojiHubURL())) {
-            BuildFinder finder = new BuildFinder(session, config, analyzer);
-            Future<Map<BuildSystemInteger, KojiBuild>> futureBuilds = pool.submit(finder);
-
-            try {
-                futureChecksums.get();
-            } catch (InterruptedException e) {
-                log.error("Failed to get checksums: {}", e.getMessage(), e);
-                Thread.currentThread().interrupt();
-                return Collections.emptyList();
-            } catch (ExecutionException e) {
-                log.error("Failed to get checksums: {}", e.getMessage(), e);
-                return Collections.emptyList();
-            }
-
-            try {
-                futureBuilds.get();
-            } catch (InterruptedException e) {
-                log.error("Failed to get builds: {}", e.getMessage(), e);
-                Thread.currentThread().interrupt();
-                return Collections.emptyList();
-            } catch (ExecutionException e) {
-                log.error("Failed to get builds: {}", e.getMessage(), e);
+        try (Telemetry.Call call = Telemetry.start("koji", "findBuilds")) {
+            try (KojiClientSession session = new KojiClientSession(config.getKojiHubURL())) {
+                BuildFinder finder = new BuildFinder(session, config, analyzer);
+                Future<Map<BuildSystemInteger, KojiBuild>> futureBuilds = pool.submit(finder);
+
+                try {
+                    futureChecksums.get();
+                } catch (InterruptedException e) {
+                    call.failed(e);
+                    log.error("Failed to get checksums: {}", e.getMessage(), e);
+                    Thread.currentThread().interrupt();
+                    return Collections.emptyList();
+                } catch (ExecutionException e) {
+                    call.failed(e);
+                    log.error("Failed to get checksums: {}", e.getMessage(), e);
+                    return Collections.emptyList();
+                }
+
+                try {
+                    futureBuilds.get();
+                } catch (InterruptedException e) {
+                    call.failed(e);
+                    log.error("Failed to get builds: {}", e.getMessage(), e);
+                    Thread.currentThread().interrupt();
+                    return Collections.emptyList();
+                } catch (ExecutionException e) {
+                    call.failed(e);
+                    log.error("Failed to get builds: {}", e.getMessage(), e);
+                    return Collections.emptyList();
+                }
+
+                return includeNotFound ? finder.getBuilds() : finder.getBuildsFound();
+            } catch (KojiClientException e) {
+                call.failed(e);
+                log.error("Koji client error: {}", e.getMessage(), e);
                 return Collections.emptyList();
             }
-
-            return includeNotFound ? finder.getBuilds() : finder.getBuildsFound();
-        } catch (KojiClientException e) {
-            log.error("Koji client error: {}", e.getMessage(), e);
-            return Collections.emptyList();
         } finally {
             Utils.shutdownAndAwaitTermination(pool);
         }
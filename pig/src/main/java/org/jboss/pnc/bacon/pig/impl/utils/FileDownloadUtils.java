@@ -24,6 +24,8 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jboss.pnc.bacon.common.Telemetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,7 +35,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Michal Szynkiewicz, michal.l.szynkiewicz@gmail.com <br>
@@ -50,43 +56,75 @@ public class FileDownloadUtils {
     private static final int DEFAULT_ATTEMPTS = 1;
     private static final int MAX_ATTEMPTS = 20;
 
-    // TODO move it out from here and add it as a method parameter
-    private static int attempts = DEFAULT_ATTEMPTS;
+    private static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 10;
+    private static final int MAX_CONCURRENT_DOWNLOADS = 50;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static volatile int defaultAttempts = DEFAULT_ATTEMPTS;
+
+    private static volatile int maxConcurrentDownloads = DEFAULT_MAX_CONCURRENT_DOWNLOADS;
 
     private static final RequestConfig requestConfig = RequestConfig.copy(RequestConfig.DEFAULT)
             .setConnectTimeout(CONNECTION_TIMEOUT)
             .setSocketTimeout(READ_TIMEOUT)
             .build();
 
+    private static CloseableHttpClient httpClient;
+
     public static void downloadTo(URI downloadUrl, File targetPath) {
-        log.debug("Downloading {} to {}", downloadUrl, targetPath);
-        doDownload(downloadUrl, targetPath, attempts);
+        downloadTo(downloadUrl, targetPath, ArtifactChecksums.NONE);
     }
 
-    private static void doDownload(URI downloadUrl, File targetPath, int attemptsLeft) {
-        try (CloseableHttpClient httpClient = HttpClients.custom().setDefaultRequestConfig(requestConfig).build()) {
-            downloadWithClient(httpClient, downloadUrl, targetPath);
-        } catch (NotFoundException nfe) {
-            throw new RuntimeException("URL " + downloadUrl + " returns status 404: Not Found", nfe);
-        } catch (Exception e) {
-            attemptsLeft--;
-            if (attemptsLeft == 0) {
-                throw new RuntimeException(
-                        "failed to download " + downloadUrl + " to " + targetPath.getAbsolutePath(),
-                        e);
-            } else {
-                log.debug("Failed to download {}. Will reattempt at most {} times", downloadUrl, attemptsLeft);
-                // sleep with exponential backoff up to a maximum of 30 seconds
-                int sleepTimeInSeconds = (int) Math.ceil(Math.pow(30, (double) 1 / attemptsLeft));
-                log.debug("Sleeping for : {}", sleepTimeInSeconds);
-                SleepUtils.sleep(sleepTimeInSeconds);
-                doDownload(downloadUrl, targetPath, attemptsLeft);
+    /**
+     * Download the content of the url to the target path, verifying the content against the expected checksums while
+     * it is being written
+     *
+     * @param downloadUrl url to download
+     * @param targetPath file to write the content to
+     * @param checksums checksums the downloaded content is expected to have
+     */
+    public static void downloadTo(URI downloadUrl, File targetPath, ArtifactChecksums checksums) {
+        log.debug("Downloading {} to {}", downloadUrl, targetPath);
+        int attemptsLeft = defaultAttempts;
+        try (Telemetry.Call call = Telemetry.start("download", downloadUrl.getHost())) {
+            while (true) {
+                try {
+                    downloadWithClient(getHttpClient(), downloadUrl, targetPath, checksums);
+                    call.bytes(targetPath.length());
+                    return;
+                } catch (NotFoundException nfe) {
+                    RuntimeException failure = new RuntimeException(
+                            "URL " + downloadUrl + " returns status 404: Not Found",
+                            nfe);
+                    call.failed(failure);
+                    throw failure;
+                } catch (Exception e) {
+                    attemptsLeft--;
+                    if (attemptsLeft <= 0) {
+                        targetPath.delete();
+                        RuntimeException failure = new RuntimeException(
+                                "failed to download " + downloadUrl + " to " + targetPath.getAbsolutePath(),
+                                e);
+                        call.failed(failure);
+                        throw failure;
+                    }
+                    call.retry();
+                    log.debug("Failed to download {}. Will reattempt at most {} times", downloadUrl, attemptsLeft);
+                    // sleep with exponential backoff up to a maximum of 30 seconds
+                    int sleepTimeInSeconds = (int) Math.ceil(Math.pow(30, (double) 1 / attemptsLeft));
+                    log.debug("Sleeping for : {}", sleepTimeInSeconds);
+                    SleepUtils.sleep(sleepTimeInSeconds);
+                }
             }
         }
     }
 
-    private static void downloadWithClient(CloseableHttpClient httpClient, URI downloadUrl, File targetPath)
-            throws NotFoundException, HttpException, IOException {
+    private static void downloadWithClient(
+            CloseableHttpClient httpClient,
+            URI downloadUrl,
+            File targetPath,
+            ArtifactChecksums checksums) throws NotFoundException, HttpException, IOException {
         try (CloseableHttpResponse response = httpClient.execute(new HttpGet(downloadUrl))) {
             int statusCode = response.getStatusLine().getStatusCode();
             if (statusCode == 404) {
@@ -95,13 +133,47 @@ public class FileDownloadUtils {
             if (statusCode < 200 || statusCode > 299) {
                 throw new HttpException("Invalid status code for download");
             }
+            Map<String, MessageDigest> digests = checksums.newDigests();
             try (InputStream input = response.getEntity().getContent();
-                    FileOutputStream output = new FileOutputStream(targetPath)) {
-                IOUtils.copy(input, output);
+                    OutputStream output = new FileOutputStream(targetPath)) {
+                if (digests.isEmpty()) {
+                    IOUtils.copy(input, output, BUFFER_SIZE);
+                } else {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = input.read(buffer)) != -1) {
+                        for (MessageDigest digest : digests.values()) {
+                            digest.update(buffer, 0, read);
+                        }
+                        output.write(buffer, 0, read);
+                    }
+                }
             }
+            ArtifactChecksums.verify(digests, downloadUrl.toString());
         }
     }
 
+    /**
+     * The client is shared by all the downloads so that connections to the same host are pooled and kept alive between
+     * requests instead of doing a TCP/TLS handshake for every file.
+     */
+    private static synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                    60,
+                    TimeUnit.SECONDS);
+            connectionManager.setMaxTotal(maxConcurrentDownloads * 2);
+            connectionManager.setDefaultMaxPerRoute(maxConcurrentDownloads);
+            connectionManager.setValidateAfterInactivity(10000);
+            httpClient = HttpClients.custom()
+                    .setDefaultRequestConfig(requestConfig)
+                    .setConnectionManager(connectionManager)
+                    .evictIdleConnections(30, TimeUnit.SECONDS)
+                    .build();
+        }
+        return httpClient;
+    }
+
     public static void setAttempts(int attempts) {
         if (attempts > MAX_ATTEMPTS) {
             log.warn(
@@ -116,7 +188,39 @@ public class FileDownloadUtils {
             attempts = DEFAULT_ATTEMPTS;
         }
 
-        FileDownloadUtils.attempts = attempts;
+        FileDownloadUtils.defaultAttempts = attempts;
+    }
+
+    public static int getMaxConcurrentDownloads() {
+        return maxConcurrentDownloads;
+    }
+
+    public static synchronized void setMaxConcurrentDownloads(int concurrentDownloads) {
+        if (concurrentDownloads > MAX_CONCURRENT_DOWNLOADS) {
+            log.warn(
+                    "Maximum number of concurrent downloads is {}. The value has been set to {}",
+                    MAX_CONCURRENT_DOWNLOADS,
+                    MAX_CONCURRENT_DOWNLOADS);
+            concurrentDownloads = MAX_CONCURRENT_DOWNLOADS;
+        }
+
+        if (concurrentDownloads <= 0) {
+            log.warn(
+                    "Number of concurrent downloads has to be a positive integer. Setting to {}",
+                    DEFAULT_MAX_CONCURRENT_DOWNLOADS);
+            concurrentDownloads = DEFAULT_MAX_CONCURRENT_DOWNLOADS;
+        }
+
+        if (httpClient != null && concurrentDownloads != maxConcurrentDownloads) {
+            // the pool is sized on creation, let the next download create a new one
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.debug("Failed to close the download client", e);
+            }
+            httpClient = null;
+        }
+        FileDownloadUtils.maxConcurrentDownloads = concurrentDownloads;
     }
 
     private FileDownloadUtils() {
@@ -194,16 +194,37 @@ public final class FileUtils {
     public static Collection<String> untar(final File input, final File directory) {
         log.debug("tar -xf {} -C {}", input, directory);
 
-        final String compressorType = getCompressorType(input);
+        try (final InputStream is = Files.newInputStream(input.toPath())) {
+            return untar(is, directory);
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Untar of " + input + " to " + directory + " failed", e);
+        }
+    }
+
+    /**
+     * Extract a tar archive, compressed or not, while it is being read, e.g. downloaded, without storing the archive
+     * first
+     *
+     * @param input the archive, closed once extracted
+     * @param directory directory to extract the archive to
+     * @return the names of the extracted entries
+     */
+    public static Collection<String> untar(final InputStream input, final File directory) {
+        final InputStream bis = new BufferedInputStream(input);
+        String compressorType;
+        try {
+            compressorType = CompressorStreamFactory.detect(bis);
+        } catch (CompressorException e) {
+            compressorType = null;
+        }
 
         log.debug("untar: detected compressor type: {}", compressorType);
 
         final Collection<String> entries = new ArrayList<>();
 
-        try (final InputStream is = Files.newInputStream(input.toPath());
-                final InputStream cin = compressorType != null
-                        ? new CompressorStreamFactory().createCompressorInputStream(compressorType, is)
-                        : is;
+        try (final InputStream cin = compressorType != null
+                ? new CompressorStreamFactory().createCompressorInputStream(compressorType, bis)
+                : bis;
                 final ArchiveInputStream in = new ArchiveStreamFactory()
                         .createArchiveInputStream(ArchiveStreamFactory.TAR, cin)) {
             final Path dir = directory.toPath();
@@ -262,7 +283,7 @@ public final class FileUtils {
                 }
             }
         } catch (IOException | ArchiveException | CompressorException e) {
-            throw new RuntimeException("Untar of " + input + " to " + directory + " failed", e);
+            throw new RuntimeException("Untar to " + directory + " failed", e);
         }
 
         return Collections.unmodifiableCollection(entries);
@@ -436,63 +457,27 @@ public final class FileUtils {
     }
 
     public static Collection<String> zip(final File output, final File workingDirectory, final File directoryToZip) {
-        final Path directory = directoryToZip.toPath();
-
-        log.debug("zip -r {} {}", output, directory);
-
-        final Collection<String> entries = new ArrayList<>();
-
-        try (final OutputStream out = Files.newOutputStream(output.toPath());
-                final ArchiveOutputStream os = new ArchiveStreamFactory()
-                        .createArchiveOutputStream(ArchiveStreamFactory.ZIP, out)) {
-            try (final Stream<Path> stream = Files.walk(directory)) {
-                final Iterator<Path> iterator = stream.iterator();
-
-                while (iterator.hasNext()) { // TODO get rid of iterator
-                    final Path path = iterator.next();
-
-                    if (path.equals(directory)) {
-                        continue;
-                    }
-
-                    String entryName = FilenameUtils
-                            .normalize(workingDirectory.toPath().relativize(path).toString(), true);
-                    if (Files.isDirectory(path)) {
-                        entryName += "/"; // required for directories
-                    }
-
-                    log.debug("zip: {}", entryName);
-
-                    entries.add(entryName);
-
-                    final ArchiveEntry entry = new ZipArchiveEntry(path.toFile(), entryName);
-
-                    setModeAndLastModifiedTime(path, entry);
-
-                    os.putArchiveEntry(entry);
-
-                    if (Files.isSymbolicLink(path)) {
-                        final Path symlinkDestination = Files.readSymbolicLink(path);
-                        final byte[] bytes = symlinkDestination.toString().getBytes(StandardCharsets.UTF_8);
-                        try (final InputStream content = new ByteArrayInputStream(bytes)) {
-                            IOUtils.copy(content, os);
-                            os.closeArchiveEntry();
-                        }
-                    } else if (Files.isRegularFile(path)) {
-                        try (final InputStream content = Files.newInputStream(path)) {
-                            IOUtils.copy(content, os);
-                            os.closeArchiveEntry();
-                        }
-                    } else if (!Files.isDirectory(path)) {
-                        throw new RuntimeException("Unsupported file type for: " + path);
-                    }
-                }
-            }
-        } catch (IOException | ArchiveException e) {
-            throw new RuntimeException("Zip of directory " + directory + " to " + output + " failed", e);
-        }
+        return zip(output, workingDirectory, directoryToZip, Runtime.getRuntime().availableProcessors());
+    }
 
-        return Collections.unmodifiableCollection(entries);
+    /**
+     * Zips the directory compressing the entries on multiple threads. The resulting archive is the same regardless of
+     * the number of threads. Already compressed files, like jars, are stored as they are.
+     *
+     * @param output the zip file to create
+     * @param workingDirectory the directory the entry names are relative to
+     * @param directoryToZip the directory to zip
+     * @param threads number of threads to compress the entries with
+     * @return names of the zipped entries
+     */
+    public static Collection<String> zip(
+            final File output,
+            final File workingDirectory,
+            final File directoryToZip,
+            final int threads) {
+        log.debug("zip -r {} {}", output, directoryToZip);
+
+        return new ParallelZipWriter(threads).zip(output, workingDirectory, directoryToZip);
     }
 
     public static void copy(final File srcFile, final File destFile) {
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jboss.resteasy.util.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprint of a directory, computed incrementally with an index of the size, the modification time and the
+ * content hash of every file, stored in a json file.
+ * <p>
+ * Only the files whose size or modification time differs from the index are read and hashed again. Files modified
+ * just before the index is written may change again within the resolution of the modification time, they are indexed
+ * without the modification time so that they are hashed again in the next run. Comparing the index with the current
+ * state of the directory tells which files were added, modified or removed.
+ */
+public class FingerprintIndex {
+    private static final Logger log = LoggerFactory.getLogger(FingerprintIndex.class);
+
+    private static final ObjectMapper jsonMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final Duration MODIFICATION_TIME_RESOLUTION = Duration.ofSeconds(2);
+    private static final long UNKNOWN_MODIFICATION_TIME = -1;
+
+    private final Path indexFile;
+    private final Clock clock;
+
+    /**
+     * @param indexFile file the index is stored in
+     */
+    public FingerprintIndex(Path indexFile) {
+        this(indexFile, Clock.systemUTC());
+    }
+
+    FingerprintIndex(Path indexFile, Clock clock) {
+        this.indexFile = indexFile;
+        this.clock = clock;
+    }
+
+    /**
+     * Fingerprint the content of a directory and update the index
+     *
+     * @param directory path of the directory
+     * @param ignorePredicate decides whether to ignore a file of the directory, returns true to ignore
+     * @return the fingerprint with the files changed since the index was written
+     */
+    public Fingerprint fingerprint(Path directory, Predicate<Path> ignorePredicate) {
+        String directoryKey = directory.toAbsolutePath().normalize().toString();
+        Index previous = load();
+        Map<String, FileEntry> known = directoryKey.equals(previous.getDirectory()) ? previous.getFiles()
+                : new TreeMap<>();
+
+        Map<String, Path> files = new TreeMap<>();
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(ignorePredicate.negate())
+                    .forEach(path -> files.put(directory.relativize(path).toString(), path));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to walk through " + directory, e);
+        }
+
+        long racyAfter = clock.millis() - MODIFICATION_TIME_RESOLUTION.toMillis();
+        Map<String, FileEntry> current = new TreeMap<>(
+                files.entrySet()
+                        .parallelStream()
+                        .collect(
+                                Collectors.toMap(
+                                        Map.Entry::getKey,
+                                        file -> entry(file.getValue(), known.get(file.getKey())))));
+
+        Fingerprint fingerprint = new Fingerprint();
+        MessageDigest sha = DigestUtils.getSha512Digest();
+        current.forEach((relativePath, entry) -> {
+            DigestUtils.updateDigest(sha, relativePath);
+            DigestUtils.updateDigest(sha, entry.getSha512());
+            FileEntry before = known.get(relativePath);
+            if (before == null) {
+                fingerprint.getAdded().add(relativePath);
+            } else if (!before.getSha512().equals(entry.getSha512())) {
+                fingerprint.getModified().add(relativePath);
+            }
+        });
+        known.keySet()
+                .stream()
+                .filter(relativePath -> !current.containsKey(relativePath))
+                .forEach(fingerprint.getRemoved()::add);
+        fingerprint.setHash(Hex.encodeHex(sha.digest()));
+        fingerprint.setIndexed(!known.isEmpty());
+
+        Map<String, FileEntry> toStore = new TreeMap<>(current);
+        toStore.replaceAll(
+                (relativePath, entry) -> entry.getLastModified() > racyAfter
+                        ? new FileEntry(entry.getSize(), UNKNOWN_MODIFICATION_TIME, entry.getSha512())
+                        : entry);
+        if (!directoryKey.equals(previous.getDirectory()) || !toStore.equals(previous.getFiles())) {
+            store(new Index(directoryKey, toStore));
+        }
+        return fingerprint;
+    }
+
+    private static FileEntry entry(Path path, FileEntry known) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (known != null && known.getSize() == size && known.getLastModified() == lastModified) {
+                return known;
+            }
+            log.debug("Hashing {}", path);
+            try (InputStream input = Files.newInputStream(path)) {
+                return new FileEntry(size, lastModified, DigestUtils.sha512Hex(input));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to calculate sha of " + path.toAbsolutePath(), e);
+        }
+    }
+
+    private Index load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return new Index();
+        }
+        try (InputStream input = Files.newInputStream(indexFile)) {
+            return jsonMapper.readValue(input, Index.class);
+        } catch (IOException e) {
+            log.warn("Failed to read the fingerprint index {}, hashing all the files", indexFile, e);
+            return new Index();
+        }
+    }
+
+    /**
+     * Replace the index atomically so that an interrupted run does not leave a corrupted index behind
+     */
+    private void store(Index index) {
+        try {
+            Path directory = indexFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, indexFile.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                jsonMapper.writeValue(output, index);
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to store the fingerprint index {}", indexFile, e);
+        }
+    }
+
+    @Data
+    public static class Fingerprint {
+        private String hash;
+        /**
+         * false if there was no index to compare with, the lists of changed files are empty then
+         */
+        private boolean indexed;
+        private final List<String> added = new ArrayList<>();
+        private final List<String> modified = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+
+        /**
+         * @return description of the changed files, e.g. for logging
+         */
+        public String describeChanges() {
+            List<String> changes = new ArrayList<>();
+            added.forEach(path -> changes.add("added " + path));
+            modified.forEach(path -> changes.add("modified " + path));
+            removed.forEach(path -> changes.add("removed " + path));
+            return String.join(", ", changes);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Index {
+        private String directory;
+        private Map<String, FileEntry> files = new TreeMap<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class FileEntry {
+        private long size;
+        private long lastModified;
+        private String sha512;
+    }
+}
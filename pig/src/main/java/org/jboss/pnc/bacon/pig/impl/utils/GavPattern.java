@@ -103,7 +103,8 @@ public class GavPattern implements Serializable {
     }
 
     /**
-     * A pair of a {@link Pattern} and its wildcard source.
+     * A pair of a {@link Pattern} and its wildcard source. Literals and wildcard patterns with a single asterisk at the
+     * start or at the end are matched without the {@link Pattern}.
      */
     static class GavSegmentPattern implements Serializable {
         private static final GavSegmentPattern MATCH_ALL = new GavSegmentPattern(GavPattern.MULTI_WILDCARD);
@@ -112,9 +113,34 @@ public class GavPattern implements Serializable {
         private static final long serialVersionUID = 1063634992004995585L;
         private final transient Pattern pattern;
         private final String source;
+        /**
+         * The source without the asterisk if it is a literal, a prefix or a suffix, null otherwise
+         */
+        private final String literal;
+        private final boolean prefix;
+        private final boolean suffix;
 
         GavSegmentPattern(String wildcardSource) {
             super();
+            final int wildcards = wildcardSource.length()
+                    - wildcardSource.replace(GavPattern.MULTI_WILDCARD, "").length();
+            if (wildcards == 0) {
+                this.literal = wildcardSource;
+                this.prefix = false;
+                this.suffix = false;
+            } else if (wildcards == 1 && wildcardSource.endsWith(GavPattern.MULTI_WILDCARD)) {
+                this.literal = wildcardSource.substring(0, wildcardSource.length() - 1);
+                this.prefix = true;
+                this.suffix = false;
+            } else if (wildcards == 1 && wildcardSource.startsWith(GavPattern.MULTI_WILDCARD)) {
+                this.literal = wildcardSource.substring(1);
+                this.prefix = false;
+                this.suffix = true;
+            } else {
+                this.literal = null;
+                this.prefix = false;
+                this.suffix = false;
+            }
             final StringBuilder sb = new StringBuilder(wildcardSource.length() + 2);
             final StringTokenizer st = new StringTokenizer(wildcardSource, GavPattern.MULTI_WILDCARD, true);
             while (st.hasMoreTokens()) {
@@ -151,12 +177,34 @@ public class GavPattern implements Serializable {
             return source.hashCode();
         }
 
+        /**
+         * @return the literal if this pattern matches just the literal, null otherwise
+         */
+        String getExactLiteral() {
+            return prefix || suffix ? null : literal;
+        }
+
+        /**
+         * @return the literal the matched inputs start with if this pattern is a literal followed by an asterisk, null
+         *         otherwise
+         */
+        String getPrefixLiteral() {
+            return prefix ? literal : null;
+        }
+
         public boolean matches(String input) {
             if (input == null) {
                 /* null input returns true only if the pattern is * */
                 return MATCH_ALL.equals(this);
             }
-            return pattern.matcher(input).matches();
+            if (literal == null) {
+                return pattern.matcher(input).matches();
+            } else if (prefix) {
+                return input.startsWith(literal);
+            } else if (suffix) {
+                return input.endsWith(literal);
+            }
+            return input.equals(literal);
         }
 
         /**
@@ -23,11 +23,17 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.function.Predicate;
 
 /**
  * A set of {@link Gav}s defined by includes and excludes {@link GavPattern}s.
+ * <p>
+ * The patterns are indexed by their {@code groupId} pattern, so that only the patterns that can match the
+ * {@code groupId} of a GAV are tried on it.
  *
  * @author <a href="https://github.com/ppalaga">Peter Palaga</a>
  */
@@ -205,30 +211,20 @@ public class GavSet implements Serializable {
         return INCLUDE_ALL;
     }
 
-    private static boolean matches(
-            String groupId,
-            String artifactId,
-            String type,
-            String classifier,
-            String version,
-            List<GavPattern> patterns) {
-        for (GavPattern pattern : patterns) {
-            if (pattern.matches(groupId, artifactId, type, classifier, version)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private final List<GavPattern> excludes;
     private final transient int hashcode;;
 
     private final List<GavPattern> includes;
 
+    private final transient Index includeIndex;
+    private final transient Index excludeIndex;
+
     GavSet(List<GavPattern> includes, List<GavPattern> excludes) {
         super();
         this.includes = includes;
         this.excludes = excludes;
+        this.includeIndex = new Index(includes);
+        this.excludeIndex = new Index(excludes);
         this.hashcode = 31 * (31 * 1 + excludes.hashCode()) + includes.hashCode();
     }
 
@@ -262,8 +258,8 @@ public class GavSet implements Serializable {
      * @return {@code true} if the given GAV triple is a member of this {@link GavSet} and {@code false} otherwise
      */
     public boolean contains(String groupId, String artifactId, String type, String classifier, String version) {
-        return matches(groupId, artifactId, type, classifier, version, includes)
-                && !matches(groupId, artifactId, type, classifier, version, excludes);
+        return includeIndex.matches(groupId, artifactId, type, classifier, version)
+                && !excludeIndex.matches(groupId, artifactId, type, classifier, version);
     }
 
     @Override
@@ -312,4 +308,43 @@ public class GavSet implements Serializable {
         return "GavSet [excludes=" + excludes + ", includes=" + includes + "]";
     }
 
+    /**
+     * {@link GavPattern}s indexed by their {@code groupId} pattern: literal ones in a hash map, literal prefixes in a
+     * trie and the rest in a list.
+     */
+    private static final class Index {
+        private final Map<String, List<GavPattern>> byGroupId = new HashMap<>();
+        private final PrefixTrie<GavPattern> byGroupIdPrefix = new PrefixTrie<>();
+        private final List<GavPattern> others = new ArrayList<>();
+
+        private Index(List<GavPattern> patterns) {
+            for (GavPattern pattern : patterns) {
+                String exact = pattern.groupIdPattern.getExactLiteral();
+                String prefix = pattern.groupIdPattern.getPrefixLiteral();
+                if (exact != null) {
+                    byGroupId.computeIfAbsent(exact, k -> new ArrayList<>()).add(pattern);
+                } else if (prefix != null) {
+                    byGroupIdPrefix.put(prefix, pattern);
+                } else {
+                    others.add(pattern);
+                }
+            }
+        }
+
+        private boolean matches(String groupId, String artifactId, String type, String classifier, String version) {
+            Predicate<GavPattern> matching = p -> p.matches(groupId, artifactId, type, classifier, version);
+            if (groupId != null) {
+                List<GavPattern> candidates = byGroupId.get(groupId);
+                if (candidates != null && candidates.stream().anyMatch(matching)) {
+                    return true;
+                }
+                if (byGroupIdPrefix.findFirst(groupId, matching) != null) {
+                    return true;
+                }
+            } else if (byGroupIdPrefix.findFirst("", matching) != null) {
+                return true;
+            }
+            return others.stream().anyMatch(matching);
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jboss.pnc.bacon.pig.impl.PigContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Persistent key-value cache for the results of remote lookups (MRRC, DA, Koji), stored next to the pig context in
+ * {@code .bacon/lookup-cache/<source>.json}.
+ * <p>
+ * Every source has its own time-to-live for positive results and a separate, usually shorter, one for negative
+ * results (e.g. an artifact not released yet), since only the latter are expected to change.
+ *
+ * @param <T> type of the cached values
+ */
+public class LookupCache<T> {
+    private static final Logger log = LoggerFactory.getLogger(LookupCache.class);
+
+    private static final String CACHE_DIR = "lookup-cache";
+
+    private static final ObjectMapper jsonMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final Map<String, LookupCache<?>> caches = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final Path file;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Predicate<T> isNegative;
+    private final JavaType entriesType;
+    private final Clock clock;
+
+    private final Map<String, Entry<T>> entries;
+    private volatile boolean dirty;
+
+    /**
+     * Get the cache for the given source, loading it from the disk on the first call
+     *
+     * @param source name of the source, used as the file name
+     * @param type type of the cached values
+     * @param ttl how long positive results are valid
+     * @param negativeTtl how long negative results are valid
+     * @param isNegative tells if a value is a negative result
+     * @param <T> type of the cached values
+     * @return the cache
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> LookupCache<T> forSource(
+            String source,
+            Class<T> type,
+            Duration ttl,
+            Duration negativeTtl,
+            Predicate<T> isNegative) {
+        return (LookupCache<T>) caches.computeIfAbsent(
+                source,
+                s -> new LookupCache<>(
+                        s,
+                        getCacheDir().resolve(s + ".json"),
+                        type,
+                        ttl,
+                        negativeTtl,
+                        isNegative,
+                        Clock.systemUTC()));
+    }
+
+    /**
+     * Write all the modified caches to the disk, called at the end of a pig command
+     */
+    public static void flushAll() {
+        caches.values().forEach(LookupCache::flush);
+    }
+
+    private static Path getCacheDir() {
+        return PigContext.contextDir().resolve(CACHE_DIR);
+    }
+
+    LookupCache(
+            String source,
+            Path file,
+            Class<T> type,
+            Duration ttl,
+            Duration negativeTtl,
+            Predicate<T> isNegative,
+            Clock clock) {
+        this.source = source;
+        this.file = file;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.isNegative = isNegative;
+        this.clock = clock;
+        this.entriesType = jsonMapper.getTypeFactory()
+                .constructMapType(
+                        HashMap.class,
+                        jsonMapper.getTypeFactory().constructType(String.class),
+                        jsonMapper.getTypeFactory().constructParametricType(Entry.class, type));
+        this.entries = new ConcurrentHashMap<>(load());
+    }
+
+    /**
+     * Get the cached value or compute it with the loader and cache it. Values the loader returns as null, e.g. because
+     * of a failure, are not cached.
+     *
+     * @param key key of the value, e.g. a GAV or a checksum
+     * @param loader the remote lookup
+     * @return cached or computed value
+     */
+    public T get(String key, Function<String, T> loader) {
+        Optional<T> cached = getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        T value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public Optional<T> getIfPresent(String key) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        Duration validity = entry.isNegative() ? negativeTtl : ttl;
+        if (clock.millis() - entry.getStoredAt() > validity.toMillis()) {
+            entries.remove(key, entry);
+            dirty = true;
+            return Optional.empty();
+        }
+        log.trace("Using cached {} result for {}", source, key);
+        return Optional.ofNullable(entry.getValue());
+    }
+
+    public void put(String key, T value) {
+        entries.put(key, new Entry<>(value, clock.millis(), isNegative.test(value)));
+        dirty = true;
+    }
+
+    /**
+     * Write the cache to the disk if it was modified. The file is replaced atomically so that an interrupted run does
+     * not leave a corrupted cache behind.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), source, ".tmp");
+            try {
+                try (OutputStream output = Files.newOutputStream(tempFile)) {
+                    dirty = false;
+                    jsonMapper.writeValue(output, new HashMap<>(entries));
+                }
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Stored {} {} lookup results in {}", entries.size(), source, file);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Failed to store the {} lookup cache in {}", source, file, e);
+        }
+    }
+
+    private Map<String, Entry<T>> load() {
+        if (!Files.exists(file)) {
+            return new HashMap<>();
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            return jsonMapper.readValue(input, entriesType);
+        } catch (IOException e) {
+            log.warn("Failed to read the {} lookup cache from {}, starting with an empty one", source, file, e);
+            return new HashMap<>();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry<T> {
+        private T value;
+        private long storedAt;
+        private boolean negative;
+    }
+}
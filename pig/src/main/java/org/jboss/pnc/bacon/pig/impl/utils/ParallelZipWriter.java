@@ -0,0 +1,287 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Zips a directory compressing the entries in parallel.
+ * <p>
+ * The entries are deflated concurrently into independent buffers (scatter) and then appended to the archive as raw
+ * entries in the order in which the directory is walked (gather), so the resulting archive does not depend on the
+ * number of threads. Files that are already compressed, like jars or tarballs, are stored without deflating them
+ * again.
+ */
+final class ParallelZipWriter {
+    private static final Logger log = LoggerFactory.getLogger(ParallelZipWriter.class);
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set
+            .of("jar", "war", "ear", "rar", "sar", "zip", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif");
+
+    /**
+     * Entries whose deflated content may be bigger than this are buffered in temporary files instead of in memory
+     */
+    private static final long IN_MEMORY_THRESHOLD = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of entries that can be compressed ahead of the one being written, per thread
+     */
+    private static final int ENTRIES_IN_FLIGHT_PER_THREAD = 4;
+
+    private final int threads;
+
+    ParallelZipWriter(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    Collection<String> zip(final File output, final File workingDirectory, final File directoryToZip) {
+        final Path directory = directoryToZip.toPath();
+        final Path workDir = workingDirectory.toPath();
+        final int maxInFlight = threads * ENTRIES_IN_FLIGHT_PER_THREAD;
+
+        final List<String> entries = new ArrayList<>();
+        final Deque<Future<ScatteredEntry>> inFlight = new ArrayDeque<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try (final ZipArchiveOutputStream zip = new ZipArchiveOutputStream(output);
+                final Stream<Path> stream = Files.walk(directory)) {
+            zip.setUseZip64(Zip64Mode.AsNeeded);
+
+            // sorted so that the archive is reproducible, a directory always precedes its contents
+            final Iterator<Path> iterator = stream.filter(path -> !path.equals(directory)).sorted().iterator();
+            while (iterator.hasNext()) {
+                final Path path = iterator.next();
+
+                String name = FilenameUtils.normalize(workDir.relativize(path).toString(), true);
+                if (Files.isDirectory(path)) {
+                    name += "/"; // required for directories
+                }
+
+                log.debug("zip: {}", name);
+
+                entries.add(name);
+
+                final String entryName = name;
+                inFlight.add(executor.submit(() -> scatter(path, entryName)));
+                if (inFlight.size() >= maxInFlight) {
+                    gather(zip, inFlight.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                gather(zip, inFlight.poll());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Zip of directory " + directory + " to " + output + " failed", e);
+        } finally {
+            executor.shutdownNow();
+            discardAll(inFlight);
+        }
+
+        return Collections.unmodifiableCollection(entries);
+    }
+
+    private static ScatteredEntry scatter(Path path, String entryName) throws IOException {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(entryName);
+
+        FileUtils.setModeAndLastModifiedTime(path, entry);
+
+        if (Files.isSymbolicLink(path)) {
+            final byte[] target = Files.readSymbolicLink(path).toString().getBytes(StandardCharsets.UTF_8);
+            final CRC32 crc = new CRC32();
+            crc.update(target);
+            setStored(entry, target.length, crc);
+            return new ScatteredEntry(entry, target, null, false);
+        } else if (Files.isRegularFile(path)) {
+            return isCompressed(entryName) ? store(entry, path) : deflate(entry, path);
+        } else if (Files.isDirectory(path)) {
+            return new ScatteredEntry(entry, null, null, false);
+        } else {
+            throw new RuntimeException("Unsupported file type for: " + path);
+        }
+    }
+
+    private static ScatteredEntry store(ZipArchiveEntry entry, Path path) throws IOException {
+        final CRC32 crc = new CRC32();
+        long size = 0;
+        try (final InputStream in = Files.newInputStream(path)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        setStored(entry, size, crc);
+        return new ScatteredEntry(entry, null, path, false);
+    }
+
+    private static void setStored(ZipArchiveEntry entry, long size, CRC32 crc) {
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+    }
+
+    private static ScatteredEntry deflate(ZipArchiveEntry entry, Path path) throws IOException {
+        final boolean inMemory = Files.size(path) <= IN_MEMORY_THRESHOLD;
+        final ByteArrayOutputStream bytes = inMemory ? new ByteArrayOutputStream() : null;
+        final Path tempFile = inMemory ? null : Files.createTempFile("zip-entry", ".deflated");
+
+        final CRC32 crc = new CRC32();
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (final InputStream in = Files.newInputStream(path);
+                final OutputStream sink = inMemory ? bytes : Files.newOutputStream(tempFile);
+                final DeflaterOutputStream out = new DeflaterOutputStream(sink, deflater, BUFFER_SIZE)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+            out.finish();
+
+            entry.setMethod(ZipEntry.DEFLATED);
+            entry.setSize(deflater.getBytesRead());
+            entry.setCompressedSize(deflater.getBytesWritten());
+            entry.setCrc(crc.getValue());
+        } catch (IOException | RuntimeException e) {
+            if (tempFile != null) {
+                Files.deleteIfExists(tempFile);
+            }
+            throw e;
+        } finally {
+            deflater.end();
+        }
+
+        return inMemory ? new ScatteredEntry(entry, bytes.toByteArray(), null, false)
+                : new ScatteredEntry(entry, null, tempFile, true);
+    }
+
+    private static boolean isCompressed(String entryName) {
+        return COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(entryName).toLowerCase(Locale.ROOT));
+    }
+
+    private static void gather(ZipArchiveOutputStream zip, Future<ScatteredEntry> future) throws IOException {
+        final ScatteredEntry scattered;
+        try {
+            scattered = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while compressing zip entries", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to compress zip entry", e.getCause());
+        }
+
+        try {
+            scattered.writeTo(zip);
+        } finally {
+            scattered.discard();
+        }
+    }
+
+    private static void discardAll(Deque<Future<ScatteredEntry>> inFlight) {
+        for (Future<ScatteredEntry> future : inFlight) {
+            if (!future.cancel(true) && future.isDone()) {
+                try {
+                    future.get().discard();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // already reported by the entry that failed first
+                }
+            }
+        }
+    }
+
+    private static final class ScatteredEntry {
+        private final ZipArchiveEntry entry;
+        private final byte[] content;
+        private final Path contentFile;
+        private final boolean temporary;
+
+        private ScatteredEntry(ZipArchiveEntry entry, byte[] content, Path contentFile, boolean temporary) {
+            this.entry = entry;
+            this.content = content;
+            this.contentFile = contentFile;
+            this.temporary = temporary;
+        }
+
+        private void writeTo(ZipArchiveOutputStream zip) throws IOException {
+            if (content == null && contentFile == null) {
+                zip.putArchiveEntry(entry);
+                zip.closeArchiveEntry();
+                return;
+            }
+            try (final InputStream raw = content != null ? new ByteArrayInputStream(content)
+                    : Files.newInputStream(contentFile)) {
+                zip.addRawArchiveEntry(entry, raw);
+            }
+        }
+
+        private void discard() {
+            if (temporary) {
+                try {
+                    Files.deleteIfExists(contentFile);
+                } catch (IOException e) {
+                    log.debug("Failed to delete temporary zip entry {}", contentFile, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Values keyed by string prefixes. Looking up an input visits only the values whose prefix the input starts with, in
+ * time proportional to the length of the input rather than to the number of prefixes.
+ * <p>
+ * {@link #ANY} in a prefix matches any character, like {@code .} in a regular expression.
+ *
+ * @param <T> type of the values
+ */
+final class PrefixTrie<T> {
+    /**
+     * A noncharacter, so that it never occurs in a real input
+     */
+    static final char ANY = '\uFFFF';
+
+    private final Node<T> root = new Node<>();
+
+    void put(String prefix, T value) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node<>());
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * @param input the input to look up
+     * @param condition condition to test the values with
+     * @return the first value stored under a prefix of the input that satisfies the condition, null if there is none
+     */
+    T findFirst(String input, Predicate<? super T> condition) {
+        return findFirst(root, input, 0, condition);
+    }
+
+    private static <T> T findFirst(Node<T> node, String input, int position, Predicate<? super T> condition) {
+        for (int i = position;; i++) {
+            for (T value : node.values) {
+                if (condition.test(value)) {
+                    return value;
+                }
+            }
+            if (i == input.length()) {
+                return null;
+            }
+            Node<T> any = node.children.get(ANY);
+            if (any != null) {
+                T found = findFirst(any, input, i + 1, condition);
+                if (found != null) {
+                    return found;
+                }
+            }
+            node = node.children.get(input.charAt(i));
+            if (node == null) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final List<T> values = new ArrayList<>(1);
+    }
+}
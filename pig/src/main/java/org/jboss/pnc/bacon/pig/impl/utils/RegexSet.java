@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A set of regular expressions compiled once for matching many inputs, e.g. the {@code excludeArtifacts} of the
+ * repository generation against all the artifacts of a product.
+ * <p>
+ * Regular expressions without any special characters are looked up in a hash map and the ones consisting of a literal
+ * followed by {@code .*} in a prefix trie. The remaining ones are compiled and only tried on the inputs starting with
+ * their literal prefix, if they have one. A {@code .} not followed by a quantifier, as in {@code org.jboss:.*}, is kept
+ * in the prefix as a single character wildcard.
+ */
+public final class RegexSet {
+    private static final RegexSet EMPTY = new RegexSet();
+
+    private static final String SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String QUANTIFIERS = "?*+{";
+    private static final String MATCH_ALL = ".*";
+
+    private final Map<String, String> exact = new HashMap<>();
+    private final PrefixTrie<Rule> byPrefix = new PrefixTrie<>();
+    private int size;
+
+    private RegexSet() {
+    }
+
+    /**
+     * @param regexes regular expressions, may be null
+     * @return set of the regular expressions
+     */
+    public static RegexSet of(Collection<String> regexes) {
+        if (regexes == null || regexes.isEmpty()) {
+            return EMPTY;
+        }
+        RegexSet set = new RegexSet();
+        regexes.forEach(set::add);
+        return set;
+    }
+
+    private void add(String regex) {
+        size++;
+        int end = literalPrefixEnd(regex);
+        String prefix = unescape(regex.substring(0, end));
+        String rest = regex.substring(end);
+        boolean literal = prefix.indexOf(PrefixTrie.ANY) < 0;
+        if (literal && rest.isEmpty()) {
+            exact.putIfAbsent(prefix, regex);
+        } else if (literal && rest.equals(MATCH_ALL)) {
+            byPrefix.put(prefix, new Rule(regex, null));
+        } else {
+            byPrefix.put(prefix, new Rule(regex, Pattern.compile(regex)));
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param input the input to match
+     * @return true if any of the regular expressions matches the whole input
+     */
+    public boolean matches(String input) {
+        return findMatch(input) != null;
+    }
+
+    /**
+     * @param input the input to match
+     * @return a regular expression matching the whole input, null if there is none
+     */
+    public String findMatch(String input) {
+        String exactMatch = exact.get(input);
+        if (exactMatch != null) {
+            return exactMatch;
+        }
+        Rule rule = byPrefix.findFirst(input, r -> r.pattern == null || r.pattern.matcher(input).matches());
+        return rule == null ? null : rule.source;
+    }
+
+    /**
+     * Find the end of the literal every input matched by the regular expression has to start with. The literal may
+     * contain {@code .} wildcards.
+     *
+     * @param regex the regular expression
+     * @return index in {@code regex} where the literal prefix ends, 0 if the regular expression contains an alternation
+     */
+    static int literalPrefixEnd(String regex) {
+        if (hasAlternation(regex)) {
+            return 0;
+        }
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int length = 1;
+            if (c == '\\') {
+                // only escaped special characters are literals, \d, \Q, \1 etc. are not
+                if (i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    break;
+                }
+                length = 2;
+            } else if (c != '.' && SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
+            if (i + length < regex.length() && QUANTIFIERS.indexOf(regex.charAt(i + length)) >= 0) {
+                // the character is optional or repeated, it is not a part of the literal
+                break;
+            }
+            i += length;
+        }
+        return i;
+    }
+
+    private static String unescape(String literal) {
+        StringBuilder result = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '\\') {
+                c = literal.charAt(++i);
+            } else if (c == '.') {
+                c = PrefixTrie.ANY;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    private static boolean hasAlternation(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '|') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "RegexSet [size=" + size + "]";
+    }
+
+    private static final class Rule {
+        private final String source;
+        /**
+         * null if the rule matches anything starting with its prefix, the inputs are single line identifiers
+         */
+        private final Pattern pattern;
+
+        private Rule(String source, Pattern pattern) {
+            this.source = source;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.jboss.pnc.bacon.pig.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PigContextSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadSectionsWrittenBefore() {
+        Path file = tempDir.resolve("pig-context.bin");
+        byte[] big = "x".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+        PigContextSnapshot.empty(file).write(Map.of("core", bytes("{}"), "checksums", big));
+
+        PigContextSnapshot snapshot = PigContextSnapshot.open(file);
+
+        assertThat(snapshot.read("core")).isEqualTo(bytes("{}"));
+        assertThat(snapshot.read("checksums")).isEqualTo(big);
+        assertThat(snapshot.has("builds")).isFalse();
+        assertThat(snapshot.read("builds")).isNull();
+    }
+
+    @Test
+    void shouldAppendOnlyChangedSections() throws IOException {
+        Path file = tempDir.resolve("pig-context.bin");
+        PigContextSnapshot snapshot = PigContextSnapshot.empty(file);
+        snapshot.write(Map.of("core", bytes("first"), "builds", bytes("builds")));
+        long size = Files.size(file);
+
+        snapshot.write(Map.of("builds", bytes("builds")));
+        assertThat(Files.size(file)).isEqualTo(size);
+
+        snapshot.write(Map.of("core", bytes("second")));
+        assertThat(Files.size(file)).isGreaterThan(size);
+
+        PigContextSnapshot reopened = PigContextSnapshot.open(file);
+        assertThat(reopened.read("core")).isEqualTo(bytes("second"));
+        assertThat(reopened.read("builds")).isEqualTo(bytes("builds"));
+    }
+
+    @Test
+    void shouldIgnoreTruncatedEnd() throws IOException {
+        Path file = tempDir.resolve("pig-context.bin");
+        PigContextSnapshot snapshot = PigContextSnapshot.empty(file);
+        snapshot.write(Map.of("core", bytes("first")));
+        long size = Files.size(file);
+        snapshot.write(Map.of("core", bytes("second")));
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3));
+
+        PigContextSnapshot reopened = PigContextSnapshot.open(file);
+        assertThat(reopened.read("core")).isEqualTo(bytes("first"));
+
+        reopened.write(Map.of("builds", bytes("builds")));
+        PigContextSnapshot rewritten = PigContextSnapshot.open(file);
+        assertThat(rewritten.read("core")).isEqualTo(bytes("first"));
+        assertThat(rewritten.read("builds")).isEqualTo(bytes("builds"));
+        assertThat(Files.size(file)).isGreaterThan(size);
+    }
+
+    @Test
+    void shouldCompactOutdatedSections() throws IOException {
+        Path file = tempDir.resolve("pig-context.bin");
+        PigContextSnapshot snapshot = PigContextSnapshot.empty(file);
+        snapshot.write(Map.of("core", bytes("core")));
+        for (int i = 0; i < 30; i++) {
+            // random content does not deflate
+            byte[] checksums = new byte[100_000];
+            new Random(i).nextBytes(checksums);
+            snapshot.write(Map.of("checksums", checksums));
+        }
+
+        assertThat(Files.size(file)).isLessThan(2_500_000);
+        assertThat(PigContextSnapshot.open(file).read("core")).isEqualTo(bytes("core"));
+    }
+
+    @Test
+    void shouldStartEmptyForUnknownFormat() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("pig-context.bin"), "{\"configSha\": \"abc\"}");
+
+        PigContextSnapshot snapshot = PigContextSnapshot.open(file);
+
+        assertThat(snapshot.has("core")).isFalse();
+        snapshot.write(Map.of("core", bytes("core")));
+        assertThat(PigContextSnapshot.open(file).read("core")).isEqualTo(bytes("core"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
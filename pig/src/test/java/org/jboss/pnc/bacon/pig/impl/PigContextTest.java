@@ -1,9 +1,14 @@
 package org.jboss.pnc.bacon.pig.impl;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,4 +27,68 @@ class PigContextTest {
         assertTrue(pigContext.getPrefix().endsWith(pigContext.getPigConfiguration().getOutputSuffix()));
         assertTrue(pigContext.getPrefix().contains(pigContext.getPigConfiguration().getVersion()));
     }
+
+    @Test
+    void testStageCheckpoints(@TempDir Path tempDir) throws IOException {
+        Path resourcesFolderPath = Paths.get("src", "test", "resources");
+        PigContext pigContext = new PigContext();
+        pigContext.initConfig(resourcesFolderPath, "targetPath", null, null);
+        pigContext.setContextLocation(tempDir.resolve("pig-context.json").toString());
+        Path output = Files.writeString(tempDir.resolve("output.zip"), "first");
+
+        String inputHash = pigContext.hashStageInputs(true);
+        assertEquals(inputHash, pigContext.hashStageInputs(true));
+        assertNotEquals(inputHash, pigContext.hashStageInputs(false));
+        assertFalse(pigContext.isStageUpToDate("stage", inputHash));
+
+        pigContext.completeStage("stage", inputHash, List.of(output.toString()));
+        assertTrue(pigContext.isStageUpToDate("stage", inputHash));
+        assertFalse(pigContext.isStageUpToDate("stage", pigContext.hashStageInputs(false)));
+
+        Files.writeString(output, "second");
+        assertFalse(pigContext.isStageUpToDate("stage", inputHash));
+
+        pigContext.completeStage("stage", inputHash, List.of(output.toString()));
+        Files.delete(output);
+        assertFalse(pigContext.isStageUpToDate("stage", inputHash));
+    }
+
+    @Test
+    void testStageWithMissingOutput(@TempDir Path tempDir) throws IOException {
+        Path resourcesFolderPath = Paths.get("src", "test", "resources");
+        PigContext pigContext = new PigContext();
+        pigContext.initConfig(resourcesFolderPath, "targetPath", null, null);
+        pigContext.setContextLocation(tempDir.resolve("pig-context.bin").toString());
+        Path produced = Files.writeString(tempDir.resolve("sources.zip"), "sources");
+        Path missing = tempDir.resolve("javadoc.zip");
+
+        String inputHash = pigContext.hashStageInputs();
+        pigContext.completeStage("stage", inputHash, List.of(produced.toString(), missing.toString()));
+
+        assertFalse(pigContext.isStageUpToDate("stage", inputHash));
+        assertTrue(Files.exists(tempDir.resolve("pig-context.bin")));
+    }
+
+    @Test
+    void testSnapshotSections(@TempDir Path tempDir) {
+        Path resourcesFolderPath = Paths.get("src", "test", "resources");
+        PigContext pigContext = new PigContext();
+        pigContext.initConfig(resourcesFolderPath, "targetPath", null, null);
+        pigContext.setContextLocation(tempDir.resolve("pig-context.bin").toString());
+        pigContext.setFullVersion("1.0.0.CR1");
+        pigContext.setChecksums(Map.of("org.acme:acme:1.0:jar", List.of("abc")));
+        pigContext.storeContext();
+
+        PigContext read = PigContext.readSnapshot(tempDir.resolve("pig-context.bin"));
+        assertEquals("1.0.0.CR1", read.getFullVersion());
+        assertNull(read.getBuilds());
+        assertEquals(List.of("abc"), List.copyOf(read.getChecksums().get("org.acme:acme:1.0:jar")));
+
+        read.setContextLocation(tempDir.resolve("pig-context.bin").toString());
+        read.setFullVersion("1.0.0.CR2");
+        read.storeContext();
+        PigContext reread = PigContext.readSnapshot(tempDir.resolve("pig-context.bin"));
+        assertEquals("1.0.0.CR2", reread.getFullVersion());
+        assertEquals(List.of("abc"), List.copyOf(reread.getChecksums().get("org.acme:acme:1.0:jar")));
+    }
 }
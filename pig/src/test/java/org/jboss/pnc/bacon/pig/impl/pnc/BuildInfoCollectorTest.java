@@ -0,0 +1,214 @@
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+import org.jboss.pnc.bacon.common.Telemetry;
+import org.jboss.pnc.bacon.pig.impl.config.GroupBuildInfo;
+import org.jboss.pnc.client.ArtifactClient;
+import org.jboss.pnc.client.BuildClient;
+import org.jboss.pnc.client.BuildConfigurationClient;
+import org.jboss.pnc.client.GroupBuildClient;
+import org.jboss.pnc.client.GroupConfigurationClient;
+import org.jboss.pnc.client.RemoteCollection;
+import org.jboss.pnc.client.RemoteResourceException;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildConfiguration;
+import org.jboss.pnc.dto.GroupBuild;
+import org.jboss.pnc.enums.BuildStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BuildInfoCollectorTest {
+
+    private BuildClient buildClient;
+    private BuildConfigurationClient buildConfigClient;
+    private GroupBuildClient groupBuildClient;
+    private GroupConfigurationClient groupConfigurationClient;
+    private ArtifactClient artifactClient;
+    private BuildInfoCollector collector;
+
+    @BeforeEach
+    void setup() {
+        buildClient = mock(BuildClient.class);
+        buildConfigClient = mock(BuildConfigurationClient.class);
+        groupBuildClient = mock(GroupBuildClient.class);
+        groupConfigurationClient = mock(GroupConfigurationClient.class);
+        artifactClient = mock(ArtifactClient.class);
+        collector = new BuildInfoCollector(
+                buildClient,
+                buildConfigClient,
+                groupBuildClient,
+                groupConfigurationClient,
+                artifactClient);
+    }
+
+    @Test
+    void shouldCollectGroupBuildWithBulkQueries() throws Exception {
+        Build built = build("101", "first", BuildStatus.SUCCESS, null);
+        Build original = build("102", "second", BuildStatus.SUCCESS, null);
+        Build notRebuilt = build("103", "second", BuildStatus.NO_REBUILD_REQUIRED, original);
+        List<Artifact> artifacts = List.of(artifact("1", built), artifact("2", original), artifact("3", original));
+        GroupBuild groupBuild = GroupBuild.builder().id("1").build();
+
+        when(groupBuildClient.getBuilds(eq("1"), any())).thenReturn(remoteCollection(List.of(built, notRebuilt)));
+        when(buildClient.getAll(any(), anyList(), any(), eq(Optional.of("id=in=(102)"))))
+                .thenReturn(remoteCollection(List.of(original)));
+        when(artifactClient.getAll(any(), any(), any(), any(), eq(Optional.of("build.id=in=(101,102)"))))
+                .thenReturn(remoteCollection(artifacts));
+
+        GroupBuildInfo info = collector.getBuildsFromGroupBuild(groupBuild);
+
+        assertThat(info.getBuilds()).containsOnlyKeys("first", "second");
+        assertThat(info.getBuilds().get("first").getBuiltArtifacts()).hasSize(1);
+        assertThat(info.getBuilds().get("second").getId()).isEqualTo("102");
+        assertThat(info.getBuilds().get("second").getBuiltArtifacts()).hasSize(2);
+        verify(buildClient, never()).getSpecific(anyString());
+        verify(buildClient, never()).getBuiltArtifacts(anyString());
+    }
+
+    @Test
+    void shouldFallBackToQueryPerBuildWhenBulkQueryFails() throws Exception {
+        Build built = build("201", "first", BuildStatus.SUCCESS, null);
+        List<Artifact> artifacts = List.of(artifact("4", built));
+        GroupBuild groupBuild = GroupBuild.builder().id("2").build();
+
+        when(groupBuildClient.getBuilds(eq("2"), any())).thenReturn(remoteCollection(List.of(built)));
+        when(artifactClient.getAll(any(), any(), any(), any(), any())).thenThrow(RemoteResourceException.class);
+        when(buildClient.getBuiltArtifacts("201")).thenReturn(remoteCollection(artifacts));
+
+        GroupBuildInfo info = collector.getBuildsFromGroupBuild(groupBuild);
+
+        assertThat(info.getBuilds().get("first").getBuiltArtifacts()).hasSize(1);
+    }
+
+    @Test
+    void shouldFetchEachBuildWhenBulkBuildQueryFails() throws Exception {
+        Build original = build("212", "second", BuildStatus.SUCCESS, null);
+        Build notRebuilt = build("213", "second", BuildStatus.NO_REBUILD_REQUIRED, original);
+        GroupBuild groupBuild = GroupBuild.builder().id("3").build();
+
+        when(groupBuildClient.getBuilds(eq("3"), any())).thenReturn(remoteCollection(List.of(notRebuilt)));
+        when(buildClient.getAll(any(), anyList(), any(), any())).thenThrow(RemoteResourceException.class);
+        when(buildClient.getSpecific("212")).thenReturn(original);
+        when(artifactClient.getAll(any(), any(), any(), any(), any()))
+                .thenReturn(remoteCollection(List.of(artifact("5", original))));
+
+        GroupBuildInfo info = collector.getBuildsFromGroupBuild(groupBuild);
+
+        assertThat(info.getBuilds().get("second").getId()).isEqualTo("212");
+        assertThat(info.getBuilds().get("second").getBuiltArtifacts()).hasSize(1);
+        verify(buildClient, times(1)).getSpecific("212");
+    }
+
+    @Test
+    void shouldCollectLatestBuildsOfGroupConfigurationConcurrently() throws Exception {
+        List<BuildConfiguration> configs = new ArrayList<>();
+        List<Artifact> artifacts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String name = "config-" + i;
+            Build build = build(String.valueOf(400 + i), name, BuildStatus.SUCCESS, null);
+            configs.add(BuildConfiguration.builder().id(String.valueOf(i)).name(name).build());
+            artifacts.add(artifact(String.valueOf(600 + i), build));
+            when(buildConfigClient.getBuilds(eq(String.valueOf(i)), any(), any(), any()))
+                    .thenReturn(remoteCollection(List.of(build)));
+        }
+        GroupBuild groupBuild = GroupBuild.builder().id("4").status(BuildStatus.SUCCESS).build();
+
+        when(groupConfigurationClient.getBuildConfigs("4")).thenReturn(remoteCollection(configs));
+        when(groupConfigurationClient.getAllGroupBuilds(eq("4"), any(), any()))
+                .thenReturn(remoteCollection(List.of(groupBuild)));
+        when(artifactClient.getAll(any(), any(), any(), any(), any())).thenReturn(remoteCollection(artifacts));
+
+        GroupBuildInfo info = collector.getBuildsFromLatestGroupConfiguration("4", false);
+
+        assertThat(info.getGroupBuild()).isSameAs(groupBuild);
+        assertThat(info.getBuilds()).hasSize(20);
+        for (int i = 0; i < 20; i++) {
+            PncBuild build = info.getBuilds().get("config-" + i);
+            assertThat(build.getId()).isEqualTo(String.valueOf(400 + i));
+            assertThat(build.getBuiltArtifacts()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldFetchSpecificBuildOnce() throws Exception {
+        Build build = build("301", "first", BuildStatus.SUCCESS, null);
+        when(buildClient.getSpecific("301")).thenReturn(build);
+
+        assertThat(collector.getSpecificBuild("301")).isSameAs(build);
+        assertThat(collector.getSpecificBuild("301")).isSameAs(build);
+
+        verify(buildClient, times(1)).getSpecific("301");
+    }
+
+    @Test
+    void shouldCountFailedRequestsInTelemetry() throws Exception {
+        when(buildClient.getSpecific("302")).thenThrow(RemoteResourceException.class);
+        long failuresBefore = failures("pnc getBuild");
+
+        assertThatThrownBy(() -> collector.getSpecificBuild("302")).hasMessageContaining("Failed to get build 302");
+
+        assertThat(failures("pnc getBuild")).isEqualTo(failuresBefore + 1);
+    }
+
+    static long failures(String call) {
+        return Telemetry.getSummary()
+                .stream()
+                .filter(summary -> summary.getCall().equals(call))
+                .mapToLong(Telemetry.CallSummary::getFailures)
+                .sum();
+    }
+
+    private static Build build(String id, String name, BuildStatus status, Build noRebuildCause) {
+        Build build = mock(Build.class, RETURNS_DEEP_STUBS);
+        when(build.getId()).thenReturn(id);
+        when(build.getStatus()).thenReturn(status);
+        when(build.getBuildConfigRevision().getName()).thenReturn(name);
+        when(build.getNoRebuildCause()).thenReturn(noRebuildCause);
+        return build;
+    }
+
+    private static Artifact artifact(String id, Build build) {
+        Artifact artifact = mock(Artifact.class, RETURNS_DEEP_STUBS);
+        when(artifact.getId()).thenReturn(id);
+        when(artifact.getBuild()).thenReturn(build);
+        return artifact;
+    }
+
+    private static <T> RemoteCollection<T> remoteCollection(List<T> items) {
+        return new RemoteCollection<T>() {
+            @Override
+            public int size() {
+                return items.size();
+            }
+
+            @Override
+            public Collection<T> getAll() {
+                return items;
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return items.iterator();
+            }
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuildLogStoreTest {
+
+    @TempDir
+    Path logsDir;
+
+    private final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+    private BuildLogStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new BuildLogStore(logsDir, (buildId, sink) -> {
+            fetches.computeIfAbsent(buildId, id -> new AtomicInteger()).incrementAndGet();
+            for (int i = 0; i < 3; i++) {
+                sink.accept(buildId + " line " + i);
+            }
+        });
+    }
+
+    @Test
+    void shouldPassEveryLineToAllVisitors() {
+        CollectingVisitor first = new CollectingVisitor(null);
+        CollectingVisitor second = new CollectingVisitor(null);
+
+        store.visitLogs(Arrays.asList(build("1", "a"), build("2", "b")), Arrays.asList(first, second));
+
+        for (CollectingVisitor visitor : Arrays.asList(first, second)) {
+            assertThat(visitor.lines.get("1")).containsExactly("1 line 0", "1 line 1", "1 line 2");
+            assertThat(visitor.lines.get("2")).containsExactly("2 line 0", "2 line 1", "2 line 2");
+            assertThat(visitor.ended).containsExactly("1", "2");
+        }
+    }
+
+    @Test
+    void shouldFetchEveryLogOnce() {
+        List<PncBuild> builds = Arrays.asList(build("1", "a"), build("2", "b"));
+
+        store.visitLogs(builds, Arrays.asList(new CollectingVisitor(null)));
+        store.visitLogs(builds, Arrays.asList(new CollectingVisitor(null)));
+        assertThat(store.readLines("1")).containsExactly("1 line 0", "1 line 1", "1 line 2");
+        assertThat(new BuildLogStore(logsDir, (buildId, sink) -> {
+            throw new IllegalStateException("should be read from the disk");
+        }).readLines("2")).containsExactly("2 line 0", "2 line 1", "2 line 2");
+
+        assertThat(fetches.get("1")).hasValue(1);
+        assertThat(fetches.get("2")).hasValue(1);
+    }
+
+    @Test
+    void shouldOnlyVisitAcceptedBuilds() {
+        CollectingVisitor onlyB = new CollectingVisitor("b");
+
+        store.visitLogs(Arrays.asList(build("1", "a"), build("2", "b")), Arrays.asList(onlyB));
+
+        assertThat(onlyB.lines).containsOnlyKeys("2");
+        assertThat(onlyB.ended).containsExactly("2");
+        assertThat(fetches).containsOnlyKeys("2");
+    }
+
+    @Test
+    void shouldNotLeavePartialLogWhenFetchFails() {
+        BuildLogStore failing = new BuildLogStore(logsDir, (buildId, sink) -> {
+            sink.accept("first line");
+            throw new IllegalStateException("bifrost went away");
+        });
+        long failuresBefore = BuildInfoCollectorTest.failures("bifrost getBuildLog");
+
+        assertThatThrownBy(() -> failing.readLines("3")).hasMessageContaining("bifrost went away");
+        assertThat(BuildInfoCollectorTest.failures("bifrost getBuildLog")).isEqualTo(failuresBefore + 1);
+
+        assertThat(logsDir.toFile().list()).isEmpty();
+        assertThat(store.readLines("3")).containsExactly("3 line 0", "3 line 1", "3 line 2");
+    }
+
+    private static PncBuild build(String id, String name) {
+        PncBuild build = new PncBuild();
+        build.setId(id);
+        build.setName(name);
+        return build;
+    }
+
+    private static class CollectingVisitor implements BuildLogVisitor {
+        private final String acceptedName;
+        private final Map<String, List<String>> lines = new HashMap<>();
+        private final List<String> ended = new ArrayList<>();
+
+        private CollectingVisitor(String acceptedName) {
+            this.acceptedName = acceptedName;
+        }
+
+        @Override
+        public boolean accepts(PncBuild build) {
+            return acceptedName == null || acceptedName.equals(build.getName());
+        }
+
+        @Override
+        public void visit(PncBuild build, String line) {
+            lines.computeIfAbsent(build.getId(), id -> new ArrayList<>()).add(line);
+        }
+
+        @Override
+        public void end(PncBuild build) {
+            ended.add(build.getId());
+        }
+    }
+}
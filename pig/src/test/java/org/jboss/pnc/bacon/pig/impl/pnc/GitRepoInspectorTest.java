@@ -0,0 +1,66 @@
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitRepoInspectorTest {
+
+    private static final String BRANCH = "main";
+    private static final String TAG = "1.0.0.redhat-00001";
+
+    @TempDir
+    Path upstreamDir;
+
+    @TempDir
+    Path mirrorsDir;
+
+    private Git upstream;
+    private String upstreamUrl;
+    private RevCommit base;
+    private RevCommit tagged;
+
+    @BeforeEach
+    void setup() throws Exception {
+        upstream = Git.init().setDirectory(upstreamDir.toFile()).setInitialBranch(BRANCH).call();
+        base = upstream.commit().setMessage("base").setAllowEmpty(true).call();
+        tagged = upstream.commit().setMessage("alignment").setAllowEmpty(true).call();
+        upstream.tag().setName(TAG).setAnnotated(true).setMessage("build").setObjectId(tagged).call();
+        upstreamUrl = upstreamDir.toUri().toString();
+    }
+
+    @Test
+    void shouldNotBeModifiedWhenBranchPointsToTheTaggedCommitOrItsParent() throws Exception {
+        assertThat(GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, BRANCH, TAG)).isFalse();
+        assertThat(GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, base.getName(), TAG)).isFalse();
+    }
+
+    @Test
+    void shouldBeModifiedWhenBranchMovedPastTheTag() throws Exception {
+        upstream.commit().setMessage("fix").setAllowEmpty(true).call();
+
+        assertThat(GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, BRANCH, TAG)).isTrue();
+        assertThat(GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, BRANCH, "missing-tag")).isTrue();
+    }
+
+    @Test
+    void shouldReuseTheMirror() throws Exception {
+        upstream.commit().setMessage("fix").setAllowEmpty(true).call();
+        GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, BRANCH, TAG);
+
+        RevCommit next = upstream.commit().setMessage("another fix").setAllowEmpty(true).call();
+        String nextTag = "1.0.0.redhat-00002";
+        upstream.tag().setName(nextTag).setAnnotated(true).setMessage("build").setObjectId(next).call();
+
+        assertThat(GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, BRANCH, nextTag)).isFalse();
+        assertThat(GitRepoInspector.isModifiedSince(mirrorsDir, upstreamUrl, tagged.getName(), nextTag)).isTrue();
+        assertThat(mirrorsDir.toFile().listFiles(File::isDirectory)).hasSize(1);
+    }
+}
@@ -0,0 +1,99 @@
+package org.jboss.pnc.bacon.pig.impl.pnc;
+
+import org.jboss.pnc.client.Configuration;
+import org.jboss.pnc.client.GroupBuildClient;
+import org.jboss.pnc.client.RemoteResourceException;
+import org.jboss.pnc.dto.GroupBuild;
+import org.jboss.pnc.enums.BuildStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupBuildWaiterTest {
+
+    private static final String GROUP_BUILD_ID = "42";
+
+    private GroupBuildClient groupBuildClient;
+
+    @BeforeEach
+    void setup() {
+        groupBuildClient = mock(GroupBuildClient.class);
+    }
+
+    @Test
+    void shouldPollUntilFinalStatus() throws Exception {
+        when(groupBuildClient.getSpecific(GROUP_BUILD_ID)).thenReturn(groupBuild(BuildStatus.BUILDING))
+                .thenThrow(RemoteResourceException.class)
+                .thenReturn(groupBuild(BuildStatus.BUILDING))
+                .thenReturn(groupBuild(BuildStatus.SUCCESS));
+        GroupBuildWaiter waiter = new GroupBuildWaiter(
+                groupBuildClient,
+                id -> null,
+                Duration.ofMillis(1),
+                Duration.ofMillis(4),
+                Duration.ofMillis(4));
+
+        GroupBuild groupBuild = waiter.waitForFinalStatus(GROUP_BUILD_ID);
+
+        assertEquals(BuildStatus.SUCCESS, groupBuild.getStatus());
+        verify(groupBuildClient, times(4)).getSpecific(GROUP_BUILD_ID);
+    }
+
+    @Test
+    void shouldCheckStatusAsSoonAsNotified() throws Exception {
+        CompletableFuture<Object> notification = new CompletableFuture<>();
+        when(groupBuildClient.getSpecific(GROUP_BUILD_ID)).thenAnswer(invocation -> {
+            notification.complete(null);
+            return groupBuild(BuildStatus.BUILDING);
+        }).thenReturn(groupBuild(BuildStatus.FAILED));
+        GroupBuildWaiter waiter = new GroupBuildWaiter(
+                groupBuildClient,
+                id -> notification,
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(10));
+
+        GroupBuild groupBuild = waiter.waitForFinalStatus(GROUP_BUILD_ID);
+
+        assertEquals(BuildStatus.FAILED, groupBuild.getStatus());
+        verify(groupBuildClient, times(2)).getSpecific(GROUP_BUILD_ID);
+    }
+
+    @Test
+    void shouldFallBackToPollingWhenNotificationsFail() throws Exception {
+        when(groupBuildClient.getSpecific(GROUP_BUILD_ID)).thenReturn(groupBuild(BuildStatus.BUILDING))
+                .thenReturn(groupBuild(BuildStatus.SUCCESS));
+        GroupBuildWaiter waiter = new GroupBuildWaiter(
+                groupBuildClient,
+                id -> CompletableFuture.failedFuture(new IllegalStateException("connection closed")),
+                Duration.ofMillis(1),
+                Duration.ofMillis(1),
+                Duration.ofMinutes(10));
+
+        assertEquals(BuildStatus.SUCCESS, waiter.waitForFinalStatus(GROUP_BUILD_ID).getStatus());
+    }
+
+    @Test
+    void shouldGenerateNotificationsUrl() {
+        assertEquals(
+                "wss://pnc.example.com/pnc-rest/notifications",
+                GroupBuildWaiter.notificationsUrl(
+                        Configuration.builder().protocol("https").host("pnc.example.com").build()));
+        assertEquals(
+                "ws://localhost:8080/pnc-rest/notifications",
+                GroupBuildWaiter.notificationsUrl(
+                        Configuration.builder().protocol("http").host("localhost").port(8080).build()));
+    }
+
+    private static GroupBuild groupBuild(BuildStatus status) {
+        return GroupBuild.builder().id(GROUP_BUILD_ID).status(status).build();
+    }
+}
@@ -0,0 +1,51 @@
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArtifactIndexTest {
+
+    private static final GAV JAR = new GAV("org.acme", "lib", "1.0.0.redhat-00001", "jar");
+    private static final GAV SOURCES = JAR.toSourcesJar();
+    private static final GAV POM = JAR.toPom();
+    private static final GAV OTHER_JAR = new GAV("org.acme", "other", "1.0.0.redhat-00001", "jar");
+    private static final GAV ONLY_POM = new GAV("org.acme", "parent", "1.0.0.redhat-00001", "pom");
+
+    @Test
+    void shouldFindMissingCompanionsOfJars() {
+        ArtifactIndex index = new ArtifactIndex(List.of(JAR, SOURCES, POM, OTHER_JAR, ONLY_POM));
+
+        assertThat(toGapvc(index.findMissing(false))).containsExactlyInAnyOrder(
+                OTHER_JAR.toSourcesJar().toGapvc(),
+                OTHER_JAR.toPom().toGapvc());
+        assertThat(toGapvc(index.findMissing(true))).containsExactlyInAnyOrder(
+                JAR.toJavadocJar().toGapvc(),
+                OTHER_JAR.toSourcesJar().toGapvc(),
+                OTHER_JAR.toPom().toGapvc(),
+                OTHER_JAR.toJavadocJar().toGapvc());
+    }
+
+    @Test
+    void shouldOnlyFindMissingCompanionsOfPlainJars() {
+        // a pom-only artifact and a jar known only by its sources don't need any companion
+        ArtifactIndex index = new ArtifactIndex(List.of(ONLY_POM, OTHER_JAR.toSourcesJar()));
+
+        assertThat(index.findMissing(true)).isEmpty();
+    }
+
+    @Test
+    void shouldIndexVariantsRegardlessOfOrder() {
+        ArtifactIndex index = new ArtifactIndex(List.of(SOURCES, POM, JAR));
+
+        assertThat(index.findMissing(false)).isEmpty();
+    }
+
+    private static List<String> toGapvc(List<GAV> gavs) {
+        return gavs.stream().map(GAV::toGapvc).collect(Collectors.toList());
+    }
+}
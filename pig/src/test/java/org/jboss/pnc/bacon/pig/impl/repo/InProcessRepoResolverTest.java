@@ -0,0 +1,92 @@
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import io.quarkus.bootstrap.resolver.maven.MavenArtifactResolver;
+import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InProcessRepoResolverTest {
+
+    private static final String ACME = "org.acme";
+    private static final String VERSION = "1.0.0.redhat-00001";
+    private static final GAV BOM = new GAV(ACME, "acme-bom", VERSION, "pom");
+
+    @TempDir
+    Path workDir;
+
+    private File settingsXml;
+
+    private File repoDir;
+
+    @BeforeEach
+    void installTestPlatform() throws Exception {
+        Path remoteRepo = workDir.resolve("remote-repo");
+        TestPlatformBuilder.newInstance(workDir)
+                .newBom(ACME, "acme-bom", VERSION)
+                .addConstraint(ACME, "acme", VERSION)
+                .addConstraint(ACME, "acme-broken", VERSION)
+                .addConstraint("org.thirdparty", "common-lib", "2.0.0.redhat-00002")
+                .platform()
+                .installArtifactWithDependencies(ACME, "acme", VERSION)
+                .addDependency("org.thirdparty", "common-lib", "2.0.0.redhat-00002")
+                .platform()
+                .installArtifact(ACME, "acme", "sources", "jar", VERSION)
+                .installArtifact("org.thirdparty", "common-lib", "2.0.0.redhat-00002")
+                // a dependency which is not available in the repository
+                .installArtifactWithDependencies(ACME, "acme-broken", VERSION)
+                .addDependency(ACME, "acme-missing", VERSION)
+                .platform()
+                .setMavenResolver(
+                        MavenArtifactResolver.builder()
+                                .setLocalRepository(remoteRepo.toString())
+                                .setWorkspaceDiscovery(false)
+                                .build())
+                .build();
+
+        settingsXml = workDir.resolve("settings.xml").toFile();
+        Files.writeString(
+                settingsXml.toPath(),
+                "<settings>\n" + "  <profiles>\n" + "    <profile>\n" + "      <id>test</id>\n"
+                        + "      <repositories>\n" + "        <repository>\n" + "          <id>test</id>\n"
+                        + "          <url>" + remoteRepo.toUri() + "</url>\n" + "        </repository>\n"
+                        + "      </repositories>\n" + "    </profile>\n" + "  </profiles>\n"
+                        + "  <activeProfiles>\n" + "    <activeProfile>test</activeProfile>\n"
+                        + "  </activeProfiles>\n" + "</settings>\n");
+        repoDir = workDir.resolve("maven-repository").toFile();
+    }
+
+    @Test
+    void shouldDownloadBomEntriesWithDependenciesAndSources() {
+        new InProcessRepoResolver(settingsXml, repoDir)
+                .resolve(BOM, List.of(new GAV(ACME, "acme", VERSION, "jar")), false);
+
+        Path repo = repoDir.toPath();
+        assertThat(repo.resolve("org/acme/acme/" + VERSION + "/acme-" + VERSION + ".jar")).isRegularFile();
+        assertThat(repo.resolve("org/acme/acme/" + VERSION + "/acme-" + VERSION + ".pom")).isRegularFile();
+        assertThat(repo.resolve("org/acme/acme/" + VERSION + "/acme-" + VERSION + "-sources.jar")).isRegularFile();
+        // common-lib has no sources, which is not an error
+        assertThat(repo.resolve("org/thirdparty/common-lib/2.0.0.redhat-00002/common-lib-2.0.0.redhat-00002.jar"))
+                .isRegularFile();
+        assertThat(repo.resolve("org/acme/acme-broken")).doesNotExist();
+    }
+
+    @Test
+    void shouldReportEveryArtifactThatFailedToDownload() {
+        InProcessRepoResolver resolver = new InProcessRepoResolver(settingsXml, repoDir);
+        List<GAV> entries = List
+                .of(new GAV(ACME, "acme", VERSION, "jar"), new GAV(ACME, "acme-broken", VERSION, "jar"));
+
+        assertThatThrownBy(() -> resolver.resolve(BOM, entries, false))
+                .hasMessageContaining("Failed to download 1 artifacts")
+                .hasMessageContaining(ACME + ":acme-missing:jar:" + VERSION);
+    }
+}
@@ -59,6 +59,7 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
     private Path workDir;
     private File testMavenSettings;
+    private final List<MockedStatic<?>> staticMocks = new ArrayList<>();
 
     @BeforeEach
     void beforeEach() throws Exception {
@@ -75,6 +76,8 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
         if (testMavenSettings != null && testMavenSettings.exists()) {
             testMavenSettings.deleteOnExit();
         }
+        staticMocks.forEach(MockedStatic::close);
+        staticMocks.clear();
     }
 
     @AfterAll
@@ -84,7 +87,15 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
     @Test
     void resolveAndRepackageShouldGenerateRepository() throws Exception {
+        assertExpectedRepository(generateRepository(Map.of()));
+    }
 
+    /**
+     * Generate the repository of the test platform
+     *
+     * @param extraParameters repository generation parameters to add to the default ones
+     */
+    protected RepositoryData generateRepository(Map<String, String> extraParameters) throws Exception {
         mockPigContextAndMethods();
         mockIndySettingsFile();
 
@@ -175,7 +186,7 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
         PigConfiguration pigConfiguration = mockPigConfigurationAndMethods();
 
-        RepoGenerationData generationDataSpy = mockRepoGenerationDataAndMethods(pigConfiguration);
+        RepoGenerationData generationDataSpy = mockRepoGenerationDataAndMethods(pigConfiguration, extraParameters);
 
         Map<String, PncBuild> buildsSpy = mockBuildsAndMethods(generationDataSpy);
 
@@ -203,8 +214,10 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
         prepareFakeExtensionArtifactList(repoManagerSpy);
 
-        RepositoryData repoData = repoManagerSpy.prepare();
+        return repoManagerSpy.prepare();
+    }
 
+    protected void assertExpectedRepository(RepositoryData repoData) {
         Assertions.assertThat(repoData.getRepositoryPath())
                 .isEqualTo(workDir.resolve("rh-sample-maven-repository.zip"));
 
@@ -237,6 +250,7 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
         PigContext pigContext = Mockito.mock(PigContext.class);
         doReturn(false).when(pigContext).isTempBuild();
         MockedStatic<PigContext> pigContextMockedStatic = Mockito.mockStatic(PigContext.class);
+        staticMocks.add(pigContextMockedStatic);
         pigContextMockedStatic.when(PigContext::get).thenReturn(pigContext);
     }
 
@@ -272,6 +286,7 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
         String pathToTestSettingsFile = testMavenSettings.getAbsolutePath();
         MockedStatic<Indy> indyMockedStatic = Mockito.mockStatic(Indy.class);
+        staticMocks.add(indyMockedStatic);
         indyMockedStatic.when(() -> Indy.getConfiguredIndySettingsXmlPath(false)).thenReturn(pathToTestSettingsFile);
     }
 
@@ -322,9 +337,11 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
     protected abstract RepoGenerationStrategy getRepoGenerationStrategy();
 
-    private RepoGenerationData mockRepoGenerationDataAndMethods(PigConfiguration pigConfiguration) {
+    private RepoGenerationData mockRepoGenerationDataAndMethods(
+            PigConfiguration pigConfiguration,
+            Map<String, String> extraParameters) {
         RepoGenerationData generationData = new RepoGenerationData();
-        generationData.setParameters(
+        Map<String, String> parameters = new HashMap<>(
                 Map.of(
                         "extensionsListUrl",
                         EXTENSIONS_LIST_URL,
@@ -337,6 +354,8 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
                         // we add the quarkus-bom to the default params, since it will have to be enabled for everyone
                         "bomGavs",
                         IO_QUARKUS_PLATFORM_TEST + ":quarkus-bom:1.1.1.redhat-00001"));
+        parameters.putAll(extraParameters);
+        generationData.setParameters(parameters);
 
         // this quarkus-bom step is simply to generate the repo for the quarkus-bom
         final RepoGenerationData quarkusBomStep = new RepoGenerationData();
@@ -373,6 +392,7 @@ public abstract class MultiStepBomBasedRepositoryTestBase {
 
     private void mockResourceUtilsMethods(Path configurationDirectory) {
         MockedStatic<ResourceUtils> resourceUtilsMockedStatic = Mockito.mockStatic(ResourceUtils.class);
+        staticMocks.add(resourceUtilsMockedStatic);
         resourceUtilsMockedStatic.when(
                 () -> ResourceUtils.getOverridableResource("/repository-example-settings.xml", configurationDirectory))
                 .thenReturn("fake-resource-name");
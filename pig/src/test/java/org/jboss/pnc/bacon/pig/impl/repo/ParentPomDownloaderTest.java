@@ -0,0 +1,83 @@
+package org.jboss.pnc.bacon.pig.impl.repo;
+
+import org.jboss.pnc.bacon.pig.impl.utils.GAV;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParentPomDownloaderTest {
+
+    @TempDir
+    Path repo;
+
+    @Test
+    void shouldDownloadNestedRedHatParents() throws IOException {
+        writePom(pomPath("org.acme", "app", "1.0.0.redhat-00001"), "org.acme", "app-parent", "1.0.0.redhat-00001");
+        writePom(
+                pomPath("org.acme", "app-parent", "1.0.0.redhat-00001"),
+                "org.acme",
+                "acme-parent",
+                "2.0.0.redhat-00002");
+        writePom(pomPath("org.acme", "community", "1.0.0"), "org.apache", "apache", "23");
+        writePom(pomPath("org.acme", "standalone", "1.0.0.redhat-00001"), null, null, null);
+        Path malformed = pomPath("org.acme", "broken", "1.0.0.redhat-00001");
+        Files.createDirectories(malformed.getParent());
+        Files.writeString(malformed, "<html><body><p>502 Bad Gateway</body></html>");
+
+        // the parents to be downloaded, acme-parent has a parent too
+        Map<String, String[]> remoteParents = Map.of(
+                "acme-parent",
+                new String[] { "org.acme", "acme-root", "3.0.0.redhat-00003" },
+                "acme-root",
+                new String[] { null, null, null });
+        List<String> downloaded = Collections.synchronizedList(new ArrayList<>());
+
+        ParentPomDownloader.addParentPoms(repo, gav -> {
+            downloaded.add(gav.toGapv());
+            String[] parent = remoteParents.get(gav.getArtifactId());
+            Path pom = pomPath(gav.getGroupId(), gav.getArtifactId(), gav.getVersion());
+            try {
+                writePom(pom, parent[0], parent[1], parent[2]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return pom;
+        });
+
+        assertThat(downloaded).containsExactly(
+                new GAV("org.acme", "acme-parent", "2.0.0.redhat-00002", "pom").toGapv(),
+                new GAV("org.acme", "acme-root", "3.0.0.redhat-00003", "pom").toGapv());
+        assertThat(pomPath("org.acme", "acme-root", "3.0.0.redhat-00003")).isRegularFile();
+    }
+
+    private Path pomPath(String groupId, String artifactId, String version) {
+        return repo.resolve(groupId.replace('.', '/'))
+                .resolve(artifactId)
+                .resolve(version)
+                .resolve(artifactId + "-" + version + ".pom");
+    }
+
+    private static void writePom(Path pom, String parentGroupId, String parentArtifactId, String parentVersion)
+            throws IOException {
+        String parent = parentGroupId == null ? ""
+                : "  <parent>\n" + "    <groupId>" + parentGroupId + "</groupId>\n" + "    <artifactId>"
+                        + parentArtifactId + "</artifactId>\n" + "    <version>" + parentVersion + "</version>\n"
+                        + "  </parent>\n";
+        Files.createDirectories(pom.getParent());
+        Files.writeString(
+                pom,
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>\n  <modelVersion>4.0.0</modelVersion>\n"
+                        + parent + "  <artifactId>" + pom.getParent().getParent().getFileName()
+                        + "</artifactId>\n</project>\n");
+    }
+}
@@ -1,12 +1,15 @@
 package org.jboss.pnc.bacon.pig.impl.repo;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -74,4 +77,39 @@ class RepositoryUtilsTest {
         assertFalse(Pattern.matches(pathRegex, identifierPathShouldNotMatch));
         assertTrue(Pattern.matches(pathRegex, identifierPathShouldMatch));
     }
+
+    @Test
+    void testAddCheckSums(@TempDir Path repo) throws IOException {
+        Path artifactDir = Files.createDirectories(repo.resolve(Paths.get("org", "foo", "bar", "1.0")));
+        Path jar = Files.writeString(artifactDir.resolve("bar-1.0.jar"), "jar content");
+        Path pom = Files.writeString(artifactDir.resolve("bar-1.0.pom"), "pom content");
+
+        RepositoryUtils.addCheckSums(repo.toFile(), 2);
+
+        assertEquals(DigestUtils.md5Hex("jar content"), readChecksum(jar, "md5"));
+        assertEquals(DigestUtils.sha1Hex("jar content"), readChecksum(jar, "sha1"));
+        assertEquals(DigestUtils.md5Hex("pom content"), readChecksum(pom, "md5"));
+        assertEquals(DigestUtils.sha1Hex("pom content"), readChecksum(pom, "sha1"));
+        assertFalse(Files.exists(artifactDir.resolve("bar-1.0.jar.md5.md5")));
+    }
+
+    @Test
+    void testAddCheckSumsSkipsUpToDateChecksums(@TempDir Path repo) throws IOException {
+        Path jar = Files.writeString(repo.resolve("bar-1.0.jar"), "jar content");
+        Path md5 = Files.writeString(repo.resolve("bar-1.0.jar.md5"), "up-to-date");
+        Path sha1 = Files.writeString(repo.resolve("bar-1.0.jar.sha1"), "stale");
+        FileTime jarTime = Files.getLastModifiedTime(jar);
+        Files.setLastModifiedTime(md5, FileTime.fromMillis(jarTime.toMillis() + 1000));
+        Files.setLastModifiedTime(sha1, FileTime.fromMillis(jarTime.toMillis() - 1000));
+
+        RepositoryUtils.addCheckSums(jar, "md5", "sha1", "sha256");
+
+        assertEquals("up-to-date", Files.readString(md5));
+        assertEquals(DigestUtils.sha1Hex("jar content"), Files.readString(sha1));
+        assertEquals(DigestUtils.sha256Hex("jar content"), Files.readString(repo.resolve("bar-1.0.jar.sha256")));
+    }
+
+    private static String readChecksum(Path file, String alg) throws IOException {
+        return Files.readString(file.resolveSibling(file.getFileName() + "." + alg));
+    }
 }
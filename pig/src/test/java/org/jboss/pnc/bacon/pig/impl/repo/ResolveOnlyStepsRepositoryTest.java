@@ -1,6 +1,11 @@
 package org.jboss.pnc.bacon.pig.impl.repo;
 
 import org.jboss.pnc.bacon.pig.impl.config.RepoGenerationStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class ResolveOnlyStepsRepositoryTest extends MultiStepBomBasedRepositoryTestBase {
 
@@ -8,4 +13,31 @@ public class ResolveOnlyStepsRepositoryTest extends MultiStepBomBasedRepositoryT
     protected RepoGenerationStrategy getRepoGenerationStrategy() {
         return RepoGenerationStrategy.RESOLVE_ONLY;
     }
+
+    @Test
+    void concurrentResolutionShouldResolveArtifactListedTwiceOnce() throws Exception {
+        // quarkus-core is also included by resolveIncludes
+        assertExpectedRepository(
+                generateRepository(
+                        Map.of(
+                                "resolveThreads",
+                                "4",
+                                "resolveArtifacts",
+                                "io.quarkus:quarkus-core:1.1.1.redhat-00001")));
+    }
+
+    @Test
+    void concurrentResolutionShouldReportBannedArtifacts() {
+        assertThatThrownBy(
+                () -> generateRepository(
+                        Map.of("resolveThreads", "4", "bannedArtifacts", "org.thirdparty:common-lib")))
+                .hasStackTraceContaining("Banned artifacts found")
+                .hasStackTraceContaining("org.thirdparty:common-lib pulled by io.quarkus:quarkus-core");
+    }
+
+    @Test
+    void shouldRejectInvalidResolveThreads() {
+        assertThatThrownBy(() -> generateRepository(Map.of("resolveThreads", "0")))
+                .hasStackTraceContaining("The resolveThreads parameter must be a positive number, found: 0");
+    }
 }
@@ -0,0 +1,91 @@
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FileDownloadUtilsTest {
+    private static final String CONTENT = "some artifact content";
+    private static final String PATH = "/org/foo/bar/1.0.0.redhat-00001/bar-1.0.0.redhat-00001.jar";
+
+    private WireMockServer mockServer;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    void startMockServer() {
+        mockServer = new WireMockServer(options().dynamicPort());
+        mockServer.start();
+    }
+
+    @AfterAll
+    void stopMockServer() {
+        mockServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer.resetAll();
+        mockServer.stubFor(get(urlEqualTo(PATH)).willReturn(aResponse().withStatus(200).withBody(CONTENT)));
+        FileDownloadUtils.setAttempts(1);
+    }
+
+    @Test
+    void shouldDownloadFileWithMatchingChecksums() throws IOException {
+        File target = tempDir.resolve("bar.jar").toFile();
+        ArtifactChecksums checksums = new ArtifactChecksums(
+                DigestUtils.md5Hex(CONTENT),
+                DigestUtils.sha1Hex(CONTENT),
+                DigestUtils.sha256Hex(CONTENT));
+
+        FileDownloadUtils.downloadTo(url(), target, checksums);
+
+        assertThat(Files.readString(target.toPath(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void shouldFailAndRemoveFileOnChecksumMismatch() {
+        File target = tempDir.resolve("bar.jar").toFile();
+        ArtifactChecksums checksums = new ArtifactChecksums(null, DigestUtils.sha1Hex("other content"), null);
+
+        assertThatThrownBy(() -> FileDownloadUtils.downloadTo(url(), target, checksums))
+                .hasRootCauseInstanceOf(ArtifactChecksums.ChecksumMismatchException.class);
+        assertThat(target).doesNotExist();
+        mockServer.verify(1, getRequestedFor(urlEqualTo(PATH)));
+    }
+
+    @Test
+    void shouldNotRetryMissingFile() {
+        File target = tempDir.resolve("missing.jar").toFile();
+
+        assertThatThrownBy(() -> FileDownloadUtils.downloadTo(URI.create(mockServer.baseUrl() + "/missing"), target))
+                .hasMessageContaining("404");
+        mockServer.verify(1, getRequestedFor(urlEqualTo("/missing")));
+    }
+
+    private URI url() {
+        return URI.create(mockServer.baseUrl() + PATH);
+    }
+}
@@ -0,0 +1,87 @@
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldCreateSameZipRegardlessOfThreads() throws IOException {
+        Path top = createRepository();
+        File singleThreaded = tempDir.resolve("single.zip").toFile();
+        File multiThreaded = tempDir.resolve("multi.zip").toFile();
+
+        FileUtils.zip(singleThreaded, tempDir.toFile(), top.toFile(), 1);
+        FileUtils.zip(multiThreaded, tempDir.toFile(), top.toFile(), 8);
+
+        assertThat(multiThreaded).hasSameBinaryContentAs(singleThreaded);
+    }
+
+    @Test
+    void shouldStoreCompressedFilesAndDeflateOthers() throws IOException {
+        Path top = createRepository();
+        File zip = tempDir.resolve("repo.zip").toFile();
+
+        Collection<String> entries = FileUtils.zip(zip, tempDir.toFile(), top.toFile(), 4);
+
+        assertThat(entries).startsWith("maven-repository/", "maven-repository/org/")
+                .contains("maven-repository/org/foo/bar-1.0.jar", "maven-repository/org/foo/bar-1.0.pom");
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            ZipEntry jar = zipFile.getEntry("maven-repository/org/foo/bar-1.0.jar");
+            ZipEntry pom = zipFile.getEntry("maven-repository/org/foo/bar-1.0.pom");
+            assertThat(jar.getMethod()).isEqualTo(ZipEntry.STORED);
+            assertThat(pom.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            assertThat(zipFile.getInputStream(jar).readAllBytes())
+                    .isEqualTo(Files.readAllBytes(top.resolve("org/foo/bar-1.0.jar")));
+            assertThat(new String(zipFile.getInputStream(pom).readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(Files.readString(top.resolve("org/foo/bar-1.0.pom")));
+        }
+    }
+
+    @Test
+    void shouldUntarCompressedStream() throws IOException {
+        Path top = createRepository();
+        File tarball = tempDir.resolve("repo.tar.gz").toFile();
+        FileUtils.tar(tarball, tempDir.toFile(), top.toFile());
+        File extracted = tempDir.resolve("extracted").toFile();
+
+        Collection<String> entries;
+        try (InputStream input = Files.newInputStream(tarball.toPath())) {
+            entries = FileUtils.untar(input, extracted);
+        }
+
+        assertThat(entries).contains("maven-repository/org/foo/bar-1.0.jar", "maven-repository/org/foo/bar-1.0.pom");
+        assertThat(extracted.toPath().resolve("maven-repository/org/foo/bar-1.0.jar"))
+                .hasSameBinaryContentAs(top.resolve("org/foo/bar-1.0.jar"));
+    }
+
+    private Path createRepository() throws IOException {
+        Path top = tempDir.resolve("maven-repository");
+        Path artifactDir = Files.createDirectories(top.resolve("org/foo"));
+        Random random = new Random(42);
+        byte[] jar = new byte[2 * 1024 * 1024];
+        random.nextBytes(jar);
+        Files.write(artifactDir.resolve("bar-1.0.jar"), jar);
+        Files.writeString(artifactDir.resolve("bar-1.0.pom"), "<project></project>\n".repeat(10000));
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(artifactDir.resolve("file-" + i + ".txt"), "content " + i);
+        }
+        return top;
+    }
+}
@@ -0,0 +1,103 @@
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import org.jboss.pnc.bacon.pig.impl.utils.FingerprintIndex.Fingerprint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintIndexTest {
+
+    private static final Instant NOW = Instant.parse("2021-03-01T10:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReportChangedFiles() throws IOException {
+        Path config = Files.createDirectories(tempDir.resolve("config"));
+        write(config.resolve("build-config.yaml"), "version: 1.0", 1);
+        write(config.resolve("extras.txt"), "extras", 1);
+        FingerprintIndex index = index();
+
+        Fingerprint first = index.fingerprint(config, path -> false);
+        assertThat(first.isIndexed()).isFalse();
+        assertThat(index.fingerprint(config, path -> false).getHash()).isEqualTo(first.getHash());
+
+        write(config.resolve("build-config.yaml"), "version: 1.1", 2);
+        Files.delete(config.resolve("extras.txt"));
+        write(config.resolve("repo-project.txt"), "template", 2);
+        Fingerprint second = index.fingerprint(config, path -> false);
+
+        assertThat(second.getHash()).isNotEqualTo(first.getHash());
+        assertThat(second.isIndexed()).isTrue();
+        assertThat(second.getAdded()).containsExactly("repo-project.txt");
+        assertThat(second.getModified()).containsExactly("build-config.yaml");
+        assertThat(second.getRemoved()).containsExactly("extras.txt");
+    }
+
+    @Test
+    void shouldNotReadFilesWithUnchangedMetadata() throws IOException {
+        Path config = Files.createDirectories(tempDir.resolve("config"));
+        write(config.resolve("build-config.yaml"), "version: 1.0", 1);
+        FingerprintIndex index = index();
+        String hash = index.fingerprint(config, path -> false).getHash();
+
+        // same size and modification time
+        write(config.resolve("build-config.yaml"), "version: 2.0", 1);
+
+        assertThat(index.fingerprint(config, path -> false).getHash()).isEqualTo(hash);
+    }
+
+    @Test
+    void shouldRehashRecentlyModifiedFiles() throws IOException {
+        Path config = Files.createDirectories(tempDir.resolve("config"));
+        Path file = write(config.resolve("build-config.yaml"), "version: 1.0", 0);
+        Files.setLastModifiedTime(file, FileTime.from(NOW));
+        FingerprintIndex index = index();
+        String hash = index.fingerprint(config, path -> false).getHash();
+
+        Files.writeString(file, "version: 2.0");
+        Files.setLastModifiedTime(file, FileTime.from(NOW));
+
+        assertThat(index.fingerprint(config, path -> false).getHash()).isNotEqualTo(hash);
+    }
+
+    @Test
+    void shouldGiveTheSameHashForCopies() {
+        Path original = HashUtilsTest.testDirs.resolve("original");
+        Path copy = HashUtilsTest.testDirs.resolve("copy");
+
+        assertThat(index().fingerprint(original, path -> false).getHash())
+                .isEqualTo(index().fingerprint(copy, path -> false).getHash());
+    }
+
+    @Test
+    void shouldIgnoreSomePaths() {
+        Path original = HashUtilsTest.testDirs.resolve("original");
+        Path copy = HashUtilsTest.testDirs.resolve("copy-with-file-to-be-ignored");
+
+        assertThat(index().fingerprint(original, path -> false).getHash())
+                .isEqualTo(index().fingerprint(copy, path -> path.normalize().endsWith("ignore-me")).getHash());
+    }
+
+    private FingerprintIndex index() {
+        return new FingerprintIndex(
+                tempDir.resolve(".bacon").resolve("config-fingerprints.json"),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static Path write(Path file, String content, int hoursAgo) throws IOException {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(NOW.minusSeconds(3600L * hoursAgo)));
+        return file;
+    }
+}
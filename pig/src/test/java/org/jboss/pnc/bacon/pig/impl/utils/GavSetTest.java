@@ -142,4 +142,22 @@ public class GavSetTest {
 
     }
 
+    @Test
+    public void includeWildcardsExcludeSnapshots() {
+        GavSet set = GavSet.builder() //
+                .include("org.group1*") //
+                .include("*:artifact4") //
+                .include("com.*.group5") //
+                .excludeSnapshots() //
+                .build();
+        Assertions.assertTrue(set.contains("org.group1", "artifact1", "jar", null, "1.2.3"));
+        Assertions.assertTrue(set.contains("org.group1.api", "artifact2", "jar", null, "2.3.4"));
+        Assertions.assertFalse(set.contains("org.group1.api", "artifact2", "jar", null, "2.3.4-SNAPSHOT"));
+
+        Assertions.assertTrue(set.contains("com.group3", "artifact4", "jar", null, "5.6.7"));
+        Assertions.assertFalse(set.contains("com.group3", "artifact5", "jar", null, "5.6.7"));
+
+        Assertions.assertTrue(set.contains("com.foo.group5", "artifact6", "jar", null, "6.7.8"));
+        Assertions.assertFalse(set.contains("org.group2", "artifact1", "jar", null, "1.2.3"));
+    }
 }
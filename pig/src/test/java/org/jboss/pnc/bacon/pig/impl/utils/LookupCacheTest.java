@@ -0,0 +1,94 @@
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LookupCacheTest {
+
+    private static final Instant NOW = Instant.parse("2023-05-01T10:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldPersistResults() {
+        Path file = tempDir.resolve("mrrc.json");
+        AtomicInteger lookups = new AtomicInteger();
+
+        LookupCache<Boolean> cache = cache(file, NOW);
+        assertThat(cache.get("org.foo:bar:jar:1.0", key -> lookup(lookups, true))).isTrue();
+        assertThat(cache.get("org.foo:bar:jar:1.0", key -> lookup(lookups, true))).isTrue();
+        cache.flush();
+
+        LookupCache<Boolean> reloaded = cache(file, NOW.plus(Duration.ofHours(1)));
+        assertThat(reloaded.get("org.foo:bar:jar:1.0", key -> lookup(lookups, false))).isTrue();
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void shouldExpireNegativeResultsSooner() {
+        Path file = tempDir.resolve("mrrc.json");
+        LookupCache<Boolean> cache = cache(file, NOW);
+        cache.put("released", true);
+        cache.put("not-released", false);
+        cache.flush();
+
+        LookupCache<Boolean> reloaded = cache(file, NOW.plus(Duration.ofDays(2)));
+        assertThat(reloaded.getIfPresent("released")).contains(true);
+        assertThat(reloaded.getIfPresent("not-released")).isEmpty();
+
+        LookupCache<Boolean> muchLater = cache(file, NOW.plus(Duration.ofDays(20)));
+        assertThat(muchLater.getIfPresent("released")).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheFailedLookups() {
+        LookupCache<Boolean> cache = cache(tempDir.resolve("mrrc.json"), NOW);
+
+        assertThat(cache.get("org.foo:bar:jar:1.0", key -> null)).isNull();
+        assertThat(cache.getIfPresent("org.foo:bar:jar:1.0")).isEmpty();
+    }
+
+    @Test
+    void shouldNotLeaveTemporaryFileWhenFlushFails() throws IOException {
+        // a non-empty directory in place of the cache file can't be replaced
+        Path file = tempDir.resolve("mrrc.json");
+        Files.createDirectories(file.resolve("blocking"));
+        LookupCache<Boolean> cache = cache(file, NOW);
+        cache.put("released", true);
+
+        cache.flush();
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    private static LookupCache<Boolean> cache(Path file, Instant now) {
+        return new LookupCache<>(
+                "mrrc",
+                file,
+                Boolean.class,
+                Duration.ofDays(10),
+                Duration.ofDays(1),
+                released -> !released,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Boolean lookup(AtomicInteger lookups, boolean result) {
+        lookups.incrementAndGet();
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package org.jboss.pnc.bacon.pig.impl.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegexSetTest {
+
+    private static final List<String> REGEXES = List.of(
+            "org.jboss:jboss-parent:pom:39.0.0.redhat-00001",
+            "io\\.quarkus\\.platform:.*",
+            "io.netty:.*:jar:.*",
+            ".*:.*:zip:.*",
+            "com.example:(api|impl):jar:1\\.0",
+            "org\\.apache\\.camel:camel-.*-starter:jar:.*",
+            "org.acme:ab?c:jar:1");
+
+    private static final List<String> INPUTS = List.of(
+            "org.jboss:jboss-parent:pom:39.0.0.redhat-00001",
+            "org.jboss:jboss-parent:pom:39.0.0.redhat-00002",
+            "orgXjboss:jboss-parent:pom:39.0.0.redhat-00001",
+            "io.quarkus.platform:quarkus-bom:pom:3.2.0.redhat-00001",
+            "io.quarkusXplatform:quarkus-bom:pom:3.2.0.redhat-00001",
+            "io.netty:netty-codec:jar:4.1.100.Final-redhat-00001",
+            "io.netty:netty-codec:pom:4.1.100.Final-redhat-00001",
+            "org.foo:bar:zip:1.0.0.redhat-00001",
+            "com.example:impl:jar:1.0",
+            "com.example:spi:jar:1.0",
+            "org.apache.camel:camel-kafka-starter:jar:4.0.0.redhat-00001",
+            "org.apache.camel:camel-kafka:jar:4.0.0.redhat-00001",
+            "org.acme:ac:jar:1",
+            "org.acme:abc:jar:1",
+            "org.acme:abbc:jar:1",
+            "");
+
+    @Test
+    void shouldMatchLikeTheRegularExpressions() {
+        RegexSet set = RegexSet.of(REGEXES);
+
+        for (String input : INPUTS) {
+            boolean expected = REGEXES.stream().anyMatch(regex -> Pattern.matches(regex, input));
+            assertThat(set.matches(input)).as(input).isEqualTo(expected);
+            String match = set.findMatch(input);
+            if (match != null) {
+                assertThat(Pattern.matches(match, input)).as(input + " ~ " + match).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void shouldFindLiteralPrefix() {
+        assertThat(RegexSet.literalPrefixEnd("org.jboss:.*")).isEqualTo(10);
+        assertThat(RegexSet.literalPrefixEnd("org.jboss.*")).isEqualTo(9);
+        assertThat(RegexSet.literalPrefixEnd("org\\.jboss:.*")).isEqualTo(11);
+        assertThat(RegexSet.literalPrefixEnd("org.acme:ab?c")).isEqualTo(10);
+        assertThat(RegexSet.literalPrefixEnd("org\\.acme:ab?c")).isEqualTo(11);
+        assertThat(RegexSet.literalPrefixEnd("com\\.example:(api|impl)")).isZero();
+        assertThat(RegexSet.literalPrefixEnd("\\d+")).isZero();
+        assertThat(RegexSet.literalPrefixEnd("exact")).isEqualTo(5);
+    }
+
+    @Test
+    void shouldMatchNothingWhenEmpty() {
+        assertThat(RegexSet.of(null).isEmpty()).isTrue();
+        assertThat(RegexSet.of(List.of()).matches("org.jboss:jboss-parent:pom:39")).isFalse();
+    }
+}
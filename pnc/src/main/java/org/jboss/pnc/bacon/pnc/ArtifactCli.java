@@ -17,7 +17,6 @@ import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -152,10 +151,9 @@ public class ArtifactCli {
         private String id;
 
         @Override
-        public Collection<Build> getAll(String sort, String query) throws RemoteResourceException {
-            try (ArtifactClient client = CREATOR.newClient()) {
-                return client.getDependantBuilds(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<Build> getAll(String sort, String query) throws RemoteResourceException {
+            ArtifactClient client = closeAfterListing(CREATOR.newClient());
+            return client.getDependantBuilds(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -169,18 +167,16 @@ public class ArtifactCli {
         private String identifier;
 
         @Override
-        public Collection<Build> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<Build> getAll(String sort, String query) throws RemoteResourceException {
 
             identifier = transformIdentifierIfGAV(identifier);
 
-            try (ArtifactClient client = CREATOR.newClient()) {
-                Artifact a = client
-                        .getAll(null, null, null, Optional.empty(), Optional.ofNullable("identifier==" + identifier))
-                        .iterator()
-                        .next();
-                return client.getDependantBuilds(a.getId(), Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+            ArtifactClient client = closeAfterListing(CREATOR.newClient());
+            Artifact a = client
+                    .getAll(null, null, null, Optional.empty(), Optional.ofNullable("identifier==" + identifier))
+                    .iterator()
+                    .next();
+            return client.getDependantBuilds(a.getId(), Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 }
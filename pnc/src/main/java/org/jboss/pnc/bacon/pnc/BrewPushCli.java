@@ -20,19 +20,28 @@ package org.jboss.pnc.bacon.pnc;
 import org.jboss.pnc.bacon.common.Constant;
 import org.jboss.pnc.bacon.common.ObjectHelper;
 import org.jboss.pnc.bacon.common.cli.JSONCommandHandler;
+import org.jboss.pnc.bacon.pnc.client.PncClientHelper;
 import org.jboss.pnc.bacon.pnc.common.ClientCreator;
+import org.jboss.pnc.bacon.pnc.common.GroupBrewPushWaiter;
 import org.jboss.pnc.client.GroupBuildClient;
 import org.jboss.pnc.client.RemoteResourceNotFoundException;
 import org.jboss.pnc.dto.BuildPushResult;
 import org.jboss.pnc.dto.requests.BuildPushParameters;
 import org.jboss.pnc.dto.requests.GroupBuildPushRequest;
 import org.jboss.pnc.enums.BuildPushStatus;
+import org.jboss.pnc.enums.BuildStatus;
+import org.jboss.pnc.rest.api.parameters.BuildsFilterParameters;
 import org.jboss.pnc.restclient.AdvancedBuildClient;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
@@ -106,14 +115,23 @@ public class BrewPushCli {
     @Command(
             name = "group-build",
             description = "Push group build to Brew",
-            footer = Constant.EXAMPLE_TEXT + "$ bacon pnc brew-push group-build 8 --tag-prefix=\"1.0-pnc\"%n")
-    public static class GroupBuild implements Callable<Integer> {
+            footer = Constant.EXAMPLE_TEXT + "$ bacon pnc brew-push group-build 8 --tag-prefix=\"1.0-pnc\"%n%n"
+                    + "# To wait for the pushes of all the builds to finish, use the '--wait' flag. "
+                    + "See the '--timeout' flag also%n"
+                    + "$ bacon pnc brew-push group-build 8 --tag-prefix=\"1.0-pnc\" --wait --timeout=30")
+    public static class GroupBuild extends JSONCommandHandler implements Callable<Integer> {
 
         @Parameters(description = "Id of group-build")
         private String id;
         @Option(required = true, names = "--tag-prefix", description = "Brew Tag Prefix")
         private String tagPrefix;
 
+        @Option(names = "--wait", description = "Wait for the BrewPush of all the builds to complete")
+        private boolean wait = false;
+
+        @Option(names = "--timeout", description = "Time in minutes the command waits for BrewPush completion")
+        private String timeout;
+
         /**
          * Computes a result, or throws an exception if unable to do so.
          *
@@ -122,11 +140,46 @@ public class BrewPushCli {
          */
         @Override
         public Integer call() throws Exception {
-            // TODO add wait option for GroupPush
             GroupBuildPushRequest request = GroupBuildPushRequest.builder().tagPrefix(tagPrefix).build();
             try (GroupBuildClient client = GROUP_BUILD_CREATOR.newClientAuthenticated()) {
                 client.brewPush(id, request);
-                return 0;
+                if (!wait && timeout == null) {
+                    return 0;
+                }
+                // only the successful builds of the group build are pushed
+                BuildsFilterParameters filter = new BuildsFilterParameters();
+                filter.setLatest(false);
+                filter.setRunning(false);
+                List<String> buildIds = new ArrayList<>();
+                for (org.jboss.pnc.dto.Build build : client.getBuilds(id, filter)) {
+                    if (build.getStatus() == BuildStatus.SUCCESS) {
+                        buildIds.add(build.getId());
+                    }
+                }
+                return waitForPushes(buildIds);
+            }
+        }
+
+        private int waitForPushes(List<String> buildIds) {
+            Duration waitFor = timeout == null ? null : Duration.ofMinutes(Long.parseLong(timeout));
+            try (AdvancedBuildClient buildClient = BUILD_CREATOR.newClient()) {
+                Map<String, BuildPushResult> results = GroupBrewPushWaiter
+                        .create(buildClient, PncClientHelper.getPncConfiguration(false))
+                        .waitForFinalStatus(buildIds, waitFor);
+
+                Map<String, Object> output = new LinkedHashMap<>();
+                int status = 0;
+                for (Map.Entry<String, BuildPushResult> result : results.entrySet()) {
+                    BuildPushResult bpr = result.getValue();
+                    // pushes not finished before the timeout are reported as still in progress
+                    BuildPushStatus pushStatus = bpr == null ? BuildPushStatus.ACCEPTED : bpr.getStatus();
+                    output.put(result.getKey(), bpr == null ? Collections.singletonMap("status", pushStatus) : bpr);
+                    if (pushStatus != BuildPushStatus.SUCCESS) {
+                        status = Math.max(status, Math.max(1, pushStatus.ordinal()));
+                    }
+                }
+                ObjectHelper.print(getJsonOutput(), output);
+                return status;
             }
         }
     }
@@ -27,6 +27,7 @@ import org.jboss.pnc.bacon.common.cli.AbstractListCommand;
 import org.jboss.pnc.bacon.common.cli.JSONCommandHandler;
 import org.jboss.pnc.bacon.config.Config;
 import org.jboss.pnc.bacon.pnc.client.BifrostClient;
+import org.jboss.pnc.bacon.pnc.client.LogSink;
 import org.jboss.pnc.bacon.pnc.common.ClientCreator;
 import org.jboss.pnc.bacon.pnc.common.ParameterChecker;
 import org.jboss.pnc.client.BuildClient;
@@ -51,7 +52,6 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
@@ -198,12 +198,10 @@ public class BuildCli {
         private java.util.List<String> attributes;
 
         @Override
-        public Collection<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
+        public Iterable<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
                 throws RemoteResourceException {
-            try (BuildClient client = CREATOR.newClient()) {
-                return client.getAll(buildsFilter, attributes, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+            BuildClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(buildsFilter, attributes, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -217,11 +215,9 @@ public class BuildCli {
         private String buildId;
 
         @Override
-        public Collection<Artifact> getAll(String sort, String query) throws RemoteResourceException {
-            try (BuildClient client = CREATOR.newClient()) {
-                return client.getBuiltArtifacts(buildId, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+        public Iterable<Artifact> getAll(String sort, String query) throws RemoteResourceException {
+            BuildClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuiltArtifacts(buildId, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -235,11 +231,9 @@ public class BuildCli {
         private String buildId;
 
         @Override
-        public Collection<Artifact> getAll(String sort, String query) throws RemoteResourceException {
-            try (BuildClient client = CREATOR.newClient()) {
-                return client.getDependencyArtifacts(buildId, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+        public Iterable<Artifact> getAll(String sort, String query) throws RemoteResourceException {
+            BuildClient client = closeAfterListing(CREATOR.newClient());
+            return client.getDependencyArtifacts(buildId, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -265,7 +259,11 @@ public class BuildCli {
         }
     }
 
-    @Command(name = "get-log", description = "Get build log.")
+    @Command(
+            name = "get-log",
+            description = "Get build log.",
+            footer = Constant.EXAMPLE_TEXT + "$ bacon pnc build get-log 42 --grep 'BUILD (SUCCESS|FAILURE)'%n"
+                    + "$ bacon pnc build get-log 42 --follow --output build.log --offset 1048576")
     public static class GetLog implements Callable<Integer> {
         @Parameters(description = "Build id.")
         private String buildId;
@@ -273,6 +271,19 @@ public class BuildCli {
         @Option(names = "--follow", description = "Follow the live log.")
         private boolean follow;
 
+        @Option(names = "--output", description = "Write the log to the file instead of the standard output.")
+        private Path output;
+
+        @Option(names = "--grep", description = "Print only the lines matching the regular expression.")
+        private String grep;
+
+        @Option(
+                names = "--offset",
+                defaultValue = "0",
+                description = "Skip the given number of bytes of the log, e.g. to resume an interrupted download. "
+                        + "The output file is appended to if set.")
+        private long offset;
+
         /**
          * Computes a result, or throws an exception if unable to do so.
          *
@@ -283,12 +294,19 @@ public class BuildCli {
         public Integer call() throws Exception {
             String bifrostBase = Config.instance().getActiveProfile().getPnc().getBifrostBaseurl();
             URI bifrostUri = URI.create(bifrostBase);
-            BifrostClient logProcessor = new BifrostClient(bifrostUri);
-            logProcessor.writeLog(
-                    buildId,
-                    follow,
-                    log::info,
-                    follow ? BifrostClient.LogType.COMPLETE : BifrostClient.LogType.BUILD);
+            LogSink sink = output == null ? LogSink.stdout() : LogSink.toFile(output, offset > 0);
+            if (grep != null) {
+                sink = LogSink.grep(grep, sink);
+            }
+            try (BifrostClient logProcessor = new BifrostClient(bifrostUri); LogSink logSink = sink) {
+                long end = logProcessor.streamLog(
+                        buildId,
+                        follow ? BifrostClient.LogType.COMPLETE : BifrostClient.LogType.BUILD,
+                        follow,
+                        offset,
+                        logSink);
+                log.debug("Read the log of build {} up to byte {}", buildId, end);
+            }
             return 0;
         }
     }
@@ -308,8 +326,9 @@ public class BuildCli {
         public Integer call() throws Exception {
             String bifrostBase = Config.instance().getActiveProfile().getPnc().getBifrostBaseurl();
             URI bifrostUri = URI.create(bifrostBase);
-            BifrostClient logProcessor = new BifrostClient(bifrostUri);
-            logProcessor.writeLog(buildId, false, log::info, BifrostClient.LogType.ALIGNMENT);
+            try (BifrostClient logProcessor = new BifrostClient(bifrostUri)) {
+                logProcessor.writeLog(buildId, false, log::info, BifrostClient.LogType.ALIGNMENT);
+            }
             return 0;
         }
     }
@@ -44,7 +44,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -406,10 +405,9 @@ public class BuildConfigCli {
     public static class List extends AbstractListCommand<BuildConfiguration> {
 
         @Override
-        public Collection<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
-            try (BuildConfigurationClient client = CREATOR.newClient()) {
-                return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+            BuildConfigurationClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -420,10 +418,9 @@ public class BuildConfigCli {
         private String id;
 
         @Override
-        public Collection<BuildConfigurationRevision> getAll(String sort, String query) throws RemoteResourceException {
-            try (BuildConfigurationClient client = CREATOR.newClient()) {
-                return client.getRevisions(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<BuildConfigurationRevision> getAll(String sort, String query) throws RemoteResourceException {
+            BuildConfigurationClient client = closeAfterListing(CREATOR.newClient());
+            return client.getRevisions(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -434,13 +431,11 @@ public class BuildConfigCli {
         private String buildConfigId;
 
         @Override
-        public Collection<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
+        public Iterable<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
                 throws RemoteResourceException {
-            try (BuildConfigurationClient client = CREATOR.newClient()) {
-                return client
-                        .getBuilds(buildConfigId, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+            BuildConfigurationClient client = closeAfterListing(CREATOR.newClient());
+            return client
+                    .getBuilds(buildConfigId, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -26,7 +26,6 @@ import org.jboss.pnc.client.RemoteResourceException;
 import org.jboss.pnc.dto.Environment;
 import picocli.CommandLine.Command;
 
-import java.util.Collection;
 import java.util.Optional;
 
 @Command(
@@ -52,10 +51,9 @@ public class EnvironmentCli {
     public static class List extends AbstractListCommand<Environment> {
 
         @Override
-        public Collection<Environment> getAll(String sort, String query) throws RemoteResourceException {
-            try (EnvironmentClient client = CREATOR.newClient()) {
-                return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<Environment> getAll(String sort, String query) throws RemoteResourceException {
+            EnvironmentClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
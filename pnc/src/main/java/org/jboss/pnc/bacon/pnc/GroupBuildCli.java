@@ -40,7 +40,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
@@ -169,10 +168,9 @@ public class GroupBuildCli {
     public static class List extends AbstractListCommand<GroupBuild> {
 
         @Override
-        public Collection<GroupBuild> getAll(String sort, String query) throws RemoteResourceException {
-            try (GroupBuildClient client = CREATOR.newClient()) {
-                return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<GroupBuild> getAll(String sort, String query) throws RemoteResourceException {
+            GroupBuildClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -183,13 +181,10 @@ public class GroupBuildCli {
         private String groupBuildId;
 
         @Override
-        public Collection<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
+        public Iterable<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
                 throws RemoteResourceException {
-            try (GroupBuildClient client = CREATOR.newClient()) {
-                return client
-                        .getBuilds(groupBuildId, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+            GroupBuildClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuilds(groupBuildId, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -177,10 +177,9 @@ public class GroupConfigCli {
     public static class List extends AbstractListCommand<GroupConfiguration> {
 
         @Override
-        public Collection<GroupConfiguration> getAll(String sort, String query) throws RemoteResourceException {
-            try (GroupConfigurationClient client = CREATOR.newClient()) {
-                return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<GroupConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+            GroupConfigurationClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -191,10 +190,9 @@ public class GroupConfigCli {
         private String id;
 
         @Override
-        public Collection<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
-            try (GroupConfigurationClient client = CREATOR.newClient()) {
-                return client.getBuildConfigs(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+            GroupConfigurationClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuildConfigs(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -32,7 +32,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 
@@ -98,11 +97,10 @@ public class ProductCli {
     public static class List extends AbstractListCommand<Product> {
 
         @Override
-        public Collection<Product> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<Product> getAll(String sort, String query) throws RemoteResourceException {
 
-            try (ProductClient client = CREATOR.newClient()) {
-                return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+            ProductClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -113,11 +111,10 @@ public class ProductCli {
         private String id;
 
         @Override
-        public Collection<ProductVersion> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<ProductVersion> getAll(String sort, String query) throws RemoteResourceException {
 
-            try (ProductClient client = CREATOR.newClient()) {
-                return client.getProductVersions(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+            ProductClient client = closeAfterListing(CREATOR.newClient());
+            return client.getProductVersions(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -46,7 +46,6 @@ import picocli.CommandLine.Parameters;
 
 import java.net.URL;
 import java.time.Instant;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -300,12 +299,10 @@ public class ProductMilestoneCli {
         private String id;
 
         @Override
-        public Collection<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
+        public Iterable<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
                 throws RemoteResourceException {
-            try (ProductMilestoneClient client = CREATOR.newClient()) {
-                return client.getBuilds(id, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+            ProductMilestoneClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuilds(id, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -348,10 +345,9 @@ public class ProductMilestoneCli {
         private String id;
 
         @Override
-        public Collection<Artifact> getAll(String sort, String query) throws RemoteResourceException {
-            try (ProductMilestoneClient client = CREATOR.newClient()) {
-                return client.getDeliveredArtifacts(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<Artifact> getAll(String sort, String query) throws RemoteResourceException {
+            ProductMilestoneClient client = closeAfterListing(CREATOR.newClient());
+            return client.getDeliveredArtifacts(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
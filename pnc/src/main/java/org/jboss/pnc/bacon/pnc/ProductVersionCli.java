@@ -38,7 +38,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 
@@ -139,11 +138,10 @@ public class ProductVersionCli {
         private String id;
 
         @Override
-        public Collection<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
 
-            try (ProductVersionClient client = CREATOR.newClient()) {
-                return client.getBuildConfigs(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+            ProductVersionClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuildConfigs(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -154,11 +152,10 @@ public class ProductVersionCli {
         private String id;
 
         @Override
-        public Collection<GroupConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<GroupConfiguration> getAll(String sort, String query) throws RemoteResourceException {
 
-            try (ProductVersionClient client = CREATOR.newClient()) {
-                return client.getGroupConfigs(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+            ProductVersionClient client = closeAfterListing(CREATOR.newClient());
+            return client.getGroupConfigs(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -169,11 +166,10 @@ public class ProductVersionCli {
         private String id;
 
         @Override
-        public Collection<ProductMilestone> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<ProductMilestone> getAll(String sort, String query) throws RemoteResourceException {
 
-            try (ProductVersionClient client = CREATOR.newClient()) {
-                return client.getMilestones(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+            ProductVersionClient client = closeAfterListing(CREATOR.newClient());
+            return client.getMilestones(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -184,11 +180,10 @@ public class ProductVersionCli {
         private String id;
 
         @Override
-        public Collection<ProductRelease> getAll(String sort, String query) throws RemoteResourceException {
+        public Iterable<ProductRelease> getAll(String sort, String query) throws RemoteResourceException {
 
-            try (ProductVersionClient client = CREATOR.newClient()) {
-                return client.getReleases(id, Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+            ProductVersionClient client = closeAfterListing(CREATOR.newClient());
+            return client.getReleases(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
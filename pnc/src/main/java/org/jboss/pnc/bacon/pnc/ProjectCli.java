@@ -35,7 +35,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 
@@ -108,10 +107,9 @@ public class ProjectCli {
     public static class List extends AbstractListCommand<Project> {
 
         @Override
-        public Collection<Project> getAll(String sort, String query) throws RemoteResourceException {
-            try (ProjectClient client = CREATOR.newClient()) {
-                return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query)).getAll();
-            }
+        public Iterable<Project> getAll(String sort, String query) throws RemoteResourceException {
+            ProjectClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -122,11 +120,9 @@ public class ProjectCli {
         private String id;
 
         @Override
-        public Collection<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
-            try (ProjectClient client = CREATOR.newClient()) {
-                return client.getBuildConfigurations(id, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+        public Iterable<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+            ProjectClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuildConfigurations(id, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -137,12 +133,10 @@ public class ProjectCli {
         private String id;
 
         @Override
-        public Collection<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
+        public Iterable<Build> getAll(BuildsFilterParameters buildsFilter, String sort, String query)
                 throws RemoteResourceException {
-            try (ProjectClient client = CREATOR.newClient()) {
-                return client.getBuilds(id, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+            ProjectClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuilds(id, buildsFilter, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -38,7 +38,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -194,11 +193,9 @@ public class ScmRepositoryCli {
         private String searchUrl;
 
         @Override
-        public Collection<SCMRepository> getAll(String sort, String query) throws RemoteResourceException {
-            try (SCMRepositoryClient client = CREATOR.newClient()) {
-                return client.getAll(matchUrl, searchUrl, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+        public Iterable<SCMRepository> getAll(String sort, String query) throws RemoteResourceException {
+            SCMRepositoryClient client = closeAfterListing(CREATOR.newClient());
+            return client.getAll(matchUrl, searchUrl, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 
@@ -209,11 +206,9 @@ public class ScmRepositoryCli {
         private String scmRepositoryId;
 
         @Override
-        public Collection<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
-            try (SCMRepositoryClient client = CREATOR.newClient()) {
-                return client.getBuildConfigs(scmRepositoryId, Optional.ofNullable(sort), Optional.ofNullable(query))
-                        .getAll();
-            }
+        public Iterable<BuildConfiguration> getAll(String sort, String query) throws RemoteResourceException {
+            SCMRepositoryClient client = closeAfterListing(CREATOR.newClient());
+            return client.getBuildConfigs(scmRepositoryId, Optional.ofNullable(sort), Optional.ofNullable(query));
         }
     }
 }
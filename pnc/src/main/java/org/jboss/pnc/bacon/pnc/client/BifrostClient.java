@@ -1,17 +1,17 @@
 package org.jboss.pnc.bacon.pnc.client;
 
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
@@ -22,7 +22,7 @@ import java.util.function.Consumer;
 /**
  * @author <a href="mailto:matejonnet@gmail.com">Matej Lazar</a>
  */
-public class BifrostClient {
+public class BifrostClient implements Closeable {
 
     public enum LogType {
         COMPLETE, BUILD, ALIGNMENT
@@ -30,14 +30,22 @@ public class BifrostClient {
 
     private static final Logger log = LoggerFactory.getLogger(BifrostClient.class);
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECONNECTS = 5;
+
     private final URI baseUrl;
-    private final HttpClient client;
+    private final CloseableHttpClient client;
 
     public BifrostClient(URI baseUrl) {
         this.baseUrl = baseUrl;
+        // content compression is enabled by default, i.e. gzip is used if Bifrost supports it
         client = HttpClients.createDefault();
     }
 
+    /**
+     * Read the whole log into memory. Prefer {@link #streamLog(String, LogType, boolean, long, LogSink)} for logs that
+     * may be big.
+     */
     public List<String> getLog(String buildId, LogType logType) throws IOException {
         List<String> logs = new ArrayList<>();
         writeLog(buildId, false, logs::add, logType);
@@ -45,7 +53,69 @@ public class BifrostClient {
     }
 
     public void writeLog(String id, boolean follow, Consumer<String> onLine, LogType logType) throws IOException {
+        streamLog(id, logType, follow, 0, LogSink.of(onLine));
+    }
 
+    /**
+     * Stream the log line by line to the sink, keeping only the current line in memory.
+     * <p>
+     * When following a live log, the connection is reopened if it drops and the log is resumed after the last line
+     * passed to the sink.
+     *
+     * @param id build id
+     * @param logType type of the log
+     * @param follow whether to follow the live log
+     * @param offset number of bytes of the log to skip, e.g. the value returned by a previous call
+     * @param sink receives the lines
+     * @return offset of the end of the last line passed to the sink, usable to resume reading the log
+     * @throws IOException if reading the log failed
+     */
+    public long streamLog(String id, LogType logType, boolean follow, long offset, LogSink sink) throws IOException {
+        URI logsUrl = baseUrl.resolve(URI.create("/text?" + query(id, logType, follow)));
+        LineReader reader = new LineReader(offset, sink);
+        int reconnects = 0;
+        while (true) {
+            log.debug("Reading logs from {} starting at byte {}", logsUrl, reader.offset);
+            try {
+                read(logsUrl, reader);
+                return reader.offset;
+            } catch (IOException e) {
+                if (!follow || reconnects >= MAX_RECONNECTS || e instanceof RequestRejectedException) {
+                    throw e;
+                }
+                reconnects++;
+                log.warn(
+                        "Reading the log of {} failed, reconnecting ({}/{}) at byte {}: {}",
+                        id,
+                        reconnects,
+                        MAX_RECONNECTS,
+                        reader.offset,
+                        e.toString());
+                sleep(1000L << reconnects);
+            } finally {
+                sink.flush();
+            }
+        }
+    }
+
+    private void read(URI logsUrl, LineReader reader) throws IOException {
+        HttpGet httpGet = new HttpGet(logsUrl);
+        try (CloseableHttpResponse response = client.execute(httpGet)) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status >= HttpStatus.SC_BAD_REQUEST && status < HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                // e.g. unknown build, reconnecting won't help
+                throw new RequestRejectedException("Bifrost rejected the request: " + response.getStatusLine());
+            }
+            if (status != HttpStatus.SC_OK) {
+                throw new IOException("Unexpected response from Bifrost: " + response.getStatusLine());
+            }
+            try (InputStream is = response.getEntity().getContent()) {
+                reader.read(is);
+            }
+        }
+    }
+
+    private static String query(String id, LogType logType, boolean follow) {
         String query;
 
         switch (logType) {
@@ -71,15 +141,99 @@ public class BifrostClient {
             query += "&follow=false";
         }
 
-        URI logsUrl = baseUrl.resolve(URI.create("/text?" + query));
-        log.debug("Reading logs from {}", logsUrl);
+        return query;
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to reconnect", e);
+        }
+    }
 
-        HttpUriRequest httpGet = new HttpGet(logsUrl);
-        HttpResponse response = client.execute(httpGet);
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    /**
+     * Client error response, not worth retrying
+     */
+    private static final class RequestRejectedException extends IOException {
+        RequestRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Splits the UTF-8 encoded log into lines keeping track of the number of bytes consumed
+     */
+    static final class LineReader {
+        private final LogSink sink;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        /**
+         * offset of the end of the last line passed to the sink
+         */
+        private long offset;
+
+        LineReader(long offset, LogSink sink) {
+            this.offset = offset;
+            this.sink = sink;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        void read(InputStream is) throws IOException {
+            skip(is, offset);
+            line.reset();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, lineStart, i - lineStart);
+                        emit(1);
+                        lineStart = i + 1;
+                    }
+                }
+                line.write(buffer, lineStart, read - lineStart);
+                if (is.available() == 0) {
+                    sink.flush();
+                }
+            }
+            if (line.size() > 0) {
+                emit(0);
+            }
+        }
+
+        private void emit(int separatorLength) {
+            byte[] bytes = line.toByteArray();
+            int length = bytes.length;
+            if (length > 0 && bytes[length - 1] == '\r') {
+                length--;
+            }
+            sink.accept(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            offset += bytes.length + separatorLength;
+            line.reset();
+        }
 
-        try (InputStream is = response.getEntity().getContent();
-                BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            br.lines().forEach(onLine);
+        private static void skip(InputStream is, long bytes) throws IOException {
+            long remaining = bytes;
+            while (remaining > 0) {
+                long skipped = is.skip(remaining);
+                if (skipped <= 0) {
+                    if (is.read() == -1) {
+                        return;
+                    }
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
         }
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pnc.client;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Receives the lines of a log one by one as they are read, so that a log never has to be kept in memory as a whole.
+ */
+public interface LogSink extends Consumer<String>, AutoCloseable {
+
+    /**
+     * Flush the lines received so far, called when no more lines are immediately available, e.g. while following a
+     * live log
+     */
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+        flush();
+    }
+
+    /**
+     * @param onLine line consumer
+     * @return sink passing the lines to the consumer
+     */
+    static LogSink of(Consumer<String> onLine) {
+        return onLine::accept;
+    }
+
+    /**
+     * @return sink printing the lines to the standard output
+     */
+    static LogSink stdout() {
+        return new WriterSink(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), false);
+    }
+
+    /**
+     * @param file file to write the lines to
+     * @param append whether to append to an existing file, e.g. when resuming, or to replace it
+     * @return sink writing the lines to the file
+     */
+    static LogSink toFile(Path file, boolean append) {
+        try {
+            return new WriterSink(
+                    Files.newBufferedWriter(
+                            file,
+                            StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING),
+                    true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + file + " for writing", e);
+        }
+    }
+
+    /**
+     * @param regex pattern to look for in the lines, like grep does
+     * @param delegate sink to pass the matching lines to
+     * @return sink passing only the lines containing a match of the pattern to the delegate
+     */
+    static LogSink grep(String regex, LogSink delegate) {
+        Pattern pattern = Pattern.compile(regex);
+        return new LogSink() {
+            @Override
+            public void accept(String line) {
+                if (pattern.matcher(line).find()) {
+                    delegate.accept(line);
+                }
+            }
+
+            @Override
+            public void flush() {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        };
+    }
+
+    final class WriterSink implements LogSink {
+        private final Writer writer;
+        private final boolean closeWriter;
+
+        private WriterSink(Writer writer, boolean closeWriter) {
+            this.writer = writer;
+            this.closeWriter = closeWriter;
+        }
+
+        @Override
+        public void accept(String line) {
+            try {
+                writer.write(line);
+                writer.write(System.lineSeparator());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write a log line", e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to flush the log", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (closeWriter) {
+                    writer.close();
+                } else {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close the log", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pnc.common;
+
+import org.jboss.pnc.bacon.common.Telemetry;
+import org.jboss.pnc.client.BuildClient;
+import org.jboss.pnc.client.ClientException;
+import org.jboss.pnc.client.Configuration;
+import org.jboss.pnc.client.RemoteResourceNotFoundException;
+import org.jboss.pnc.dto.BuildPushResult;
+import org.jboss.pnc.enums.BuildPushStatus;
+import org.jboss.pnc.restclient.websocket.VertxWebSocketClient;
+import org.jboss.pnc.restclient.websocket.WebSocketClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Waits for the brew pushes of many builds, e.g. the builds of a pushed group build, to reach a final status.
+ * <p>
+ * If possible, the waiter opens a single websocket connection to PNC and listens to the push result notifications of
+ * all the builds. A notified build has its push result fetched right away. Since a notification may get lost, the push
+ * results of all the unfinished builds are fetched in one round as well, with an interval growing exponentially from
+ * {@code initialInterval}. The interval is capped at {@code maxInterval} without notifications and at
+ * {@code maxIntervalWithNotifications} with them.
+ */
+public class GroupBrewPushWaiter {
+    private static final Logger log = LoggerFactory.getLogger(GroupBrewPushWaiter.class);
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+
+    private final BuildClient buildClient;
+    private final Function<Consumer<String>, AutoCloseable> notificationSubscriber;
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final Duration maxIntervalWithNotifications;
+
+    /**
+     * @param buildClient client used to fetch the push results
+     * @param notificationSubscriber subscribes the given consumer to the ids of the builds with a finished push,
+     *        returns the subscription to close or null if notifications are not available
+     * @param initialInterval first polling interval
+     * @param maxInterval max polling interval when notifications are not available
+     * @param maxIntervalWithNotifications max polling interval when notifications are available
+     */
+    GroupBrewPushWaiter(
+            BuildClient buildClient,
+            Function<Consumer<String>, AutoCloseable> notificationSubscriber,
+            Duration initialInterval,
+            Duration maxInterval,
+            Duration maxIntervalWithNotifications) {
+        this.buildClient = buildClient;
+        this.notificationSubscriber = notificationSubscriber;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.maxIntervalWithNotifications = maxIntervalWithNotifications;
+    }
+
+    /**
+     * Create a waiter subscribing to the notifications of the PNC instance given by the configuration
+     *
+     * @param buildClient client used to fetch the push results
+     * @param configuration configuration of the PNC client
+     * @return the waiter
+     */
+    public static GroupBrewPushWaiter create(BuildClient buildClient, Configuration configuration) {
+        return new GroupBrewPushWaiter(
+                buildClient,
+                onPushFinished -> subscribe(configuration, onPushFinished),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(5));
+    }
+
+    /**
+     * Wait until the pushes of all the builds reach a final status or the timeout passes. Failures to get a push
+     * result are logged and the push is assumed not to be finished.
+     *
+     * @param buildIds ids of the pushed builds
+     * @param timeout max time to wait, null to wait until all the pushes finish
+     * @return the push results by build id, in the order of the given ids, null for the pushes not finished in time
+     */
+    public Map<String, BuildPushResult> waitForFinalStatus(Collection<String> buildIds, Duration timeout) {
+        Instant deadline = timeout == null ? null : Instant.now().plus(timeout);
+        Map<String, BuildPushResult> results = new LinkedHashMap<>();
+        buildIds.forEach(id -> results.put(id, null));
+        Set<String> pending = new LinkedHashSet<>(buildIds);
+
+        BlockingQueue<String> notified = new LinkedBlockingQueue<>();
+        AutoCloseable subscription = subscribeSafely(notified::add);
+        Duration cap = subscription == null ? maxInterval : maxIntervalWithNotifications;
+        Duration interval = initialInterval;
+        Collection<String> toCheck = new ArrayList<>(pending);
+        try {
+            while (true) {
+                if (checkPushes(toCheck, pending, results)) {
+                    logProgress(results);
+                }
+                if (pending.isEmpty()) {
+                    return results;
+                }
+                Duration wait = interval;
+                if (deadline != null) {
+                    Duration remaining = Duration.between(Instant.now(), deadline);
+                    if (remaining.isNegative() || remaining.isZero()) {
+                        log.warn("Timed out waiting for the brew pushes of builds {}", pending);
+                        return results;
+                    }
+                    wait = min(wait, remaining);
+                }
+                Set<String> notifiedIds = awaitNotifications(notified, wait);
+                if (notifiedIds.isEmpty()) {
+                    toCheck = new ArrayList<>(pending);
+                    interval = min(interval.multipliedBy(2), cap);
+                } else {
+                    log.debug("Notified that the brew pushes of builds {} finished", notifiedIds);
+                    notifiedIds.retainAll(pending);
+                    toCheck = notifiedIds;
+                    interval = initialInterval;
+                }
+            }
+        } finally {
+            closeQuietly(subscription);
+        }
+    }
+
+    /**
+     * @param pushResult push result, may be null
+     * @return true if the push will not change its status anymore
+     */
+    public static boolean isFinal(BuildPushResult pushResult) {
+        return pushResult != null && pushResult.getStatus() != BuildPushStatus.ACCEPTED;
+    }
+
+    /**
+     * @return true if a push finished
+     */
+    private boolean checkPushes(
+            Collection<String> toCheck,
+            Set<String> pending,
+            Map<String, BuildPushResult> results) {
+        boolean finished = false;
+        for (String buildId : toCheck) {
+            BuildPushResult pushResult = getPushResult(buildId);
+            if (isFinal(pushResult)) {
+                results.put(buildId, pushResult);
+                pending.remove(buildId);
+                finished = true;
+            }
+        }
+        return finished;
+    }
+
+    private BuildPushResult getPushResult(String buildId) {
+        try (Telemetry.Call call = Telemetry.start("pnc", "getPushResult")) {
+            try {
+                return buildClient.getPushResult(buildId);
+            } catch (RemoteResourceNotFoundException e) {
+                // the push is not recorded yet
+                return null;
+            } catch (ClientException e) {
+                call.failed(e);
+                log.warn("Failed to get the brew push result of build {}. Assuming it is not finished", buildId, e);
+                return null;
+            }
+        }
+    }
+
+    private static void logProgress(Map<String, BuildPushResult> results) {
+        long finished = results.values().stream().filter(GroupBrewPushWaiter::isFinal).count();
+        long succeeded = results.values()
+                .stream()
+                .filter(result -> result != null && result.getStatus() == BuildPushStatus.SUCCESS)
+                .count();
+        log.info(
+                "{}/{} brew pushes finished ({} succeeded, {} failed)",
+                finished,
+                results.size(),
+                succeeded,
+                finished - succeeded);
+    }
+
+    private AutoCloseable subscribeSafely(Consumer<String> onPushFinished) {
+        try {
+            return notificationSubscriber.apply(onPushFinished);
+        } catch (RuntimeException e) {
+            log.warn("Failed to subscribe to PNC notifications, falling back to polling", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return ids of the builds notified within the interval, empty if there were none
+     */
+    private static Set<String> awaitNotifications(BlockingQueue<String> notified, Duration interval) {
+        Set<String> buildIds = new LinkedHashSet<>();
+        try {
+            String first = notified.poll(interval.toMillis(), TimeUnit.MILLISECONDS);
+            if (first != null) {
+                buildIds.add(first);
+                notified.drainTo(buildIds);
+            }
+            return buildIds;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the brew pushes to finish", e);
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static AutoCloseable subscribe(Configuration configuration, Consumer<String> onPushFinished) {
+        WebSocketClient webSocketClient = new VertxWebSocketClient();
+        try {
+            webSocketClient.connect(UrlGenerator.generateNotificationsUrl(configuration))
+                    .get(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            webSocketClient.onBuildPushResult(
+                    n -> onPushFinished.accept(n.getBuildPushResult().getBuildId()),
+                    n -> isFinal(n.getBuildPushResult()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeQuietly(webSocketClient::close);
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Failed to connect to PNC notifications, falling back to polling: {}", e.toString());
+            closeQuietly(webSocketClient::close);
+            return null;
+        } catch (Exception e) {
+            log.warn("Failed to subscribe to PNC notifications, falling back to polling: {}", e.toString());
+            closeQuietly(webSocketClient::close);
+            return null;
+        }
+        return webSocketClient::close;
+    }
+
+    private static void closeQuietly(AutoCloseable subscription) {
+        if (subscription == null) {
+            return;
+        }
+        try {
+            subscription.close();
+        } catch (Exception e) {
+            log.debug("Failed to close the PNC notifications subscription", e);
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package org.jboss.pnc.bacon.pnc.common;
 
 import org.jboss.pnc.bacon.config.Config;
+import org.jboss.pnc.client.Configuration;
 
 public class UrlGenerator {
 
@@ -41,4 +42,14 @@ public class UrlGenerator {
     public static String generateGroupConfigUrl(String groupConfigId) {
         return getPNCBaseUrlMinusTrailingSlash() + "/pnc-web/#/group-configs/" + groupConfigId;
     }
+
+    /**
+     * @param configuration configuration of the PNC client
+     * @return url of the websocket PNC sends its notifications over
+     */
+    public static String generateNotificationsUrl(Configuration configuration) {
+        String protocol = "https".equalsIgnoreCase(configuration.getProtocol()) ? "wss" : "ws";
+        String port = configuration.getPort() == null ? "" : ":" + configuration.getPort();
+        return protocol + "://" + configuration.getHost() + port + "/pnc-rest/notifications";
+    }
 }
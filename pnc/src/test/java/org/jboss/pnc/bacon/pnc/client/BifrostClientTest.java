@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.bacon.pnc.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BifrostClientTest {
+
+    private static final String LOG = "[INFO] Building\r\n[INFO] Zürich ✓\n\n[INFO] BUILD SUCCESS";
+
+    @Test
+    void shouldSplitLinesAndTrackOffset() throws IOException {
+        List<String> lines = new ArrayList<>();
+        BifrostClient.LineReader reader = new BifrostClient.LineReader(0, LogSink.of(lines::add));
+
+        reader.read(stream(LOG));
+
+        assertThat(lines).containsExactly("[INFO] Building", "[INFO] Zürich ✓", "", "[INFO] BUILD SUCCESS");
+        assertThat(reader.getOffset()).isEqualTo(LOG.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void shouldResumeAfterLastCompleteLine() throws IOException {
+        List<String> lines = new ArrayList<>();
+        BifrostClient.LineReader reader = new BifrostClient.LineReader(0, LogSink.of(lines::add));
+
+        // the connection drops in the middle of the second line
+        byte[] bytes = LOG.getBytes(StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> reader.read(truncated(bytes, 20))).isInstanceOf(IOException.class);
+        long offset = reader.getOffset();
+        assertThat(offset).isEqualTo("[INFO] Building\r\n".length());
+
+        List<String> resumed = new ArrayList<>();
+        new BifrostClient.LineReader(offset, LogSink.of(resumed::add)).read(stream(LOG));
+        assertThat(resumed).containsExactly("[INFO] Zürich ✓", "", "[INFO] BUILD SUCCESS");
+    }
+
+    @Test
+    void shouldPassOnlyMatchingLinesThroughGrep() throws IOException {
+        List<String> lines = new ArrayList<>();
+        LogSink sink = LogSink.grep("BUILD (SUCCESS|FAILURE)", LogSink.of(lines::add));
+
+        new BifrostClient.LineReader(0, sink).read(stream(LOG));
+
+        assertThat(lines).containsExactly("[INFO] BUILD SUCCESS");
+    }
+
+    @Test
+    void shouldNotReconnectWhenRequestIsRejected() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/text", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        URI baseUrl = URI.create("http://localhost:" + server.getAddress().getPort());
+        try (BifrostClient client = new BifrostClient(baseUrl)) {
+            assertThatThrownBy(
+                    () -> client.streamLog("1", BifrostClient.LogType.BUILD, true, 0, LogSink.of(line -> {
+                    }))).isInstanceOf(IOException.class).hasMessageContaining("404");
+        } finally {
+            server.stop(0);
+        }
+
+        assertThat(requests).hasValue(1);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return stream failing after the given number of bytes, like a dropped connection
+     */
+    private static InputStream truncated(byte[] bytes, int length) {
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position >= length) {
+                    throw new IOException("connection reset");
+                }
+                return bytes[position++] & 0xFF;
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package org.jboss.pnc.bacon.pnc.common;
+
+import org.jboss.pnc.client.BuildClient;
+import org.jboss.pnc.client.RemoteResourceException;
+import org.jboss.pnc.client.RemoteResourceNotFoundException;
+import org.jboss.pnc.dto.BuildPushResult;
+import org.jboss.pnc.enums.BuildPushStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupBrewPushWaiterTest {
+
+    private BuildClient buildClient;
+
+    @BeforeEach
+    void setup() {
+        buildClient = mock(BuildClient.class);
+    }
+
+    @Test
+    void shouldPollUntilAllPushesAreFinal() throws Exception {
+        when(buildClient.getPushResult("1")).thenThrow(RemoteResourceNotFoundException.class)
+                .thenReturn(pushResult(BuildPushStatus.ACCEPTED))
+                .thenReturn(pushResult(BuildPushStatus.SUCCESS));
+        when(buildClient.getPushResult("2")).thenThrow(RemoteResourceException.class)
+                .thenReturn(pushResult(BuildPushStatus.FAILED));
+        GroupBrewPushWaiter waiter = new GroupBrewPushWaiter(
+                buildClient,
+                onPushFinished -> null,
+                Duration.ofMillis(1),
+                Duration.ofMillis(4),
+                Duration.ofMillis(4));
+
+        Map<String, BuildPushResult> results = waiter.waitForFinalStatus(List.of("1", "2"), null);
+
+        assertThat(results).containsOnlyKeys("1", "2");
+        assertThat(results.get("1").getStatus()).isEqualTo(BuildPushStatus.SUCCESS);
+        assertThat(results.get("2").getStatus()).isEqualTo(BuildPushStatus.FAILED);
+        verify(buildClient, times(3)).getPushResult("1");
+        verify(buildClient, times(2)).getPushResult("2");
+    }
+
+    @Test
+    void shouldCheckOnlyNotifiedPushes() throws Exception {
+        AtomicReference<Consumer<String>> listener = new AtomicReference<>();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(buildClient.getPushResult("1")).thenAnswer(invocation -> {
+            listener.get().accept("1");
+            return pushResult(BuildPushStatus.ACCEPTED);
+        }).thenReturn(pushResult(BuildPushStatus.SUCCESS));
+        when(buildClient.getPushResult("2")).thenAnswer(invocation -> {
+            listener.get().accept("2");
+            return pushResult(BuildPushStatus.ACCEPTED);
+        }).thenReturn(pushResult(BuildPushStatus.SUCCESS));
+        GroupBrewPushWaiter waiter = new GroupBrewPushWaiter(buildClient, onPushFinished -> {
+            listener.set(onPushFinished);
+            return () -> closed.set(true);
+        }, Duration.ofMinutes(10), Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        Map<String, BuildPushResult> results = waiter.waitForFinalStatus(List.of("1", "2"), null);
+
+        assertThat(results.values()).allMatch(GroupBrewPushWaiter::isFinal);
+        verify(buildClient, times(2)).getPushResult("1");
+        verify(buildClient, times(2)).getPushResult("2");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void shouldStopAtTheDeadline() throws Exception {
+        when(buildClient.getPushResult("1")).thenReturn(pushResult(BuildPushStatus.SUCCESS));
+        when(buildClient.getPushResult("2")).thenReturn(pushResult(BuildPushStatus.ACCEPTED));
+        GroupBrewPushWaiter waiter = new GroupBrewPushWaiter(
+                buildClient,
+                onPushFinished -> null,
+                Duration.ofMillis(1),
+                Duration.ofMillis(4),
+                Duration.ofMillis(4));
+
+        Map<String, BuildPushResult> results = waiter.waitForFinalStatus(List.of("1", "2"), Duration.ofMillis(50));
+
+        assertThat(results).containsOnlyKeys("1", "2");
+        assertThat(results.get("1").getStatus()).isEqualTo(BuildPushStatus.SUCCESS);
+        assertThat(results.get("2")).isNull();
+    }
+
+    private static BuildPushResult pushResult(BuildPushStatus status) {
+        BuildPushResult pushResult = mock(BuildPushResult.class);
+        when(pushResult.getStatus()).thenReturn(status);
+        return pushResult;
+    }
+}